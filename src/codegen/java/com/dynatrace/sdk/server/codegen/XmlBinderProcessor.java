@@ -0,0 +1,1355 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code com.dynatrace.sdk.server.XmlBinder} for every class annotated with {@code @XmlRootElement} in a {@code models}
+ * package and for the classes nested in them, reading and writing the model the way its JAXB annotations describe it.
+ * Binders are placed next to their models and go through the models' accessors, their fields stay private: bound fields are read by
+ * getters named after them, and written by setters named after them or by the constructor parameters of the same name and type.
+ * Binders of root elements are listed in {@code META-INF/services} for {@code com.dynatrace.sdk.server.XmlBinderCodec}.
+ * <p>
+ * Only the mappings the models of the SDK use are supported: field access, attributes, elements, lists of elements, element references,
+ * values, any attributes, enums, dates and adapters converting from strings. Classes using anything else, or lacking the accessors for
+ * both reading and writing, are skipped with a note and left to JAXB, along with the classes nesting them. Binders of classes lacking
+ * the accessors for one direction only support the other one.
+ */
+@SupportedAnnotationTypes(XmlBinderProcessor.XML_ROOT_ELEMENT)
+public class XmlBinderProcessor extends AbstractProcessor {
+    static final String XML_ROOT_ELEMENT = "javax.xml.bind.annotation.XmlRootElement";
+
+    private static final String XML_PACKAGE = "javax.xml.bind.annotation.";
+    private static final String XML_ACCESSOR_TYPE = XML_PACKAGE + "XmlAccessorType";
+    private static final String XML_ANY_ATTRIBUTE = XML_PACKAGE + "XmlAnyAttribute";
+    private static final String XML_ATTRIBUTE = XML_PACKAGE + "XmlAttribute";
+    private static final String XML_ELEMENT = XML_PACKAGE + "XmlElement";
+    private static final String XML_ELEMENT_REF = XML_PACKAGE + "XmlElementRef";
+    private static final String XML_ENUM = XML_PACKAGE + "XmlEnum";
+    private static final String XML_ENUM_VALUE = XML_PACKAGE + "XmlEnumValue";
+    private static final String XML_TRANSIENT = XML_PACKAGE + "XmlTransient";
+    private static final String XML_TYPE = XML_PACKAGE + "XmlType";
+    private static final String XML_VALUE = XML_PACKAGE + "XmlValue";
+    private static final String XML_JAVA_TYPE_ADAPTER = XML_PACKAGE + "adapters.XmlJavaTypeAdapter";
+    private static final String XML_ADAPTER = XML_PACKAGE + "adapters.XmlAdapter";
+    private static final String DEFAULT_NAME = "##default";
+
+    private static final Set<String> FIELD_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            XML_ANY_ATTRIBUTE, XML_ATTRIBUTE, XML_ELEMENT, XML_ELEMENT_REF, XML_VALUE, XML_JAVA_TYPE_ADAPTER));
+
+    /**
+     * Names of the variables and parameters of generated methods, which variables holding properties must not shadow
+     */
+    private static final Set<String> LOCALS = new HashSet<>(Arrays.asList(
+            "reader", "writer", "localName", "model", "defaults", "attribute", "attributeName", "index", "parsed", "printed", "item", "entry"));
+
+    private static final String BINDER = "com.dynatrace.sdk.server.XmlBinder";
+    private static final String SERVICES = "META-INF/services/" + BINDER;
+
+    private enum Kind {
+        ATTRIBUTE, ELEMENT, VALUE, ANY_ATTRIBUTE
+    }
+
+    private enum ValueType {
+        STRING(null, null, null, "%s"),
+        BOOLEAN("Boolean", "false", "parseBoolean", "String.valueOf(%s)"),
+        BYTE("Byte", "(byte) 0", "parseByte", "String.valueOf(%s)"),
+        SHORT("Short", "(short) 0", "parseShort", "String.valueOf(%s)"),
+        INT("Integer", "0", "parseInteger", "String.valueOf(%s)"),
+        LONG("Long", "0L", "parseLong", "String.valueOf(%s)"),
+        FLOAT("Float", "0F", "parseFloat", "printFloat(%s)"),
+        DOUBLE("Double", "0D", "parseDouble", "printDouble(%s)"),
+        DATE(null, null, "parseDate", "printDate(%s)"),
+        ENUM(null, null, null, null),
+        COMPLEX(null, null, null, null);
+
+        /**
+         * Wrapper and default value of the primitive type, if any
+         */
+        private final String boxed;
+        private final String zero;
+        private final String parser;
+        private final String printer;
+
+        ValueType(String boxed, String zero, String parser, String printer) {
+            this.boxed = boxed;
+            this.zero = zero;
+            this.parser = parser;
+            this.printer = printer;
+        }
+    }
+
+    private static final class Property {
+        private final String field;
+        private final TypeMirror type;
+        private final Kind kind;
+        private final String xmlName;
+        private final String namespace;
+        private final boolean list;
+        private final boolean finalField;
+        private final boolean primitive;
+        private final ValueType valueType;
+        private final TypeElement typeElement;
+        private final TypeElement adapter;
+        private final TypeMirror adaptedType;
+        /**
+         * Accessors of the property, {@code null} if the model has none
+         */
+        private String getter;
+        private String setter;
+
+        private Property(String field, TypeMirror type, Kind kind, String xmlName, String namespace, boolean list, boolean finalField, boolean primitive,
+                         ValueType valueType, TypeElement typeElement, TypeElement adapter, TypeMirror adaptedType) {
+            this.field = field;
+            this.type = type;
+            this.kind = kind;
+            this.xmlName = xmlName;
+            this.namespace = namespace;
+            this.list = list;
+            this.finalField = finalField;
+            this.primitive = primitive;
+            this.valueType = valueType;
+            this.typeElement = typeElement;
+            this.adapter = adapter;
+            this.adaptedType = adaptedType;
+        }
+
+        /**
+         * @return whether read values are added to the collection the getter returns, which a final field always holds
+         */
+        private boolean isFilledThroughGetter() {
+            return this.setter == null && this.getter != null && this.finalField && (this.list || this.kind == Kind.ANY_ATTRIBUTE);
+        }
+    }
+
+    private static final class Binding {
+        private final TypeElement type;
+        private final String elementName;
+        private final List<Property> properties;
+        private final boolean instantiable;
+        /**
+         * Properties passed to the constructor reading goes through, in the order of its parameters
+         */
+        private List<Property> arguments;
+        /**
+         * Why the model cannot be read or written through its accessors, {@code null} if it can
+         */
+        private String readProblem;
+        private String writeProblem;
+
+        private Binding(TypeElement type, String elementName, List<Property> properties, boolean instantiable) {
+            this.type = type;
+            this.elementName = elementName;
+            this.properties = properties;
+            this.instantiable = instantiable;
+        }
+
+        private String getPackageName() {
+            String name = this.type.getQualifiedName().toString();
+            return name.substring(0, name.length() - this.type.getSimpleName().length() - 1);
+        }
+
+        private String getBinderName() {
+            return this.type.getSimpleName() + "Binder";
+        }
+    }
+
+    private static final class UnsupportedMappingException extends Exception {
+        private UnsupportedMappingException(String message) {
+            super(message);
+        }
+    }
+
+    private final Map<String, Binding> bound = new HashMap<>();
+    private final Set<String> skipped = new HashSet<>();
+    private final Set<String> rootBinders = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.writeServices();
+            return false;
+        }
+        Deque<TypeElement> queue = new ArrayDeque<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS && isModelPackage(this.packageOf(element))) {
+                    queue.add((TypeElement) element);
+                }
+            }
+        }
+
+        Map<String, Binding> bindings = new LinkedHashMap<>();
+        while (!queue.isEmpty()) {
+            TypeElement type = queue.poll();
+            String name = type.getQualifiedName().toString();
+            if (bindings.containsKey(name) || this.bound.containsKey(name) || this.skipped.contains(name)) {
+                continue;
+            }
+            try {
+                Binding binding = this.bind(type);
+                bindings.put(name, binding);
+                for (Property property : binding.properties) {
+                    if (property.valueType == ValueType.COMPLEX) {
+                        queue.add(property.typeElement);
+                    }
+                }
+            } catch (UnsupportedMappingException e) {
+                this.skip(type, e.getMessage());
+            }
+        }
+
+        // classes nesting a skipped class are left to JAXB as well, and so is reading or writing classes nesting one not read or written
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Iterator<Binding> it = bindings.values().iterator(); it.hasNext(); ) {
+                Binding binding = it.next();
+                for (Property property : binding.properties) {
+                    if (property.valueType != ValueType.COMPLEX) {
+                        continue;
+                    }
+                    String nestedName = property.typeElement.getQualifiedName().toString();
+                    Binding nested = bindings.containsKey(nestedName) ? bindings.get(nestedName) : this.bound.get(nestedName);
+                    if (nested == null || this.skipped.contains(nestedName)) {
+                        binding.readProblem = String.format("nests %s", nestedName);
+                        binding.writeProblem = binding.readProblem;
+                    }
+                    if (nested != null && nested.readProblem != null && binding.readProblem == null) {
+                        binding.readProblem = String.format("nests %s", nestedName);
+                        changed = true;
+                    }
+                    if (nested != null && nested.writeProblem != null && binding.writeProblem == null) {
+                        binding.writeProblem = String.format("nests %s", nestedName);
+                        changed = true;
+                    }
+                }
+                if (binding.readProblem != null && binding.writeProblem != null) {
+                    it.remove();
+                    this.skip(binding.type, binding.readProblem.equals(binding.writeProblem)
+                            ? binding.readProblem : binding.readProblem + " and " + binding.writeProblem);
+                    changed = true;
+                }
+            }
+        }
+
+        for (Binding binding : bindings.values()) {
+            this.bound.put(binding.type.getQualifiedName().toString(), binding);
+            if (binding.readProblem != null) {
+                this.note(binding.type, String.format("XmlBinder generated for %s only writes it, it %s and reading is left to JAXB",
+                        binding.type.getQualifiedName(), binding.readProblem));
+            } else if (binding.writeProblem != null) {
+                this.note(binding.type, String.format("XmlBinder generated for %s only reads it, it %s and writing is left to JAXB",
+                        binding.type.getQualifiedName(), binding.writeProblem));
+            }
+            this.generate(binding);
+            if (binding.elementName != null) {
+                this.rootBinders.add(binding.getPackageName() + "." + binding.getBinderName());
+            }
+        }
+        return false;
+    }
+
+    private void skip(TypeElement type, String reason) {
+        this.skipped.add(type.getQualifiedName().toString());
+        this.note(type, String.format("No XmlBinder generated for %s, it %s and is left to JAXB", type.getQualifiedName(), reason));
+    }
+
+    private void note(TypeElement type, String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, type);
+    }
+
+    private Binding bind(TypeElement type) throws UnsupportedMappingException {
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            throw new UnsupportedMappingException("is not a top level class");
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedMappingException("is abstract or generic");
+        }
+        boolean instantiable = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                instantiable = true;
+            }
+        }
+
+        Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        for (TypeElement current = type; current != null; current = this.superclassOf(current)) {
+            if (!this.packageOf(current).equals(this.packageOf(type))) {
+                throw new UnsupportedMappingException(String.format("extends %s of another package", current.getQualifiedName()));
+            }
+            hierarchy.addFirst(current);
+        }
+
+        List<Property> properties = new ArrayList<>();
+        for (TypeElement declaring : hierarchy) {
+            AnnotationMirror xmlType = this.mirror(declaring, XML_TYPE);
+            if (xmlType != null) {
+                AnnotationValue propOrder = this.values(xmlType).get("propOrder");
+                if (propOrder != null && !((List<?>) propOrder.getValue()).isEmpty()
+                        && !(((List<?>) propOrder.getValue()).size() == 1 && "".equals(((AnnotationValue) ((List<?>) propOrder.getValue()).get(0)).getValue()))) {
+                    throw new UnsupportedMappingException("orders its properties");
+                }
+            }
+            String accessType = this.accessTypeOf(declaring);
+            if (accessType.equals("PROPERTY") || (accessType.equals("PUBLIC_MEMBER") && this.hasPublicProperty(declaring))) {
+                throw new UnsupportedMappingException(String.format("binds JavaBean properties of %s", declaring.getSimpleName()));
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT) || this.mirror(field, XML_TRANSIENT) != null) {
+                    continue;
+                }
+                boolean annotated = false;
+                for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+                    String name = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+                    if (FIELD_ANNOTATIONS.contains(name)) {
+                        annotated = true;
+                    } else if (name.startsWith(XML_PACKAGE)) {
+                        throw new UnsupportedMappingException(String.format("annotates %s with %s", field.getSimpleName(), name));
+                    }
+                }
+                boolean bound = accessType.equals("FIELD") || annotated || (accessType.equals("PUBLIC_MEMBER") && modifiers.contains(Modifier.PUBLIC));
+                if (!bound) {
+                    continue;
+                }
+                Property property = this.property(field);
+                property.getter = this.getter(type, property);
+                property.setter = this.setter(type, property);
+                properties.add(property);
+            }
+        }
+
+        Set<String> attributes = new HashSet<>();
+        Set<String> elements = new HashSet<>();
+        int values = 0;
+        int anyAttributes = 0;
+        for (Property property : properties) {
+            if (property.kind == Kind.ATTRIBUTE && !attributes.add(property.namespace + ":" + property.xmlName)
+                    || property.kind == Kind.ELEMENT && !elements.add(property.xmlName)) {
+                throw new UnsupportedMappingException(String.format("maps %s twice", property.xmlName));
+            }
+            values += property.kind == Kind.VALUE ? 1 : 0;
+            anyAttributes += property.kind == Kind.ANY_ATTRIBUTE ? 1 : 0;
+        }
+        if (values > 1 || anyAttributes > 1 || values == 1 && !elements.isEmpty()) {
+            throw new UnsupportedMappingException("mixes values and elements");
+        }
+
+        AnnotationMirror root = this.mirror(type, XML_ROOT_ELEMENT);
+        String elementName = null;
+        if (root != null) {
+            elementName = this.name(root, Introspector.decapitalize(type.getSimpleName().toString()));
+        }
+        Binding binding = new Binding(type, elementName, properties, instantiable);
+        binding.readProblem = this.chooseConstructor(binding);
+        for (Property property : properties) {
+            if (property.getter == null) {
+                binding.writeProblem = String.format("has no getter for %s", property.field);
+                break;
+            }
+        }
+        if (binding.readProblem != null && binding.writeProblem != null) {
+            throw new UnsupportedMappingException(binding.readProblem + " and " + binding.writeProblem);
+        }
+        return binding;
+    }
+
+    /**
+     * Chooses the constructor reading goes through, the one without parameters unless some properties have no setter. Parameters of
+     * other constructors are matched to the properties of the same name and type, the remaining properties need setters.
+     *
+     * @return why the model cannot be read, {@code null} if it can
+     */
+    private String chooseConstructor(Binding binding) {
+        List<ExecutableElement> constructors = new ArrayList<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(binding.type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                constructors.add(constructor.getParameters().isEmpty() ? 0 : constructors.size(), constructor);
+            }
+        }
+        String problem = null;
+        for (ExecutableElement constructor : constructors) {
+            List<Property> arguments = new ArrayList<>();
+            for (VariableElement parameter : constructor.getParameters()) {
+                Property argument = null;
+                for (Property property : binding.properties) {
+                    if (property.field.contentEquals(parameter.getSimpleName()) && !arguments.contains(property)
+                            && this.processingEnv.getTypeUtils().isSameType(property.type, parameter.asType())) {
+                        argument = property;
+                    }
+                }
+                if (argument == null) {
+                    arguments = null;
+                    break;
+                }
+                arguments.add(argument);
+            }
+            if (arguments == null) {
+                continue;
+            }
+            Property unset = null;
+            for (Property property : binding.properties) {
+                if (!arguments.contains(property) && property.setter == null && !property.isFilledThroughGetter()) {
+                    unset = property;
+                    break;
+                }
+            }
+            if (unset == null) {
+                binding.arguments = arguments;
+                return null;
+            }
+            if (problem == null) {
+                problem = String.format("has neither a setter nor a constructor parameter for %s", unset.field);
+            }
+        }
+        return problem != null ? problem : "has no accessible constructor";
+    }
+
+    private String getter(TypeElement type, Property property) {
+        String name = property.field;
+        List<String> names = new ArrayList<>(Arrays.asList("get" + capitalize(name), "is" + capitalize(name)));
+        if (name.startsWith("is") && name.length() > 2) {
+            names.add(name);
+            names.add("get" + capitalize(name.substring(2)));
+        }
+        String getter = this.accessor(type, names, property.type, false);
+        if (getter == null && property.kind == Kind.ANY_ATTRIBUTE) {
+            // the map of any attributes is commonly exposed under a name of its own
+            for (ExecutableElement method : this.methodsOf(type)) {
+                if (method.getParameters().isEmpty() && this.processingEnv.getTypeUtils().isSameType(method.getReturnType(), property.type)) {
+                    if (getter != null) {
+                        return null;
+                    }
+                    getter = method.getSimpleName().toString();
+                }
+            }
+        }
+        return getter;
+    }
+
+    private String setter(TypeElement type, Property property) {
+        String name = property.field;
+        List<String> names = new ArrayList<>(Collections.singletonList("set" + capitalize(name)));
+        if (name.startsWith("is") && name.length() > 2) {
+            names.add("set" + capitalize(name.substring(2)));
+        }
+        return this.accessor(type, names, property.type, true);
+    }
+
+    /**
+     * @return name of the first method found by given names, which gets or sets a value of given type
+     */
+    private String accessor(TypeElement type, List<String> names, TypeMirror valueType, boolean setter) {
+        List<ExecutableElement> methods = this.methodsOf(type);
+        for (String name : names) {
+            for (ExecutableElement method : methods) {
+                if (!method.getSimpleName().contentEquals(name)) {
+                    continue;
+                }
+                if (setter ? method.getParameters().size() == 1 && method.getReturnType().getKind() == TypeKind.VOID
+                        && this.processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), valueType)
+                        : method.getParameters().isEmpty() && this.processingEnv.getTypeUtils().isSameType(method.getReturnType(), valueType)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return methods binders may call on the model, including inherited ones
+     */
+    private List<ExecutableElement> methodsOf(TypeElement type) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(this.processingEnv.getElementUtils().getAllMembers(type))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.STATIC)
+                    && !((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object")) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private Property property(VariableElement field) throws UnsupportedMappingException {
+        String fieldName = field.getSimpleName().toString();
+        AnnotationMirror attribute = this.mirror(field, XML_ATTRIBUTE);
+        AnnotationMirror element = this.mirror(field, XML_ELEMENT);
+        AnnotationMirror elementRef = this.mirror(field, XML_ELEMENT_REF);
+        AnnotationMirror typeAdapter = this.mirror(field, XML_JAVA_TYPE_ADAPTER);
+        boolean finalField = field.getModifiers().contains(Modifier.FINAL);
+        TypeMirror type = field.asType();
+
+        if (this.mirror(field, XML_ANY_ATTRIBUTE) != null) {
+            if (!this.isAnyAttributeMap(type)) {
+                throw new UnsupportedMappingException(String.format("collects any attributes into %s which is not a Map of QNames to values", fieldName));
+            }
+            return new Property(fieldName, type, Kind.ANY_ATTRIBUTE, null, "", false, finalField, false, ValueType.STRING, null, null, null);
+        }
+
+        Kind kind;
+        String xmlName;
+        String namespace = "";
+        if (attribute != null) {
+            kind = Kind.ATTRIBUTE;
+            xmlName = this.name(attribute, fieldName);
+            namespace = this.namespace(attribute);
+        } else if (this.mirror(field, XML_VALUE) != null) {
+            kind = Kind.VALUE;
+            xmlName = null;
+        } else {
+            kind = Kind.ELEMENT;
+            xmlName = element != null ? this.name(element, fieldName) : fieldName;
+            if (element != null && !this.namespace(element).isEmpty()) {
+                throw new UnsupportedMappingException(String.format("qualifies element %s", xmlName));
+            }
+        }
+
+        boolean list = false;
+        TypeMirror itemType = type;
+        if (type.getKind() == TypeKind.DECLARED) {
+            String erasure = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            if (erasure.equals("java.util.List") || erasure.equals("java.util.ArrayList")) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+                if (kind != Kind.ELEMENT || arguments.size() != 1) {
+                    throw new UnsupportedMappingException(String.format("maps list %s to an attribute or a value", fieldName));
+                }
+                list = true;
+                itemType = arguments.get(0);
+            }
+        }
+
+        if (typeAdapter != null) {
+            TypeElement adapter = (TypeElement) ((DeclaredType) this.values(typeAdapter).get("value").getValue()).asElement();
+            TypeMirror adapterType = adapter.getSuperclass();
+            if (adapterType.getKind() != TypeKind.DECLARED
+                    || !((TypeElement) ((DeclaredType) adapterType).asElement()).getQualifiedName().contentEquals(XML_ADAPTER)
+                    || !this.isType(((DeclaredType) adapterType).getTypeArguments().get(0), "java.lang.String")) {
+                throw new UnsupportedMappingException(String.format("adapts %s with an adapter not converting from String", fieldName));
+            }
+            if (elementRef != null) {
+                throw new UnsupportedMappingException(String.format("adapts element reference %s", fieldName));
+            }
+            return new Property(fieldName, type, kind, xmlName, namespace, list, finalField, false, ValueType.STRING, null, adapter,
+                    ((DeclaredType) adapterType).getTypeArguments().get(1));
+        }
+
+        ValueType valueType;
+        TypeElement typeElement = null;
+        boolean primitive = itemType.getKind().isPrimitive();
+        switch (itemType.getKind()) {
+            case BOOLEAN:
+                valueType = ValueType.BOOLEAN;
+                break;
+            case BYTE:
+                valueType = ValueType.BYTE;
+                break;
+            case SHORT:
+                valueType = ValueType.SHORT;
+                break;
+            case INT:
+                valueType = ValueType.INT;
+                break;
+            case LONG:
+                valueType = ValueType.LONG;
+                break;
+            case FLOAT:
+                valueType = ValueType.FLOAT;
+                break;
+            case DOUBLE:
+                valueType = ValueType.DOUBLE;
+                break;
+            case DECLARED:
+                typeElement = (TypeElement) ((DeclaredType) itemType).asElement();
+                valueType = this.valueTypeOf(typeElement);
+                break;
+            default:
+                valueType = null;
+        }
+        if (valueType == null) {
+            throw new UnsupportedMappingException(String.format("binds %s of unsupported type %s", fieldName, itemType));
+        }
+        if (valueType == ValueType.COMPLEX) {
+            if (kind != Kind.ELEMENT) {
+                throw new UnsupportedMappingException(String.format("maps complex %s to an attribute or a value", fieldName));
+            }
+            if (!isModelPackage(this.packageOf(typeElement))) {
+                throw new UnsupportedMappingException(String.format("nests %s which is not a model", typeElement.getQualifiedName()));
+            }
+        }
+        if (valueType == ValueType.ENUM) {
+            AnnotationMirror xmlEnum = this.mirror(typeElement, XML_ENUM);
+            AnnotationValue enumType = xmlEnum == null ? null : this.values(xmlEnum).get("value");
+            if (enumType != null && !this.isType((TypeMirror) enumType.getValue(), "java.lang.String")) {
+                throw new UnsupportedMappingException(String.format("binds %s of a non-string enum", fieldName));
+            }
+        }
+        if (elementRef != null) {
+            AnnotationMirror referencedRoot = typeElement == null ? null : this.mirror(typeElement, XML_ROOT_ELEMENT);
+            if (valueType != ValueType.COMPLEX || referencedRoot == null) {
+                throw new UnsupportedMappingException(String.format("references %s which is not a root element", fieldName));
+            }
+            xmlName = this.name(elementRef, this.name(referencedRoot, Introspector.decapitalize(typeElement.getSimpleName().toString())));
+        }
+        return new Property(fieldName, type, kind, xmlName, namespace, list, finalField, primitive, valueType, typeElement, null, null);
+    }
+
+    private ValueType valueTypeOf(TypeElement type) {
+        switch (type.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return ValueType.STRING;
+            case "java.lang.Boolean":
+                return ValueType.BOOLEAN;
+            case "java.lang.Byte":
+                return ValueType.BYTE;
+            case "java.lang.Short":
+                return ValueType.SHORT;
+            case "java.lang.Integer":
+                return ValueType.INT;
+            case "java.lang.Long":
+                return ValueType.LONG;
+            case "java.lang.Float":
+                return ValueType.FLOAT;
+            case "java.lang.Double":
+                return ValueType.DOUBLE;
+            case "java.util.Date":
+                return ValueType.DATE;
+            default:
+                if (type.getKind() == ElementKind.ENUM) {
+                    return ValueType.ENUM;
+                }
+                if (type.getKind() == ElementKind.CLASS && !type.getQualifiedName().toString().startsWith("java.")) {
+                    return ValueType.COMPLEX;
+                }
+                return null;
+        }
+    }
+
+    private boolean isAnyAttributeMap(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        String erasure = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+        return (erasure.equals("java.util.Map") || erasure.equals("java.util.HashMap")) && declared.getTypeArguments().size() == 2
+                && this.isType(declared.getTypeArguments().get(0), "javax.xml.namespace.QName")
+                && (this.isType(declared.getTypeArguments().get(1), "java.lang.String") || this.isType(declared.getTypeArguments().get(1), "java.lang.Object"));
+    }
+
+    private boolean hasPublicProperty(TypeElement type) {
+        Set<String> getters = new HashSet<>();
+        Set<String> setters = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC) || this.mirror(method, XML_TRANSIENT) != null) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+                if (name.startsWith("get") && name.length() > 3) {
+                    getters.add(name.substring(3));
+                } else if (name.startsWith("is") && name.length() > 2) {
+                    getters.add(name.substring(2));
+                }
+            } else if (method.getParameters().size() == 1 && name.startsWith("set") && name.length() > 3) {
+                setters.add(name.substring(3));
+            }
+        }
+        getters.retainAll(setters);
+        return !getters.isEmpty();
+    }
+
+    private String accessTypeOf(TypeElement type) {
+        AnnotationMirror accessorType = this.mirror(type, XML_ACCESSOR_TYPE);
+        if (accessorType == null) {
+            accessorType = this.mirror(this.processingEnv.getElementUtils().getPackageOf(type), XML_ACCESSOR_TYPE);
+        }
+        if (accessorType == null) {
+            return "PUBLIC_MEMBER";
+        }
+        AnnotationValue value = this.values(accessorType).get("value");
+        return value == null ? "PUBLIC_MEMBER" : ((VariableElement) value.getValue()).getSimpleName().toString();
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private String packageOf(Element element) {
+        return this.processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private static String join(List<String> values) {
+        StringBuilder joined = new StringBuilder();
+        for (String value : values) {
+            if (joined.length() > 0) {
+                joined.append(", ");
+            }
+            joined.append(value);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * @return variable holding the value of a property in generated methods, named after its field unless the name is taken
+     */
+    private static String local(Property property) {
+        return LOCALS.contains(property.field) ? property.field + "Value" : property.field;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static boolean isModelPackage(String packageName) {
+        return packageName.equals("models") || packageName.endsWith(".models");
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private AnnotationMirror mirror(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, AnnotationValue> values(AnnotationMirror mirror) {
+        Map<String, AnnotationValue> values = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue());
+        }
+        return values;
+    }
+
+    private String name(AnnotationMirror mirror, String defaultName) {
+        AnnotationValue name = this.values(mirror).get("name");
+        return name == null || DEFAULT_NAME.equals(name.getValue()) ? defaultName : (String) name.getValue();
+    }
+
+    private String namespace(AnnotationMirror mirror) {
+        AnnotationValue namespace = this.values(mirror).get("namespace");
+        return namespace == null || DEFAULT_NAME.equals(namespace.getValue()) ? "" : (String) namespace.getValue();
+    }
+
+    private Map<String, String> enumValues(TypeElement type) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Element constant : type.getEnclosedElements()) {
+            if (constant.getKind() == ElementKind.ENUM_CONSTANT) {
+                AnnotationMirror xmlValue = this.mirror(constant, XML_ENUM_VALUE);
+                String name = constant.getSimpleName().toString();
+                values.put(name, xmlValue == null ? name : (String) this.values(xmlValue).get("value").getValue());
+            }
+        }
+        return values;
+    }
+
+    private void generate(Binding binding) {
+        String source = new BinderWriter(binding).write();
+        String name = binding.getPackageName() + "." + binding.getBinderName();
+        try {
+            JavaFileObject file = this.processingEnv.getFiler().createSourceFile(name, binding.type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Could not write %s: %s", name, e.getMessage()), binding.type);
+        }
+    }
+
+    private void writeServices() {
+        if (this.rootBinders.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String binder : this.rootBinders) {
+                    writer.write(binder);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Could not write %s: %s", SERVICES, e.getMessage()));
+        }
+    }
+
+    /**
+     * Writes the source of one binder
+     */
+    private final class BinderWriter {
+        private final Binding binding;
+        private final String packageName;
+        private final Map<String, String> imports = new TreeMap<>();
+        private final Map<String, String> enumMethods = new LinkedHashMap<>();
+        private final Map<String, String> adapterFields = new LinkedHashMap<>();
+        private final StringBuilder body = new StringBuilder();
+
+        private BinderWriter(Binding binding) {
+            this.binding = binding;
+            this.packageName = binding.getPackageName();
+        }
+
+        private String write() {
+            String model = this.use(this.binding.type.getQualifiedName().toString());
+            String binder = this.binding.getBinderName();
+            this.use("javax.annotation.Generated");
+            this.use(BINDER);
+            this.use("javax.xml.stream.XMLStreamException");
+            this.use("javax.xml.stream.XMLStreamReader");
+            this.use("javax.xml.stream.XMLStreamWriter");
+            this.writeRead(model);
+            this.body.append('\n');
+            this.writeWrite(model);
+            this.writeConversions();
+
+            StringBuilder type = new StringBuilder();
+            type.append("/**\n")
+                    .append(" * Binds {@link ").append(model).append("} to XML, generated from its JAXB annotations\n")
+                    .append(" */\n")
+                    .append("@Generated(\"").append(XmlBinderProcessor.class.getName()).append("\")\n")
+                    .append("public final class ").append(binder).append(" extends XmlBinder<").append(model).append("> {\n")
+                    .append("    public static final ").append(binder).append(" INSTANCE = new ").append(binder).append("();\n");
+            if (this.hasAnyAttribute()) {
+                List<String> attributes = new ArrayList<>();
+                for (Property property : this.binding.properties) {
+                    if (property.kind == Kind.ATTRIBUTE && property.namespace.isEmpty()) {
+                        attributes.add('"' + property.xmlName + '"');
+                    }
+                }
+                type.append("    private static final ").append(this.use("java.util.Set")).append("<String> ATTRIBUTES = ");
+                if (attributes.isEmpty()) {
+                    type.append(this.use("java.util.Collections")).append(".emptySet();\n");
+                } else {
+                    type.append("new ").append(this.use("java.util.HashSet")).append("<>(").append(this.use("java.util.Arrays")).append(".asList(")
+                            .append(join(attributes)).append("));\n");
+                }
+            }
+            for (Map.Entry<String, String> adapter : this.adapterFields.entrySet()) {
+                type.append(String.format("    private static final %1$s %2$s = new %1$s();%n", adapter.getValue(), adapter.getKey()));
+            }
+            type.append('\n')
+                    .append("    public ").append(binder).append("() {\n")
+                    .append("        super(").append(model).append(".class, ")
+                    .append(this.binding.elementName == null ? "null" : '"' + this.binding.elementName + '"').append(");\n")
+                    .append("    }\n\n")
+                    .append(this.body)
+                    .append("}\n");
+
+            StringBuilder source = new StringBuilder();
+            source.append("package ").append(this.packageName).append(";\n\n");
+            for (String qualifiedName : new TreeSet<>(this.imports.values())) {
+                if (!qualifiedName.substring(0, qualifiedName.lastIndexOf('.')).equals(this.packageName)) {
+                    source.append("import ").append(qualifiedName).append(";\n");
+                }
+            }
+            return source.append('\n').append(type).toString();
+        }
+
+        private boolean hasAnyAttribute() {
+            for (Property property : this.binding.properties) {
+                if (property.kind == Kind.ANY_ATTRIBUTE) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void writeRead(String model) {
+            StringBuilder b = this.body;
+            if (this.binding.readProblem != null) {
+                this.writeUnsupported("canRead", model + " read(XMLStreamReader reader)", "writes");
+                return;
+            }
+            b.append("    @Override\n")
+                    .append("    public ").append(model).append(" read(XMLStreamReader reader) throws XMLStreamException {\n");
+            for (Property property : this.binding.properties) {
+                b.append("        ").append(this.readType(property)).append(' ').append(local(property)).append(" = null;\n");
+            }
+            boolean declared = false;
+            for (Property property : this.binding.properties) {
+                if (property.kind != Kind.ATTRIBUTE) {
+                    continue;
+                }
+                if (!declared) {
+                    b.append("        String attribute;\n");
+                    declared = true;
+                }
+                b.append("        attribute = reader.getAttributeValue(")
+                        .append(property.namespace.isEmpty() ? "null" : '"' + property.namespace + '"').append(", \"").append(property.xmlName).append("\");\n")
+                        .append("        if (attribute != null) {\n");
+                this.writeAssignment(property, "attribute", "            ");
+                b.append("        }\n");
+            }
+            for (Property property : this.binding.properties) {
+                if (property.kind == Kind.ANY_ATTRIBUTE) {
+                    String qName = this.use("javax.xml.namespace.QName");
+                    String constants = this.use("javax.xml.XMLConstants");
+                    String target = local(property);
+                    b.append("        for (int index = 0; index < reader.getAttributeCount(); index++) {\n")
+                            .append("            ").append(qName).append(" attributeName = reader.getAttributeName(index);\n")
+                            .append("            if (").append(constants).append(".W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(attributeName.getNamespaceURI())\n")
+                            .append("                    || ").append(constants).append(".NULL_NS_URI.equals(attributeName.getNamespaceURI()) && ATTRIBUTES.contains(attributeName.getLocalPart())) {\n")
+                            .append("                continue;\n")
+                            .append("            }\n")
+                            .append("            if (").append(target).append(" == null) {\n")
+                            .append("                ").append(target).append(" = new ").append(this.use("java.util.HashMap")).append("<>();\n")
+                            .append("            }\n")
+                            .append("            ").append(target).append(".put(attributeName, reader.getAttributeValue(index));\n")
+                            .append("        }\n");
+                }
+            }
+            Property value = null;
+            List<Property> elements = new ArrayList<>();
+            for (Property property : this.binding.properties) {
+                if (property.kind == Kind.VALUE) {
+                    value = property;
+                } else if (property.kind == Kind.ELEMENT) {
+                    elements.add(property);
+                }
+            }
+            if (value != null) {
+                this.writeAssignment(value, "readText(reader)", "        ");
+            } else if (elements.isEmpty()) {
+                b.append("        while (nextElement(reader)) {\n")
+                        .append("            skipElement(reader);\n")
+                        .append("        }\n");
+            } else {
+                b.append("        while (nextElement(reader)) {\n")
+                        .append("            switch (reader.getLocalName()) {\n");
+                for (Property property : elements) {
+                    b.append("                case \"").append(property.xmlName).append("\":\n");
+                    this.writeAssignment(property, property.valueType == ValueType.COMPLEX ? null : "readText(reader)", "                    ");
+                    b.append("                    break;\n");
+                }
+                b.append("                default:\n")
+                        .append("                    skipElement(reader);\n")
+                        .append("            }\n")
+                        .append("        }\n");
+            }
+            this.writeConstruction(model);
+            b.append("        return model;\n")
+                    .append("    }\n");
+        }
+
+        /**
+         * Creates the model from the values read, through the chosen constructor and the setters
+         */
+        private void writeConstruction(String model) {
+            StringBuilder b = this.body;
+            List<String> arguments = new ArrayList<>();
+            boolean defaults = false;
+            for (Property property : this.binding.arguments) {
+                String target = local(property);
+                arguments.add(target);
+                if (this.binding.instantiable && property.getter != null) {
+                    // values missing from the document are the ones a model created by JAXB would hold
+                    if (!defaults) {
+                        b.append("        ").append(model).append(" defaults = null;\n");
+                        defaults = true;
+                    }
+                    b.append("        if (").append(target).append(" == null) {\n")
+                            .append("            if (defaults == null) {\n")
+                            .append("                defaults = new ").append(model).append("();\n")
+                            .append("            }\n")
+                            .append("            ").append(target).append(" = defaults.").append(property.getter).append("();\n")
+                            .append("        }\n");
+                } else if (property.primitive) {
+                    b.append("        if (").append(target).append(" == null) {\n")
+                            .append("            ").append(target).append(" = ").append(property.valueType.zero).append(";\n")
+                            .append("        }\n");
+                }
+            }
+            if (arguments.isEmpty()) {
+                b.append("        ").append(model).append(" model = new ").append(model).append("();\n");
+            } else {
+                b.append("        ").append(model).append(" model = new ").append(model).append("(\n")
+                        .append("                ").append(join(arguments).replace(", ", ",\n                ")).append(");\n");
+            }
+            for (Property property : this.binding.properties) {
+                if (this.binding.arguments.contains(property)) {
+                    continue;
+                }
+                String target = local(property);
+                b.append("        if (").append(target).append(" != null) {\n");
+                if (property.setter != null) {
+                    b.append("            model.").append(property.setter).append('(').append(target).append(");\n");
+                } else {
+                    b.append("            model.").append(property.getter).append("().").append(property.list ? "addAll" : "putAll").append('(').append(target).append(");\n");
+                }
+                b.append("        }\n");
+            }
+        }
+
+        /**
+         * Writes a method of a direction the model does not support, along with the override telling so
+         */
+        private void writeUnsupported(String check, String signature, String verb) {
+            this.body.append("    @Override\n")
+                    .append("    public boolean ").append(check).append("() {\n")
+                    .append("        return false;\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public ").append(signature).append(" {\n")
+                    .append("        throw new UnsupportedOperationException(\"").append(this.binding.getBinderName()).append(" only ").append(verb)
+                    .append(" ").append(this.binding.type.getSimpleName()).append("\");\n")
+                    .append("    }\n");
+        }
+
+        private void writeAssignment(Property property, String text, String indent) {
+            StringBuilder b = this.body;
+            String target = local(property);
+            String converted = this.parse(property, text);
+            if (property.list) {
+                b.append(indent).append("if (").append(target).append(" == null) {\n")
+                        .append(indent).append("    ").append(target).append(" = new ").append(this.use("java.util.ArrayList")).append("<>();\n")
+                        .append(indent).append("}\n")
+                        .append(indent).append(target).append(".add(").append(converted).append(");\n");
+            } else if (property.primitive) {
+                b.append(indent).append("{\n")
+                        .append(indent).append("    ").append(property.valueType.boxed).append(" parsed = ").append(converted).append(";\n")
+                        .append(indent).append("    if (parsed != null) {\n")
+                        .append(indent).append("        ").append(target).append(" = parsed;\n")
+                        .append(indent).append("    }\n")
+                        .append(indent).append("}\n");
+            } else {
+                b.append(indent).append(target).append(" = ").append(converted).append(";\n");
+            }
+        }
+
+        /**
+         * @return type of the variable a property is read into, which is {@code null} until the property is read
+         */
+        private String readType(Property property) {
+            return property.primitive ? property.valueType.boxed : this.typeName(property.type);
+        }
+
+        private String parse(Property property, String text) {
+            if (property.adapter != null) {
+                return "unmarshal" + this.adapter(property) + "(" + text + ")";
+            }
+            switch (property.valueType) {
+                case STRING:
+                    return text;
+                case ENUM:
+                    return "parse" + this.enumMethod(property.typeElement) + "(" + text + ")";
+                case COMPLEX:
+                    return this.binderOf(property.typeElement) + ".INSTANCE.read(reader)";
+                default:
+                    return property.valueType.parser + "(" + text + ")";
+            }
+        }
+
+        private String print(Property property, String value) {
+            switch (property.valueType) {
+                case ENUM:
+                    return "print" + this.enumMethod(property.typeElement) + "(" + value + ")";
+                default:
+                    return String.format(property.valueType.printer, value);
+            }
+        }
+
+        private void writeWrite(String model) {
+            StringBuilder b = this.body;
+            String signature = "void write(XMLStreamWriter writer, String localName, " + model + " model)";
+            if (this.binding.writeProblem != null) {
+                this.writeUnsupported("canWrite", signature, "reads");
+                return;
+            }
+            b.append("    @Override\n")
+                    .append("    public ").append(signature).append(" throws XMLStreamException {\n");
+            for (Property property : this.binding.properties) {
+                b.append("        ").append(this.typeName(property.type)).append(' ').append(local(property)).append(" = model.").append(property.getter).append("();\n");
+            }
+            b.append("        writer.writeStartElement(localName);\n");
+            for (Property property : this.binding.properties) {
+                if (property.kind == Kind.ATTRIBUTE) {
+                    this.writeValue(property, local(property), "        ");
+                }
+            }
+            for (Property property : this.binding.properties) {
+                if (property.kind == Kind.ANY_ATTRIBUTE) {
+                    String qName = this.use("javax.xml.namespace.QName");
+                    String constants = this.use("javax.xml.XMLConstants");
+                    b.append("        if (").append(local(property)).append(" != null) {\n")
+                            .append("            for (").append(this.use("java.util.Map")).append(".Entry<").append(qName).append(", ?> entry : ")
+                            .append(local(property)).append(".entrySet()) {\n")
+                            .append("                if (entry.getValue() == null) {\n")
+                            .append("                    continue;\n")
+                            .append("                }\n")
+                            .append("                ").append(qName).append(" attributeName = entry.getKey();\n")
+                            .append("                if (").append(constants).append(".NULL_NS_URI.equals(attributeName.getNamespaceURI())) {\n")
+                            .append("                    writer.writeAttribute(attributeName.getLocalPart(), String.valueOf(entry.getValue()));\n")
+                            .append("                } else {\n")
+                            .append("                    writer.writeAttribute(attributeName.getNamespaceURI(), attributeName.getLocalPart(), String.valueOf(entry.getValue()));\n")
+                            .append("                }\n")
+                            .append("            }\n")
+                            .append("        }\n");
+                }
+            }
+            for (Property property : this.binding.properties) {
+                if (property.kind == Kind.ELEMENT || property.kind == Kind.VALUE) {
+                    if (property.list) {
+                        String itemType = property.adapter != null ? this.typeName(property.adaptedType) : this.use(property.typeElement.getQualifiedName().toString());
+                        b.append("        if (").append(local(property)).append(" != null) {\n")
+                                .append("            for (").append(itemType).append(" item : ").append(local(property)).append(") {\n");
+                        this.writeValue(property, "item", "                ");
+                        b.append("            }\n")
+                                .append("        }\n");
+                    } else {
+                        this.writeValue(property, local(property), "        ");
+                    }
+                }
+            }
+            b.append("        writer.writeEndElement();\n")
+                    .append("    }\n");
+        }
+
+        private void writeValue(Property property, String value, String indent) {
+            StringBuilder b = this.body;
+            String inner = indent;
+            if (!property.primitive) {
+                b.append(indent).append("if (").append(value).append(" != null) {\n");
+                inner = indent + "    ";
+            }
+            String printed;
+            if (property.adapter != null) {
+                b.append(inner).append("String printed = marshal").append(this.adapter(property)).append("(").append(value).append(");\n")
+                        .append(inner).append("if (printed != null) {\n");
+                printed = "printed";
+                inner = inner + "    ";
+            } else {
+                printed = property.valueType == ValueType.COMPLEX ? null : this.print(property, value);
+            }
+            switch (property.kind) {
+                case ATTRIBUTE:
+                    if (property.namespace.isEmpty()) {
+                        b.append(inner).append("writer.writeAttribute(\"").append(property.xmlName).append("\", ").append(printed).append(");\n");
+                    } else {
+                        b.append(inner).append("writer.writeAttribute(\"").append(property.namespace).append("\", \"").append(property.xmlName).append("\", ")
+                                .append(printed).append(");\n");
+                    }
+                    break;
+                case VALUE:
+                    b.append(inner).append("writer.writeCharacters(").append(printed).append(");\n");
+                    break;
+                default:
+                    if (printed == null) {
+                        b.append(inner).append(this.binderOf(property.typeElement)).append(".INSTANCE.write(writer, \"").append(property.xmlName).append("\", ")
+                                .append(value).append(");\n");
+                    } else {
+                        b.append(inner).append("writeElement(writer, \"").append(property.xmlName).append("\", ").append(printed).append(");\n");
+                    }
+            }
+            if (property.adapter != null) {
+                b.append(inner, 0, inner.length() - 4).append("}\n");
+            }
+            if (!property.primitive) {
+                b.append(indent).append("}\n");
+            }
+        }
+
+        private void writeConversions() {
+            StringBuilder b = this.body;
+            for (Map.Entry<String, String> method : this.enumMethods.entrySet()) {
+                TypeElement type = XmlBinderProcessor.this.processingEnv.getElementUtils().getTypeElement(method.getKey());
+                String enumType = this.use(method.getKey());
+                Map<String, String> values = XmlBinderProcessor.this.enumValues(type);
+                b.append('\n')
+                        .append("    private static ").append(enumType).append(" parse").append(method.getValue()).append("(String value) {\n")
+                        .append("        switch (value.trim()) {\n");
+                for (Map.Entry<String, String> constant : values.entrySet()) {
+                    b.append("            case \"").append(constant.getValue()).append("\":\n")
+                            .append("                return ").append(enumType).append('.').append(constant.getKey()).append(";\n");
+                }
+                b.append("            default:\n")
+                        .append("                return null;\n")
+                        .append("        }\n")
+                        .append("    }\n\n")
+                        .append("    private static String print").append(method.getValue()).append("(").append(enumType).append(" value) {\n")
+                        .append("        switch (value) {\n");
+                for (Map.Entry<String, String> constant : values.entrySet()) {
+                    b.append("            case ").append(constant.getKey()).append(":\n")
+                            .append("                return \"").append(constant.getValue()).append("\";\n");
+                }
+                b.append("            default:\n")
+                        .append("                throw new IllegalArgumentException(\"Unknown constant \" + value);\n")
+                        .append("        }\n")
+                        .append("    }\n");
+            }
+            Set<String> adapterMethods = new HashSet<>();
+            for (Property property : this.binding.properties) {
+                if (property.adapter == null) {
+                    continue;
+                }
+                String method = this.adapter(property);
+                if (!adapterMethods.add(method)) {
+                    continue;
+                }
+                String adaptedType = this.typeName(property.adaptedType);
+                String field = this.adapterField(property.adapter);
+                b.append('\n')
+                        .append("    private static ").append(adaptedType).append(" unmarshal").append(method).append("(String value) {\n")
+                        .append("        try {\n")
+                        .append("            return ").append(field).append(".unmarshal(value);\n")
+                        .append("        } catch (Exception e) {\n")
+                        .append("            // like JAXB, values the adapter fails to convert are left unset\n")
+                        .append("            return null;\n")
+                        .append("        }\n")
+                        .append("    }\n\n")
+                        .append("    private static String marshal").append(method).append("(").append(adaptedType).append(" value) throws XMLStreamException {\n")
+                        .append("        try {\n")
+                        .append("            return ").append(field).append(".marshal(value);\n")
+                        .append("        } catch (Exception e) {\n")
+                        .append("            throw new XMLStreamException(e.getMessage(), e);\n")
+                        .append("        }\n")
+                        .append("    }\n");
+            }
+        }
+
+        private String adapter(Property property) {
+            this.adapterField(property.adapter);
+            return property.adapter.getSimpleName().toString();
+        }
+
+        private String adapterField(TypeElement adapter) {
+            String simpleName = adapter.getSimpleName().toString();
+            String field = simpleName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+            if (!this.adapterFields.containsKey(field)) {
+                this.adapterFields.put(field, this.use(adapter.getQualifiedName().toString()));
+            }
+            return field;
+        }
+
+        private String enumMethod(TypeElement type) {
+            String qualifiedName = type.getQualifiedName().toString();
+            String method = this.enumMethods.get(qualifiedName);
+            if (method == null) {
+                method = type.getSimpleName().toString();
+                if (this.enumMethods.containsValue(method)) {
+                    method = method + this.enumMethods.size();
+                }
+                this.enumMethods.put(qualifiedName, method);
+            }
+            return method;
+        }
+
+        private String binderOf(TypeElement type) {
+            String qualifiedName = type.getQualifiedName().toString();
+            return this.use(qualifiedName.substring(0, qualifiedName.length() - type.getSimpleName().length()) + type.getSimpleName() + "Binder");
+        }
+
+        private String typeName(TypeMirror type) {
+            if (type.getKind() != TypeKind.DECLARED) {
+                return type.toString();
+            }
+            String name = this.use(((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString());
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            if (arguments.isEmpty()) {
+                return name;
+            }
+            List<String> argumentNames = new ArrayList<>();
+            for (TypeMirror argument : arguments) {
+                argumentNames.add(this.typeName(argument));
+            }
+            return name + "<" + join(argumentNames) + ">";
+        }
+
+        /**
+         * @param qualifiedName class to refer to
+         * @return simple name if the class is imported or in the same package, qualified name if the simple name is taken
+         */
+        private String use(String qualifiedName) {
+            if (qualifiedName.startsWith("java.lang.") && qualifiedName.lastIndexOf('.') == "java.lang".length()) {
+                return qualifiedName.substring("java.lang.".length());
+            }
+            String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+            String imported = this.imports.get(simpleName);
+            if (imported == null) {
+                this.imports.put(simpleName, qualifiedName);
+                return simpleName;
+            }
+            return imported.equals(qualifiedName) ? simpleName : qualifiedName;
+        }
+    }
+}
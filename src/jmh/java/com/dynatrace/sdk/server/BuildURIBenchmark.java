@@ -0,0 +1,94 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import com.dynatrace.sdk.server.testautomation.TestAutomation;
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds request URIs with {@link String#format} and {@link org.apache.http.client.utils.URIBuilder} and with precompiled {@link EndpointTemplate}s,
+ * run with the GC profiler to compare allocation per call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuildURIBenchmark {
+    private static final EndpointTemplate PROFILES = EndpointTemplate.compile(SystemProfiles.PROFILES_EP);
+    private static final EndpointTemplate TEST_RUNS = EndpointTemplate.compile(TestAutomation.TEST_RUNS_EP);
+    private static final List<NameValuePair> PARAMETERS = Arrays.<NameValuePair>asList(
+            new BasicNameValuePair("extend", "measures"), new BasicNameValuePair("lastNTestruns", "10"), new BasicNameValuePair("category", "unit"));
+
+    private DynatraceClient client;
+    private Service service;
+
+    @Setup
+    public void setup() {
+        this.client = new DynatraceClient(new BasicServerConfiguration("admin", "admin"));
+        this.service = new Service(this.client) {
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.client.close();
+    }
+
+    @Benchmark
+    public URI path() throws URISyntaxException {
+        return this.service.buildURI(String.format(SystemProfiles.PROFILES_EP, "easyTravel"));
+    }
+
+    @Benchmark
+    public URI pathWithParameters() throws URISyntaxException {
+        return this.service.buildURI(String.format(TestAutomation.TEST_RUNS_EP, "easyTravel", ""),
+                new BasicNameValuePair("extend", "measures"), new BasicNameValuePair("lastNTestruns", "10"), new BasicNameValuePair("category", "unit"));
+    }
+
+    @Benchmark
+    public URI template() throws URISyntaxException {
+        return this.service.buildURI(PROFILES, "easyTravel");
+    }
+
+    @Benchmark
+    public URI templateWithParameters() throws URISyntaxException {
+        return this.service.buildURI(TEST_RUNS, PARAMETERS, "easyTravel", "");
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.sessions.models.StoreSessionRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares formatting of incident query and stored session timeframe dates,
+ * run with {@code -t 4} or more threads to see the contention of a shared {@link SimpleDateFormat}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateFormatBenchmark {
+    private static final String INCIDENTS_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+    private final Date date = new Date(1462090530042L);
+    private final SimpleDateFormat sharedFormat = new SimpleDateFormat(INCIDENTS_PATTERN);
+    private final Iso8601Encoder encoder = Iso8601Encoder.withOffset(TimeZone.getDefault());
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        private final char[] chars = new char[Iso8601Encoder.MAX_LENGTH];
+    }
+
+    @Benchmark
+    public String simpleDateFormatPerCall() {
+        return new SimpleDateFormat(INCIDENTS_PATTERN).format(this.date);
+    }
+
+    @Benchmark
+    public String simpleDateFormatSynchronized() {
+        synchronized (this.sharedFormat) {
+            return this.sharedFormat.format(this.date);
+        }
+    }
+
+    @Benchmark
+    public String encoder() {
+        return this.encoder.format(this.date);
+    }
+
+    @Benchmark
+    public int encoderIntoBuffer(Buffer buffer) {
+        return this.encoder.encode(this.date.getTime(), buffer.chars, 0);
+    }
+
+    @Benchmark
+    public StoreSessionRequest storeSessionTimeframe() {
+        StoreSessionRequest request = new StoreSessionRequest("easyTravel");
+        request.setTimeframeStart(this.date);
+        request.setTimeframeEnd(this.date);
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import com.dynatrace.sdk.server.systemprofiles.models.Profiles;
+import com.dynatrace.sdk.server.testautomation.TestAutomation;
+import com.dynatrace.sdk.server.testautomation.models.FetchTestRunsRequest;
+import com.dynatrace.sdk.server.testautomation.models.TestRuns;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete service calls against an in-process {@link StubServer}: request building, connection pooling, authorization and parsing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EndToEndBenchmark {
+    private StubServer server;
+    private DynatraceClient client;
+    private SystemProfiles systemProfiles;
+    private AgentsAndCollectors agentsAndCollectors;
+    private TestAutomation testAutomation;
+    private FetchTestRunsRequest testRunsRequest;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = new StubServer();
+        this.server.stub("/rest/management/profiles/easyTravel/testruns", Payloads.testRuns(10));
+        this.server.stub("/rest/management/profiles", Payloads.profiles(10));
+        this.server.stub(AgentsAndCollectors.AGENTS_EP, Payloads.agents(100));
+        this.client = new DynatraceClient(this.server.configuration("admin", "admin"));
+        this.systemProfiles = new SystemProfiles(this.client);
+        this.agentsAndCollectors = new AgentsAndCollectors(this.client);
+        this.testAutomation = new TestAutomation(this.client);
+        this.testRunsRequest = new FetchTestRunsRequest("easyTravel");
+        this.testRunsRequest.setExtend(FetchTestRunsRequest.Extension.MEASURES);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.client.close();
+        this.server.close();
+    }
+
+    @Benchmark
+    public Profiles getSystemProfiles() throws ServerConnectionException, ServerResponseException {
+        return this.systemProfiles.getSystemProfiles();
+    }
+
+    @Benchmark
+    public Agents fetchAgents() throws ServerConnectionException, ServerResponseException {
+        return this.agentsAndCollectors.fetchAgents();
+    }
+
+    @Benchmark
+    public TestRuns fetchTestRuns() throws ServerConnectionException, ServerResponseException {
+        return this.testAutomation.fetchTestRuns(this.testRunsRequest);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Profiles getSystemProfilesConcurrently() throws ServerConnectionException, ServerResponseException {
+        return this.systemProfiles.getSystemProfiles();
+    }
+}
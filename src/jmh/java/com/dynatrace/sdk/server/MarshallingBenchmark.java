@@ -0,0 +1,105 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.incidents.models.CreateUpdateIncidentRequest;
+import com.dynatrace.sdk.server.incidents.models.IncidentSeverity;
+import com.dynatrace.sdk.server.testautomation.models.CreateTestRunRequest;
+import com.dynatrace.sdk.server.testautomation.models.TestCategory;
+import org.apache.http.entity.StringEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MarshallingBenchmark {
+    private CreateTestRunRequest testRunRequest;
+    private CreateUpdateIncidentRequest incidentRequest;
+
+    @Setup
+    public void setup() {
+        this.testRunRequest = new CreateTestRunRequest("easyTravel", "1234");
+        this.testRunRequest.setCategory(TestCategory.PERFORMANCE);
+        this.testRunRequest.setVersionMajor("6");
+        this.testRunRequest.setVersionMinor("5");
+        this.testRunRequest.setVersionRevision("0");
+        this.testRunRequest.setPlatform("Linux x86_64");
+        this.testRunRequest.setMarker("nightly");
+
+        this.incidentRequest = new CreateUpdateIncidentRequest("easyTravel", "Custom");
+        this.incidentRequest.setMessage("Response time degraded");
+        this.incidentRequest.setDescription("Response time of the checkout transaction exceeded its threshold");
+        this.incidentRequest.setSeverity(IncidentSeverity.WARNING);
+        this.incidentRequest.setStart(new Date(1469446925361L));
+        this.incidentRequest.setEnd(new Date(1469446985361L));
+    }
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public StringEntity createTestRunRequest() {
+        return Service.xmlObjectToEntity(this.testRunRequest);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public StringEntity createUpdateIncidentRequest() {
+        return Service.xmlObjectToEntity(this.incidentRequest);
+    }
+
+    @Benchmark
+    public JAXBEntity streamTestRunRequest() throws IOException {
+        JAXBEntity entity = new JAXBEntity(this.testRunRequest);
+        entity.writeTo(DISCARD);
+        return entity;
+    }
+
+    @Benchmark
+    public JAXBEntity streamUpdateIncidentRequest() throws IOException {
+        JAXBEntity entity = new JAXBEntity(this.incidentRequest);
+        entity.writeTo(DISCARD);
+        return entity;
+    }
+}
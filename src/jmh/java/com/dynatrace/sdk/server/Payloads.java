@@ -0,0 +1,167 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Synthetic server responses of configurable size used by benchmarks
+ */
+public final class Payloads {
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String AGENTS_RESOURCE = "/__files/fetchAgentsResponse.xml";
+
+    private Payloads() {
+    }
+
+    /**
+     * Builds an agents list by repeating an agent captured from a real server.
+     * Every agent belongs to one of a hundred System Profiles named {@code profile-0} to {@code profile-99}.
+     *
+     * @param count number of agents
+     * @return UTF-8 encoded response
+     */
+    public static byte[] agents(int count) {
+        String response = resource(AGENTS_RESOURCE);
+        String agent = response.substring(response.indexOf("<agentinformation>"), response.indexOf("</agentinformation>") + "</agentinformation>".length());
+        // agents are encoded one by one, large lists would not fit into the heap twice
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, XML_HEADER + "<agents>\n");
+        for (int i = 0; i < count; i++) {
+            write(out, agent.replace("<systemProfile>easyTravel</systemProfile>", "<systemProfile>profile-" + (i % 100) + "</systemProfile>") + "\n");
+        }
+        write(out, "</agents>");
+        return out.toByteArray();
+    }
+
+    /**
+     * Builds a test runs list as returned with {@code extend=measures}, every run holds three results with three measures each
+     *
+     * @param count number of test runs
+     * @return UTF-8 encoded response
+     */
+    public static byte[] testRuns(int count) {
+        StringBuilder builder = new StringBuilder(XML_HEADER).append("<testRuns>\n");
+        for (int i = 0; i < count; i++) {
+            builder.append("  <testRun category=\"unit\" versionBuild=\"").append(i).append("\" versionMajor=\"2016\" versionMinor=\"7\" versionRevision=\"2\" platform=\"Linux x86_64\" startTime=\"1469446925361\" id=\"078e961b-9e6e-44ec-ab12-").append(String.format("%012d", i))
+                    .append("\" numPassed=\"2\" numFailed=\"1\" numVolatile=\"0\" numImproved=\"0\" numDegraded=\"0\" numInvalidated=\"0\" systemProfile=\"easyTravel\" creationMode=\"MANUAL\">\n");
+            for (int result = 0; result < 3; result++) {
+                builder.append("    <testResult name=\"DaoTest.test").append(result).append("\" status=\"").append(result == 2 ? "failed" : "passed").append("\" exectime=\"1469446929087\" package=\"com.dynatrace.samples\" platform=\"Linux x86_64\">\n")
+                        .append("      <measure name=\"Count\" metricGroup=\"Exceptions\" value=\"2.0\" unit=\"num\" expectedMin=\"2.0\" expectedMax=\"2.0\" numFailingOrInvalidatedRuns=\"0\" numValidRuns=\"10\" numImprovedRuns=\"0\" numDegradedRuns=\"0\" violationPercentage=\"0.0\"/>\n")
+                        .append("      <measure name=\"Failed Transaction Count\" metricGroup=\"Error Detection\" value=\"0.0\" unit=\"num\" expectedMin=\"0.0\" expectedMax=\"0.0\" numFailingOrInvalidatedRuns=\"0\" numValidRuns=\"10\" numImprovedRuns=\"0\" numDegradedRuns=\"0\" violationPercentage=\"0.0\"/>\n")
+                        .append("      <measure name=\"DB Count\" metricGroup=\"Database\" value=\"INF\" unit=\"num\" numFailingOrInvalidatedRuns=\"1\" numValidRuns=\"0\" numImprovedRuns=\"0\" numDegradedRuns=\"0\" violationPercentage=\"0.0\"/>\n")
+                        .append("    </testResult>\n");
+            }
+            builder.append("  </testRun>\n");
+        }
+        return utf8(builder.append("</testRuns>"));
+    }
+
+    /**
+     * @param count number of incident references
+     * @return UTF-8 encoded response
+     */
+    public static byte[] incidents(int count) {
+        StringBuilder builder = new StringBuilder(XML_HEADER).append("<incidents>\n");
+        for (int i = 0; i < count; i++) {
+            String id = String.format("9cb9d5b2-59bb-4a08-912c-%012d", i);
+            builder.append("    <incidentreference id=\"").append(id).append("\" href=\"http://localhost:8020/rest/management/profiles/easyTravel/incidentrules/Custom/incidents/").append(id).append("\" />\n");
+        }
+        return utf8(builder.append("</incidents>"));
+    }
+
+    /**
+     * @param count number of System Profiles
+     * @return UTF-8 encoded response
+     */
+    public static byte[] profiles(int count) {
+        StringBuilder builder = new StringBuilder(XML_HEADER).append("<profiles href=\"https://localhost:8021/rest/management/profiles\">\n");
+        for (int i = 0; i < count; i++) {
+            builder.append("    <systemprofile isrecording=\"false\" id=\"profile-").append(i).append("\" href=\"https://localhost:8021/rest/management/profiles/profile-").append(i).append("\"/>\n");
+        }
+        return utf8(builder.append("</profiles>"));
+    }
+
+    /**
+     * Wraps given {@code body} in a successful response, allowing to benchmark parsing without a server
+     *
+     * @param body response body
+     * @return response with a repeatable entity
+     */
+    public static CloseableHttpResponse response(byte[] body) {
+        BufferedResponse response = new BufferedResponse();
+        response.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_XML));
+        return response;
+    }
+
+    private static byte[] utf8(StringBuilder builder) {
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void write(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String resource(String name) {
+        try (InputStream is = Payloads.class.getResourceAsStream(name)) {
+            if (is == null) {
+                throw new IllegalStateException(String.format("Missing resource: %s", name));
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Could not read resource: %s", name), e);
+        }
+    }
+
+    private static class BufferedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private BufferedResponse() {
+            super(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
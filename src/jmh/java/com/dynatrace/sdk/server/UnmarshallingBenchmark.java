@@ -0,0 +1,87 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncidents;
+import com.dynatrace.sdk.server.testautomation.models.TestRuns;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses responses of growing size without any network involved
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UnmarshallingBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private DynatraceClient client;
+    private Service service;
+    private byte[] agents;
+    private byte[] testRuns;
+    private byte[] incidents;
+
+    @Setup
+    public void setup() {
+        this.client = new DynatraceClient(new BasicServerConfiguration("admin", "admin"));
+        this.service = new Service(this.client) {
+        };
+        this.agents = Payloads.agents(this.size);
+        this.testRuns = Payloads.testRuns(this.size);
+        this.incidents = Payloads.incidents(this.size);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.client.close();
+    }
+
+    @Benchmark
+    public Agents agents() throws ServerResponseException {
+        return this.service.parseResponse(Payloads.response(this.agents), Agents.class);
+    }
+
+    @Benchmark
+    public TestRuns testRunsWithMeasures() throws ServerResponseException {
+        return this.service.parseResponse(Payloads.response(this.testRuns), TestRuns.class);
+    }
+
+    @Benchmark
+    public FetchedIncidents incidents() throws ServerResponseException {
+        return this.service.parseResponse(Payloads.response(this.incidents), FetchedIncidents.class);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.agentsandcollectors;
+
+import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.Payloads;
+import com.dynatrace.sdk.server.StubServer;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentFilter;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches a large agents list at once, element by element and filtered while parsing.
+ * Allocation per operation ({@code gc.alloc.rate.norm}) shows how much of the list is materialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FetchAgentsBenchmark {
+    @Param({"1000", "50000"})
+    public int agents;
+
+    private StubServer server;
+    private DynatraceClient client;
+    private AgentsAndCollectors agentsAndCollectors;
+    private AgentFilter filter;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = new StubServer();
+        this.server.stub(AgentsAndCollectors.AGENTS_EP, Payloads.agents(this.agents));
+        this.client = new DynatraceClient(this.server.configuration("admin", "admin"));
+        this.agentsAndCollectors = new AgentsAndCollectors(this.client);
+        // matches one agent out of a hundred
+        this.filter = new AgentFilter();
+        this.filter.setSystemProfile("profile-42");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.client.close();
+        this.server.close();
+    }
+
+    @Benchmark
+    public Agents all() throws ServerConnectionException, ServerResponseException {
+        return this.agentsAndCollectors.fetchAgents();
+    }
+
+    @Benchmark
+    public void streamed(final Blackhole blackhole) throws ServerConnectionException, ServerResponseException {
+        this.agentsAndCollectors.fetchAgents(new ElementHandler<AgentInformation>() {
+            @Override
+            public void handle(AgentInformation element) {
+                blackhole.consume(element);
+            }
+        });
+    }
+
+    @Benchmark
+    public void filtered(final Blackhole blackhole) throws ServerConnectionException, ServerResponseException {
+        this.agentsAndCollectors.fetchAgents(this.filter, new ElementHandler<AgentInformation>() {
+            @Override
+            public void handle(AgentInformation element) {
+                blackhole.consume(element);
+            }
+        });
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.metrics.MetricsCollector;
+import org.apache.http.HttpResponse;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.BasicAsyncResponseConsumer;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A call sent on the non-blocking client of {@link DynatraceClient#getAsyncClient()}, see {@link Service#doRequestAsync(HttpRequestBase, boolean, ResponseReader, FutureCallback)}.
+ * Every attempt passes the same guards as a blocking request without ever blocking a thread: permits are taken only if available right away,
+ * retries are scheduled on a timer instead of sleeping and the buffered response is read on the {@link DynatraceClient#getExecutor() executor},
+ * keeping the I/O dispatch threads free.
+ *
+ * @param <T> result type
+ */
+@ThreadSafe
+final class AsyncCall<T> {
+    private static final ScheduledExecutorService RETRY_TIMER = retryTimer();
+
+    private static ScheduledExecutorService retryTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dynatrace-sdk-retry");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private final Service service;
+    private final DynatraceClient client;
+    private final HttpRequestBase request;
+    private final ResponseReader<T> reader;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Bulkhead bulkhead;
+    private final MetricsCollector metrics;
+    private final String endpoint;
+    private final Deadline deadline;
+    private final CallFuture future;
+    // exchange in flight or scheduled retry, cancelled along with the future
+    private volatile Future<?> pending;
+
+    AsyncCall(Service service, HttpRequestBase request, boolean retryable, ResponseReader<T> reader, FutureCallback<T> callback) {
+        this.service = service;
+        this.client = service.getClient();
+        this.request = request;
+        this.reader = reader;
+        this.retryPolicy = retryable ? this.client.getRetryPolicy() : null;
+        this.circuitBreaker = this.client.getCircuitBreaker();
+        this.concurrencyLimiter = this.client.getConcurrencyLimiter();
+        this.bulkhead = this.client.getBulkhead(service.getClass(), request);
+        this.metrics = this.client.getMetricsCollector();
+        this.endpoint = this.concurrencyLimiter != null || this.metrics != null ? EndpointMatcher.forClass(service.getClass()).match(request.getURI()) : null;
+        this.deadline = Deadline.current();
+        this.future = new CallFuture(callback);
+    }
+
+    Future<T> start() {
+        this.attempt(0);
+        return this.future;
+    }
+
+    private void attempt(final int retry) {
+        if (this.future.isDone()) {
+            return;
+        }
+        try {
+            this.acquire();
+        } catch (ServerConnectionException e) {
+            this.unregister();
+            this.fail(e);
+            return;
+        }
+        final boolean canRetry = this.retryPolicy != null && retry < this.retryPolicy.getMaxRetries();
+        final ResponseConsumer consumer = new ResponseConsumer();
+        if (this.metrics != null) {
+            this.metrics.requestStarted(this.endpoint, this.request.getMethod());
+        }
+        final long start = System.nanoTime();
+        Future<HttpResponse> exchange;
+        try {
+            exchange = this.client.getAsyncClient().execute(HttpAsyncMethods.create(this.request), consumer, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    AsyncCall.this.onResponse(response, start, consumer.getLatency(start), retry, canRetry);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    AsyncCall.this.onFailure(e, start, retry, canRetry);
+                }
+
+                @Override
+                public void cancelled() {
+                    AsyncCall.this.onCancelled(start);
+                }
+            });
+        } catch (RuntimeException e) {
+            // e.g. the client has been closed
+            this.onFailure(e, start, retry, false);
+            return;
+        }
+        this.pending = exchange;
+        if (this.future.isCancelled()) {
+            exchange.cancel(true);
+        }
+    }
+
+    private void acquire() throws ServerConnectionException {
+        if (this.deadline != null) {
+            this.service.bind(this.request, this.deadline);
+        }
+        if (this.bulkhead != null && !this.bulkhead.tryAcquireNow()) {
+            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s is full", this.bulkhead), null);
+        }
+        if (this.concurrencyLimiter != null && !this.concurrencyLimiter.tryAcquire()) {
+            this.releaseBulkhead();
+            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: request shed by %s", this.concurrencyLimiter), null);
+        }
+        if (this.circuitBreaker != null && !this.circuitBreaker.tryAcquire()) {
+            this.releaseBulkhead();
+            if (this.concurrencyLimiter != null) {
+                this.concurrencyLimiter.release();
+            }
+            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: circuit breaker is %s", this.circuitBreaker.getState()), null);
+        }
+    }
+
+    /**
+     * Runs on an I/O dispatch thread once the response has been buffered
+     */
+    private void onResponse(final HttpResponse response, long start, long latency, int retry, boolean canRetry) {
+        // the whole body has been read, the permit bounded the download too
+        this.releaseBulkhead();
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (this.concurrencyLimiter != null) {
+            // the limiter learns the latency including the download, like for a blocking request
+            this.concurrencyLimiter.onResponse(this.endpoint, statusCode, System.nanoTime() - start);
+        }
+        if (this.circuitBreaker != null) {
+            if (statusCode >= 500) {
+                this.circuitBreaker.onFailure();
+            } else {
+                this.circuitBreaker.onSuccess();
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.requestCompleted(this.endpoint, this.request.getMethod(), statusCode, latency);
+            if (response.getEntity() != null) {
+                response.setEntity(new MeteredEntity(response.getEntity(), this.endpoint, this.metrics));
+            }
+        }
+        if (canRetry && this.retryPolicy.isRetryable(statusCode)) {
+            this.retry(retry, this.retryPolicy.getDelay(retry, response.getFirstHeader("Retry-After")));
+            return;
+        }
+        this.unregister();
+        this.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                AsyncCall.this.read(response);
+            }
+        });
+    }
+
+    private void read(HttpResponse response) {
+        int statusCode = response.getStatusLine().getStatusCode();
+        try {
+            if (statusCode >= 300 || statusCode < 200) {
+                this.future.failed(Service.readResponseException(response));
+            } else {
+                this.future.completed(this.reader.read(response));
+            }
+        } catch (IOException e) {
+            this.future.failed(Service.connectionException(e, this.deadline));
+        } catch (ServerResponseException | RuntimeException e) {
+            this.future.failed(e);
+        }
+    }
+
+    /**
+     * Runs on an I/O dispatch thread, or the calling thread if the exchange could not be started
+     */
+    private void onFailure(Exception e, long start, int retry, boolean canRetry) {
+        this.releaseBulkhead();
+        // a request cancelled, aborted or timed out by the deadline says nothing about the server
+        boolean aborted = this.request.isAborted() || this.future.isCancelled() || Service.isPassed(this.deadline);
+        if (this.circuitBreaker != null) {
+            if (aborted) {
+                this.circuitBreaker.release();
+            } else {
+                this.circuitBreaker.onFailure();
+            }
+        }
+        if (this.concurrencyLimiter != null) {
+            if (e instanceof IOException && !aborted) {
+                this.concurrencyLimiter.onFailure();
+            } else {
+                this.concurrencyLimiter.release();
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.requestFailed(this.endpoint, this.request.getMethod(), System.nanoTime() - start);
+        }
+        if (e instanceof IOException && canRetry && !aborted && !Service.isPassed(this.deadline)) {
+            this.retry(retry, this.retryPolicy.getBackoff(retry));
+            return;
+        }
+        this.unregister();
+        this.fail(e instanceof IOException ? Service.connectionException((IOException) e, this.deadline) : e);
+    }
+
+    /**
+     * Runs once the exchange was cancelled, by cancelling the future or by the deadline aborting the request
+     */
+    private void onCancelled(long start) {
+        this.releaseBulkhead();
+        if (this.concurrencyLimiter != null) {
+            this.concurrencyLimiter.release();
+        }
+        if (this.circuitBreaker != null) {
+            this.circuitBreaker.release();
+        }
+        if (this.metrics != null) {
+            this.metrics.requestFailed(this.endpoint, this.request.getMethod(), System.nanoTime() - start);
+        }
+        this.unregister();
+        this.fail(Service.isPassed(this.deadline) ? Service.deadlineException(this.deadline, null)
+                : new ServerConnectionException("Could not connect to Dynatrace Server: call cancelled", null));
+    }
+
+    private void retry(final int retry, long delay) {
+        if (this.deadline != null && delay >= this.deadline.remaining(TimeUnit.MILLISECONDS)) {
+            // the retry would start after the deadline
+            this.unregister();
+            this.fail(Service.deadlineException(this.deadline, null));
+            return;
+        }
+        Future<?> scheduled;
+        try {
+            scheduled = RETRY_TIMER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    AsyncCall.this.attempt(retry + 1);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            this.unregister();
+            this.fail(e);
+            return;
+        }
+        this.pending = scheduled;
+        if (this.future.isCancelled()) {
+            scheduled.cancel(false);
+        }
+    }
+
+    private void releaseBulkhead() {
+        if (this.bulkhead != null) {
+            this.bulkhead.release();
+        }
+    }
+
+    private void unregister() {
+        if (this.deadline != null) {
+            this.deadline.unregister(this.request);
+        }
+    }
+
+    private void fail(final Exception e) {
+        this.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                AsyncCall.this.future.failed(e);
+            }
+        });
+    }
+
+    /**
+     * Runs given {@code task} on the executor of the client, or on the current thread if the executor does not accept it
+     */
+    private void dispatch(Runnable task) {
+        try {
+            this.client.getExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private final class CallFuture extends BasicFuture<T> {
+        private CallFuture(FutureCallback<T> callback) {
+            super(callback);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> pending = AsyncCall.this.pending;
+            if (cancelled) {
+                // the exchange future alone does not release the connection, aborting the request closes it
+                AsyncCall.this.request.abort();
+                if (pending != null) {
+                    pending.cancel(true);
+                }
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * Buffers the response, noting when its headers arrived as the latency reported to the limiter and metrics
+     */
+    private static final class ResponseConsumer extends BasicAsyncResponseConsumer {
+        private volatile long headersReceivedAt;
+
+        @Override
+        protected void onResponseReceived(HttpResponse response) throws IOException {
+            this.headersReceivedAt = System.nanoTime();
+            super.onResponseReceived(response);
+        }
+
+        private long getLatency(long start) {
+            long headersReceivedAt = this.headersReceivedAt;
+            return (headersReceivedAt != 0 ? headersReceivedAt : System.nanoTime()) - start;
+        }
+    }
+}
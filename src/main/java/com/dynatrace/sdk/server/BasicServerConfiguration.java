@@ -47,6 +47,40 @@ public class BasicServerConfiguration implements ServerConfiguration {
     public static final boolean DEFAULT_VALIDATE_CERTIFICATES = true;
     //5 seconds default timeout
     public static final int DEFAULT_CONNECTION_TIMEOUT = 5 * 1000;
+    //no timeout, some calls (e.g. stopping session recording) take minutes to complete
+    public static final int DEFAULT_SOCKET_TIMEOUT = 0;
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 0;
+    private static final ConnectionPoolConfiguration DEFAULT_CONNECTION_POOL_CONFIGURATION = new ConnectionPoolConfiguration();
+
+    /**
+     * Other {@link ServerConfiguration} implementations do not provide the socket timeout, the defaults apply to them
+     *
+     * @param configuration server's configuration
+     * @return the socket (read) timeout in milliseconds, 0 means no timeout
+     */
+    public static int socketTimeout(ServerConfiguration configuration) {
+        return configuration instanceof BasicServerConfiguration ? ((BasicServerConfiguration) configuration).getSocketTimeout() : DEFAULT_SOCKET_TIMEOUT;
+    }
+
+    /**
+     * Other {@link ServerConfiguration} implementations do not provide the connection request timeout, the defaults apply to them
+     *
+     * @param configuration server's configuration
+     * @return the timeout in milliseconds of waiting for a connection from the pool, 0 means no timeout
+     */
+    public static int connectionRequestTimeout(ServerConfiguration configuration) {
+        return configuration instanceof BasicServerConfiguration ? ((BasicServerConfiguration) configuration).getConnectionRequestTimeout() : DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+    }
+
+    /**
+     * Other {@link ServerConfiguration} implementations do not provide a pool configuration, the defaults apply to them
+     *
+     * @param configuration server's configuration
+     * @return configuration of the connection pool
+     */
+    public static ConnectionPoolConfiguration connectionPoolConfiguration(ServerConfiguration configuration) {
+        return configuration instanceof BasicServerConfiguration ? ((BasicServerConfiguration) configuration).getConnectionPoolConfiguration() : DEFAULT_CONNECTION_POOL_CONFIGURATION;
+    }
 
     private final String name;
     private final String password;
@@ -55,6 +89,9 @@ public class BasicServerConfiguration implements ServerConfiguration {
     private final int port;
     private final int connectionTimeout;
     private final boolean validateCertificates;
+    private final int socketTimeout;
+    private final int connectionRequestTimeout;
+    private final ConnectionPoolConfiguration connectionPoolConfiguration;
 
     /**
      * Constructs BasicServerConfiguration with given {@code username} and {@code password} and populating it with default values:
@@ -111,6 +148,24 @@ public class BasicServerConfiguration implements ServerConfiguration {
      * @param connectionTimeout    connection timeout in milliseconds
      */
     public BasicServerConfiguration(String name, String password, boolean ssl, String host, int port, boolean validateCertificates, int connectionTimeout) {
+        this(name, password, ssl, host, port, validateCertificates, connectionTimeout, DEFAULT_SOCKET_TIMEOUT, DEFAULT_CONNECTION_REQUEST_TIMEOUT, new ConnectionPoolConfiguration());
+    }
+
+    /**
+     * Constructs BasicServerConfiguration with given parameters
+     *
+     * @param name                        server's username
+     * @param password                    server's password
+     * @param host                        server's host
+     * @param ssl                         whether to preceed hostname with https:// or leave http://
+     * @param port                        server's port
+     * @param validateCertificates        whether to validate certificates
+     * @param connectionTimeout           connection timeout in milliseconds
+     * @param socketTimeout               socket (read) timeout in milliseconds, 0 means no timeout
+     * @param connectionRequestTimeout    timeout of waiting for a pooled connection in milliseconds, 0 means no timeout
+     * @param connectionPoolConfiguration connection pool configuration
+     */
+    public BasicServerConfiguration(String name, String password, boolean ssl, String host, int port, boolean validateCertificates, int connectionTimeout, int socketTimeout, int connectionRequestTimeout, ConnectionPoolConfiguration connectionPoolConfiguration) {
         this.name = name;
         this.password = password;
         this.ssl = ssl;
@@ -118,6 +173,9 @@ public class BasicServerConfiguration implements ServerConfiguration {
         this.port = port;
         this.validateCertificates = validateCertificates;
         this.connectionTimeout = connectionTimeout;
+        this.socketTimeout = socketTimeout;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        this.connectionPoolConfiguration = connectionPoolConfiguration;
     }
 
     @Override
@@ -155,6 +213,27 @@ public class BasicServerConfiguration implements ServerConfiguration {
         return this.connectionTimeout;
     }
 
+    /**
+     * @return the socket (read) timeout in milliseconds, 0 means no timeout
+     */
+    public int getSocketTimeout() {
+        return this.socketTimeout;
+    }
+
+    /**
+     * @return the timeout in milliseconds of waiting for a connection from the pool, 0 means no timeout
+     */
+    public int getConnectionRequestTimeout() {
+        return this.connectionRequestTimeout;
+    }
+
+    /**
+     * @return configuration of the connection pool
+     */
+    public ConnectionPoolConfiguration getConnectionPoolConfiguration() {
+        return this.connectionPoolConfiguration;
+    }
+
     @Override
     public boolean isValidateCertificates() {
         return this.validateCertificates;
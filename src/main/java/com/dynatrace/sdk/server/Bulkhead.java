@@ -0,0 +1,162 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Isolates a class of operations, e.g. heavy downloads, status polling or quick control calls, from the others.
+ * Requests of a bulkhead are sent over its own partition of {@code maxConnections} pooled connections
+ * and at most {@code maxConcurrent} of them are in flight at once, each holding its permit until its response is closed.
+ * A request waits up to {@code maxWait} for a permit and fails with {@link com.dynatrace.sdk.server.exceptions.ServerConnectionException} afterwards.
+ * <p>
+ * Bulkheads are assigned to services or their operations with {@link DynatraceClient#setBulkhead(Class, Bulkhead)}
+ * and {@link DynatraceClient#setBulkhead(Class, String, String, Bulkhead)}, requests of other operations use the main pool.
+ */
+@ThreadSafe
+public class Bulkhead {
+    //1 second default max wait
+    public static final long DEFAULT_MAX_WAIT = 1000;
+
+    private final String name;
+    private final int maxConnections;
+    private final int maxConcurrent;
+    private final long maxWait;
+    private final Semaphore permits;
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * Constructs a bulkhead with a partition of {@code maxConcurrent} connections, waiting {@value DEFAULT_MAX_WAIT} milliseconds at most
+     *
+     * @param name          name of the operation class, e.g. {@code downloads}
+     * @param maxConcurrent number of connections and of requests in flight at once
+     */
+    public Bulkhead(String name, int maxConcurrent) {
+        this(name, maxConcurrent, maxConcurrent, DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * @param name           name of the operation class, e.g. {@code downloads}
+     * @param maxConnections size of the connection pool partition, connections stay leased until responses are consumed
+     * @param maxConcurrent  number of requests in flight at once, until their responses are closed
+     * @param maxWait        time in milliseconds a request waits for a permit
+     */
+    public Bulkhead(String name, int maxConnections, int maxConcurrent, long maxWait) {
+        if (name == null || maxConnections <= 0 || maxConcurrent <= 0 || maxWait < 0) {
+            throw new IllegalArgumentException(String.format("Invalid bulkhead: name[%s], maxConnections[%d], maxConcurrent[%d], maxWait[%d]",
+                    name, maxConnections, maxConcurrent, maxWait));
+        }
+        this.name = name;
+        this.maxConnections = maxConnections;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Waits for a permit to send a request, each acquired permit must be returned with {@link #release()}
+     *
+     * @return {@code true} if the request may be sent, {@code false} if no permit was available within {@code maxWait}
+     * @throws InterruptedException whenever the calling thread is interrupted while waiting
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (this.permits.tryAcquire(this.maxWait, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        this.rejections.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Takes a permit only if one is available right away, used by asynchronous calls which never wait
+     *
+     * @return {@code true} if the request may be sent
+     */
+    public boolean tryAcquireNow() {
+        if (this.permits.tryAcquire()) {
+            return true;
+        }
+        this.rejections.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        this.permits.release();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxConnections() {
+        return this.maxConnections;
+    }
+
+    public int getMaxConcurrent() {
+        return this.maxConcurrent;
+    }
+
+    public long getMaxWait() {
+        return this.maxWait;
+    }
+
+    /**
+     * @return number of requests currently holding a permit
+     */
+    public int getInFlight() {
+        return this.maxConcurrent - this.permits.availablePermits();
+    }
+
+    /**
+     * @return number of requests waiting for a permit, an estimate
+     */
+    public int getQueueDepth() {
+        return this.permits.getQueueLength();
+    }
+
+    /**
+     * @return number of requests which did not get a permit within {@code maxWait}
+     */
+    public long getRejectionCount() {
+        return this.rejections.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{" +
+                "name='" + this.name + '\'' +
+                ", maxConnections=" + this.maxConnections +
+                ", maxConcurrent=" + this.maxConcurrent +
+                ", maxWait=" + this.maxWait +
+                '}';
+    }
+}
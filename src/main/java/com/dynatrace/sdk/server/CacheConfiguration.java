@@ -0,0 +1,109 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.Immutable;
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * Immutable configuration of a {@link ResponseCache} caching responses of a single endpoint.
+ */
+@Immutable
+@ThreadSafe
+public class CacheConfiguration {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    //1 minute default time to live
+    public static final long DEFAULT_TIME_TO_LIVE = 60 * 1000;
+    //entries are refreshed in background during the last 10 seconds of their lifetime by default
+    public static final long DEFAULT_REFRESH_AHEAD = 10 * 1000;
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final long refreshAhead;
+
+    /**
+     * Constructs CacheConfiguration populating it with default values:
+     * <dl>
+     * <dt>Max size</dt>
+     * <dd>{@value DEFAULT_MAX_SIZE}</dd>
+     * <dt>Time to live</dt>
+     * <dd>{@value DEFAULT_TIME_TO_LIVE}</dd>
+     * <dt>Refresh ahead</dt>
+     * <dd>{@value DEFAULT_REFRESH_AHEAD}</dd>
+     * </dl>
+     */
+    public CacheConfiguration() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE, DEFAULT_REFRESH_AHEAD);
+    }
+
+    /**
+     * Constructs CacheConfiguration with given parameters
+     *
+     * @param maxSize      maximum number of cached entries, least recently used entries are evicted first
+     * @param timeToLive   time in milliseconds after which an entry expires
+     * @param refreshAhead time in milliseconds before expiry during which a read triggers a background refresh, {@code 0} disables refreshing
+     */
+    public CacheConfiguration(int maxSize, long timeToLive, long refreshAhead) {
+        if (maxSize <= 0 || timeToLive <= 0) {
+            throw new IllegalArgumentException(String.format("Cache size and time to live must be positive, got maxSize[%d] and timeToLive[%d]", maxSize, timeToLive));
+        }
+        if (refreshAhead < 0 || refreshAhead >= timeToLive) {
+            throw new IllegalArgumentException(String.format("Refresh ahead must be non-negative and shorter than time to live, got refreshAhead[%d] and timeToLive[%d]", refreshAhead, timeToLive));
+        }
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.refreshAhead = refreshAhead;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * @return time in milliseconds after which an entry expires
+     */
+    public long getTimeToLive() {
+        return this.timeToLive;
+    }
+
+    /**
+     * @return time in milliseconds before expiry during which entries are refreshed in background
+     */
+    public long getRefreshAhead() {
+        return this.refreshAhead;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheConfiguration{" +
+                "maxSize=" + this.maxSize +
+                ", timeToLive=" + this.timeToLive +
+                ", refreshAhead=" + this.refreshAhead +
+                '}';
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stops sending requests to a Dynatrace Server which seems to be down.
+ * After {@code failureThreshold} consecutive failures (connection errors or {@code 5xx} responses) the breaker opens
+ * and requests fail immediately with {@link com.dynatrace.sdk.server.exceptions.ServerConnectionException}.
+ * Once {@code openDuration} passes, a single probe request is let through (half-open): its success closes the breaker, its failure opens it again.
+ * Aborted or cancelled requests say nothing about the server and are reported with {@link #release()} instead.
+ */
+@ThreadSafe
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    //30 seconds default open duration
+    public static final long DEFAULT_OPEN_DURATION = 30 * 1000;
+
+    private final int failureThreshold;
+    private final long openDuration;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong rejections = new AtomicLong();
+    private volatile long openedAt;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION);
+    }
+
+    /**
+     * @param failureThreshold number of consecutive failures opening the breaker
+     * @param openDuration     time in milliseconds the breaker stays open before letting a probe through
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration) {
+        if (failureThreshold <= 0 || openDuration < 0) {
+            throw new IllegalArgumentException(String.format("Invalid circuit breaker: failureThreshold[%d], openDuration[%d]", failureThreshold, openDuration));
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(openDuration);
+    }
+
+    /**
+     * Checks whether a request may be sent, each permitted request must report its outcome with {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}
+     *
+     * @return {@code true} if the request may be sent
+     */
+    public boolean tryAcquire() {
+        State state = this.state.get();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && System.nanoTime() - this.openedAt >= this.openDuration && this.state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            // the caller is the probe
+            return true;
+        }
+        this.rejections.incrementAndGet();
+        return false;
+    }
+
+    public void onSuccess() {
+        this.consecutiveFailures.set(0);
+        this.state.set(State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (this.state.get() == State.HALF_OPEN || this.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+            this.openedAt = System.nanoTime();
+            this.consecutiveFailures.set(0);
+            this.state.set(State.OPEN);
+        }
+    }
+
+    /**
+     * Reports a request without outcome, e.g. an aborted one. An aborted probe lets the next request probe right away.
+     */
+    public void release() {
+        this.state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    public State getState() {
+        return this.state.get();
+    }
+
+    /**
+     * @return number of requests rejected without being sent
+     */
+    public long getRejectionCount() {
+        return this.rejections.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "state=" + this.state.get() +
+                ", failureThreshold=" + this.failureThreshold +
+                ", openDuration=" + TimeUnit.NANOSECONDS.toMillis(this.openDuration) +
+                '}';
+    }
+}
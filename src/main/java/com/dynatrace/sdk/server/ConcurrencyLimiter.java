@@ -0,0 +1,334 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of requests in flight to a Dynatrace Server, learning the limit the server copes with (AIMD).
+ * <p>
+ * Every response grows the limit by one while at least half of it is in use, unless it signals overload, which shrinks the limit
+ * by {@value #BACKOFF_RATIO}. Overload is signalled by connection failures, {@code 429}, {@code 502}, {@code 503} and {@code 504} responses
+ * and by rising latencies, as the server queues requests before it starts to fail them. Latencies are smoothed per endpoint
+ * over a short and a long term; the short-term latency exceeding {@value #LATENCY_TOLERANCE} times the long-term one signals overload,
+ * but only while at least half of the limit is in use, since a server queueing requests of others is no reason to limit idle callers.
+ * Smoothing rather than comparing single latencies to the lowest one keeps jitter from shrinking the limit.
+ * <p>
+ * Requests exceeding the limit wait in a FIFO queue of {@code maxQueueSize} for at most {@code maxQueueTime}.
+ * Requests not fitting into the queue or waiting too long are shed, failing with {@link com.dynatrace.sdk.server.exceptions.ServerConnectionException}.
+ */
+@ThreadSafe
+public class ConcurrencyLimiter {
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+    //5 seconds default max queue time
+    public static final long DEFAULT_MAX_QUEUE_TIME = 5 * 1000;
+
+    public static final double BACKOFF_RATIO = 0.9;
+    public static final double LATENCY_TOLERANCE = 2.0;
+    // number of samples the short-term and the long-term latency of an endpoint are averaged over
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final long maxQueueTime;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = this.lock.newCondition();
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong queueTimeouts = new AtomicLong();
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    /**
+     * Constructs ConcurrencyLimiter populating it with default values:
+     * <dl>
+     * <dt>Initial limit</dt>
+     * <dd>{@value DEFAULT_INITIAL_LIMIT}</dd>
+     * <dt>Min limit</dt>
+     * <dd>{@value DEFAULT_MIN_LIMIT}</dd>
+     * <dt>Max limit</dt>
+     * <dd>{@value DEFAULT_MAX_LIMIT}</dd>
+     * <dt>Max queue size</dt>
+     * <dd>{@value DEFAULT_MAX_QUEUE_SIZE}</dd>
+     * <dt>Max queue time</dt>
+     * <dd>{@value DEFAULT_MAX_QUEUE_TIME}</dd>
+     * </dl>
+     */
+    public ConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_MAX_QUEUE_SIZE, DEFAULT_MAX_QUEUE_TIME);
+    }
+
+    /**
+     * @param initialLimit number of requests allowed in flight until the first responses are seen
+     * @param minLimit     lower bound of the limit
+     * @param maxLimit     upper bound of the limit
+     * @param maxQueueSize number of requests allowed to wait for the limit, {@code 0} sheds requests exceeding the limit immediately
+     * @param maxQueueTime time in milliseconds a request waits for the limit before it is shed
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueueSize, long maxQueueTime) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit || maxQueueSize < 0 || maxQueueTime < 0) {
+            throw new IllegalArgumentException(String.format("Invalid concurrency limiter: initialLimit[%d], minLimit[%d], maxLimit[%d], maxQueueSize[%d], maxQueueTime[%d]",
+                    initialLimit, minLimit, maxLimit, maxQueueSize, maxQueueTime));
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueTime = TimeUnit.MILLISECONDS.toNanos(maxQueueTime);
+    }
+
+    /**
+     * Waits until a request may be sent, each permitted request must report its outcome with
+     * {@link #onResponse(String, int, long)}, {@link #onFailure()} or {@link #release()}
+     *
+     * @return {@code true} if the request may be sent, {@code false} if it is shed
+     * @throws InterruptedException whenever the calling thread is interrupted while queued
+     */
+    public boolean acquire() throws InterruptedException {
+        this.lock.lock();
+        try {
+            if (this.queued == 0 && this.inFlight < (int) this.limit) {
+                this.inFlight++;
+                return true;
+            }
+            if (this.queued >= this.maxQueueSize) {
+                this.rejections.incrementAndGet();
+                return false;
+            }
+            this.queued++;
+            try {
+                long remaining = this.maxQueueTime;
+                while (this.inFlight >= (int) this.limit) {
+                    if (remaining <= 0) {
+                        this.queueTimeouts.incrementAndGet();
+                        this.rejections.incrementAndGet();
+                        return false;
+                    }
+                    remaining = this.available.awaitNanos(remaining);
+                }
+            } finally {
+                this.queued--;
+            }
+            this.inFlight++;
+            this.signalIfAvailable();
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a permit only if a request may be sent right away, used by asynchronous calls which are shed instead of queued.
+     * Each permitted request must report its outcome like those permitted by {@link #acquire()}.
+     *
+     * @return {@code true} if the request may be sent, {@code false} if it is shed
+     */
+    public boolean tryAcquire() {
+        this.lock.lock();
+        try {
+            if (this.queued == 0 && this.inFlight < (int) this.limit) {
+                this.inFlight++;
+                return true;
+            }
+            this.rejections.incrementAndGet();
+            return false;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a request which received a response
+     *
+     * @param endpoint     endpoint template of the request, latencies are compared per endpoint
+     * @param statusCode   HTTP status code of the response
+     * @param latencyNanos time from sending the request to reading the whole response
+     */
+    public void onResponse(String endpoint, int statusCode, long latencyNanos) {
+        this.lock.lock();
+        try {
+            boolean overload = statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+            Baseline baseline = this.baselines.get(endpoint);
+            if (baseline == null) {
+                baseline = new Baseline();
+                this.baselines.put(endpoint, baseline);
+            }
+            if (!overload) {
+                baseline.sample(latencyNanos);
+                overload = this.isUtilized() && baseline.isQueueing();
+            }
+            this.adjust(overload);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a request which failed to receive a response, e.g. due to a connection failure or timeout
+     */
+    public void onFailure() {
+        this.lock.lock();
+        try {
+            this.adjust(true);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a request without learning from it, e.g. of an aborted request
+     */
+    public void release() {
+        this.lock.lock();
+        try {
+            this.inFlight--;
+            this.signalIfAvailable();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void adjust(boolean overload) {
+        if (overload) {
+            this.limit = Math.max(this.minLimit, this.limit * BACKOFF_RATIO);
+        } else if (this.isUtilized()) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1);
+        }
+        this.inFlight--;
+        this.signalIfAvailable();
+    }
+
+    private boolean isUtilized() {
+        return this.inFlight * 2 >= this.limit;
+    }
+
+    private void signalIfAvailable() {
+        // every request taking a free permit wakes the next one, so a grown limit lets several queued requests through
+        if (this.queued > 0 && this.inFlight < (int) this.limit) {
+            this.available.signal();
+        }
+    }
+
+    /**
+     * @return number of requests currently allowed in flight
+     */
+    public int getLimit() {
+        this.lock.lock();
+        try {
+            return (int) this.limit;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        this.lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of requests waiting for the limit
+     */
+    public int getQueueDepth() {
+        this.lock.lock();
+        try {
+            return this.queued;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of requests shed without being sent, including those which waited too long
+     */
+    public long getRejectionCount() {
+        return this.rejections.get();
+    }
+
+    /**
+     * @return number of requests shed after waiting {@code maxQueueTime}
+     */
+    public long getQueueTimeoutCount() {
+        return this.queueTimeouts.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" +
+                "limit=" + this.getLimit() +
+                ", inFlight=" + this.getInFlight() +
+                ", queueDepth=" + this.getQueueDepth() +
+                ", rejections=" + this.rejections.get() +
+                ", minLimit=" + this.minLimit +
+                ", maxLimit=" + this.maxLimit +
+                ", maxQueueSize=" + this.maxQueueSize +
+                ", maxQueueTime=" + TimeUnit.NANOSECONDS.toMillis(this.maxQueueTime) +
+                '}';
+    }
+
+    /**
+     * Exponentially smoothed latencies of an endpoint, the long-term one serving as baseline the short-term one is compared to
+     */
+    private static final class Baseline {
+        private double shortTerm;
+        private double longTerm;
+        private boolean sampled;
+
+        private void sample(long latencyNanos) {
+            if (!this.sampled) {
+                this.sampled = true;
+                this.shortTerm = latencyNanos;
+                this.longTerm = latencyNanos;
+                return;
+            }
+            this.shortTerm += (latencyNanos - this.shortTerm) / SHORT_WINDOW;
+            this.longTerm += (latencyNanos - this.longTerm) / LONG_WINDOW;
+        }
+
+        private boolean isQueueing() {
+            return this.shortTerm > LATENCY_TOLERANCE * this.longTerm;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decorates a connection manager, recording where every connection was leased from.
+ * Connections not released within the threshold are considered leaked and reported to the {@link Listener} once,
+ * whenever another connection is requested or {@link #getLeaks()} is called.
+ * Further connection managers, e.g. the partitions of bulkheads, are tracked along with the decorated one by {@link #track}.
+ * <p>
+ * Detection is disabled while the threshold is {@code 0}, in which case connections are passed through untracked.
+ */
+@ThreadSafe
+public class ConnectionLeakDetector implements HttpClientConnectionManager {
+    /**
+     * Receives connections held longer than the threshold
+     */
+    public interface Listener {
+        /**
+         * Called once per leaked connection, on the thread requesting another connection
+         *
+         * @param lease lease of the leaked connection
+         */
+        void leakDetected(Lease lease);
+    }
+
+    /**
+     * A connection leased from the pool
+     */
+    @ThreadSafe
+    public static final class Lease {
+        private final String threadName;
+        private final long leasedAt;
+        private final Throwable acquisition;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Lease(String threadName, long leasedAt, Throwable acquisition) {
+            this.threadName = threadName;
+            this.leasedAt = leasedAt;
+            this.acquisition = acquisition;
+        }
+
+        /**
+         * @return name of the thread which leased the connection
+         */
+        public String getThreadName() {
+            return this.threadName;
+        }
+
+        /**
+         * @return time of the lease in milliseconds since the epoch
+         */
+        public long getLeasedAt() {
+            return this.leasedAt;
+        }
+
+        /**
+         * @return throwable carrying the stack trace of the lease, never thrown
+         */
+        public Throwable getAcquisition() {
+            return this.acquisition;
+        }
+
+        @Override
+        public String toString() {
+            return "Lease{" +
+                    "threadName='" + this.threadName + '\'' +
+                    ", leasedAt=" + this.leasedAt +
+                    '}';
+        }
+    }
+
+    private final Tracked tracked;
+    private final List<Tracked> managers = new CopyOnWriteArrayList<>();
+    private volatile long threshold;
+    private volatile Listener listener;
+
+    public ConnectionLeakDetector(HttpClientConnectionManager delegate) {
+        this.tracked = new Tracked(delegate);
+        this.managers.add(this.tracked);
+    }
+
+    /**
+     * Decorates another connection manager, whose leases are detected with the threshold and listener of this detector
+     *
+     * @param delegate connection manager to track
+     * @return connection manager recording leases with this detector
+     */
+    public HttpClientConnectionManager track(HttpClientConnectionManager delegate) {
+        Tracked tracked = new Tracked(delegate);
+        this.managers.add(tracked);
+        return tracked;
+    }
+
+    /**
+     * @param threshold time in milliseconds after which a leased connection is considered leaked, {@code 0} disables detection
+     * @param listener  receives leaked connections, might be {@code null} when leaks are only polled with {@link #getLeaks()}
+     */
+    public void setThreshold(long threshold, Listener listener) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative: " + threshold);
+        }
+        this.listener = listener;
+        this.threshold = threshold;
+        if (threshold == 0) {
+            for (Tracked manager : this.managers) {
+                manager.leases.clear();
+            }
+        }
+    }
+
+    public long getThreshold() {
+        return this.threshold;
+    }
+
+    /**
+     * @return number of connections leased while detection was enabled and not released yet
+     */
+    public int getLeaseCount() {
+        int count = 0;
+        for (Tracked manager : this.managers) {
+            count += manager.leases.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns leases held longer than the threshold, reporting those not reported yet to the listener
+     *
+     * @return leases of leaked connections, empty if detection is disabled
+     */
+    public List<Lease> getLeaks() {
+        List<Lease> leaks = new ArrayList<>();
+        long threshold = this.threshold;
+        if (threshold == 0) {
+            return leaks;
+        }
+        long now = System.currentTimeMillis();
+        Listener listener = this.listener;
+        for (Tracked manager : this.managers) {
+            for (Lease lease : manager.leases.values()) {
+                if (now - lease.leasedAt >= threshold) {
+                    leaks.add(lease);
+                    if (listener != null && lease.reported.compareAndSet(false, true)) {
+                        listener.leakDetected(lease);
+                    }
+                }
+            }
+        }
+        return leaks;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        return this.tracked.requestConnection(route, state);
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection connection, Object newState, long validDuration, TimeUnit timeUnit) {
+        this.tracked.releaseConnection(connection, newState, validDuration, timeUnit);
+    }
+
+    @Override
+    public void connect(HttpClientConnection connection, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+        this.tracked.connect(connection, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        this.tracked.upgrade(connection, route, context);
+    }
+
+    @Override
+    public void routeComplete(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        this.tracked.routeComplete(connection, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(long idletime, TimeUnit tunit) {
+        this.tracked.closeIdleConnections(idletime, tunit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        this.tracked.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        this.tracked.shutdown();
+    }
+
+    /**
+     * Connection manager recording the leases of its delegate
+     */
+    private final class Tracked implements HttpClientConnectionManager {
+        private final HttpClientConnectionManager delegate;
+        private final ConcurrentMap<HttpClientConnection, Lease> leases = new ConcurrentHashMap<>();
+
+        private Tracked(HttpClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            final ConnectionRequest request = this.delegate.requestConnection(route, state);
+            if (ConnectionLeakDetector.this.threshold == 0) {
+                return request;
+            }
+            ConnectionLeakDetector.this.getLeaks();
+            final Throwable acquisition = new Throwable("Connection leased to " + route);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    HttpClientConnection connection = request.get(timeout, unit);
+                    Tracked.this.leases.put(connection, new Lease(Thread.currentThread().getName(), System.currentTimeMillis(), acquisition));
+                    return connection;
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection(HttpClientConnection connection, Object newState, long validDuration, TimeUnit timeUnit) {
+            this.leases.remove(connection);
+            this.delegate.releaseConnection(connection, newState, validDuration, timeUnit);
+        }
+
+        @Override
+        public void connect(HttpClientConnection connection, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+            this.delegate.connect(connection, route, connectTimeout, context);
+        }
+
+        @Override
+        public void upgrade(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+            this.delegate.upgrade(connection, route, context);
+        }
+
+        @Override
+        public void routeComplete(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+            this.delegate.routeComplete(connection, route, context);
+        }
+
+        @Override
+        public void closeIdleConnections(long idletime, TimeUnit tunit) {
+            this.delegate.closeIdleConnections(idletime, tunit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            this.delegate.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+            this.leases.clear();
+            if (this != ConnectionLeakDetector.this.tracked) {
+                // a shut down partition is gone for good
+                ConnectionLeakDetector.this.managers.remove(this);
+            }
+            this.delegate.shutdown();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.Immutable;
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * Immutable configuration of a connection pool shared by all services using the same {@link DynatraceClient}.
+ */
+@Immutable
+@ThreadSafe
+public class ConnectionPoolConfiguration {
+    public static final int DEFAULT_MAX_TOTAL = 20;
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+    //connections are kept as long as the server allows it by default
+    public static final long DEFAULT_TIME_TO_LIVE = -1;
+    //1 minute default idle time
+    public static final long DEFAULT_MAX_IDLE_TIME = 60 * 1000;
+    //30 seconds default keep-alive
+    public static final long DEFAULT_KEEP_ALIVE_DURATION = 30 * 1000;
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long timeToLive;
+    private final long maxIdleTime;
+    private final long keepAliveDuration;
+
+    /**
+     * Constructs ConnectionPoolConfiguration populating it with default values:
+     * <dl>
+     * <dt>Max total connections</dt>
+     * <dd>{@value DEFAULT_MAX_TOTAL}</dd>
+     * <dt>Max connections per route</dt>
+     * <dd>{@value DEFAULT_MAX_PER_ROUTE}</dd>
+     * <dt>Time to live</dt>
+     * <dd>{@value DEFAULT_TIME_TO_LIVE}</dd>
+     * <dt>Max idle time</dt>
+     * <dd>{@value DEFAULT_MAX_IDLE_TIME}</dd>
+     * <dt>Keep-alive duration</dt>
+     * <dd>{@value DEFAULT_KEEP_ALIVE_DURATION}</dd>
+     * </dl>
+     */
+    public ConnectionPoolConfiguration() {
+        this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_TIME_TO_LIVE, DEFAULT_MAX_IDLE_TIME, DEFAULT_KEEP_ALIVE_DURATION);
+    }
+
+    /**
+     * Constructs ConnectionPoolConfiguration with given parameters
+     *
+     * @param maxTotal          maximum number of pooled connections
+     * @param maxPerRoute       maximum number of pooled connections to a single host
+     * @param timeToLive        maximum lifetime of a connection in milliseconds, non-positive value means unlimited
+     * @param maxIdleTime       time in milliseconds after which idle connections are evicted, non-positive value disables eviction
+     * @param keepAliveDuration time in milliseconds a connection is kept alive if the server doesn't specify a shorter one, non-positive value means indefinitely
+     */
+    public ConnectionPoolConfiguration(int maxTotal, int maxPerRoute, long timeToLive, long maxIdleTime, long keepAliveDuration) {
+        if (maxTotal <= 0 || maxPerRoute <= 0) {
+            throw new IllegalArgumentException(String.format("Pool size must be positive, got maxTotal[%d] and maxPerRoute[%d]", maxTotal, maxPerRoute));
+        }
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.timeToLive = timeToLive;
+        this.maxIdleTime = maxIdleTime;
+        this.keepAliveDuration = keepAliveDuration;
+    }
+
+    public int getMaxTotal() {
+        return this.maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return this.maxPerRoute;
+    }
+
+    /**
+     * @return maximum lifetime of a connection in milliseconds
+     */
+    public long getTimeToLive() {
+        return this.timeToLive;
+    }
+
+    /**
+     * @return time in milliseconds after which idle connections are evicted
+     */
+    public long getMaxIdleTime() {
+        return this.maxIdleTime;
+    }
+
+    /**
+     * @return maximum keep-alive duration in milliseconds
+     */
+    public long getKeepAliveDuration() {
+        return this.keepAliveDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolConfiguration{" +
+                "maxTotal=" + this.maxTotal +
+                ", maxPerRoute=" + this.maxPerRoute +
+                ", timeToLive=" + this.timeToLive +
+                ", maxIdleTime=" + this.maxIdleTime +
+                ", keepAliveDuration=" + this.keepAliveDuration +
+                '}';
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the time of service calls made while the deadline is {@link #enter() entered} on the calling thread, end to end:
+ * leasing a pooled connection, connecting, sending the request and reading and parsing the response.
+ * Once the deadline passes or it is {@link #cancel() cancelled}, requests in flight are aborted, releasing their threads and connections,
+ * and calls fail with {@link com.dynatrace.sdk.server.exceptions.ServerConnectionException}.
+ * <pre>{@code
+ * try (Deadline.Scope scope = Deadline.after(30, TimeUnit.SECONDS).enter()) {
+ *     TestRuns testRuns = testAutomation.fetchTestRuns(request);
+ * }
+ * }</pre>
+ * Asynchronous calls started within a scope inherit its deadline, cancelling their {@link java.util.concurrent.Future} aborts their requests.
+ */
+@ThreadSafe
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private static final ScheduledExecutorService TIMER = timer();
+
+    private static ScheduledExecutorService timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dynatrace-sdk-deadline");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // expiries of deadlines no longer binding anything are dropped rather than kept until they would have passed
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private final Deadline parent;
+    // System.nanoTime() of expiry, Long.MAX_VALUE if it never expires
+    private final long expiresAt;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    // requests in flight bound by this deadline, each kept until its response is closed as it might still be read
+    private final Set<HttpRequestBase> requests = Collections.newSetFromMap(new ConcurrentHashMap<HttpRequestBase, Boolean>());
+    private final AtomicInteger scopes = new AtomicInteger();
+    // expiry aborting the requests, scheduled once one is bound and cancelled once none is and no scope is open, guarded by the requests
+    private ScheduledFuture<?> expiry;
+
+    private Deadline(Deadline parent, long expiresAt) {
+        this.parent = parent;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @param timeout time the calls may take
+     * @param unit    unit of {@code timeout}
+     * @return deadline passing after {@code timeout}
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+        long now = System.nanoTime();
+        long nanos = unit.toNanos(timeout);
+        // saturate rather than overflow for very long timeouts
+        return new Deadline(null, nanos >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos);
+    }
+
+    /**
+     * @return deadline which never passes, but might be cancelled
+     */
+    public static Deadline none() {
+        return new Deadline(null, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return deadline entered on the calling thread or {@code null}
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes this deadline bound the calls of the calling thread until the returned scope is closed
+     *
+     * @return scope restoring the previous deadline of the thread once closed
+     */
+    public Scope enter() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        this.scopes.incrementAndGet();
+        return new Scope(previous);
+    }
+
+    /**
+     * @return deadline passing along with this one, cancelled along with this one, but cancellable on its own
+     */
+    public Deadline child() {
+        return new Deadline(this, this.expiresAt);
+    }
+
+    /**
+     * @param timeout time the calls may take at most
+     * @param unit    unit of {@code timeout}
+     * @return deadline passing after {@code timeout} or along with this one, whichever comes first, cancelled along with this one,
+     * but cancellable on its own
+     */
+    public Deadline child(long timeout, TimeUnit unit) {
+        return new Deadline(this, Math.min(this.expiresAt, after(timeout, unit).expiresAt));
+    }
+
+    /**
+     * @param unit unit of the result
+     * @return time left, {@code 0} once passed and {@link Long#MAX_VALUE} if it never passes
+     */
+    public long remaining(TimeUnit unit) {
+        if (this.expiresAt == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(0, this.expiresAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return this.expiresAt != Long.MAX_VALUE && this.expiresAt - System.nanoTime() <= 0;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled.get() || (this.parent != null && this.parent.isCancelled());
+    }
+
+    /**
+     * Aborts all requests in flight bound by this deadline or its children and fails calls made afterwards
+     */
+    public void cancel() {
+        if (this.cancelled.compareAndSet(false, true)) {
+            this.abortAll();
+            this.unscheduleIfIdle();
+        }
+    }
+
+    /**
+     * Binds a request to this deadline and its parents, aborting it once any of them passes or is cancelled
+     *
+     * @param request request about to be sent
+     * @return {@code false} if the deadline already passed or was cancelled, the request is not bound then
+     */
+    boolean register(HttpRequestBase request) {
+        for (Deadline deadline = this; deadline != null; deadline = deadline.parent) {
+            deadline.requests.add(request);
+            deadline.schedule();
+        }
+        if (this.isExpired() || this.isCancelled()) {
+            this.unregister(request);
+            return false;
+        }
+        return true;
+    }
+
+    void unregister(HttpRequestBase request) {
+        for (Deadline deadline = this; deadline != null; deadline = deadline.parent) {
+            deadline.requests.remove(request);
+            deadline.unscheduleIfIdle();
+        }
+    }
+
+    /**
+     * @return number of requests in flight bound by this deadline
+     */
+    int size() {
+        return this.requests.size();
+    }
+
+    /**
+     * @return whether the expiry of this deadline is scheduled
+     */
+    boolean isScheduled() {
+        synchronized (this.requests) {
+            return this.expiry != null;
+        }
+    }
+
+    private void schedule() {
+        if (this.expiresAt == Long.MAX_VALUE) {
+            return;
+        }
+        synchronized (this.requests) {
+            if (this.expiry == null) {
+                this.expiry = TIMER.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        Deadline.this.abortAll();
+                    }
+                }, Math.max(0, this.expiresAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Cancels the expiry once it has nothing left to abort, requests bound later schedule it again
+     */
+    private void unscheduleIfIdle() {
+        synchronized (this.requests) {
+            if (this.expiry != null && this.requests.isEmpty() && this.scopes.get() == 0) {
+                this.expiry.cancel(false);
+                this.expiry = null;
+            }
+        }
+    }
+
+    private void abortAll() {
+        for (HttpRequestBase request : this.requests) {
+            // aborting a request whose response was consumed already is a no-op
+            request.abort();
+        }
+        this.requests.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{" +
+                "remainingMillis=" + this.remaining(TimeUnit.MILLISECONDS) +
+                ", cancelled=" + this.isCancelled() +
+                '}';
+    }
+
+    /**
+     * Period of a thread bound by a deadline
+     */
+    public final class Scope implements AutoCloseable {
+        private final Deadline previous;
+        private boolean closed;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        public Deadline getDeadline() {
+            return Deadline.this;
+        }
+
+        /**
+         * Restores the deadline which was current before entering this scope
+         */
+        @Override
+        public void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            if (this.previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(this.previous);
+            }
+            Deadline.this.scopes.decrementAndGet();
+            Deadline.this.unscheduleIfIdle();
+        }
+    }
+}
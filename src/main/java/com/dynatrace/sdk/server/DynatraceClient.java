@@ -28,55 +28,323 @@
 
 package com.dynatrace.sdk.server;
 
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.metrics.MetricsCollector;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.auth.Credentials;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContextBuilder;
 
+import javax.net.ssl.SSLContext;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The main entry point holding HTTPClient and Configuration
  * It is advised to cache the instance and pass it to all services
  */
 @ThreadSafe
-public class DynatraceClient {
+public class DynatraceClient implements Closeable {
+    /**
+     * Creates a connection pool sized and configured according to {@link BasicServerConfiguration#getConnectionPoolConfiguration()}
+     *
+     * @param configuration server's configuration
+     * @return a new connection pool
+     */
+    public static PoolingHttpClientConnectionManager connectionManager(ServerConfiguration configuration) {
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory(configuration))
+                .build();
+
+        ConnectionPoolConfiguration poolConfiguration = BasicServerConfiguration.connectionPoolConfiguration(configuration);
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry, null, null, null, poolConfiguration.getTimeToLive(), TimeUnit.MILLISECONDS);
+        manager.setMaxTotal(poolConfiguration.getMaxTotal());
+        manager.setDefaultMaxPerRoute(poolConfiguration.getMaxPerRoute());
+        manager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(BasicServerConfiguration.socketTimeout(configuration)).build());
+        return manager;
+    }
+
+    /**
+     * @param configuration server's configuration
+     * @return request configuration with the timeouts of given {@code configuration}
+     */
+    public static RequestConfig requestConfig(ServerConfiguration configuration) {
+        return RequestConfig.custom()
+                .setConnectTimeout(configuration.getTimeout())
+                .setSocketTimeout(BasicServerConfiguration.socketTimeout(configuration))
+                .setConnectionRequestTimeout(BasicServerConfiguration.connectionRequestTimeout(configuration)).build();
+    }
+
+    /**
+     * Creates a non-blocking connection pool sized like {@link #connectionManager(ServerConfiguration)}.
+     * Its connections are driven by a few I/O dispatch threads rather than by a thread per request in flight.
+     *
+     * @param configuration server's configuration
+     * @return a new non-blocking connection pool
+     */
+    public static PoolingNHttpClientConnectionManager asyncConnectionManager(ServerConfiguration configuration) {
+        Registry<SchemeIOSessionStrategy> registry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", sslSessionStrategy(configuration))
+                .build();
+        IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout(configuration.getTimeout())
+                .setSoTimeout(BasicServerConfiguration.socketTimeout(configuration))
+                .build();
+
+        ConnectionPoolConfiguration poolConfiguration = BasicServerConfiguration.connectionPoolConfiguration(configuration);
+        try {
+            DefaultConnectingIOReactor ioReactor = new DefaultConnectingIOReactor(reactorConfig, daemonThreads("dynatrace-sdk-io-"));
+            PoolingNHttpClientConnectionManager manager = new PoolingNHttpClientConnectionManager(ioReactor, null, registry, null, null, poolConfiguration.getTimeToLive(), TimeUnit.MILLISECONDS);
+            manager.setMaxTotal(poolConfiguration.getMaxTotal());
+            manager.setDefaultMaxPerRoute(poolConfiguration.getMaxPerRoute());
+            return manager;
+        } catch (IOReactorException e) {
+            throw new RuntimeException(String.format("Failed to create the I/O reactor: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Creates a builder of non-blocking clients with the timeouts and keep-alive of given {@code configuration}
+     *
+     * @param configuration     server's configuration
+     * @param connectionManager non-blocking connection pool
+     * @return a new builder
+     */
+    public static HttpAsyncClientBuilder asyncClientBuilder(ServerConfiguration configuration, NHttpClientConnectionManager connectionManager) {
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom();
+        builder.setConnectionManager(connectionManager);
+        builder.setDefaultRequestConfig(requestConfig(configuration));
+        builder.setKeepAliveStrategy(keepAliveStrategy(BasicServerConfiguration.connectionPoolConfiguration(configuration).getKeepAliveDuration()));
+        builder.setThreadFactory(daemonThreads("dynatrace-sdk-io-reactor-"));
+        return builder;
+    }
+
     public static HttpClientBuilder clientBuilder(ServerConfiguration configuration) {
+        return clientBuilder(configuration, connectionManager(configuration));
+    }
+
+    public static HttpClientBuilder clientBuilder(ServerConfiguration configuration, HttpClientConnectionManager connectionManager) {
         HttpClientBuilder builder = HttpClients.custom();
-        builder.setDefaultRequestConfig(RequestConfig.custom()
-                .setConnectTimeout(configuration.getTimeout()).build());
+        builder.setConnectionManager(connectionManager);
+        builder.setDefaultRequestConfig(requestConfig(configuration));
+
+        ConnectionPoolConfiguration poolConfiguration = BasicServerConfiguration.connectionPoolConfiguration(configuration);
+        builder.setKeepAliveStrategy(keepAliveStrategy(poolConfiguration.getKeepAliveDuration()));
+        if (poolConfiguration.getMaxIdleTime() > 0) {
+            builder.evictExpiredConnections();
+            builder.evictIdleConnections(poolConfiguration.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+        }
+        return builder;
+    }
+
+    private static SSLConnectionSocketFactory sslSocketFactory(ServerConfiguration configuration) {
+        if (configuration.isValidateCertificates()) {
+            return SSLConnectionSocketFactory.getSocketFactory();
+        }
+        return new SSLConnectionSocketFactory(trustingSSLContext(), NoopHostnameVerifier.INSTANCE);
+    }
+
+    private static SSLIOSessionStrategy sslSessionStrategy(ServerConfiguration configuration) {
+        if (configuration.isValidateCertificates()) {
+            return SSLIOSessionStrategy.getDefaultStrategy();
+        }
+        return new SSLIOSessionStrategy(trustingSSLContext(), NoopHostnameVerifier.INSTANCE);
+    }
+
+    private static SSLContext trustingSSLContext() {
         // marks all certificates as trusted
-        if (!configuration.isValidateCertificates()) {
-            try {
-                builder.setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE);
-                builder.setSSLContext(new SSLContextBuilder().loadTrustMaterial(null, new TrustStrategy() {
-                    public boolean isTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
-                        return true;
-                    }
-                }).build());
-            } catch (Exception e) {
-                //should not happen
-                throw new RuntimeException("Failed to create a HTTP Client with skipped certificates check.", e);
+        try {
+            return new SSLContextBuilder().loadTrustMaterial(null, new TrustStrategy() {
+                public boolean isTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
+                    return true;
+                }
+            }).build();
+        } catch (Exception e) {
+            //should not happen
+            throw new RuntimeException("Failed to create a HTTP Client with skipped certificates check.", e);
+        }
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(final long maxKeepAlive) {
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                if (maxKeepAlive <= 0) {
+                    return keepAlive;
+                }
+                // server didn't specify the duration or allowed a longer one
+                if (keepAlive <= 0 || keepAlive > maxKeepAlive) {
+                    return maxKeepAlive;
+                }
+                return keepAlive;
             }
+        };
+    }
+
+    private static ExecutorService asyncExecutor(ServerConfiguration configuration) {
+        // the warm-up opens up to a connection per task at once
+        return Executors.newFixedThreadPool(BasicServerConfiguration.connectionPoolConfiguration(configuration).getMaxPerRoute(), daemonThreads("dynatrace-sdk-async-"));
+    }
+
+    private static ThreadFactory daemonThreads(final String namePrefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + this.count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    private static ServerCredentialsProvider configurationCredentials(final ServerConfiguration configuration) {
+        return new ServerCredentialsProvider() {
+            @Override
+            public Credentials getCredentials() {
+                return configuration;
+            }
+        };
+    }
+
+    private static String baseURI(ServerConfiguration configuration) {
+        try {
+            return new URIBuilder()
+                    .setScheme(configuration.isSSL() ? "https" : "http")
+                    .setHost(configuration.getHost())
+                    .setPort(configuration.getPort())
+                    .build().toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid host: " + configuration.getHost(), e);
         }
-        return builder;
     }
 
     private final CloseableHttpClient client;
     private final ServerConfiguration configuration;
+    private final String baseURI;
+    private volatile ServerCredentialsProvider credentialsProvider;
+    private volatile BasicAuthorization authorization;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ConnectionLeakDetector leakDetector;
+    private final boolean ownsExecutor;
+    private volatile ExecutorService executor;
+    private volatile CloseableHttpAsyncClient asyncClient;
+    private PoolingNHttpClientConnectionManager asyncConnectionManager;
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private volatile boolean requestCoalescing;
+    private volatile MetricsCollector metricsCollector;
+    private volatile RetryPolicy retryPolicy;
+    private volatile CircuitBreaker circuitBreaker;
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+    private final List<ModelCodec> modelCodecs = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Class<?>, ModelCodec> modelDecodersByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ModelCodec> modelEncodersByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Bulkhead> bulkheadsByService = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Bulkhead> bulkheadsByOperation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Bulkhead, Partition> partitions = new ConcurrentHashMap<>();
 
     public DynatraceClient(ServerConfiguration configuration) {
-        this(configuration, clientBuilder(configuration).build());
+        this(configuration, connectionManager(configuration), null);
     }
 
+    /**
+     * Constructs a client reading the responses of asynchronous calls on the given {@code executor}
+     *
+     * @param configuration server's configuration
+     * @param executor      executor reading responses of asynchronous calls and notifying their callbacks, it is not shut down on {@link #close()}
+     */
+    public DynatraceClient(ServerConfiguration configuration, ExecutorService executor) {
+        this(configuration, connectionManager(configuration), executor);
+    }
+
+    private DynatraceClient(ServerConfiguration configuration, PoolingHttpClientConnectionManager connectionManager, ExecutorService executor) {
+        this.configuration = configuration;
+        this.baseURI = baseURI(configuration);
+        this.credentialsProvider = configurationCredentials(configuration);
+        this.connectionManager = connectionManager;
+        this.leakDetector = new ConnectionLeakDetector(connectionManager);
+        this.client = clientBuilder(configuration, this.leakDetector).build();
+        this.executor = executor;
+        this.ownsExecutor = executor == null;
+    }
+
+    /**
+     * Constructs a client sending blocking calls with the given {@code httpClient}.
+     * Asynchronous calls are sent on a non-blocking client created from the {@code configuration}.
+     *
+     * @param configuration server's configuration
+     * @param httpClient    client of blocking calls, closed on {@link #close()}
+     */
     public DynatraceClient(ServerConfiguration configuration, CloseableHttpClient httpClient) {
         this.configuration = configuration;
+        this.baseURI = baseURI(configuration);
+        this.credentialsProvider = configurationCredentials(configuration);
         this.client = httpClient;
+        this.connectionManager = null;
+        this.leakDetector = null;
+        this.ownsExecutor = true;
     }
 
     public CloseableHttpClient getClient() {
@@ -86,4 +354,530 @@ public class DynatraceClient {
     public ServerConfiguration getConfiguration() {
         return this.configuration;
     }
+
+    /**
+     * Returns scheme, host and port of the server as configured, e.g. {@code https://localhost:8021}, built once per client
+     *
+     * @return base of all request URIs, without a trailing slash
+     */
+    public String getBaseURI() {
+        return this.baseURI;
+    }
+
+    /**
+     * Replaces the source of credentials, by default credentials of the {@link ServerConfiguration} are used.
+     * Requests sent afterwards use the credentials of the new provider.
+     *
+     * @param credentialsProvider source of credentials
+     */
+    public void setCredentialsProvider(ServerCredentialsProvider credentialsProvider) {
+        this.credentialsProvider = credentialsProvider;
+    }
+
+    /**
+     * Returns the value of the {@code Authorization} header sent with every request.
+     * The header is encoded once and reused until the {@link ServerCredentialsProvider} returns another {@link Credentials} instance.
+     *
+     * @return value of the Basic authorization header
+     */
+    public String getAuthorizationHeader() {
+        Credentials credentials = this.credentialsProvider.getCredentials();
+        BasicAuthorization authorization = this.authorization;
+        if (authorization == null || authorization.credentials != credentials) {
+            // credentials and header are swapped together, concurrent callers might encode the same header twice at worst
+            authorization = this.authorization = new BasicAuthorization(credentials);
+        }
+        return authorization.header;
+    }
+
+    /**
+     * Enables or disables coalescing of identical GET requests, disabled by default.
+     * While coalescing, concurrent calls fetching the same resource share one HTTP round trip and receive the same parsed object,
+     * which thus should not be modified by the callers.
+     *
+     * @param requestCoalescing whether identical GET requests in flight are coalesced
+     */
+    public void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
+    public boolean isRequestCoalescing() {
+        return this.requestCoalescing;
+    }
+
+    RequestCoalescer getRequestCoalescer() {
+        return this.requestCoalescer;
+    }
+
+    /**
+     * Enables collection of request metrics, e.g. with {@link com.dynatrace.sdk.server.metrics.EndpointMetrics}.
+     * Metrics are disabled by default, costing no allocation or timing calls.
+     *
+     * @param metricsCollector collector receiving measurements of every request or {@code null} to disable metrics
+     */
+    public void setMetricsCollector(MetricsCollector metricsCollector) {
+        this.metricsCollector = metricsCollector;
+    }
+
+    public MetricsCollector getMetricsCollector() {
+        return this.metricsCollector;
+    }
+
+    /**
+     * Enables retries of idempotent reads, which are GET requests fetching models. Requests changing server's state are never retried.
+     * Retries are disabled by default.
+     *
+     * @param retryPolicy policy of retrying failed reads or {@code null} to disable retries
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * Enables failing fast while the server is down. The breaker guards all requests sent by services using this client.
+     * No circuit breaker is used by default.
+     *
+     * @param circuitBreaker circuit breaker of the server or {@code null} to disable it
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Enables adaptive limiting of requests in flight, queueing or shedding requests beyond the limit the server copes with.
+     * The limiter guards all requests sent by services using this client, no limiter is used by default.
+     *
+     * @param concurrencyLimiter limiter of requests to the server or {@code null} to disable limiting
+     */
+    public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return this.concurrencyLimiter;
+    }
+
+    /**
+     * Registers a codec decoding or encoding some of the models, e.g. one of the {@link StAXCodec}s of the services or {@link XmlBinderCodec}.
+     * Codecs registered earlier take precedence, models no codec handles are decoded and encoded by {@link JAXBCodec}.
+     *
+     * @param codec codec to register
+     */
+    public void registerModelCodec(ModelCodec codec) {
+        this.modelCodecs.add(codec);
+        this.modelDecodersByType.clear();
+        this.modelEncodersByType.clear();
+    }
+
+    /**
+     * @param type model class
+     * @return codec decoding instances of {@code type}
+     */
+    public ModelCodec getModelDecoder(Class<?> type) {
+        ModelCodec codec = this.modelDecodersByType.get(type);
+        if (codec == null) {
+            codec = JAXBCodec.INSTANCE;
+            for (ModelCodec registered : this.modelCodecs) {
+                if (registered.canDecode(type)) {
+                    codec = registered;
+                    break;
+                }
+            }
+            this.modelDecodersByType.put(type, codec);
+        }
+        return codec;
+    }
+
+    /**
+     * @param type model class
+     * @return codec encoding instances of {@code type}
+     */
+    public ModelCodec getModelEncoder(Class<?> type) {
+        ModelCodec codec = this.modelEncodersByType.get(type);
+        if (codec == null) {
+            codec = JAXBCodec.INSTANCE;
+            for (ModelCodec registered : this.modelCodecs) {
+                if (registered.canEncode(type)) {
+                    codec = registered;
+                    break;
+                }
+            }
+            this.modelEncodersByType.put(type, codec);
+        }
+        return codec;
+    }
+
+    /**
+     * Sends all requests of a service through a {@link Bulkhead}, e.g. all {@link com.dynatrace.sdk.server.memorydumps.MemoryDumps} polling.
+     * Bulkheads of single operations take precedence, see {@link #setBulkhead(Class, String, String, Bulkhead)}.
+     *
+     * @param serviceClass class of the service, its subclasses included
+     * @param bulkhead     bulkhead of the service or {@code null} to use the main pool
+     */
+    public void setBulkhead(Class<? extends Service> serviceClass, Bulkhead bulkhead) {
+        if (bulkhead == null) {
+            this.bulkheadsByService.remove(serviceClass);
+        } else {
+            this.createPartition(bulkhead);
+            this.bulkheadsByService.put(serviceClass, bulkhead);
+        }
+    }
+
+    /**
+     * Sends requests of a single operation through a {@link Bulkhead}, e.g. fetching test runs:
+     * <pre>{@code client.setBulkhead(TestAutomation.class, "GET", TestAutomation.TEST_RUNS_EP, downloads);}</pre>
+     *
+     * @param serviceClass class of the service, its subclasses included
+     * @param method       HTTP method of the operation
+     * @param endpoint     endpoint of the operation, one of the {@code *_EP} constants of the service
+     * @param bulkhead     bulkhead of the operation or {@code null} to fall back to the bulkhead of the service
+     */
+    public void setBulkhead(Class<? extends Service> serviceClass, String method, String endpoint, Bulkhead bulkhead) {
+        String operation = operation(serviceClass, method, endpoint);
+        if (bulkhead == null) {
+            this.bulkheadsByOperation.remove(operation);
+        } else {
+            this.createPartition(bulkhead);
+            this.bulkheadsByOperation.put(operation, bulkhead);
+        }
+    }
+
+    /**
+     * @param serviceClass class of the service
+     * @param method       HTTP method of the operation
+     * @param endpoint     endpoint template of the operation
+     * @return bulkhead assigned to the operation or its service, {@code null} if requests use the main pool
+     */
+    public Bulkhead getBulkhead(Class<? extends Service> serviceClass, String method, String endpoint) {
+        for (Class<?> clazz = serviceClass; clazz != null && clazz != Service.class; clazz = clazz.getSuperclass()) {
+            Bulkhead bulkhead = this.bulkheadsByOperation.get(operation(clazz, method, endpoint));
+            if (bulkhead != null) {
+                return bulkhead;
+            }
+        }
+        return this.getServiceBulkhead(serviceClass);
+    }
+
+    /**
+     * Resolves the bulkhead of a request, matching its endpoint only if bulkheads of operations are assigned
+     */
+    Bulkhead getBulkhead(Class<? extends Service> serviceClass, HttpRequestBase request) {
+        if (this.bulkheadsByOperation.isEmpty()) {
+            return this.bulkheadsByService.isEmpty() ? null : this.getServiceBulkhead(serviceClass);
+        }
+        return this.getBulkhead(serviceClass, request.getMethod(), EndpointMatcher.forClass(serviceClass).match(request.getURI()));
+    }
+
+    private Bulkhead getServiceBulkhead(Class<?> serviceClass) {
+        for (Class<?> clazz = serviceClass; clazz != null && clazz != Service.class; clazz = clazz.getSuperclass()) {
+            Bulkhead bulkhead = this.bulkheadsByService.get(clazz);
+            if (bulkhead != null) {
+                return bulkhead;
+            }
+        }
+        return null;
+    }
+
+    private static String operation(Class<?> serviceClass, String method, String endpoint) {
+        return serviceClass.getName() + ' ' + method.toUpperCase(Locale.ROOT) + ' ' + endpoint;
+    }
+
+    /**
+     * Returns the HTTP client sending requests of a bulkhead over its partition of the connection pool
+     *
+     * @param bulkhead bulkhead or {@code null}
+     * @return client of the bulkhead's partition, the main client for {@code null} or if the client was constructed with a custom {@link CloseableHttpClient}
+     */
+    public CloseableHttpClient getClient(Bulkhead bulkhead) {
+        Partition partition = bulkhead != null ? this.partitions.get(bulkhead) : null;
+        return partition != null ? partition.client : this.client;
+    }
+
+    /**
+     * @param bulkhead assigned bulkhead
+     * @return statistics of the bulkhead's partition or {@code null} if it has none
+     */
+    public PoolStats getPoolStats(Bulkhead bulkhead) {
+        Partition partition = this.partitions.get(bulkhead);
+        return partition != null ? partition.connectionManager.getTotalStats() : null;
+    }
+
+    private synchronized void createPartition(Bulkhead bulkhead) {
+        // a custom client is shared by all bulkheads, which thus only cap concurrency
+        if (this.connectionManager == null || this.partitions.containsKey(bulkhead)) {
+            return;
+        }
+        PoolingHttpClientConnectionManager connectionManager = connectionManager(this.configuration);
+        connectionManager.setMaxTotal(bulkhead.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(bulkhead.getMaxConnections());
+        // leases of the partition are detected along with those of the main pool
+        this.partitions.put(bulkhead, new Partition(connectionManager, clientBuilder(this.configuration, this.leakDetector.track(connectionManager)).build()));
+    }
+
+    /**
+     * Returns the non-blocking client sending asynchronous calls of all services, lazily created and started on first use.
+     * Its connections are pooled apart from those of blocking calls, sized by the same {@link ConnectionPoolConfiguration}.
+     *
+     * @return non-blocking client
+     */
+    public CloseableHttpAsyncClient getAsyncClient() {
+        CloseableHttpAsyncClient asyncClient = this.asyncClient;
+        if (asyncClient == null) {
+            synchronized (this) {
+                asyncClient = this.asyncClient;
+                if (asyncClient == null) {
+                    this.asyncConnectionManager = asyncConnectionManager(this.configuration);
+                    asyncClient = asyncClientBuilder(this.configuration, this.asyncConnectionManager).build();
+                    asyncClient.start();
+                    this.asyncClient = asyncClient;
+                }
+            }
+        }
+        return asyncClient;
+    }
+
+    /**
+     * Returns live statistics of the non-blocking connection pool of asynchronous calls
+     *
+     * @return pool statistics or {@code null} if no asynchronous call has been made yet
+     */
+    public synchronized PoolStats getAsyncPoolStats() {
+        return this.asyncConnectionManager != null ? this.asyncConnectionManager.getTotalStats() : null;
+    }
+
+    /**
+     * Returns the executor reading responses of asynchronous calls and notifying their callbacks, which keeps the I/O dispatch
+     * threads free, and running the {@link #warmUp(int) warm-up}.
+     * Unless provided in the constructor, a pool of daemon threads is lazily created with one thread per connection of a route.
+     *
+     * @return executor of asynchronous calls
+     */
+    public ExecutorService getExecutor() {
+        ExecutorService executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    executor = this.executor = asyncExecutor(this.configuration);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns live statistics of the connection pool: leased, pending, available and maximum number of connections.
+     *
+     * @return pool statistics or {@code null} if the client was constructed with a custom {@link CloseableHttpClient}
+     */
+    public PoolStats getPoolStats() {
+        if (this.connectionManager == null) {
+            return null;
+        }
+        return this.connectionManager.getTotalStats();
+    }
+
+    /**
+     * Initializes ahead of the first call what the SDK otherwise initializes lazily, which is worth it for short-lived processes.
+     * Steps run in parallel on the {@link #getExecutor() executor}: the XML parser factory is loaded, codecs of all models having a
+     * generated {@link XmlBinder} are resolved, creating the JAXB contexts of those left to {@link JAXBCodec}, and up to
+     * {@code connections} pooled connections are opened to the configured host and port, completing their TLS handshakes.
+     * Failures are reported rather than thrown, as everything not warmed up is still initialized on demand.
+     *
+     * @param connections number of connections to open, capped at {@link ConnectionPoolConfiguration#getMaxPerRoute()};
+     *                    no connections are opened if the client was constructed with a custom {@link CloseableHttpClient}
+     * @return duration and failures of every step
+     * @throws ServerConnectionException whenever the calling thread is interrupted while waiting for the warm-up
+     */
+    public WarmUpReport warmUp(int connections) throws ServerConnectionException {
+        if (connections < 0) {
+            throw new IllegalArgumentException("Number of connections must not be negative: " + connections);
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = this.getExecutor();
+        List<Future<?>> pending = new ArrayList<>();
+        WarmUpReport.StepRecorder xml = new WarmUpReport.StepRecorder(WarmUpReport.XML_FACTORIES, start);
+        WarmUpReport.StepRecorder codecs = new WarmUpReport.StepRecorder(WarmUpReport.CODECS, start);
+        WarmUpReport.StepRecorder opened = new WarmUpReport.StepRecorder(WarmUpReport.CONNECTIONS, start);
+        // all connections are leased before any is released, otherwise the pool would hand out the same one again
+        CountDownLatch allLeased = new CountDownLatch(1);
+        try {
+            pending.add(executor.submit(this.xmlFactoriesWarmUp(xml)));
+            for (XmlBinder<?> binder : new XmlBinderCodec(DynatraceClient.class.getClassLoader()).getBinders().values()) {
+                pending.add(executor.submit(this.codecWarmUp(binder.getType(), codecs)));
+            }
+            if (this.connectionManager != null) {
+                HttpRoute route = this.getRoute();
+                int count = Math.min(connections, BasicServerConfiguration.connectionPoolConfiguration(this.configuration).getMaxPerRoute());
+                for (int i = 0; i < count; i++) {
+                    HttpClientConnection connection;
+                    try {
+                        connection = this.connectionManager.requestConnection(route, null)
+                                .get(Math.max(BasicServerConfiguration.connectionRequestTimeout(this.configuration), 0), TimeUnit.MILLISECONDS);
+                    } catch (ConnectionPoolTimeoutException | ExecutionException e) {
+                        opened.failed(e);
+                        continue;
+                    }
+                    try {
+                        pending.add(executor.submit(this.connectionWarmUp(connection, route, allLeased, opened)));
+                    } catch (RuntimeException e) {
+                        this.releaseWarmConnection(connection);
+                        throw e;
+                    }
+                }
+            }
+            allLeased.countDown();
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // tasks record their own failures
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerConnectionException("Interrupted while warming up", e);
+        } finally {
+            // connections are released by their tasks, which thus are let to finish
+            allLeased.countDown();
+        }
+        return new WarmUpReport(Arrays.asList(xml.toStep(), codecs.toStep(), opened.toStep()), System.nanoTime() - start);
+    }
+
+    private void releaseWarmConnection(HttpClientConnection connection) {
+        // open connections are kept alive for the configured duration, as after a response without a Keep-Alive header
+        long keepAlive = BasicServerConfiguration.connectionPoolConfiguration(this.configuration).getKeepAliveDuration();
+        this.connectionManager.releaseConnection(connection, null, keepAlive, TimeUnit.MILLISECONDS);
+    }
+
+    private HttpRoute getRoute() {
+        boolean secure = this.configuration.isSSL();
+        HttpHost target = new HttpHost(this.configuration.getHost(), this.configuration.getPort(), secure ? "https" : "http");
+        // the same route the client plans for requests sent by the services
+        return new HttpRoute(target, null, secure);
+    }
+
+    private Runnable xmlFactoriesWarmUp(final WarmUpReport.StepRecorder step) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    XMLStreamReader reader = Service.createXMLStreamReader(new ByteArrayInputStream("<result value=\"true\"/>".getBytes(StandardCharsets.UTF_8)));
+                    while (reader.hasNext()) {
+                        reader.next();
+                    }
+                    reader.close();
+                    step.succeeded();
+                } catch (Exception e) {
+                    step.failed(e);
+                }
+            }
+        };
+    }
+
+    private Runnable codecWarmUp(final Class<?> type, final WarmUpReport.StepRecorder step) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ModelCodec decoder = DynatraceClient.this.getModelDecoder(type);
+                    ModelCodec encoder = DynatraceClient.this.getModelEncoder(type);
+                    if (decoder == JAXBCodec.INSTANCE || encoder == JAXBCodec.INSTANCE) {
+                        JAXBContextRegistry.getContext(type);
+                    }
+                    step.succeeded();
+                } catch (Exception e) {
+                    step.failed(e);
+                }
+            }
+        };
+    }
+
+    private Runnable connectionWarmUp(final HttpClientConnection connection, final HttpRoute route, final CountDownLatch allLeased,
+                                      final WarmUpReport.StepRecorder step) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (!connection.isOpen()) {
+                        HttpClientContext context = HttpClientContext.create();
+                        DynatraceClient.this.connectionManager.connect(connection, route, DynatraceClient.this.configuration.getTimeout(), context);
+                        DynatraceClient.this.connectionManager.routeComplete(connection, route, context);
+                    }
+                    step.succeeded();
+                } catch (Exception e) {
+                    step.failed(e);
+                }
+                try {
+                    allLeased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    DynatraceClient.this.releaseWarmConnection(connection);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the detector of connections leased from the pool or the partitions of bulkheads and never released, disabled until a threshold is set:
+     * <pre>{@code client.getConnectionLeakDetector().setThreshold(60000, listener);}</pre>
+     *
+     * @return leak detector or {@code null} if the client was constructed with a custom {@link CloseableHttpClient}
+     */
+    public ConnectionLeakDetector getConnectionLeakDetector() {
+        return this.leakDetector;
+    }
+
+    /**
+     * Closes the underlying HTTP clients along with their connection pools and the partitions of bulkheads.
+     * Shuts down the executor of asynchronous calls unless it was provided in the constructor.
+     *
+     * @throws IOException whenever closing the client fails
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.ownsExecutor && this.executor != null) {
+                this.executor.shutdown();
+            }
+            for (Partition partition : this.partitions.values()) {
+                partition.client.close();
+            }
+            this.partitions.clear();
+            if (this.asyncClient != null) {
+                this.asyncClient.close();
+            }
+        }
+        this.client.close();
+    }
+
+    private static class Partition {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient client;
+
+        private Partition(PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient client) {
+            this.connectionManager = connectionManager;
+            this.client = client;
+        }
+    }
+
+    private static class BasicAuthorization {
+        private final Credentials credentials;
+        private final String header;
+
+        private BasicAuthorization(Credentials credentials) {
+            this.credentials = credentials;
+            String userPass = credentials.getUserPrincipal().getName() + ":" + credentials.getPassword();
+            this.header = "Basic " + Base64.encodeBase64String(userPass.getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
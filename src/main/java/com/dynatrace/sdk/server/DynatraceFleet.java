@@ -0,0 +1,316 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.incidents.Incidents;
+import com.dynatrace.sdk.server.incidents.models.FetchIncidentsRequest;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncident;
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import com.dynatrace.sdk.server.systemprofiles.models.SystemProfile;
+import org.apache.http.annotation.ThreadSafe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs operations concurrently across a fleet of Dynatrace servers, one {@link DynatraceClient} per server,
+ * and merges their results into a {@link FleetResult}. A server failing or not responding within the time budget
+ * does not fail the operation, it is reported along with the results of the other servers.
+ */
+@ThreadSafe
+public class DynatraceFleet implements Closeable {
+    //60 seconds default time budget of an operation across the whole fleet
+    public static final long DEFAULT_TIME_BUDGET = 60000;
+
+    /**
+     * An operation run against every server of the fleet
+     *
+     * @param <E> type of the items the operation returns
+     */
+    public interface Operation<E> {
+        /**
+         * @param client client of a single server
+         * @return items returned by the server, {@code null} is treated as no items
+         * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+         * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+         */
+        Collection<? extends E> execute(DynatraceClient client) throws ServerConnectionException, ServerResponseException;
+    }
+
+    private static ExecutorService fleetExecutor() {
+        // a thread per server and operation, so neither a slow server nor a concurrent operation delays calls to the others
+        return Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dynatrace-sdk-fleet-" + this.count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private static List<DynatraceClient> clients(List<? extends ServerConfiguration> configurations) {
+        List<DynatraceClient> clients = new ArrayList<>(configurations.size());
+        try {
+            for (ServerConfiguration configuration : configurations) {
+                clients.add(new DynatraceClient(configuration));
+            }
+        } catch (RuntimeException e) {
+            for (DynatraceClient client : clients) {
+                try {
+                    client.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            throw e;
+        }
+        return clients;
+    }
+
+    private final List<DynatraceClient> clients;
+    private final boolean ownsClients;
+    private final ExecutorService executor;
+    private volatile long timeBudget = DEFAULT_TIME_BUDGET;
+
+    /**
+     * Constructs a fleet creating a client for every server, the clients are closed on {@link #close()}
+     *
+     * @param configurations configurations of the servers
+     */
+    public DynatraceFleet(List<? extends ServerConfiguration> configurations) {
+        this(clients(configurations), true);
+    }
+
+    /**
+     * Constructs a fleet of already configured clients, e.g. with retry policies or codecs set
+     *
+     * @param clients clients of the servers, they are not closed on {@link #close()}
+     */
+    public DynatraceFleet(Collection<DynatraceClient> clients) {
+        this(new ArrayList<>(clients), false);
+    }
+
+    private DynatraceFleet(List<DynatraceClient> clients, boolean ownsClients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("Fleet must contain at least one server");
+        }
+        this.clients = Collections.unmodifiableList(clients);
+        this.ownsClients = ownsClients;
+        this.executor = fleetExecutor();
+    }
+
+    /**
+     * @return clients of the servers, in the order the servers were given
+     */
+    public List<DynatraceClient> getClients() {
+        return this.clients;
+    }
+
+    /**
+     * Sets the time an operation may take across the whole fleet, servers not responding in time are reported as failed
+     * and their requests are aborted. A shorter {@link Deadline#current() deadline} of the caller takes precedence, cancelling it aborts
+     * the requests as well.
+     *
+     * @param timeBudget time budget of an operation
+     * @param unit       unit of {@code timeBudget}
+     */
+    public void setTimeBudget(long timeBudget, TimeUnit unit) {
+        if (timeBudget <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid time budget: timeBudget[%d]", timeBudget));
+        }
+        this.timeBudget = unit.toMillis(timeBudget);
+    }
+
+    public long getTimeBudget(TimeUnit unit) {
+        return unit.convert(this.timeBudget, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs given {@code operation} concurrently against all servers and merges the returned items
+     *
+     * @param operation operation to run
+     * @param <E>       item type
+     * @return items of the servers which succeeded along with the failures of the others
+     * @throws ServerConnectionException whenever the calling thread is interrupted while waiting for the servers
+     */
+    public <E> FleetResult<E> execute(final Operation<E> operation) throws ServerConnectionException {
+        long start = System.nanoTime();
+        Deadline current = Deadline.current();
+        final Deadline deadline = current != null
+                ? current.child(this.timeBudget, TimeUnit.MILLISECONDS) : Deadline.after(this.timeBudget, TimeUnit.MILLISECONDS);
+
+        List<Future<Collection<? extends E>>> pending = new ArrayList<>(this.clients.size());
+        for (final DynatraceClient client : this.clients) {
+            pending.add(this.executor.submit(new Callable<Collection<? extends E>>() {
+                @Override
+                public Collection<? extends E> call() throws Exception {
+                    try (Deadline.Scope scope = deadline.enter()) {
+                        return operation.execute(client);
+                    }
+                }
+            }));
+        }
+
+        List<FleetResult.Item<E>> items = new ArrayList<>();
+        Map<ServerConfiguration, Integer> counts = new LinkedHashMap<>();
+        Map<ServerConfiguration, Exception> failures = new LinkedHashMap<>();
+        for (int i = 0; i < pending.size(); i++) {
+            ServerConfiguration server = this.clients.get(i).getConfiguration();
+            Future<Collection<? extends E>> future = pending.get(i);
+            try {
+                Collection<? extends E> values = future.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                int count = 0;
+                if (values != null) {
+                    for (E value : values) {
+                        items.add(new FleetResult.Item<>(server, value));
+                        count++;
+                    }
+                }
+                counts.put(server, count);
+            } catch (ExecutionException e) {
+                failures.put(server, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+            } catch (TimeoutException e) {
+                // the deadline aborts the requests of the server, the call completes shortly
+                future.cancel(true);
+                failures.put(server, new ServerConnectionException("Could not connect to Dynatrace Server: deadline exceeded", e));
+            } catch (InterruptedException e) {
+                deadline.cancel();
+                Thread.currentThread().interrupt();
+                throw new ServerConnectionException("Interrupted while waiting for the fleet", e);
+            }
+        }
+        return new FleetResult<>(items, counts, failures, System.nanoTime() - start);
+    }
+
+    /**
+     * Lists the agents connected to the servers
+     *
+     * @return agents tagged with their servers
+     * @throws ServerConnectionException whenever the calling thread is interrupted while waiting for the servers
+     */
+    public FleetResult<AgentInformation> fetchAgents() throws ServerConnectionException {
+        return this.execute(new Operation<AgentInformation>() {
+            @Override
+            public Collection<? extends AgentInformation> execute(DynatraceClient client) throws ServerConnectionException, ServerResponseException {
+                return new AgentsAndCollectors(client).fetchAgents().getAgents();
+            }
+        });
+    }
+
+    /**
+     * Lists the collectors connected to the servers
+     *
+     * @return collectors tagged with their servers
+     * @throws ServerConnectionException whenever the calling thread is interrupted while waiting for the servers
+     */
+    public FleetResult<CollectorInformation> fetchCollectors() throws ServerConnectionException {
+        return this.execute(new Operation<CollectorInformation>() {
+            @Override
+            public Collection<? extends CollectorInformation> execute(DynatraceClient client) throws ServerConnectionException, ServerResponseException {
+                return new AgentsAndCollectors(client).fetchCollectors().getCollectors();
+            }
+        });
+    }
+
+    /**
+     * Lists the System Profiles of the servers
+     *
+     * @return profiles tagged with their servers
+     * @throws ServerConnectionException whenever the calling thread is interrupted while waiting for the servers
+     */
+    public FleetResult<SystemProfile> getSystemProfiles() throws ServerConnectionException {
+        return this.execute(new Operation<SystemProfile>() {
+            @Override
+            public Collection<? extends SystemProfile> execute(DynatraceClient client) throws ServerConnectionException, ServerResponseException {
+                return new SystemProfiles(client).getSystemProfiles().getProfiles();
+            }
+        });
+    }
+
+    /**
+     * Fetches the incidents of a System Profile's incident rule from every server
+     *
+     * @param request parameters of the incidents to fetch, the same on all servers
+     * @return incident references tagged with their servers
+     * @throws ServerConnectionException whenever the calling thread is interrupted while waiting for the servers
+     */
+    public FleetResult<FetchedIncident> fetchIncidents(final FetchIncidentsRequest request) throws ServerConnectionException {
+        return this.execute(new Operation<FetchedIncident>() {
+            @Override
+            public Collection<? extends FetchedIncident> execute(DynatraceClient client) throws ServerConnectionException, ServerResponseException {
+                return new Incidents(client).fetchIncidents(request).getIncidents();
+            }
+        });
+    }
+
+    /**
+     * Shuts down the executor of the fleet and closes the clients it created
+     *
+     * @throws IOException whenever closing a client fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.executor.shutdownNow();
+        if (this.ownsClients) {
+            IOException failure = null;
+            for (DynatraceClient client : this.clients) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
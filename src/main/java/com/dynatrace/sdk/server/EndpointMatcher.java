@@ -0,0 +1,145 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.metrics.MetricsCollector;
+import org.apache.http.annotation.ThreadSafe;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves request paths to endpoint templates declared by a {@link Service} as {@code public static final String *_EP} constants,
+ * where {@code %s} and {@code %d} match a single path segment. Used to key metrics by endpoint instead of by concrete path.
+ */
+@ThreadSafe
+final class EndpointMatcher {
+    private static final ConcurrentMap<Class<?>, EndpointMatcher> MATCHERS = new ConcurrentHashMap<>();
+
+    private final List<Template> templates;
+
+    private EndpointMatcher(List<Template> templates) {
+        this.templates = templates;
+    }
+
+    static EndpointMatcher forClass(Class<?> serviceClass) {
+        EndpointMatcher matcher = MATCHERS.get(serviceClass);
+        if (matcher == null) {
+            matcher = new EndpointMatcher(templates(serviceClass));
+            EndpointMatcher existing = MATCHERS.putIfAbsent(serviceClass, matcher);
+            if (existing != null) {
+                matcher = existing;
+            }
+        }
+        return matcher;
+    }
+
+    private static List<Template> templates(Class<?> serviceClass) {
+        List<Template> templates = new ArrayList<>();
+        for (Class<?> clazz = serviceClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (field.getName().endsWith("_EP") && field.getType() == String.class
+                        && Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                    try {
+                        templates.add(new Template((String) field.get(null)));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+        // more literal segments win, e.g. /profiles/%s/enable over /profiles/%s/%s
+        Collections.sort(templates, new Comparator<Template>() {
+            @Override
+            public int compare(Template a, Template b) {
+                return b.literals - a.literals;
+            }
+        });
+        return templates;
+    }
+
+    /**
+     * @param uri requested URI
+     * @return matching endpoint template or {@link MetricsCollector#OTHER_ENDPOINT}
+     */
+    String match(URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || this.templates.isEmpty()) {
+            return MetricsCollector.OTHER_ENDPOINT;
+        }
+        String[] segments = path.split("/", -1);
+        for (Template template : this.templates) {
+            if (template.matches(segments)) {
+                return template.template;
+            }
+        }
+        return MetricsCollector.OTHER_ENDPOINT;
+    }
+
+    private static final class Template {
+        private final String template;
+        private final String[] segments;
+        private final int literals;
+
+        private Template(String template) {
+            this.template = template;
+            this.segments = template.split("/", -1);
+            int literals = 0;
+            for (String segment : this.segments) {
+                if (!isVariable(segment)) {
+                    literals++;
+                }
+            }
+            this.literals = literals;
+        }
+
+        private static boolean isVariable(String segment) {
+            return segment.equals("%s") || segment.equals("%d");
+        }
+
+        private boolean matches(String[] path) {
+            if (path.length != this.segments.length) {
+                return false;
+            }
+            for (int i = 0; i < path.length; i++) {
+                if (!isVariable(this.segments[i]) && !this.segments[i].equals(path[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.Immutable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An endpoint path declared as a {@code *_EP} constant, split once into literal segments and variables
+ * so expanding it costs neither {@link String#format} nor URI parsing.
+ * Variables ({@code %s} and {@code %d}) are percent-encoded as a single path segment, including {@code /}, {@code ?} and {@code %}.
+ * <pre>{@code EndpointTemplate.compile("/rest/management/profiles/%s/enable").expand("easy/Travel")}</pre>
+ * expands to {@code /rest/management/profiles/easy%2FTravel/enable}.
+ */
+@Immutable
+public final class EndpointTemplate {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    // unreserved and sub-delims characters along with ':' and '@', see RFC 3986 pchar
+    private static final boolean[] SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c : "-._~!$&'()*+,;=:@".toCharArray()) {
+            SAFE[c] = true;
+        }
+    }
+
+    private final String template;
+    // literals.length == variables + 1, variables are placed between consecutive literals
+    private final String[] literals;
+    private final int literalLength;
+
+    private EndpointTemplate(String template, String[] literals) {
+        this.template = template;
+        this.literals = literals;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * @param template endpoint path with {@code %s} or {@code %d} in place of variables, e.g. one of the {@code *_EP} constants of the services
+     * @return compiled template
+     */
+    public static EndpointTemplate compile(String template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Template must not be null");
+        }
+        List<String> literals = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < template.length() - 1; i++) {
+            if (template.charAt(i) == '%') {
+                char conversion = template.charAt(i + 1);
+                if (conversion != 's' && conversion != 'd') {
+                    throw new IllegalArgumentException(String.format("Unsupported conversion %%%s in %s", conversion, template));
+                }
+                literals.add(template.substring(start, i));
+                start = i + 2;
+                i++;
+            }
+        }
+        literals.add(template.substring(start));
+        return new EndpointTemplate(template, literals.toArray(new String[literals.size()]));
+    }
+
+    /**
+     * @return template the endpoint was compiled from
+     */
+    public String getTemplate() {
+        return this.template;
+    }
+
+    public int getVariableCount() {
+        return this.literals.length - 1;
+    }
+
+    /**
+     * @param variables values of the variables in order, {@code null} is expanded to {@code "null"} as by {@link String#format}
+     * @return percent-encoded path
+     */
+    public String expand(Object... variables) {
+        StringBuilder path = new StringBuilder(this.literalLength + 16 * variables.length);
+        this.appendTo(path, variables);
+        return path.toString();
+    }
+
+    /**
+     * Appends the percent-encoded path to {@code target}
+     *
+     * @param target    builder to append to
+     * @param variables values of the variables in order, {@code null} is expanded to {@code "null"} as by {@link String#format}
+     */
+    public void appendTo(StringBuilder target, Object... variables) {
+        if (variables.length != this.getVariableCount()) {
+            throw new IllegalArgumentException(String.format("%s expects %d variables, got %d", this.template, this.getVariableCount(), variables.length));
+        }
+        target.append(this.literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            appendEncoded(target, String.valueOf(variables[i]));
+            target.append(this.literals[i + 1]);
+        }
+    }
+
+    private static void appendEncoded(StringBuilder target, String segment) {
+        int length = segment.length();
+        int safe = 0;
+        while (safe < length && isSafe(segment.charAt(safe))) {
+            safe++;
+        }
+        if (safe == length) {
+            // common case, nothing to encode
+            target.append(segment);
+            return;
+        }
+        target.append(segment, 0, safe);
+        for (byte b : segment.substring(safe).getBytes(StandardCharsets.UTF_8)) {
+            if (b >= 0 && SAFE[b]) {
+                target.append((char) b);
+            } else {
+                target.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+        }
+    }
+
+    private static boolean isSafe(char c) {
+        return c < 128 && SAFE[c];
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointTemplate{" +
+                "template='" + this.template + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.Immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merged outcome of an operation run across the servers of a {@link DynatraceFleet}.
+ * Items of all servers which succeeded are tagged with their source server, servers which failed or did not respond within the time budget are reported separately.
+ * Servers are identified by the {@link ServerConfiguration}s of the clients of the fleet.
+ *
+ * @param <E> item type
+ */
+@Immutable
+public final class FleetResult<E> {
+    /**
+     * An item returned by a single server
+     *
+     * @param <E> item type
+     */
+    @Immutable
+    public static final class Item<E> {
+        private final ServerConfiguration server;
+        private final E value;
+
+        Item(ServerConfiguration server, E value) {
+            this.server = server;
+            this.value = value;
+        }
+
+        /**
+         * @return server which returned the item
+         */
+        public ServerConfiguration getServer() {
+            return this.server;
+        }
+
+        public E getValue() {
+            return this.value;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" +
+                    "server=" + this.server.getHost() + ':' + this.server.getPort() +
+                    ", value=" + this.value +
+                    '}';
+        }
+    }
+
+    private final List<Item<E>> items;
+    private final Map<ServerConfiguration, Integer> counts;
+    private final Map<ServerConfiguration, Exception> failures;
+    private final long durationNanos;
+
+    FleetResult(List<Item<E>> items, Map<ServerConfiguration, Integer> counts, Map<ServerConfiguration, Exception> failures, long durationNanos) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.counts = Collections.unmodifiableMap(new LinkedHashMap<>(counts));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return items of all servers which succeeded, in the order of the servers of the fleet
+     */
+    public List<Item<E>> getItems() {
+        return this.items;
+    }
+
+    /**
+     * @return items without the servers they come from
+     */
+    public List<E> getValues() {
+        List<E> values = new ArrayList<>(this.items.size());
+        for (Item<E> item : this.items) {
+            values.add(item.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * @param server configuration of a server of the fleet
+     * @return items returned by given {@code server}, empty if it failed
+     */
+    public List<E> getValues(ServerConfiguration server) {
+        List<E> values = new ArrayList<>();
+        for (Item<E> item : this.items) {
+            if (item.getServer() == server) {
+                values.add(item.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return servers which succeeded mapped to the number of items they returned
+     */
+    public Map<ServerConfiguration, Integer> getSucceeded() {
+        return this.counts;
+    }
+
+    /**
+     * @return servers which failed mapped to the cause, a {@link com.dynatrace.sdk.server.exceptions.ServerConnectionException} for those exceeding the time budget
+     */
+    public Map<ServerConfiguration, Exception> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * @return {@code true} if all servers of the fleet succeeded
+     */
+    public boolean isComplete() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * @param unit unit of the result
+     * @return time from the start of the operation until the last server completed or the time budget passed
+     */
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(this.durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "FleetResult{" +
+                "items=" + this.items.size() +
+                ", succeeded=" + this.counts.size() +
+                ", failed=" + this.failures.size() +
+                ", durationMillis=" + this.getDuration(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
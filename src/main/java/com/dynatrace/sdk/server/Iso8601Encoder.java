@@ -0,0 +1,190 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.Immutable;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Formats instants as ISO 8601 local date and time with milliseconds, e.g. {@code 2016-05-01T10:15:30.042+02:00}.
+ * <p>
+ * Unlike {@link java.text.SimpleDateFormat} an encoder is immutable and can be shared by any number of threads.
+ * Digits are written from a precomputed table without allocating, into a caller's buffer if needed.
+ * Dates are computed in the proleptic Gregorian calendar, thus dates before 1582 differ from {@link java.util.GregorianCalendar}.
+ */
+@Immutable
+public final class Iso8601Encoder {
+    /**
+     * Maximum number of characters of an encoded instant, years are limited to 0 to 9999
+     */
+    public static final int MAX_LENGTH = 29;
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+    private static final char[] DIGITS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGITS[2 * i] = (char) ('0' + i / 10);
+            DIGITS[2 * i + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    private final TimeZone timeZone;
+    private final boolean offset;
+
+    private Iso8601Encoder(TimeZone timeZone, boolean offset) {
+        this.timeZone = (TimeZone) timeZone.clone();
+        this.offset = offset;
+    }
+
+    /**
+     * Creates an encoder appending the offset of the time zone, {@code Z} for UTC,
+     * equal to the {@code yyyy-MM-dd'T'HH:mm:ss.SSSXXX} pattern
+     *
+     * @param timeZone time zone of the local date and time
+     * @return a new encoder
+     */
+    public static Iso8601Encoder withOffset(TimeZone timeZone) {
+        return new Iso8601Encoder(timeZone, true);
+    }
+
+    /**
+     * Creates an encoder leaving out the time zone, equal to the {@code yyyy-MM-dd'T'HH:mm:ss.SSS} pattern
+     *
+     * @param timeZone time zone of the local date and time
+     * @return a new encoder
+     */
+    public static Iso8601Encoder local(TimeZone timeZone) {
+        return new Iso8601Encoder(timeZone, false);
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) this.timeZone.clone();
+    }
+
+    public String format(Date date) {
+        return this.format(date.getTime());
+    }
+
+    /**
+     * @param millis instant in milliseconds since the epoch
+     * @return encoded instant
+     */
+    public String format(long millis) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, this.encode(millis, buffer, 0));
+    }
+
+    /**
+     * Writes the encoded instant into {@code buffer}, which can be reused for many instants
+     *
+     * @param millis instant in milliseconds since the epoch
+     * @param buffer buffer with at least {@link #MAX_LENGTH} characters left after {@code start}
+     * @param start  index of the first written character
+     * @return index following the last written character
+     */
+    public int encode(long millis, char[] buffer, int start) {
+        int offsetMillis = this.timeZone.getOffset(millis);
+        long local = millis + offsetMillis;
+        long days = floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+
+        // civil date of the day count, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long z = days + 719468;
+        long era = floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Year out of range 0-9999: " + year);
+        }
+
+        int i = start;
+        i = writeTwoDigits((int) year / 100, buffer, i);
+        i = writeTwoDigits((int) year % 100, buffer, i);
+        buffer[i++] = '-';
+        i = writeTwoDigits(month, buffer, i);
+        buffer[i++] = '-';
+        i = writeTwoDigits(day, buffer, i);
+        buffer[i++] = 'T';
+        int seconds = millisOfDay / 1000;
+        i = writeTwoDigits(seconds / 3600, buffer, i);
+        buffer[i++] = ':';
+        i = writeTwoDigits(seconds / 60 % 60, buffer, i);
+        buffer[i++] = ':';
+        i = writeTwoDigits(seconds % 60, buffer, i);
+        buffer[i++] = '.';
+        int millisOfSecond = millisOfDay % 1000;
+        buffer[i++] = (char) ('0' + millisOfSecond / 100);
+        i = writeTwoDigits(millisOfSecond % 100, buffer, i);
+        if (this.offset) {
+            i = writeOffset(offsetMillis / 60000, buffer, i);
+        }
+        return i;
+    }
+
+    private static int writeTwoDigits(int value, char[] buffer, int i) {
+        buffer[i] = DIGITS[2 * value];
+        buffer[i + 1] = DIGITS[2 * value + 1];
+        return i + 2;
+    }
+
+    private static int writeOffset(int offsetMinutes, char[] buffer, int i) {
+        if (offsetMinutes == 0) {
+            buffer[i] = 'Z';
+            return i + 1;
+        }
+        buffer[i++] = offsetMinutes < 0 ? '-' : '+';
+        int absolute = Math.abs(offsetMinutes);
+        i = writeTwoDigits(absolute / 60, buffer, i);
+        buffer[i++] = ':';
+        return writeTwoDigits(absolute % 60, buffer, i);
+    }
+
+    private static long floorDiv(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        if ((dividend % divisor != 0) && ((dividend ^ divisor) < 0)) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    @Override
+    public String toString() {
+        return "Iso8601Encoder{" +
+                "timeZone=" + this.timeZone.getID() +
+                ", offset=" + this.offset +
+                '}';
+    }
+}
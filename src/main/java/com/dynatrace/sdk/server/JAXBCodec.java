@@ -0,0 +1,80 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Decodes and encodes any JAXB annotated model with the {@link javax.xml.bind.Unmarshaller} and {@link Marshaller} cached by
+ * {@link JAXBContextRegistry} for the calling thread
+ */
+@ThreadSafe
+public final class JAXBCodec implements ModelCodec {
+    public static final JAXBCodec INSTANCE = new JAXBCodec();
+
+    private JAXBCodec() {
+    }
+
+    @Override
+    public boolean canDecode(Class<?> type) {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(InputStream xml, Class<T> type) throws IOException {
+        try {
+            return (T) JAXBContextRegistry.getUnmarshaller(type).unmarshal(xml);
+        } catch (JAXBException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean canEncode(Class<?> type) {
+        return true;
+    }
+
+    @Override
+    public void encode(Object model, OutputStream xml) throws IOException {
+        try {
+            Marshaller marshaller = JAXBContextRegistry.getMarshaller(model.getClass());
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+            // marshaller neither buffers nor closes the stream, the connection buffers writes itself
+            marshaller.marshal(model, xml);
+        } catch (JAXBException e) {
+            throw new IOException(String.format("Could not marshal %s: %s", model.getClass().getSimpleName(), e.getMessage()), e);
+        }
+    }
+}
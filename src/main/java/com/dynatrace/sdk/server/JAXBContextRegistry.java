@@ -0,0 +1,122 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches {@link JAXBContext} instances per model class.
+ * Creating a context is expensive, whereas the context itself is thread-safe, so it is built once and shared.
+ * {@link Unmarshaller} and {@link Marshaller} are not thread-safe, thus they are cached per thread.
+ */
+@ThreadSafe
+public final class JAXBContextRegistry {
+    private static final ConcurrentMap<Class<?>, JAXBContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<Class<?>, Unmarshaller>> UNMARSHALLERS = new ThreadLocal<Map<Class<?>, Unmarshaller>>() {
+        @Override
+        protected Map<Class<?>, Unmarshaller> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private static final ThreadLocal<Map<Class<?>, Marshaller>> MARSHALLERS = new ThreadLocal<Map<Class<?>, Marshaller>>() {
+        @Override
+        protected Map<Class<?>, Marshaller> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private JAXBContextRegistry() {
+    }
+
+    /**
+     * Returns a shared {@link JAXBContext} bound to given {@code clazz}, creating it on the first call
+     *
+     * @param clazz model class
+     * @return context bound to {@code clazz}
+     * @throws JAXBException whenever the context cannot be created
+     */
+    public static JAXBContext getContext(Class<?> clazz) throws JAXBException {
+        JAXBContext context = CONTEXTS.get(clazz);
+        if (context == null) {
+            // two threads might build a context concurrently, only one of them is kept
+            JAXBContext created = JAXBContext.newInstance(clazz);
+            context = CONTEXTS.putIfAbsent(clazz, created);
+            if (context == null) {
+                context = created;
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Returns an {@link Unmarshaller} bound to given {@code clazz} owned by the calling thread.
+     * <strong>The instance must not be shared with other threads.</strong>
+     *
+     * @param clazz model class
+     * @return unmarshaller of the calling thread
+     * @throws JAXBException whenever the unmarshaller cannot be created
+     */
+    static Unmarshaller getUnmarshaller(Class<?> clazz) throws JAXBException {
+        Map<Class<?>, Unmarshaller> unmarshallers = UNMARSHALLERS.get();
+        Unmarshaller unmarshaller = unmarshallers.get(clazz);
+        if (unmarshaller == null) {
+            unmarshaller = getContext(clazz).createUnmarshaller();
+            unmarshallers.put(clazz, unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Returns a {@link Marshaller} bound to given {@code clazz} owned by the calling thread.
+     * <strong>The instance must not be shared with other threads.</strong>
+     *
+     * @param clazz model class
+     * @return marshaller of the calling thread
+     * @throws JAXBException whenever the marshaller cannot be created
+     */
+    static Marshaller getMarshaller(Class<?> clazz) throws JAXBException {
+        Map<Class<?>, Marshaller> marshallers = MARSHALLERS.get();
+        Marshaller marshaller = marshallers.get(clazz);
+        if (marshaller == null) {
+            marshaller = getContext(clazz).createMarshaller();
+            marshallers.put(clazz, marshaller);
+        }
+        return marshaller;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.NotThreadSafe;
+
+import javax.xml.bind.Marshaller;
+
+/**
+ * Request entity marshalling a JAXB model straight into the connection's output stream as UTF-8 encoded XML,
+ * using the {@link Marshaller} cached by {@link JAXBContextRegistry} for the writing thread.
+ * <p>
+ * Its length is unknown up front, thus the entity is sent with chunked transfer encoding.
+ * The model is marshalled again on every write, which makes the entity repeatable as long as the model is not modified.
+ */
+@NotThreadSafe
+public class JAXBEntity extends ModelEntity {
+    /**
+     * @param object JAXB model to send, annotated with {@link javax.xml.bind.annotation.XmlRootElement}
+     */
+    public JAXBEntity(Object object) {
+        super(object, JAXBCodec.INSTANCE);
+    }
+
+    @Override
+    public String toString() {
+        return "JAXBEntity{" +
+                "object=" + this.getObject() +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Decodes models from XML responses of the server and encodes models into XML request bodies.
+ * {@link JAXBCodec} handles every model and is used unless a codec registered with {@link DynatraceClient#registerModelCodec(ModelCodec)}
+ * handles the class, e.g. one of the {@link StAXCodec}s of the services or {@link XmlBinderCodec}.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface ModelCodec {
+    /**
+     * @param type model class
+     * @return whether this codec decodes instances of {@code type}
+     */
+    boolean canDecode(Class<?> type);
+
+    /**
+     * @param xml  document to decode, it is not closed
+     * @param type model class of the document's root element
+     * @param <T>  model type
+     * @return decoded model
+     * @throws IOException whenever reading fails or the document is malformed, with the failure of the underlying parser as its cause
+     */
+    <T> T decode(InputStream xml, Class<T> type) throws IOException;
+
+    /**
+     * @param type model class
+     * @return whether this codec encodes instances of {@code type}
+     */
+    boolean canEncode(Class<?> type);
+
+    /**
+     * Writes given model as an UTF-8 encoded document
+     *
+     * @param model model to encode
+     * @param xml   stream to write to, it is not closed
+     * @throws IOException whenever writing fails, with the failure of the underlying writer as its cause
+     */
+    void encode(Object model, OutputStream xml) throws IOException;
+}
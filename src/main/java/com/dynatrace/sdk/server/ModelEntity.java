@@ -0,0 +1,118 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.NotThreadSafe;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Request entity encoding a model with a {@link ModelCodec} straight into the connection's output stream as UTF-8 encoded XML.
+ * <p>
+ * Its length is unknown up front, thus the entity is sent with chunked transfer encoding.
+ * The model is encoded again on every write, which makes the entity repeatable as long as the model is not modified.
+ */
+@NotThreadSafe
+public class ModelEntity extends AbstractHttpEntity {
+    public static final ContentType CONTENT_TYPE = ContentType.create("application/xml", "UTF-8");
+
+    private final Object object;
+    private final ModelCodec codec;
+
+    /**
+     * @param object model to send
+     * @param codec  codec encoding the model
+     */
+    public ModelEntity(Object object, ModelCodec codec) {
+        if (object == null) {
+            throw new IllegalArgumentException("Object to marshal must not be null");
+        }
+        if (codec == null || !codec.canEncode(object.getClass())) {
+            throw new IllegalArgumentException(String.format("Codec does not encode %s", object.getClass().getName()));
+        }
+        this.object = object;
+        this.codec = codec;
+        this.setContentType(CONTENT_TYPE.toString());
+        this.setChunked(true);
+    }
+
+    public Object getObject() {
+        return this.object;
+    }
+
+    public ModelCodec getCodec() {
+        return this.codec;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Encodes the model into memory, meant for debugging only as requests are sent through {@link #writeTo(OutputStream)}
+     *
+     * @return stream of the encoded model
+     * @throws IOException whenever encoding fails
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        this.writeTo(os);
+        return new ByteArrayInputStream(os.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream os) throws IOException {
+        this.codec.encode(this.object, os);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelEntity{" +
+                "object=" + this.object +
+                ", codec=" + this.codec.getClass().getSimpleName() +
+                '}';
+    }
+}
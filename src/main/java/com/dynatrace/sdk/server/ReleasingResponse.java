@@ -0,0 +1,227 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Response running a release action once it is closed.
+ * Keeps resources guarding the request, e.g. a {@link Bulkhead} permit, held while the caller still reads the response.
+ */
+final class ReleasingResponse implements CloseableHttpResponse {
+    private final CloseableHttpResponse response;
+    private final Runnable release;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private ReleasingResponse(CloseableHttpResponse response, Runnable release) {
+        this.response = response;
+        this.release = release;
+    }
+
+    /**
+     * @param response response to wrap
+     * @param release  action run once the response is closed
+     * @return wrapped response, or given {@code response} after running {@code release} if it has no entity and thus holds no connection
+     */
+    static CloseableHttpResponse wrap(CloseableHttpResponse response, Runnable release) {
+        if (response.getEntity() == null) {
+            release.run();
+            return response;
+        }
+        return new ReleasingResponse(response, release);
+    }
+
+    private void release() {
+        if (this.released.compareAndSet(false, true)) {
+            this.release.run();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.response.close();
+        } finally {
+            this.release();
+        }
+    }
+
+    @Override
+    public StatusLine getStatusLine() {
+        return this.response.getStatusLine();
+    }
+
+    @Override
+    public void setStatusLine(StatusLine statusline) {
+        this.response.setStatusLine(statusline);
+    }
+
+    @Override
+    public void setStatusLine(ProtocolVersion ver, int code) {
+        this.response.setStatusLine(ver, code);
+    }
+
+    @Override
+    public void setStatusLine(ProtocolVersion ver, int code, String reason) {
+        this.response.setStatusLine(ver, code, reason);
+    }
+
+    @Override
+    public void setStatusCode(int code) {
+        this.response.setStatusCode(code);
+    }
+
+    @Override
+    public void setReasonPhrase(String reason) {
+        this.response.setReasonPhrase(reason);
+    }
+
+    @Override
+    public HttpEntity getEntity() {
+        return this.response.getEntity();
+    }
+
+    @Override
+    public void setEntity(HttpEntity entity) {
+        this.response.setEntity(entity);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return this.response.getLocale();
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        this.response.setLocale(loc);
+    }
+
+    @Override
+    public ProtocolVersion getProtocolVersion() {
+        return this.response.getProtocolVersion();
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return this.response.containsHeader(name);
+    }
+
+    @Override
+    public Header[] getHeaders(String name) {
+        return this.response.getHeaders(name);
+    }
+
+    @Override
+    public Header getFirstHeader(String name) {
+        return this.response.getFirstHeader(name);
+    }
+
+    @Override
+    public Header getLastHeader(String name) {
+        return this.response.getLastHeader(name);
+    }
+
+    @Override
+    public Header[] getAllHeaders() {
+        return this.response.getAllHeaders();
+    }
+
+    @Override
+    public void addHeader(Header header) {
+        this.response.addHeader(header);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        this.response.addHeader(name, value);
+    }
+
+    @Override
+    public void setHeader(Header header) {
+        this.response.setHeader(header);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        this.response.setHeader(name, value);
+    }
+
+    @Override
+    public void setHeaders(Header[] headers) {
+        this.response.setHeaders(headers);
+    }
+
+    @Override
+    public void removeHeader(Header header) {
+        this.response.removeHeader(header);
+    }
+
+    @Override
+    public void removeHeaders(String name) {
+        this.response.removeHeaders(name);
+    }
+
+    @Override
+    public HeaderIterator headerIterator() {
+        return this.response.headerIterator();
+    }
+
+    @Override
+    public HeaderIterator headerIterator(String name) {
+        return this.response.headerIterator(name);
+    }
+
+    // HttpParams is qualified rather than imported, javac 8 warns about imports of deprecated types regardless
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.params.HttpParams getParams() {
+        return this.response.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public void setParams(org.apache.http.params.HttpParams params) {
+        this.response.setParams(params);
+    }
+
+    @Override
+    public String toString() {
+        return this.response.toString();
+    }
+}
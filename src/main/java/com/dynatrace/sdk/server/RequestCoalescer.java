@@ -0,0 +1,301 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+/**
+ * Coalesces identical requests in flight: while a request for an URI and response class is executed,
+ * concurrent callers asking for the same wait for it and receive the same result (or failure) instead of sending their own request.
+ * Nothing is cached, a request arriving after the previous one completed is executed again.
+ * Asynchronous requests are coalesced with each other, apart from blocking ones.
+ */
+@ThreadSafe
+final class RequestCoalescer {
+    private final ConcurrentMap<Key, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, SharedFlight> sharedInFlight = new ConcurrentHashMap<>();
+
+    interface Request<T> {
+        T execute() throws ServerConnectionException, ServerResponseException;
+    }
+
+    interface AsyncRequest<T> {
+        Future<T> execute(FutureCallback<T> callback);
+    }
+
+    <T> T execute(URI uri, Class<T> responseClass, Request<T> request) throws ServerConnectionException, ServerResponseException {
+        Key key = new Key(uri, responseClass);
+        InFlight flight = new InFlight();
+        InFlight leader = this.inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return responseClass.cast(leader.await());
+        }
+        try {
+            T result = request.execute();
+            flight.complete(result, null);
+            return result;
+        } catch (ServerConnectionException | ServerResponseException | RuntimeException | Error e) {
+            flight.complete(null, e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #execute(URI, Class, Request)}. Cancelling a returned future detaches its caller only,
+     * the shared request is cancelled once every caller waiting for it has cancelled.
+     */
+    <T> Future<T> executeAsync(URI uri, Class<T> responseClass, AsyncRequest<T> request, FutureCallback<T> callback) {
+        Key key = new Key(uri, responseClass);
+        while (true) {
+            final SharedFlight flight = new SharedFlight(key);
+            SharedFlight leader = this.sharedInFlight.putIfAbsent(key, flight);
+            if (leader == null) {
+                Subscriber<T> subscriber = flight.subscribe(responseClass, callback);
+                flight.start(request.execute(new FutureCallback<T>() {
+                    @Override
+                    public void completed(T result) {
+                        flight.completed(result);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        flight.failed(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        flight.cancelled();
+                    }
+                }));
+                return subscriber;
+            }
+            Subscriber<T> subscriber = leader.subscribe(responseClass, callback);
+            if (subscriber != null) {
+                return subscriber;
+            }
+            // the leader completed meanwhile, its request is not shared anymore
+        }
+    }
+
+    int size() {
+        return this.inFlight.size() + this.sharedInFlight.size();
+    }
+
+    // every waiter gets its own exception, so the stack trace points to the waiting caller
+    private static Throwable copy(Throwable failure) {
+        if (failure instanceof ServerResponseException) {
+            ServerResponseException e = (ServerResponseException) failure;
+            return new ServerResponseException(e.getStatusCode(), e.getMessage(), e);
+        } else if (failure instanceof ServerConnectionException) {
+            return new ServerConnectionException(failure.getMessage(), failure);
+        }
+        return failure;
+    }
+
+    private static final class Key {
+        private final URI uri;
+        private final Class<?> responseClass;
+
+        private Key(URI uri, Class<?> responseClass) {
+            this.uri = uri;
+            this.responseClass = responseClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.uri.equals(key.uri) && this.responseClass == key.responseClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.uri.hashCode() + this.responseClass.hashCode();
+        }
+    }
+
+    private static final class InFlight {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Object result;
+        private Throwable failure;
+
+        private void complete(Object result, Throwable failure) {
+            this.result = result;
+            this.failure = failure;
+            this.done.countDown();
+        }
+
+        private Object await() throws ServerConnectionException, ServerResponseException {
+            try {
+                this.done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServerConnectionException("Interrupted while waiting for a coalesced request", e);
+            }
+            Throwable failure = copy(this.failure);
+            if (failure instanceof ServerResponseException) {
+                throw (ServerResponseException) failure;
+            } else if (failure instanceof ServerConnectionException) {
+                throw (ServerConnectionException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return this.result;
+        }
+    }
+
+    /**
+     * Asynchronous request shared by the subscribed callers
+     */
+    private final class SharedFlight {
+        private final Key key;
+        private final List<Subscriber<?>> subscribers = new ArrayList<>();
+        private boolean done;
+        private Future<?> source;
+
+        private SharedFlight(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * @return future of the subscribed caller or {@code null} if the request completed already
+         */
+        private synchronized <T> Subscriber<T> subscribe(Class<T> responseClass, FutureCallback<T> callback) {
+            if (this.done) {
+                return null;
+            }
+            Subscriber<T> subscriber = new Subscriber<>(this, responseClass, callback);
+            this.subscribers.add(subscriber);
+            return subscriber;
+        }
+
+        private void start(Future<?> source) {
+            boolean abandoned;
+            synchronized (this) {
+                this.source = source;
+                abandoned = this.done;
+            }
+            if (abandoned) {
+                source.cancel(true);
+            }
+        }
+
+        private List<Subscriber<?>> finish() {
+            RequestCoalescer.this.sharedInFlight.remove(this.key, this);
+            synchronized (this) {
+                this.done = true;
+                return new ArrayList<>(this.subscribers);
+            }
+        }
+
+        private void completed(Object result) {
+            for (Subscriber<?> subscriber : this.finish()) {
+                subscriber.complete(result);
+            }
+        }
+
+        private void failed(Exception e) {
+            for (Subscriber<?> subscriber : this.finish()) {
+                Throwable failure = copy(e);
+                subscriber.failed(failure instanceof Exception ? (Exception) failure : e);
+            }
+        }
+
+        private void cancelled() {
+            for (Subscriber<?> subscriber : this.finish()) {
+                subscriber.cancel(true);
+            }
+        }
+
+        private void subscriberCancelled() {
+            Future<?> source;
+            synchronized (this) {
+                if (this.done) {
+                    return;
+                }
+                for (Subscriber<?> subscriber : this.subscribers) {
+                    if (!subscriber.isCancelled()) {
+                        return;
+                    }
+                }
+                // nobody waits for the result anymore
+                this.done = true;
+                source = this.source;
+            }
+            RequestCoalescer.this.sharedInFlight.remove(this.key, this);
+            if (source != null) {
+                source.cancel(true);
+            }
+        }
+    }
+
+    private static final class Subscriber<T> extends BasicFuture<T> {
+        private final SharedFlight flight;
+        private final Class<T> responseClass;
+
+        private Subscriber(SharedFlight flight, Class<T> responseClass, FutureCallback<T> callback) {
+            super(callback);
+            this.flight = flight;
+            this.responseClass = responseClass;
+        }
+
+        private void complete(Object result) {
+            this.completed(this.responseClass.cast(result));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                this.flight.subscriberCancelled();
+            }
+            return cancelled;
+        }
+    }
+}
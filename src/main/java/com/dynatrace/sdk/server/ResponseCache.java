@@ -0,0 +1,442 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of parsed responses with a time to live and background refresh-ahead.
+ * A read of an entry close to its expiry returns the cached value and schedules a reload on the given {@link Executor},
+ * so frequently read entries are never reloaded on the caller's thread. Cached values are shared between callers and should not be modified.
+ *
+ * @param <K> key type, e.g. the name of a fetched entity
+ * @param <V> cached response type
+ */
+@ThreadSafe
+public class ResponseCache<K, V> {
+    /**
+     * Loads a value on a cache miss or refresh
+     *
+     * @param <V> loaded value type
+     */
+    public interface Loader<V> {
+        V load() throws ServerConnectionException, ServerResponseException;
+    }
+
+    /**
+     * Loads a value with an asynchronous call on a cache miss or refresh
+     *
+     * @param <V> loaded value type
+     */
+    public interface AsyncLoader<V> {
+        Future<V> load(FutureCallback<V> callback);
+    }
+
+    private final CacheConfiguration configuration;
+    private final Executor refresher;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // loads in flight per key, guarded by the entries; loads started before their key was invalidated don't store their stale result
+    private final Map<K, Loads> loads = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param configuration size and timing of the cache
+     * @param refresher     executor running background refreshes
+     */
+    public ResponseCache(final CacheConfiguration configuration, Executor refresher) {
+        this.configuration = configuration;
+        this.refresher = refresher;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (this.size() > configuration.getMaxSize()) {
+                    ResponseCache.this.evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached value of the {@code key}, loading it with {@code loader} if it's missing or expired
+     *
+     * @param key    key of the value
+     * @param loader loads the value on a miss or refresh
+     * @return cached or freshly loaded value
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    public V get(K key, Loader<V> loader) throws ServerConnectionException, ServerResponseException {
+        long now = System.nanoTime();
+        Entry<V> entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+        }
+        if (entry != null && now - entry.expiresAt < 0) {
+            this.hits.incrementAndGet();
+            if (this.configuration.getRefreshAhead() > 0 && now - entry.refreshAt >= 0 && entry.refreshing.compareAndSet(false, true)) {
+                this.refresh(key, entry, loader);
+            }
+            return entry.value;
+        }
+        this.misses.incrementAndGet();
+        long generation = this.startLoad(key);
+        V value;
+        try {
+            value = loader.load();
+        } catch (ServerConnectionException | ServerResponseException | RuntimeException e) {
+            this.endLoad(key);
+            throw e;
+        }
+        this.store(key, value, generation, null);
+        return value;
+    }
+
+    /**
+     * Asynchronous version of {@link #get(Object, Loader)}, a cached value completes the returned future right away
+     *
+     * @param key      key of the value
+     * @param loader   loads the value on a miss or refresh
+     * @param callback callback notified once the value is available, might be {@code null}
+     * @return future completed with the cached or freshly loaded value
+     */
+    public Future<V> getAsync(final K key, AsyncLoader<V> loader, FutureCallback<V> callback) {
+        long now = System.nanoTime();
+        Entry<V> entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+        }
+        if (entry != null && now - entry.expiresAt < 0) {
+            this.hits.incrementAndGet();
+            if (this.configuration.getRefreshAhead() > 0 && now - entry.refreshAt >= 0 && entry.refreshing.compareAndSet(false, true)) {
+                this.refresh(key, entry, loader);
+            }
+            BasicFuture<V> future = new BasicFuture<>(callback);
+            future.completed(entry.value);
+            return future;
+        }
+        this.misses.incrementAndGet();
+        final LoadingFuture<V> future = new LoadingFuture<>(callback);
+        final long generation = this.startLoad(key);
+        try {
+            future.loading = loader.load(new FutureCallback<V>() {
+                @Override
+                public void completed(V value) {
+                    // stored before the caller is notified, so it reads its own load afterwards
+                    ResponseCache.this.store(key, value, generation, null);
+                    future.completed(value);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    ResponseCache.this.endLoad(key);
+                    future.failed(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    ResponseCache.this.endLoad(key);
+                    future.cancel(true);
+                }
+            });
+        } catch (RuntimeException e) {
+            this.endLoad(key);
+            throw e;
+        }
+        if (future.isCancelled()) {
+            future.loading.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Sends an asynchronous call modifying cached responses, running {@code invalidation} once the call finished and before the returned future completes,
+     * so a caller reading after waiting for the future doesn't see stale entries
+     *
+     * @param call         sends the modifying call
+     * @param invalidation invalidates the affected entries, run whether the call succeeded or not
+     * @param callback     callback notified once the call finished, might be {@code null}
+     * @param <T>          result type
+     * @return future completed with the result of the call after the invalidation
+     */
+    public static <T> Future<T> invalidating(AsyncLoader<T> call, final Runnable invalidation, FutureCallback<T> callback) {
+        final LoadingFuture<T> future = new LoadingFuture<>(callback);
+        future.loading = call.load(new FutureCallback<T>() {
+            @Override
+            public void completed(T result) {
+                invalidation.run();
+                future.completed(result);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                invalidation.run();
+                future.failed(e);
+            }
+
+            @Override
+            public void cancelled() {
+                invalidation.run();
+                future.cancel(true);
+            }
+        });
+        if (future.isCancelled()) {
+            future.loading.cancel(true);
+        }
+        return future;
+    }
+
+    public void invalidate(K key) {
+        synchronized (this.entries) {
+            this.entries.remove(key);
+            Loads loads = this.loads.get(key);
+            if (loads != null) {
+                loads.generation++;
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+            for (Loads loads : this.loads.values()) {
+                loads.generation++;
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return number of background refreshes which completed successfully
+     */
+    public long getRefreshCount() {
+        return this.refreshes.get();
+    }
+
+    public long getRefreshFailureCount() {
+        return this.refreshFailures.get();
+    }
+
+    /**
+     * @return number of entries evicted because the cache was full
+     */
+    public long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    public CacheConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
+    private void refresh(final K key, final Entry<V> entry, final Loader<V> loader) {
+        final long generation = this.startLoad(key);
+        try {
+            this.refresher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    V value;
+                    try {
+                        value = loader.load();
+                    } catch (ServerConnectionException | ServerResponseException | RuntimeException e) {
+                        ResponseCache.this.refreshFailed(key, entry);
+                        return;
+                    }
+                    ResponseCache.this.refreshed(key, value, generation, entry);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.refreshFailed(key, entry);
+        }
+    }
+
+    private void refresh(final K key, final Entry<V> entry, AsyncLoader<V> loader) {
+        final long generation = this.startLoad(key);
+        try {
+            loader.load(new FutureCallback<V>() {
+                @Override
+                public void completed(V value) {
+                    ResponseCache.this.refreshed(key, value, generation, entry);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    ResponseCache.this.refreshFailed(key, entry);
+                }
+
+                @Override
+                public void cancelled() {
+                    this.failed(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            this.refreshFailed(key, entry);
+        }
+    }
+
+    private void refreshed(K key, V value, long generation, Entry<V> entry) {
+        if (this.store(key, value, generation, entry)) {
+            this.refreshes.incrementAndGet();
+        } else {
+            // the entry was invalidated or replaced meanwhile, a still cached entry may be refreshed again
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void refreshFailed(K key, Entry<V> entry) {
+        this.endLoad(key);
+        // the entry stays until it expires, the next read retries the refresh
+        this.refreshFailures.incrementAndGet();
+        entry.refreshing.set(false);
+    }
+
+    /**
+     * Registers a load of the {@code key} in flight, each must be ended by {@link #store(Object, Object, long, Entry)} or {@link #endLoad(Object)}
+     *
+     * @return generation of the key the load is started in
+     */
+    private long startLoad(K key) {
+        synchronized (this.entries) {
+            Loads loads = this.loads.get(key);
+            if (loads == null) {
+                loads = new Loads();
+                this.loads.put(key, loads);
+            }
+            loads.inFlight++;
+            return loads.generation;
+        }
+    }
+
+    private void endLoad(K key) {
+        synchronized (this.entries) {
+            this.end(key);
+        }
+    }
+
+    private long end(K key) {
+        Loads loads = this.loads.get(key);
+        if (--loads.inFlight == 0) {
+            this.loads.remove(key);
+        }
+        return loads.generation;
+    }
+
+    /**
+     * Ends a load, storing its {@code value} unless the key was invalidated since the load started or the {@code replaced} entry is no longer cached
+     *
+     * @return whether the value was stored
+     */
+    private boolean store(K key, V value, long generation, Entry<V> replaced) {
+        long now = System.nanoTime();
+        long expiresAt = now + TimeUnit.MILLISECONDS.toNanos(this.configuration.getTimeToLive());
+        long refreshAt = expiresAt - TimeUnit.MILLISECONDS.toNanos(this.configuration.getRefreshAhead());
+        Entry<V> entry = new Entry<>(value, expiresAt, refreshAt);
+        synchronized (this.entries) {
+            if (this.end(key) != generation) {
+                return false;
+            }
+            if (replaced != null && this.entries.get(key) != replaced) {
+                return false;
+            }
+            this.entries.put(key, entry);
+            return true;
+        }
+    }
+
+    /**
+     * Future of a caller waiting for a load or call, cancelling it cancels the load
+     */
+    private static final class LoadingFuture<V> extends BasicFuture<V> {
+        private volatile Future<V> loading;
+
+        private LoadingFuture(FutureCallback<V> callback) {
+            super(callback);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<V> loading = this.loading;
+            if (cancelled && loading != null) {
+                loading.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
+
+    private static final class Loads {
+        // incremented by every invalidation of the key
+        private long generation;
+        private int inFlight;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(V value, long expiresAt, long refreshAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
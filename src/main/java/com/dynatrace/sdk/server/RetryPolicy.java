@@ -0,0 +1,161 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.Header;
+import org.apache.http.annotation.Immutable;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable policy of retrying idempotent requests which failed to connect or were answered with
+ * {@code 429 Too Many Requests}, {@code 502 Bad Gateway}, {@code 503 Service Unavailable} or {@code 504 Gateway Timeout}.
+ * Delays grow exponentially and are randomized (full jitter), so clients failing at the same moment don't retry at the same moment.
+ * A {@code Retry-After} header of the response is honored, up to the maximum backoff.
+ */
+@Immutable
+@ThreadSafe
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    //100 milliseconds default initial backoff
+    public static final long DEFAULT_INITIAL_BACKOFF = 100;
+    //10 seconds default max backoff
+    public static final long DEFAULT_MAX_BACKOFF = 10 * 1000;
+
+    private final int maxRetries;
+    private final long initialBackoff;
+    private final long maxBackoff;
+
+    /**
+     * Constructs RetryPolicy populating it with default values:
+     * <dl>
+     * <dt>Max retries</dt>
+     * <dd>{@value DEFAULT_MAX_RETRIES}</dd>
+     * <dt>Initial backoff</dt>
+     * <dd>{@value DEFAULT_INITIAL_BACKOFF}</dd>
+     * <dt>Max backoff</dt>
+     * <dd>{@value DEFAULT_MAX_BACKOFF}</dd>
+     * </dl>
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * Constructs RetryPolicy with given parameters
+     *
+     * @param maxRetries     maximum number of retries of a single call
+     * @param initialBackoff upper bound of the delay in milliseconds before the first retry, doubled with every following retry
+     * @param maxBackoff     upper bound of any delay in milliseconds, including ones requested by {@code Retry-After}
+     */
+    public RetryPolicy(int maxRetries, long initialBackoff, long maxBackoff) {
+        if (maxRetries < 0 || initialBackoff < 0 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException(String.format("Invalid retry policy: maxRetries[%d], initialBackoff[%d], maxBackoff[%d]", maxRetries, initialBackoff, maxBackoff));
+        }
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    /**
+     * @return upper bound of the delay in milliseconds before the first retry
+     */
+    public long getInitialBackoff() {
+        return this.initialBackoff;
+    }
+
+    /**
+     * @return upper bound of any delay in milliseconds
+     */
+    public long getMaxBackoff() {
+        return this.maxBackoff;
+    }
+
+    /**
+     * @param statusCode HTTP status code
+     * @return whether a response with given {@code statusCode} is worth retrying
+     */
+    public boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Returns a random delay between {@code 0} and the exponential backoff of the {@code retry}
+     *
+     * @param retry number of the retry, starting with {@code 0}
+     * @return delay in milliseconds
+     */
+    public long getBackoff(int retry) {
+        long ceiling = this.initialBackoff << Math.min(retry, 30);
+        if (ceiling > this.maxBackoff || ceiling < 0) {
+            ceiling = this.maxBackoff;
+        }
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Returns the delay before the {@code retry}, which is the longer of the backoff and the delay requested by the server
+     *
+     * @param retry      number of the retry, starting with {@code 0}
+     * @param retryAfter {@code Retry-After} header of the response, might be {@code null}
+     * @return delay in milliseconds
+     */
+    public long getDelay(int retry, Header retryAfter) {
+        return Math.min(Math.max(this.getBackoff(retry), parseRetryAfter(retryAfter)), this.maxBackoff);
+    }
+
+    static long parseRetryAfter(Header retryAfter) {
+        if (retryAfter == null || retryAfter.getValue() == null) {
+            return 0;
+        }
+        String value = retryAfter.getValue().trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            // not delta seconds, must be an HTTP date then
+        }
+        Date date = DateUtils.parseDate(value);
+        return date == null ? 0 : Math.max(0, date.getTime() - System.currentTimeMillis());
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxRetries=" + this.maxRetries +
+                ", initialBackoff=" + this.initialBackoff +
+                ", maxBackoff=" + this.maxBackoff +
+                '}';
+    }
+}
@@ -30,18 +30,26 @@ package com.dynatrace.sdk.server;
 
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
-import org.apache.commons.codec.binary.Base64;
+import com.dynatrace.sdk.server.metrics.MetricsCollector;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.entity.StringEntity;
-import org.xml.sax.InputSource;
+import org.apache.http.impl.client.CloseableHttpClient;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
@@ -51,14 +59,55 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public abstract class Service {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    private static final ResponseReader<String> RESULT_VALUE_READER = new ResponseReader<String>() {
+        @Override
+        public String read(HttpResponse response) throws IOException, ServerResponseException {
+            try (InputStream is = response.getEntity().getContent()) {
+                return readResultValue(is);
+            } catch (XMLStreamException e) {
+                throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response: " + e.getMessage(), e);
+            }
+        }
+    };
+
+    private static final ResponseReader<Boolean> RESULT_FLAG_READER = new ResponseReader<Boolean>() {
+        @Override
+        public Boolean read(HttpResponse response) throws IOException, ServerResponseException {
+            return RESULT_VALUE_READER.read(response).equals("true");
+        }
+    };
+
+    private static final ResponseReader<Void> NO_RESULT_READER = new ResponseReader<Void>() {
+        @Override
+        public Void read(HttpResponse response) {
+            return null;
+        }
+    };
+
     private final DynatraceClient client;
 
     protected Service(DynatraceClient client) {
         this.client = client;
     }
 
+    protected DynatraceClient getClient() {
+        return this.client;
+    }
+
+    /**
+     * @return expression evaluating the {@code value} attribute of the {@code result} root element
+     * @deprecated compiling the expression is expensive, use {@link #readResultValue(InputStream)} instead
+     */
+    @Deprecated
     protected static XPathExpression compileValueExpression() {
         try {
             return XPathFactory.newInstance().newXPath().compile("/result/@value");
@@ -67,22 +116,88 @@ public abstract class Service {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> T xmlInputStreamToObject(InputStream xml, Class<T> clazz) throws JAXBException, IOException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(clazz);
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Creates a pull parser over given {@code xml} using a shared, pre-configured {@link XMLInputFactory}
+     *
+     * @param xml stream to parse
+     * @return parser positioned at the start of the document
+     * @throws XMLStreamException whenever the parser cannot be created
+     */
+    protected static XMLStreamReader createXMLStreamReader(InputStream xml) throws XMLStreamException {
+        return XML_INPUT_FACTORY.createXMLStreamReader(xml);
+    }
+
+    /**
+     * Reads the {@code value} attribute of the {@code result} root element, which is how the server returns simple results.
+     * Only the start of the document is parsed, no DOM or XPath machinery is involved.
+     *
+     * @param xml stream to read, it is not closed
+     * @return value of the attribute or an empty string if it is missing
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    protected static String readResultValue(InputStream xml) throws XMLStreamException {
+        return readRootAttribute(xml, "result", "value");
+    }
+
+    private static String readRootAttribute(InputStream xml, String elementName, String attributeName) throws XMLStreamException {
+        XMLStreamReader reader = createXMLStreamReader(xml);
         try {
-            return (T) unmarshaller.unmarshal(xml);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    String value = elementName.equals(reader.getLocalName()) ? reader.getAttributeValue(null, attributeName) : null;
+                    return value == null ? "" : value;
+                }
+            }
+            return "";
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static <T> void xmlInputStreamToElements(InputStream xml, String elementName, Class<T> elementClass, ElementHandler<? super T> handler) throws JAXBException, XMLStreamException, IOException {
+        try {
+            XMLStreamReader reader = createXMLStreamReader(xml);
+            try {
+                Unmarshaller unmarshaller = JAXBContextRegistry.getUnmarshaller(elementClass);
+                int event = reader.getEventType();
+                while (true) {
+                    if (event == XMLStreamConstants.START_ELEMENT && elementName.equals(reader.getLocalName())) {
+                        // unmarshalling consumes the whole element leaving the reader at the following event
+                        handler.handle(unmarshaller.unmarshal(reader, elementClass).getValue());
+                        event = reader.getEventType();
+                    } else if (reader.hasNext()) {
+                        event = reader.next();
+                    } else {
+                        break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
         } finally {
             xml.close();
         }
     }
 
+    /**
+     * Marshals given JAXB model into memory
+     *
+     * @param object JAXB model
+     * @return entity holding the marshalled model
+     * @deprecated the model is copied three times and its non-ASCII characters are lost, use {@link #createEntity(Object)} instead
+     */
+    @Deprecated
     public static StringEntity xmlObjectToEntity(Object object) {
         try {
             StringWriter writer = new StringWriter();
-            JAXBContext jaxbContext = JAXBContext.newInstance(object.getClass());
-            Marshaller marshaller = jaxbContext.createMarshaller();
+            Marshaller marshaller = JAXBContextRegistry.getMarshaller(object.getClass());
             marshaller.marshal(object, writer);
             StringEntity entity = new StringEntity(writer.getBuffer().toString());
             entity.setContentType("application/xml");
@@ -92,6 +207,19 @@ public abstract class Service {
         }
     }
 
+    /**
+     * Creates a request entity encoding given model with the codec registered for its class, see {@link DynatraceClient#registerModelCodec(ModelCodec)}
+     *
+     * @param model model to send
+     * @return entity encoding the model
+     */
+    protected ModelEntity createEntity(Object model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Object to marshal must not be null");
+        }
+        return new ModelEntity(model, this.client.getModelEncoder(model.getClass()));
+    }
+
     protected URI buildURI(String path, NameValuePair... params) throws URISyntaxException {
         URIBuilder uriBuilder = new URIBuilder();
         uriBuilder.setScheme(this.client.getConfiguration().isSSL() ? "https" : "http");
@@ -102,39 +230,378 @@ public abstract class Service {
         return uriBuilder.build();
     }
 
+    /**
+     * Builds a URI of the expanded {@code endpoint} on the base URI cached by the client, see {@link DynatraceClient#getBaseURI()}
+     *
+     * @param endpoint  compiled endpoint
+     * @param variables values of the path variables, percent-encoded as single segments
+     * @return request URI
+     * @throws URISyntaxException whenever the base URI and the path do not form a valid URI
+     */
+    protected URI buildURI(EndpointTemplate endpoint, Object... variables) throws URISyntaxException {
+        return this.buildURI(endpoint, Collections.<NameValuePair>emptyList(), variables);
+    }
+
+    /**
+     * Builds a URI of the expanded {@code endpoint} with a query on the base URI cached by the client, see {@link DynatraceClient#getBaseURI()}
+     *
+     * @param endpoint  compiled endpoint
+     * @param params    query parameters, encoded as {@code application/x-www-form-urlencoded} UTF-8
+     * @param variables values of the path variables, percent-encoded as single segments
+     * @return request URI
+     * @throws URISyntaxException whenever the base URI and the path do not form a valid URI
+     */
+    protected URI buildURI(EndpointTemplate endpoint, List<? extends NameValuePair> params, Object... variables) throws URISyntaxException {
+        String baseURI = this.client.getBaseURI();
+        StringBuilder uri = new StringBuilder(baseURI.length() + 128).append(baseURI);
+        endpoint.appendTo(uri, variables);
+        if (!params.isEmpty()) {
+            uri.append('?').append(URLEncodedUtils.format(params, StandardCharsets.UTF_8));
+        }
+        return new URI(uri.toString());
+    }
+
     protected CloseableHttpResponse doRequest(HttpRequestBase request) throws ServerConnectionException, ServerResponseException {
-        request.setHeader("Accept", "*/xml");
+        return this.doRequest(request, false);
+    }
 
-        request.setHeader("Authorization", "Basic " + Base64.encodeBase64String((this.client.getConfiguration().getName() + ":" + this.client.getConfiguration().getPassword()).getBytes()));
-        try {
-            CloseableHttpResponse response = this.client.getClient().execute(request);
-            if (response.getStatusLine().getStatusCode() >= 300 || response.getStatusLine().getStatusCode() < 200) {
-                String error = null;
-                // dynatrace often returns an error message along with a status code
-                // we try to parse it, if that doesn't work we use a code bound message
-                // as a reason in exception
-                try (InputStream is = response.getEntity().getContent()) {
-                    // xpath is reasonable for parsing such a small entity
-                    error = XPathFactory.newInstance().newXPath().compile("/error/@reason").evaluate(new InputSource(is));
-                } catch (XPathExpressionException e) {
-                    // error message might not exist
+    /**
+     * Sends a request, guarded by the {@link Bulkhead}, the {@link ConcurrencyLimiter} and the {@link CircuitBreaker} of the client if set.
+     * The returned response holds the permits of the bulkhead and the limiter and stays bound by the deadline until it is closed.
+     * A {@code retryable} request is retried according to the {@link RetryPolicy} of the client, thus it must be idempotent.
+     * Within a {@link Deadline#current() deadline} the timeouts are capped at the time left and the request is aborted once it passes.
+     *
+     * @param request   request to send
+     * @param retryable whether the request may be sent again after failing
+     * @return response with a {@code 2xx} status code
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever invalid status code is provided
+     */
+    protected CloseableHttpResponse doRequest(HttpRequestBase request, boolean retryable) throws ServerConnectionException, ServerResponseException {
+        request.setHeader("Accept", "*/xml");
+        request.setHeader("Authorization", this.client.getAuthorizationHeader());
+        RetryPolicy retryPolicy = retryable ? this.client.getRetryPolicy() : null;
+        CircuitBreaker circuitBreaker = this.client.getCircuitBreaker();
+        ConcurrencyLimiter concurrencyLimiter = this.client.getConcurrencyLimiter();
+        Bulkhead bulkhead = this.client.getBulkhead(this.getClass(), request);
+        CloseableHttpClient httpClient = this.client.getClient(bulkhead);
+        String endpoint = concurrencyLimiter != null ? EndpointMatcher.forClass(this.getClass()).match(request.getURI()) : null;
+        Deadline deadline = Deadline.current();
+        for (int retry = 0; ; retry++) {
+            long delay;
+            if (bulkhead != null) {
+                this.acquire(bulkhead);
+            }
+            boolean returned = false;
+            try {
+                if (deadline != null) {
+                    this.bind(request, deadline);
+                }
+                if (concurrencyLimiter != null) {
+                    this.acquire(concurrencyLimiter);
                 }
+                if (isPassed(deadline)) {
+                    // the deadline passed while queueing for a permit
+                    if (concurrencyLimiter != null) {
+                        concurrencyLimiter.release();
+                    }
+                    throw deadlineException(deadline, null);
+                }
+                if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+                    if (concurrencyLimiter != null) {
+                        concurrencyLimiter.release();
+                    }
+                    throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: circuit breaker is %s", circuitBreaker.getState()), null);
+                }
+                boolean canRetry = retryPolicy != null && retry < retryPolicy.getMaxRetries() && !request.isAborted();
+                try {
+                    CloseableHttpResponse response;
+                    long start = concurrencyLimiter != null ? System.nanoTime() : 0;
+                    try {
+                        response = this.execute(httpClient, request, endpoint);
+                    } catch (IOException | RuntimeException e) {
+                        // a request aborted or timed out by the deadline says nothing about the server
+                        boolean aborted = request.isAborted() || isPassed(deadline);
+                        if (circuitBreaker != null) {
+                            if (aborted) {
+                                circuitBreaker.release();
+                            } else {
+                                circuitBreaker.onFailure();
+                            }
+                        }
+                        if (concurrencyLimiter != null) {
+                            if (e instanceof IOException && !aborted) {
+                                concurrencyLimiter.onFailure();
+                            } else {
+                                concurrencyLimiter.release();
+                            }
+                        }
+                        throw e;
+                    }
+                    int statusCode = response.getStatusLine().getStatusCode();
+                    boolean successful = statusCode >= 200 && statusCode < 300 && !(canRetry && retryPolicy.isRetryable(statusCode));
+                    if (concurrencyLimiter != null && !successful) {
+                        concurrencyLimiter.onResponse(endpoint, statusCode, System.nanoTime() - start);
+                    }
+                    if (circuitBreaker != null) {
+                        if (statusCode >= 500) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                    }
+                    if (canRetry && retryPolicy.isRetryable(statusCode)) {
+                        delay = retryPolicy.getDelay(retry, response.getFirstHeader("Retry-After"));
+                        try {
+                            response.close();
+                        } catch (IOException e) {
+                            // the response is discarded anyway, failing to close its connection does not change the retry
+                        }
+                    } else {
+                        if (!successful) {
+                            throw this.toResponseException(response);
+                        }
+                        if (bulkhead == null && concurrencyLimiter == null && deadline == null) {
+                            return response;
+                        }
+                        returned = true;
+                        return ReleasingResponse.wrap(response, release(bulkhead, concurrencyLimiter, endpoint, statusCode, start, deadline, request));
+                    }
+                } catch (IOException e) {
+                    if (!canRetry || isPassed(deadline)) {
+                        throw connectionException(e);
+                    }
+                    delay = retryPolicy.getBackoff(retry);
+                }
+            } finally {
+                // a returned response holds the permits until it is closed, as its connection stays leased from the bulkhead's partition
+                // and its body is still in flight, and stays bound by the deadline, which aborts reading it once passed
+                if (!returned) {
+                    if (bulkhead != null) {
+                        bulkhead.release();
+                    }
+                    if (deadline != null) {
+                        deadline.unregister(request);
+                    }
+                }
+            }
+            this.awaitRetry(delay, deadline);
+        }
+    }
+
+    /**
+     * Caps the timeouts of given {@code request} at the time left and makes the {@code deadline} abort it once passed
+     */
+    void bind(HttpRequestBase request, Deadline deadline) throws ServerConnectionException {
+        if (!deadline.register(request)) {
+            throw deadlineException(deadline, null);
+        }
+        long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+        if (remaining == Long.MAX_VALUE) {
+            return;
+        }
+        int timeout = (int) Math.max(1, Math.min(remaining, Integer.MAX_VALUE));
+        RequestConfig config = request.getConfig() != null ? request.getConfig() : DynatraceClient.requestConfig(this.client.getConfiguration());
+        request.setConfig(RequestConfig.copy(config)
+                .setConnectTimeout(cap(config.getConnectTimeout(), timeout))
+                .setSocketTimeout(cap(config.getSocketTimeout(), timeout))
+                .setConnectionRequestTimeout(cap(config.getConnectionRequestTimeout(), timeout)).build());
+    }
+
+    /**
+     * @return {@code timeout} or {@code max} if it is longer or infinite, {@code 0} or negative
+     */
+    private static int cap(int timeout, int max) {
+        return timeout > 0 && timeout < max ? timeout : max;
+    }
+
+    static boolean isPassed(Deadline deadline) {
+        return deadline != null && (deadline.isExpired() || deadline.isCancelled());
+    }
 
-                if (error == null || error.isEmpty()) {
-                    error = response.getStatusLine().getReasonPhrase();
+    static ServerConnectionException deadlineException(Deadline deadline, Throwable cause) {
+        return new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s", deadline.isCancelled() ? "call cancelled" : "deadline exceeded"), cause);
+    }
+
+    /**
+     * Describes a failure of the connection, telling apart those caused by the {@link Deadline#current() deadline} aborting the request
+     */
+    protected static ServerConnectionException connectionException(IOException e) {
+        return connectionException(e, Deadline.current());
+    }
+
+    static ServerConnectionException connectionException(IOException e, Deadline deadline) {
+        if (isPassed(deadline)) {
+            return deadlineException(deadline, e);
+        }
+        return new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s", e.getMessage()), e);
+    }
+
+    /**
+     * Releases the permits held by a returned response once it is closed, the limiter learns the latency including reading the body
+     */
+    private static Runnable release(final Bulkhead bulkhead, final ConcurrencyLimiter concurrencyLimiter, final String endpoint, final int statusCode,
+                                    final long start, final Deadline deadline, final HttpRequestBase request) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                if (concurrencyLimiter != null) {
+                    if (request.isAborted()) {
+                        // reading the body was aborted, its latency says nothing about the server
+                        concurrencyLimiter.release();
+                    } else {
+                        concurrencyLimiter.onResponse(endpoint, statusCode, System.nanoTime() - start);
+                    }
                 }
-                throw new ServerResponseException(response.getStatusLine().getStatusCode(), error);
+                if (deadline != null) {
+                    deadline.unregister(request);
+                }
+            }
+        };
+    }
+
+    private void acquire(Bulkhead bulkhead) throws ServerConnectionException {
+        try {
+            if (!bulkhead.tryAcquire()) {
+                throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s is full", bulkhead), null);
             }
-            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerConnectionException("Interrupted while waiting for a bulkhead", e);
+        }
+    }
+
+    private void acquire(ConcurrencyLimiter concurrencyLimiter) throws ServerConnectionException {
+        try {
+            if (!concurrencyLimiter.acquire()) {
+                throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: request shed by %s", concurrencyLimiter), null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerConnectionException("Interrupted while waiting for the concurrency limit", e);
+        }
+    }
+
+    /**
+     * Reads the error of an unsuccessful response, always releasing its connection and reporting its status code even if either fails
+     */
+    private ServerResponseException toResponseException(CloseableHttpResponse response) {
+        ServerResponseException exception;
+        try {
+            exception = readResponseException(response);
+        } catch (IOException e) {
+            exception = new ServerResponseException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(), e);
+        }
+        try {
+            response.close();
         } catch (IOException e) {
-            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s", e.getMessage()), e);
+            exception.addSuppressed(e);
+        }
+        return exception;
+    }
+
+    static ServerResponseException readResponseException(HttpResponse response) throws IOException {
+        String error = null;
+        // dynatrace often returns an error message along with a status code
+        // we try to parse it, if that doesn't work we use a code bound message
+        // as a reason in exception
+        if (response.getEntity() != null) {
+            try (InputStream is = response.getEntity().getContent()) {
+                error = readRootAttribute(is, "error", "reason");
+            } catch (XMLStreamException e) {
+                // error message might not exist
+            }
+        }
+
+        if (error == null || error.isEmpty()) {
+            error = response.getStatusLine().getReasonPhrase();
+        }
+        return new ServerResponseException(response.getStatusLine().getStatusCode(), error);
+    }
+
+    private void awaitRetry(long delay, Deadline deadline) throws ServerConnectionException {
+        if (deadline != null && delay >= deadline.remaining(TimeUnit.MILLISECONDS)) {
+            // the retry would start after the deadline
+            throw deadlineException(deadline, null);
         }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerConnectionException("Interrupted while waiting to retry a request", e);
+        }
+    }
+
+    private CloseableHttpResponse execute(CloseableHttpClient httpClient, HttpRequestBase request, String endpoint) throws IOException {
+        MetricsCollector metrics = this.client.getMetricsCollector();
+        if (metrics == null) {
+            return httpClient.execute(request);
+        }
+        if (endpoint == null) {
+            endpoint = EndpointMatcher.forClass(this.getClass()).match(request.getURI());
+        }
+        metrics.requestStarted(endpoint, request.getMethod());
+        long start = System.nanoTime();
+        CloseableHttpResponse response;
+        try {
+            response = httpClient.execute(request);
+        } catch (IOException | RuntimeException e) {
+            metrics.requestFailed(endpoint, request.getMethod(), System.nanoTime() - start);
+            throw e;
+        }
+        metrics.requestCompleted(endpoint, request.getMethod(), response.getStatusLine().getStatusCode(), System.nanoTime() - start);
+        if (response.getEntity() != null) {
+            response.setEntity(new MeteredEntity(response.getEntity(), endpoint, metrics));
+        }
+        return response;
     }
 
     protected <T> T parseResponse(CloseableHttpResponse response, Class<T> responseClass) throws ServerResponseException {
+        return this.decode(response, responseClass);
+    }
+
+    private <T> T decode(HttpResponse response, Class<T> responseClass) throws ServerResponseException {
+        HttpEntity entity = response.getEntity();
+        long start = entity instanceof MeteredEntity ? System.nanoTime() : 0;
+        try (InputStream is = entity.getContent()) {
+            T result = this.client.getModelDecoder(responseClass).decode(is, responseClass);
+            if (entity instanceof MeteredEntity) {
+                ((MeteredEntity) entity).parsed(System.nanoTime() - start);
+            }
+            return result;
+        } catch (IOException e) {
+            // codecs wrap their parser failures, those are reported rather than the wrapper
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new ServerResponseException(response.getStatusLine().getStatusCode(), String.format("Could not unmarshall response into given object: %s", cause.getMessage()), cause);
+        }
+    }
+
+    /**
+     * Parses a response element by element, passing every element named {@code elementName} to {@code handler} as soon as it is parsed
+     *
+     * @param response     response to parse
+     * @param elementName  name of the streamed elements
+     * @param elementClass class the elements are unmarshalled into
+     * @param handler      handler receiving the elements
+     * @param <T>          element type
+     * @throws ServerResponseException whenever parsing a response fails
+     */
+    protected <T> void parseResponse(CloseableHttpResponse response, String elementName, Class<T> elementClass, ElementHandler<? super T> handler) throws ServerResponseException {
+        this.decode(response, elementName, elementClass, handler);
+    }
+
+    private <T> void decode(HttpResponse response, String elementName, Class<T> elementClass, ElementHandler<? super T> handler) throws ServerResponseException {
+        HttpEntity entity = response.getEntity();
+        long start = entity instanceof MeteredEntity ? System.nanoTime() : 0;
         try {
-            return xmlInputStreamToObject(response.getEntity().getContent(), responseClass);
-        } catch (IOException | JAXBException e) {
+            xmlInputStreamToElements(entity.getContent(), elementName, elementClass, handler);
+            if (entity instanceof MeteredEntity) {
+                ((MeteredEntity) entity).parsed(System.nanoTime() - start);
+            }
+        } catch (IOException | JAXBException | XMLStreamException e) {
             throw new ServerResponseException(response.getStatusLine().getStatusCode(), String.format("Could not unmarshall response into given object: %s", e.getMessage()), e);
         }
     }
@@ -147,9 +614,9 @@ public abstract class Service {
 
     protected <T> T doPostRequest(URI uri, HttpEntity entity, Class<T> responseClass) throws ServerConnectionException, ServerResponseException {
         try (CloseableHttpResponse response = this.doPostRequest(uri, entity)) {
-            return this.parseResponse(response, responseClass);
+            return this.parseWithinDeadline(response, responseClass);
         } catch (IOException e) {
-            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s", e.getMessage()), e);
+            throw connectionException(e);
         }
     }
 
@@ -161,21 +628,219 @@ public abstract class Service {
 
     protected <T> T doPutRequest(URI uri, HttpEntity entity, Class<T> responseClass) throws ServerConnectionException, ServerResponseException {
         try (CloseableHttpResponse response = this.doPutRequest(uri, entity)) {
-            return this.parseResponse(response, responseClass);
+            return this.parseWithinDeadline(response, responseClass);
         } catch (IOException e) {
-            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s", e.getMessage()), e);
+            throw connectionException(e);
         }
     }
 
     protected CloseableHttpResponse doGetRequest(URI uri) throws ServerConnectionException, ServerResponseException {
-        return this.doRequest(new HttpGet(uri));
+        return this.doGetRequest(uri, false);
     }
 
-    protected <T> T doGetRequest(URI uri, Class<T> responseClass) throws ServerConnectionException, ServerResponseException {
-        try (CloseableHttpResponse response = this.doGetRequest(uri)) {
-            return this.parseResponse(response, responseClass);
+    /**
+     * @param uri       resource to get
+     * @param retryable whether the request is an idempotent read which may be retried
+     * @return response with a {@code 2xx} status code
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever invalid status code is provided
+     */
+    protected CloseableHttpResponse doGetRequest(URI uri, boolean retryable) throws ServerConnectionException, ServerResponseException {
+        return this.doRequest(new HttpGet(uri), retryable);
+    }
+
+    /**
+     * Fetches and parses a resource. If enabled with {@link DynatraceClient#setRequestCoalescing(boolean)},
+     * concurrent calls for the same {@code uri} and {@code responseClass} share a single request and its parsed result.
+     * Calls within a {@link Deadline} are never coalesced.
+     *
+     * @param uri           resource to fetch
+     * @param responseClass class the response is unmarshalled into
+     * @param <T>           response type
+     * @return parsed response
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    protected <T> T doGetRequest(final URI uri, final Class<T> responseClass) throws ServerConnectionException, ServerResponseException {
+        // a shared request would be bound by the deadline of whichever caller started it
+        if (responseClass == null || !this.client.isRequestCoalescing() || Deadline.current() != null) {
+            return this.fetch(uri, responseClass);
+        }
+        return this.client.getRequestCoalescer().execute(uri, responseClass, new RequestCoalescer.Request<T>() {
+            @Override
+            public T execute() throws ServerConnectionException, ServerResponseException {
+                return Service.this.fetch(uri, responseClass);
+            }
+        });
+    }
+
+    private <T> T fetch(URI uri, Class<T> responseClass) throws ServerConnectionException, ServerResponseException {
+        try (CloseableHttpResponse response = this.doGetRequest(uri, true)) {
+            return this.parseWithinDeadline(response, responseClass);
+        } catch (IOException e) {
+            throw connectionException(e);
+        }
+    }
+
+    protected <T> void doGetRequest(URI uri, String elementName, Class<T> elementClass, ElementHandler<? super T> handler) throws ServerConnectionException, ServerResponseException {
+        try (CloseableHttpResponse response = this.doGetRequest(uri, true)) {
+            this.parseWithinDeadline(response, elementName, elementClass, handler);
         } catch (IOException e) {
-            throw new ServerConnectionException(String.format("Could not connect to Dynatrace Server: %s", e.getMessage()), e);
+            throw connectionException(e);
+        }
+    }
+
+    /**
+     * Parses a response, reporting a failure caused by the {@link Deadline#current() deadline} aborting the read as a connection failure
+     */
+    private <T> T parseWithinDeadline(CloseableHttpResponse response, Class<T> responseClass) throws ServerConnectionException, ServerResponseException {
+        try {
+            return this.parseResponse(response, responseClass);
+        } catch (ServerResponseException e) {
+            Deadline deadline = Deadline.current();
+            if (isPassed(deadline)) {
+                throw deadlineException(deadline, e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    private <T> void parseWithinDeadline(CloseableHttpResponse response, String elementName, Class<T> elementClass, ElementHandler<? super T> handler) throws ServerConnectionException, ServerResponseException {
+        try {
+            this.parseResponse(response, elementName, elementClass, handler);
+        } catch (ServerResponseException e) {
+            Deadline deadline = Deadline.current();
+            if (isPassed(deadline)) {
+                throw deadlineException(deadline, e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a request on the non-blocking {@link DynatraceClient#getAsyncClient() client}, guarded like {@link #doRequest(HttpRequestBase, boolean)}
+     * but never blocking the calling thread: the call fails if the {@link Bulkhead} is full or the {@link ConcurrencyLimiter} has no permit left,
+     * retries are scheduled instead of waited for and a {@link Deadline#current() deadline} of the calling thread bounds the whole call.
+     * The response is buffered and passed to the {@code reader} on the {@link DynatraceClient#getExecutor() executor} of the client.
+     *
+     * @param request   request to send
+     * @param retryable whether the request may be sent again after failing
+     * @param reader    reads the result from a response with a {@code 2xx} status code
+     * @param callback  callback notified once the call completes, might be {@code null}
+     * @param <T>       result type
+     * @return future completed with the result, exceptions of the call are available through {@link Future#get()}.
+     * Cancelling the future aborts the request
+     */
+    protected <T> Future<T> doRequestAsync(HttpRequestBase request, boolean retryable, ResponseReader<T> reader, FutureCallback<T> callback) {
+        request.setHeader("Accept", "*/xml");
+        request.setHeader("Authorization", this.client.getAuthorizationHeader());
+        return new AsyncCall<>(this, request, retryable, reader, callback).start();
+    }
+
+    /**
+     * Asynchronous version of {@link #doGetRequest(URI, Class)}, coalescing concurrent calls alike
+     *
+     * @param uri           resource to fetch
+     * @param responseClass class the response is unmarshalled into
+     * @param callback      callback notified once the call completes, might be {@code null}
+     * @param <T>           response type
+     * @return future completed with the parsed response
+     */
+    protected <T> Future<T> doGetRequestAsync(final URI uri, final Class<T> responseClass, FutureCallback<T> callback) {
+        // a shared request would be bound by the deadline of whichever caller started it
+        if (responseClass == null || !this.client.isRequestCoalescing() || Deadline.current() != null) {
+            return this.doRequestAsync(new HttpGet(uri), true, this.modelReader(responseClass), callback);
         }
+        return this.client.getRequestCoalescer().executeAsync(uri, responseClass, new RequestCoalescer.AsyncRequest<T>() {
+            @Override
+            public Future<T> execute(FutureCallback<T> callback) {
+                return Service.this.doRequestAsync(new HttpGet(uri), true, Service.this.modelReader(responseClass), callback);
+            }
+        }, callback);
+    }
+
+    /**
+     * Asynchronous version of {@link #doGetRequest(URI, String, Class, ElementHandler)}.
+     * The response is buffered before its elements are parsed and passed to the {@code handler} on the executor of the client.
+     *
+     * @param uri          resource to fetch
+     * @param elementName  name of the streamed elements
+     * @param elementClass class the elements are unmarshalled into
+     * @param handler      handler receiving the elements
+     * @param callback     callback notified once all elements have been handled, might be {@code null}
+     * @param <T>          element type
+     * @return future completed once all elements have been handled
+     */
+    protected <T> Future<Void> doGetRequestAsync(URI uri, String elementName, Class<T> elementClass, ElementHandler<? super T> handler, FutureCallback<Void> callback) {
+        return this.doRequestAsync(new HttpGet(uri), true, this.elementReader(elementName, elementClass, handler), callback);
+    }
+
+    /**
+     * @param responseClass class the response is unmarshalled into
+     * @param <T>           response type
+     * @return reader decoding the response with the codec registered for {@code responseClass}
+     */
+    protected <T> ResponseReader<T> modelReader(final Class<T> responseClass) {
+        return new ResponseReader<T>() {
+            @Override
+            public T read(HttpResponse response) throws ServerResponseException {
+                return Service.this.decode(response, responseClass);
+            }
+        };
+    }
+
+    /**
+     * @param elementName  name of the streamed elements
+     * @param elementClass class the elements are unmarshalled into
+     * @param handler      handler receiving the elements
+     * @param <T>          element type
+     * @return reader passing every element named {@code elementName} to {@code handler}
+     */
+    protected <T> ResponseReader<Void> elementReader(final String elementName, final Class<T> elementClass, final ElementHandler<? super T> handler) {
+        return new ResponseReader<Void>() {
+            @Override
+            public Void read(HttpResponse response) throws ServerResponseException {
+                Service.this.decode(response, elementName, elementClass, handler);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return reader of the {@code value} attribute of the {@code result} root element, see {@link #readResultValue(InputStream)}
+     */
+    protected static ResponseReader<String> resultValueReader() {
+        return RESULT_VALUE_READER;
+    }
+
+    /**
+     * @return reader telling whether the {@code value} attribute of the {@code result} root element is {@code true}
+     */
+    protected static ResponseReader<Boolean> resultFlagReader() {
+        return RESULT_FLAG_READER;
+    }
+
+    /**
+     * @param headerName name of the header
+     * @return reader of the last header named {@code headerName}, failing if the response has none
+     */
+    protected static ResponseReader<String> headerReader(final String headerName) {
+        return new ResponseReader<String>() {
+            @Override
+            public String read(HttpResponse response) throws ServerResponseException {
+                Header header = response.getLastHeader(headerName);
+                if (header == null) {
+                    throw new ServerResponseException(response.getStatusLine().getStatusCode(), String.format("Invalid server response: %s header is not set", headerName));
+                }
+                return header.getValue();
+            }
+        };
+    }
+
+    /**
+     * @return reader ignoring the response of calls without a result
+     */
+    protected static ResponseReader<Void> noResultReader() {
+        return NO_RESULT_READER;
     }
 }
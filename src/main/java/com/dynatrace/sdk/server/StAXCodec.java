@@ -0,0 +1,263 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Base of hand-written codecs pulling models straight out of a {@link XMLStreamReader}, without JAXB's reflection and intermediate objects.
+ * Values are converted the way JAXB converts them: missing values as well as values which cannot be converted become {@code null}.
+ */
+@ThreadSafe
+public abstract class StAXCodec implements ModelCodec {
+    private static final ConcurrentMap<Class<?>, Map<String, Enum<?>>> ENUM_VALUES = new ConcurrentHashMap<>();
+
+    private final Set<Class<?>> types;
+
+    /**
+     * @param types model classes decoded by this codec
+     */
+    protected StAXCodec(Class<?>... types) {
+        this.types = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(types)));
+    }
+
+    @Override
+    public boolean canDecode(Class<?> type) {
+        return this.types.contains(type);
+    }
+
+    @Override
+    public <T> T decode(InputStream xml, Class<T> type) throws IOException {
+        if (!this.canDecode(type)) {
+            throw new IllegalArgumentException(String.format("%s does not decode %s", this.getClass().getSimpleName(), type.getName()));
+        }
+        try {
+            XMLStreamReader reader = Service.createXMLStreamReader(xml);
+            try {
+                if (!nextElement(reader)) {
+                    throw new IOException("Document has no root element");
+                }
+                return type.cast(this.read(reader, type));
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean canEncode(Class<?> type) {
+        return false;
+    }
+
+    /**
+     * Not supported, request bodies are encoded by JAXB
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void encode(Object model, OutputStream xml) {
+        throw new UnsupportedOperationException(String.format("%s does not encode models", this.getClass().getSimpleName()));
+    }
+
+    /**
+     * Reads the model of the root element
+     *
+     * @param reader reader positioned at the start of the root element
+     * @param type   model class, one of those passed to the constructor
+     * @return decoded model
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    protected abstract Object read(XMLStreamReader reader, Class<?> type) throws XMLStreamException;
+
+    /**
+     * Moves to the start of the next child element of the current element
+     *
+     * @param reader reader positioned at the start of the parent element or the end of a previous child
+     * @return {@code true} if positioned at the start of a child, {@code false} if the end of the parent was reached instead
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    protected static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the current element along with its children
+     *
+     * @param reader reader positioned at the start of the element, left at its end
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    protected static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Reads the text of the current element, ignoring text of its children
+     *
+     * @param reader reader positioned at the start of the element, left at its end
+     * @return text of the element, empty if it has none
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    protected static String readText(XMLStreamReader reader) throws XMLStreamException {
+        String text = null;
+        StringBuilder builder = null;
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                if (text == null) {
+                    // text is mostly reported as a single event, avoid the builder then
+                    text = reader.getText();
+                } else {
+                    if (builder == null) {
+                        builder = new StringBuilder(text);
+                    }
+                    builder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                skipElement(reader);
+            }
+        }
+        if (builder != null) {
+            return builder.toString();
+        }
+        return text == null ? "" : text;
+    }
+
+    protected static Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.equals("true") || trimmed.equals("1")) {
+            return Boolean.TRUE;
+        }
+        if (trimmed.equals("false") || trimmed.equals("0")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    protected static Integer parseInteger(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static Date parseDate(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseDateTime(value.trim()).getTime();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a value to the enum constant annotated with the same {@link XmlEnumValue}, or named alike if not annotated
+     *
+     * @param type  enum class
+     * @param value value to convert
+     * @param <E>   enum type
+     * @return matching constant or {@code null}
+     */
+    protected static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Enum<?>> values = ENUM_VALUES.get(type);
+        if (values == null) {
+            values = new HashMap<>();
+            for (E constant : type.getEnumConstants()) {
+                XmlEnumValue xmlValue;
+                try {
+                    xmlValue = type.getField(constant.name()).getAnnotation(XmlEnumValue.class);
+                } catch (NoSuchFieldException e) {
+                    // every constant is a public field
+                    throw new IllegalStateException(e);
+                }
+                values.put(xmlValue == null ? constant.name() : xmlValue.value(), constant);
+            }
+            ENUM_VALUES.putIfAbsent(type, values);
+        }
+        return type.cast(values.get(value.trim()));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.Immutable;
+import org.apache.http.annotation.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of {@link DynatraceClient#warmUp(int)}: how long each step took and what failed.
+ * A warm-up never fails as a whole, the SDK initializes lazily whatever was not warmed up.
+ */
+@Immutable
+public final class WarmUpReport {
+    /**
+     * Step initializing the shared XML parser factory
+     */
+    public static final String XML_FACTORIES = "xmlFactories";
+    /**
+     * Step resolving the codecs of all models and creating the JAXB contexts of models decoded or encoded by JAXB
+     */
+    public static final String CODECS = "codecs";
+    /**
+     * Step opening pooled connections to the server, including TLS handshakes
+     */
+    public static final String CONNECTIONS = "connections";
+
+    /**
+     * A single step of the warm-up, its tasks run in parallel
+     */
+    @Immutable
+    public static final class Step {
+        private final String name;
+        private final int count;
+        private final long durationNanos;
+        private final List<Exception> failures;
+
+        private Step(String name, int count, long durationNanos, List<Exception> failures) {
+            this.name = name;
+            this.count = count;
+            this.durationNanos = durationNanos;
+            this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * @return number of items warmed up successfully, e.g. models or opened connections
+         */
+        public int getCount() {
+            return this.count;
+        }
+
+        /**
+         * @param unit unit of the result
+         * @return time from the start of the warm-up until the last task of this step completed
+         */
+        public long getDuration(TimeUnit unit) {
+            return unit.convert(this.durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return exceptions of the failed tasks, empty if all of them succeeded
+         */
+        public List<Exception> getFailures() {
+            return this.failures;
+        }
+
+        public boolean isSuccessful() {
+            return this.failures.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "Step{" +
+                    "name='" + this.name + '\'' +
+                    ", count=" + this.count +
+                    ", durationMillis=" + this.getDuration(TimeUnit.MILLISECONDS) +
+                    ", failures=" + this.failures +
+                    '}';
+        }
+    }
+
+    /**
+     * Collects the outcome of the tasks of a step, which complete on different threads
+     */
+    @ThreadSafe
+    static final class StepRecorder {
+        private final String name;
+        private final long startNanos;
+        private final List<Exception> failures = new ArrayList<>();
+        private int count;
+        private long endNanos;
+
+        StepRecorder(String name, long startNanos) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.endNanos = startNanos;
+        }
+
+        synchronized void succeeded() {
+            this.count++;
+            this.completed();
+        }
+
+        synchronized void failed(Exception failure) {
+            this.failures.add(failure);
+            this.completed();
+        }
+
+        private void completed() {
+            this.endNanos = Math.max(this.endNanos, System.nanoTime());
+        }
+
+        synchronized Step toStep() {
+            return new Step(this.name, this.count, this.endNanos - this.startNanos, this.failures);
+        }
+    }
+
+    private final List<Step> steps;
+    private final long durationNanos;
+
+    WarmUpReport(List<Step> steps, long durationNanos) {
+        this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return all steps in the order they were started
+     */
+    public List<Step> getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * @param name name of the step, e.g. {@link #CODECS}
+     * @return the step or {@code null} if it was not run
+     */
+    public Step getStep(String name) {
+        for (Step step : this.steps) {
+            if (step.getName().equals(name)) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param unit unit of the result
+     * @return wall-clock time of the whole warm-up
+     */
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(this.durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isSuccessful() {
+        for (Step step : this.steps) {
+            if (!step.isSuccessful()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{" +
+                "durationMillis=" + this.getDuration(TimeUnit.MILLISECONDS) +
+                ", steps=" + this.steps +
+                '}';
+    }
+}
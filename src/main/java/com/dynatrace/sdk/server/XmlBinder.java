@@ -0,0 +1,204 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Reads and writes one model class straight from and to StAX. Subclasses are generated at build time by
+ * {@code com.dynatrace.sdk.server.codegen.XmlBinderProcessor} from the JAXB annotations of the model and go through its accessors,
+ * they are found by {@link XmlBinderCodec} through {@link java.util.ServiceLoader}.
+ * <p>
+ * Values are converted the way JAXB converts them, see {@link StAXCodec}.
+ *
+ * @param <T> model type
+ */
+@ThreadSafe
+public abstract class XmlBinder<T> {
+    private final Class<T> type;
+    private final String elementName;
+
+    /**
+     * @param type        model class
+     * @param elementName name of the root element of the model, {@code null} if the model is only nested in other models
+     */
+    protected XmlBinder(Class<T> type, String elementName) {
+        this.type = type;
+        this.elementName = elementName;
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    public String getElementName() {
+        return this.elementName;
+    }
+
+    /**
+     * @return whether {@link #read(XMLStreamReader)} is supported, which it is not for models lacking setters and constructor
+     * parameters for some of their properties
+     */
+    public boolean canRead() {
+        return true;
+    }
+
+    /**
+     * @return whether {@link #write(XMLStreamWriter, String, Object)} is supported, which it is not for models lacking getters for
+     * some of their properties
+     */
+    public boolean canWrite() {
+        return true;
+    }
+
+    /**
+     * Reads the model of the current element
+     *
+     * @param reader reader positioned at the start of the element, left at its end
+     * @return read model
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    public abstract T read(XMLStreamReader reader) throws XMLStreamException;
+
+    /**
+     * Writes the model as an element
+     *
+     * @param writer    writer to write to
+     * @param localName name of the element
+     * @param model     model to write
+     * @throws XMLStreamException whenever writing fails
+     */
+    public abstract void write(XMLStreamWriter writer, String localName, T model) throws XMLStreamException;
+
+    protected static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        return StAXCodec.nextElement(reader);
+    }
+
+    protected static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        StAXCodec.skipElement(reader);
+    }
+
+    protected static String readText(XMLStreamReader reader) throws XMLStreamException {
+        return StAXCodec.readText(reader);
+    }
+
+    protected static Boolean parseBoolean(String value) {
+        return StAXCodec.parseBoolean(value);
+    }
+
+    protected static Byte parseByte(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseByte(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static Short parseShort(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseShort(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static Integer parseInteger(String value) {
+        return StAXCodec.parseInteger(value);
+    }
+
+    protected static Long parseLong(String value) {
+        return StAXCodec.parseLong(value);
+    }
+
+    protected static Float parseFloat(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static Double parseDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected static Date parseDate(String value) {
+        return StAXCodec.parseDate(value);
+    }
+
+    protected static String printFloat(float value) {
+        return DatatypeConverter.printFloat(value);
+    }
+
+    protected static String printDouble(double value) {
+        return DatatypeConverter.printDouble(value);
+    }
+
+    protected static String printDate(Date value) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(value);
+        return DatatypeConverter.printDateTime(calendar);
+    }
+
+    /**
+     * Writes an element holding text only
+     *
+     * @param writer    writer to write to
+     * @param localName name of the element
+     * @param text      text of the element
+     * @throws XMLStreamException whenever writing fails
+     */
+    protected static void writeElement(XMLStreamWriter writer, String localName, String text) throws XMLStreamException {
+        writer.writeStartElement(localName);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+}
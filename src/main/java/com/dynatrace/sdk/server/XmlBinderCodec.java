@@ -0,0 +1,144 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Decodes and encodes models with the {@link XmlBinder}s generated for them at build time, so neither a {@link javax.xml.bind.JAXBContext}
+ * nor reflection is involved. Binders are looked up once, when the codec is created, from the {@code META-INF/services} entries written
+ * by {@code com.dynatrace.sdk.server.codegen.XmlBinderProcessor}; models without a binder, or in a direction their binder does not
+ * support, are left to other codecs.
+ */
+@ThreadSafe
+public class XmlBinderCodec implements ModelCodec {
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    static {
+        // namespaces of attributes collected by @XmlAnyAttribute are declared as they are written
+        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    }
+
+    private final Map<Class<?>, XmlBinder<?>> binders;
+
+    /**
+     * Loads binders visible to the class loader of the SDK
+     */
+    public XmlBinderCodec() {
+        this(XmlBinderCodec.class.getClassLoader());
+    }
+
+    /**
+     * Loads binders visible to given class loader, which allows using binders generated for own models
+     *
+     * @param classLoader class loader to find binders with
+     */
+    public XmlBinderCodec(ClassLoader classLoader) {
+        Map<Class<?>, XmlBinder<?>> binders = new HashMap<>();
+        for (XmlBinder<?> binder : ServiceLoader.load(XmlBinder.class, classLoader)) {
+            if (binder.getElementName() != null && !binders.containsKey(binder.getType())) {
+                binders.put(binder.getType(), binder);
+            }
+        }
+        this.binders = Collections.unmodifiableMap(binders);
+    }
+
+    /**
+     * @return binders by their model classes
+     */
+    public Map<Class<?>, XmlBinder<?>> getBinders() {
+        return this.binders;
+    }
+
+    @Override
+    public boolean canDecode(Class<?> type) {
+        XmlBinder<?> binder = this.binders.get(type);
+        return binder != null && binder.canRead();
+    }
+
+    @Override
+    public <T> T decode(InputStream xml, Class<T> type) throws IOException {
+        XmlBinder<?> binder = this.getBinder(type);
+        try {
+            XMLStreamReader reader = Service.createXMLStreamReader(xml);
+            try {
+                if (!StAXCodec.nextElement(reader)) {
+                    throw new IOException("Document has no root element");
+                }
+                return type.cast(binder.read(reader));
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean canEncode(Class<?> type) {
+        XmlBinder<?> binder = this.binders.get(type);
+        return binder != null && binder.canWrite();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void encode(Object model, OutputStream xml) throws IOException {
+        XmlBinder<Object> binder = (XmlBinder<Object>) this.getBinder(model.getClass());
+        try {
+            XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(xml, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            binder.write(writer, binder.getElementName(), model);
+            writer.writeEndDocument();
+            writer.flush();
+            // closing the writer leaves the stream open
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not marshal %s: %s", model.getClass().getSimpleName(), e.getMessage()), e);
+        }
+    }
+
+    private XmlBinder<?> getBinder(Class<?> type) {
+        XmlBinder<?> binder = this.binders.get(type);
+        if (binder == null) {
+            throw new IllegalArgumentException(String.format("No binder was generated for %s", type.getName()));
+        }
+        return binder;
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+
+package com.dynatrace.sdk.server.agentsandcollectors;
+
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentFilter;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentPropertiesInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hand-written pull parser of the agents list.
+ * Text of every element is copied into a reusable buffer and turned into model objects only if the agent matches the {@link AgentFilter},
+ * an agent is skipped as soon as one of the filtered fields doesn't match, thus non-matching agents cause almost no allocations.
+ * <strong>Instances are not thread-safe.</strong>
+ */
+class AgentInformationReader {
+    private static final String[] AGENT_FIELDS = {"agentGroup", "configuration", "connected", "capture", "licenseOk", "agentConfigured", "startupTimeUTC",
+            "name", "agentId", "processId", "technologyType", "technologyTypeId", "host", "eventCount", "classLoadCount", "totalClassLoadCount",
+            "isHotUpdateable", "licenseInformation", "skippedEvents", "skippedPurePaths", "totalExecutionTime", "totalCpuTime", "totalPurePathCount",
+            "systemProfile", "systemProfileName", "agentVersion", "processorCount", "isvLicenseSupported", "vmVersionString", "vmVendor",
+            "configurationId", "agentMappingId", "agentGroupId", "sourceGroupId", "licenseFlagsToString", "collectorName", "agentInstanceName",
+            "instanceName", "syncThreshold", "fromCmdb", "required", "hotUpdateCritical", "hotUpdateable", "timestamp", "virtualTimeUTC",
+            "captureCPUTimes", "supportsHotSensorPlacement"};
+
+    private static final String[] PROPERTIES_FIELDS = {"agentHost", "agentId", "agentVersion", "agentBootstrapVersion", "agentHostAddress", "agentPlatform",
+            "bufferCount", "bufferSaturationThreshold", "bufferSize", "clockFrequency", "cloud", "hiResClock", "hotSensorPlaceable", "hypervisor",
+            "osHyperVFriendly", "instrumentationState", "logFileLocation", "maximumMemory", "operatingSystem", "osArchitecture", "osEdition",
+            "osProductId", "osVersion", "processors", "recoveryEnabled", "startDate", "startUp", "timer", "applicationServerVersionDetected",
+            "applicationServerDetected", "cellNameDetected", "clrVendor", "clrVersion", "runtimeVersion", "commandLine", "commandLineMayBeTruncated",
+            "hasCommandLine", "workingDirectory", "hasWorkingDirectory", "smfId", "snaId", "subsystem", "jobname", "queueType", "ccsid", "zosType",
+            "zosRelease", "asid", "regionId"};
+
+    private static final String[] COLLECTOR_FIELDS = {"name", "host", "version", "connected", "embedded", "local"};
+
+    private static final Map<String, Integer> AGENT_INDEX = index(AGENT_FIELDS);
+    private static final Map<String, Integer> PROPERTIES_INDEX = index(PROPERTIES_FIELDS);
+    private static final Map<String, Integer> COLLECTOR_INDEX = index(COLLECTOR_FIELDS);
+
+    private static final int SYSTEM_PROFILE = AGENT_INDEX.get("systemProfile");
+    private static final int AGENT_GROUP = AGENT_INDEX.get("agentGroup");
+    private static final int HOST = AGENT_INDEX.get("host");
+    private static final int CONNECTED = AGENT_INDEX.get("connected");
+
+    private static Map<String, Integer> index(String[] fields) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            index.put(fields[i], i);
+        }
+        return index;
+    }
+
+    private final AgentFilter filter;
+    private final FieldBuffer agent = new FieldBuffer(AGENT_INDEX);
+    private final FieldBuffer properties = new FieldBuffer(PROPERTIES_INDEX);
+    private final FieldBuffer collector = new FieldBuffer(COLLECTOR_INDEX);
+
+    AgentInformationReader(AgentFilter filter) {
+        this.filter = filter == null ? new AgentFilter() : filter;
+    }
+
+    /**
+     * Reads all agents of the document passing the matching ones to {@code handler}
+     *
+     * @param reader  parser positioned anywhere before the first agent
+     * @param handler receives matching agents in the order of the document
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    void read(XMLStreamReader reader, ElementHandler<? super AgentInformation> handler) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && AgentInformation.ROOT_ELEMENT_NAME.equals(reader.getLocalName())) {
+                AgentInformation agent = this.readAgent(reader);
+                if (agent != null) {
+                    handler.handle(agent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a single collector
+     *
+     * @param reader parser positioned at the start of the collector, left at its end
+     * @return the collector
+     * @throws XMLStreamException whenever the document is malformed
+     */
+    CollectorInformation readCollector(XMLStreamReader reader) throws XMLStreamException {
+        this.collector.clear();
+        String href = reader.getAttributeValue(null, "href");
+        this.collector.readFields(reader);
+        return this.buildCollector(href);
+    }
+
+    private AgentInformation readAgent(XMLStreamReader reader) throws XMLStreamException {
+        this.agent.clear();
+        this.properties.clear();
+        this.collector.clear();
+        boolean hasProperties = false;
+        boolean hasCollector = false;
+        String collectorHref = null;
+
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = reader.getLocalName();
+            if (AgentPropertiesInformation.ROOT_ELEMENT_NAME.equals(name)) {
+                hasProperties = true;
+                this.properties.readFields(reader);
+            } else if (CollectorInformation.ROOT_ELEMENT_NAME.equals(name)) {
+                hasCollector = true;
+                collectorHref = reader.getAttributeValue(null, "href");
+                this.collector.readFields(reader);
+            } else {
+                Integer field = AGENT_INDEX.get(name);
+                if (field == null) {
+                    skipElement(reader);
+                } else {
+                    this.agent.readText(reader, field);
+                    if (!this.matches(field)) {
+                        // the rest of the agent is never copied nor parsed
+                        skipElement(reader);
+                        return null;
+                    }
+                }
+            }
+        }
+
+        // filtered fields missing in the response don't match either
+        if (!this.matches(SYSTEM_PROFILE) || !this.matches(AGENT_GROUP) || !this.matches(HOST) || !this.matches(CONNECTED)) {
+            return null;
+        }
+        return this.buildAgent(hasProperties ? this.buildProperties() : null, hasCollector ? this.buildCollector(collectorHref) : null);
+    }
+
+    private boolean matches(int field) {
+        if (field == SYSTEM_PROFILE) {
+            return this.filter.getSystemProfile() == null || this.agent.textEquals(field, this.filter.getSystemProfile());
+        } else if (field == AGENT_GROUP) {
+            return this.filter.getAgentGroup() == null || this.agent.textEquals(field, this.filter.getAgentGroup());
+        } else if (field == HOST) {
+            return this.filter.getHost() == null || this.agent.textEquals(field, this.filter.getHost());
+        } else if (field == CONNECTED) {
+            return this.filter.isConnected() == null || (this.agent.isPresent(field) && this.filter.isConnected() == (this.agent.textEquals(field, "true") || this.agent.textEquals(field, "1")));
+        }
+        return true;
+    }
+
+    private AgentInformation buildAgent(AgentPropertiesInformation properties, CollectorInformation collector) {
+        FieldBuffer a = this.agent;
+        return new AgentInformation(collector, properties, a.getString("agentGroup"), a.getString("configuration"), a.getBoolean("connected"),
+                a.getBoolean("capture"), a.getBoolean("licenseOk"), a.getBoolean("agentConfigured"), a.getLong("startupTimeUTC"), a.getString("name"),
+                a.getInteger("agentId"), a.getInteger("processId"), a.getString("technologyType"), a.getByte("technologyTypeId"), a.getString("host"),
+                a.getLong("eventCount"), a.getInteger("classLoadCount"), a.getInteger("totalClassLoadCount"), a.getBoolean("isHotUpdateable"),
+                a.getString("licenseInformation"), a.getLong("skippedEvents"), a.getLong("skippedPurePaths"), a.getDouble("totalExecutionTime"),
+                a.getDouble("totalCpuTime"), a.getLong("totalPurePathCount"), a.getString("systemProfile"), a.getString("systemProfileName"),
+                a.getString("agentVersion"), a.getInteger("processorCount"), a.getBoolean("isvLicenseSupported"), a.getString("vmVersionString"),
+                a.getString("vmVendor"), a.getString("configurationId"), a.getString("agentMappingId"), a.getString("agentGroupId"),
+                a.getString("sourceGroupId"), a.getString("licenseFlagsToString"), a.getString("collectorName"), a.getString("agentInstanceName"),
+                a.getString("instanceName"), a.getDouble("syncThreshold"), a.getBoolean("fromCmdb"), a.getBoolean("required"),
+                a.getBoolean("hotUpdateCritical"), a.getBoolean("hotUpdateable"), a.getLong("timestamp"), a.getLong("virtualTimeUTC"),
+                a.getBoolean("captureCPUTimes"), a.getBoolean("supportsHotSensorPlacement"));
+    }
+
+    private AgentPropertiesInformation buildProperties() {
+        String[] values = new String[PROPERTIES_FIELDS.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.properties.getString(i);
+        }
+        return new AgentPropertiesInformation(values[0], values[1], values[2], values[3], values[4], values[5], values[6], values[7], values[8],
+                values[9], values[10], values[11], values[12], values[13], values[14], values[15], values[16], values[17], values[18], values[19],
+                values[20], values[21], values[22], values[23], values[24], values[25], values[26], values[27], values[28], values[29], values[30],
+                values[31], values[32], values[33], values[34], values[35], values[36], values[37], values[38], values[39], values[40], values[41],
+                values[42], values[43], values[44], values[45], values[46], values[47], values[48]);
+    }
+
+    private CollectorInformation buildCollector(String href) {
+        FieldBuffer c = this.collector;
+        return new CollectorInformation(href, c.getString("name"), c.getString("host"), c.getString("version"), c.getBoolean("connected"),
+                c.getBoolean("embedded"), c.getBoolean("local"));
+    }
+
+    static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Holds the text of simple elements in a single, reused character array
+     */
+    private static class FieldBuffer {
+        private final Map<String, Integer> index;
+        private final int[] starts;
+        private final int[] lengths;
+        private char[] chars = new char[1024];
+        private int size;
+
+        FieldBuffer(Map<String, Integer> index) {
+            this.index = index;
+            this.starts = new int[index.size()];
+            this.lengths = new int[index.size()];
+        }
+
+        void clear() {
+            this.size = 0;
+            Arrays.fill(this.lengths, -1);
+        }
+
+        /**
+         * Reads all simple child elements of the current element, unknown ones are skipped
+         */
+        void readFields(XMLStreamReader reader) throws XMLStreamException {
+            int event;
+            while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    Integer field = this.index.get(reader.getLocalName());
+                    if (field == null) {
+                        skipElement(reader);
+                    } else {
+                        this.readText(reader, field);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the text of the current element, leaving the reader at its end
+         */
+        void readText(XMLStreamReader reader, int field) throws XMLStreamException {
+            int start = this.size;
+            int event;
+            while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                    int length = reader.getTextLength();
+                    if (this.size + length > this.chars.length) {
+                        this.chars = Arrays.copyOf(this.chars, Math.max(this.chars.length * 2, this.size + length));
+                    }
+                    System.arraycopy(reader.getTextCharacters(), reader.getTextStart(), this.chars, this.size, length);
+                    this.size += length;
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    skipElement(reader);
+                }
+            }
+            this.starts[field] = start;
+            this.lengths[field] = this.size - start;
+        }
+
+        boolean isPresent(int field) {
+            return this.lengths[field] >= 0;
+        }
+
+        boolean textEquals(int field, String value) {
+            int length = this.lengths[field];
+            if (length != value.length()) {
+                return false;
+            }
+            int start = this.starts[field];
+            for (int i = 0; i < length; i++) {
+                if (this.chars[start + i] != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String getString(int field) {
+            if (this.lengths[field] < 0) {
+                return null;
+            }
+            return new String(this.chars, this.starts[field], this.lengths[field]);
+        }
+
+        String getString(String name) {
+            return this.getString(this.index.get(name));
+        }
+
+        private String getValue(String name) {
+            String value = this.getString(name);
+            // empty values of non-string types are treated as absent
+            return value == null || value.trim().isEmpty() ? null : value;
+        }
+
+        Boolean getBoolean(String name) {
+            String value = this.getValue(name);
+            if (value == null) {
+                return null;
+            }
+            // like JAXB, values other than the lexical forms of xs:boolean are left unset
+            switch (value.trim()) {
+                case "true":
+                case "1":
+                    return Boolean.TRUE;
+                case "false":
+                case "0":
+                    return Boolean.FALSE;
+                default:
+                    return null;
+            }
+        }
+
+        Byte getByte(String name) {
+            String value = this.getValue(name);
+            return value == null ? null : DatatypeConverter.parseByte(value);
+        }
+
+        Integer getInteger(String name) {
+            String value = this.getValue(name);
+            return value == null ? null : DatatypeConverter.parseInt(value);
+        }
+
+        Long getLong(String name) {
+            String value = this.getValue(name);
+            return value == null ? null : DatatypeConverter.parseLong(value);
+        }
+
+        Double getDouble(String name) {
+            String value = this.getValue(name);
+            return value == null ? null : DatatypeConverter.parseDouble(value);
+        }
+    }
+}
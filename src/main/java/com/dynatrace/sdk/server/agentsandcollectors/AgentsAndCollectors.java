@@ -29,22 +29,31 @@
 package com.dynatrace.sdk.server.agentsandcollectors;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.EndpointTemplate;
+import com.dynatrace.sdk.server.ResponseReader;
 import com.dynatrace.sdk.server.Service;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentFilter;
 import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
 import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
 import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
 import com.dynatrace.sdk.server.agentsandcollectors.models.Collectors;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.xml.sax.InputSource;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 
-import javax.xml.xpath.XPathExpressionException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Wraps Dynatrace Server Agents and Collectors REST API providing an easy to use set of methods.
@@ -56,6 +65,12 @@ public class AgentsAndCollectors extends Service {
     public static final String COLLECTOR_RESTART_EP = "/rest/management/collector/%s/restart";
     public static final String COLLECTOR_SHUTDOWN_EP = "/rest/management/collector/%s/shutdown";
 
+    private static final EndpointTemplate AGENTS = EndpointTemplate.compile(AGENTS_EP);
+    private static final EndpointTemplate COLLECTORS = EndpointTemplate.compile(COLLECTORS_EP);
+    private static final EndpointTemplate HOT_SENSOR_PLACEMENT = EndpointTemplate.compile(HOT_SENSOR_PLACEMENT_EP);
+    private static final EndpointTemplate COLLECTOR_RESTART = EndpointTemplate.compile(COLLECTOR_RESTART_EP);
+    private static final EndpointTemplate COLLECTOR_SHUTDOWN = EndpointTemplate.compile(COLLECTOR_SHUTDOWN_EP);
+
     public AgentsAndCollectors(DynatraceClient client) {
         super(client);
     }
@@ -69,13 +84,85 @@ public class AgentsAndCollectors extends Service {
      */
     public Agents fetchAgents() throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(AGENTS_EP);
+            URI uri = this.buildURI(AGENTS);
             return this.doGetRequest(uri, Agents.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
         }
     }
 
+    /**
+     * Fetches all {@link AgentInformation} passing them one by one to the {@code handler} as soon as they are parsed.
+     * Unlike {@link #fetchAgents()} the list of agents is never held in memory as a whole.
+     *
+     * @param handler receives every {@link AgentInformation} in the order of the response
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    public void fetchAgents(ElementHandler<? super AgentInformation> handler) throws ServerConnectionException, ServerResponseException {
+        try {
+            URI uri = this.buildURI(AGENTS);
+            this.doGetRequest(uri, AgentInformation.ROOT_ELEMENT_NAME, AgentInformation.class, handler);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Fetches all {@link AgentInformation} matching the {@code filter}, passing them one by one to the {@code handler} as soon as they are parsed.
+     * The filter is evaluated while parsing, non-matching agents are skipped without building their {@link AgentInformation}.
+     *
+     * @param filter  criteria every passed agent matches
+     * @param handler receives every matching {@link AgentInformation} in the order of the response
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    public void fetchAgents(AgentFilter filter, ElementHandler<? super AgentInformation> handler) throws ServerConnectionException, ServerResponseException {
+        try {
+            URI uri = this.buildURI(AGENTS);
+            try (CloseableHttpResponse response = this.doGetRequest(uri, true)) {
+                readAgents(response, filter, handler);
+            } catch (IOException e) {
+                throw Service.connectionException(e);
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    private static void readAgents(HttpResponse response, AgentFilter filter, ElementHandler<? super AgentInformation> handler) throws IOException, ServerResponseException {
+        try (InputStream is = response.getEntity().getContent()) {
+            XMLStreamReader reader = Service.createXMLStreamReader(is);
+            try {
+                new AgentInformationReader(filter).read(reader, handler);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new ServerResponseException(response.getStatusLine().getStatusCode(), String.format("Could not unmarshall response into given object: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Fetches list of {@link AgentInformation} matching the {@code filter}.
+     * The filter is evaluated while parsing, non-matching agents are skipped without building their {@link AgentInformation}.
+     *
+     * @param filter criteria every returned agent matches
+     * @return {@link Agents} instance containing a {@link List} of matching {@link AgentInformation}
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    public Agents fetchAgents(AgentFilter filter) throws ServerConnectionException, ServerResponseException {
+        final Agents agents = new Agents();
+        this.fetchAgents(filter, new ElementHandler<AgentInformation>() {
+            @Override
+            public void handle(AgentInformation element) {
+                agents.getAgents().add(element);
+            }
+        });
+        return agents;
+    }
+
     /**
      * Fetches list of all {@link CollectorInformation}
      *
@@ -85,7 +172,7 @@ public class AgentsAndCollectors extends Service {
      */
     public Collectors fetchCollectors() throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(COLLECTORS_EP, ""));
+            URI uri = this.buildURI(COLLECTORS, "");
             return this.doGetRequest(uri, Collectors.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
@@ -102,7 +189,7 @@ public class AgentsAndCollectors extends Service {
      */
     public CollectorInformation fetchCollector(String collectorAndHostName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(COLLECTORS_EP, collectorAndHostName));
+            URI uri = this.buildURI(COLLECTORS, collectorAndHostName);
             return this.doGetRequest(uri, CollectorInformation.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid collectorAndHostname[%s] format: %s", collectorAndHostName, e.getMessage()), e);
@@ -119,18 +206,17 @@ public class AgentsAndCollectors extends Service {
      */
     public boolean placeHotSensor(int agentId) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(HOT_SENSOR_PLACEMENT_EP, agentId));
+            URI uri = this.buildURI(HOT_SENSOR_PLACEMENT, agentId);
             try(CloseableHttpResponse response = this.doGetRequest(uri);
                 InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
-                throw new RuntimeException(e);
+                throw Service.connectionException(e);
             }
 
 
@@ -149,19 +235,18 @@ public class AgentsAndCollectors extends Service {
      */
     public boolean restartCollector(String collectorName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(COLLECTOR_RESTART_EP, collectorName));
+            URI uri = this.buildURI(COLLECTOR_RESTART, collectorName);
 
             try (CloseableHttpResponse response = this.doPostRequest(uri, null);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
-                throw new RuntimeException(e);
+                throw Service.connectionException(e);
             }
 
 
@@ -180,22 +265,182 @@ public class AgentsAndCollectors extends Service {
      */
     public boolean shutdownCollector(String collectorName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(COLLECTOR_SHUTDOWN_EP, collectorName));
+            URI uri = this.buildURI(COLLECTOR_SHUTDOWN, collectorName);
             try (CloseableHttpResponse response = this.doPostRequest(uri, null);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
-                throw new RuntimeException(e);
+                throw Service.connectionException(e);
             }
 
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid collectorName[%s]: %s", collectorName, e.getMessage()), e);
         }
     }
+
+    /**
+     * Asynchronous version of {@link #fetchAgents()}
+     *
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchAgents()}
+     */
+    public Future<Agents> fetchAgentsAsync(FutureCallback<Agents> callback) {
+        try {
+            URI uri = this.buildURI(AGENTS);
+            return this.doGetRequestAsync(uri, Agents.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchAgents(ElementHandler)}, the response is buffered before the agents are parsed
+     *
+     * @param handler  receives every {@link AgentInformation} in the order of the response, called on the executor's thread
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed once all agents have been handled
+     */
+    public Future<Void> fetchAgentsAsync(ElementHandler<? super AgentInformation> handler, FutureCallback<Void> callback) {
+        try {
+            URI uri = this.buildURI(AGENTS);
+            return this.doGetRequestAsync(uri, AgentInformation.ROOT_ELEMENT_NAME, AgentInformation.class, handler, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchAgents(AgentFilter, ElementHandler)}, the response is buffered before the agents are parsed
+     *
+     * @param filter   criteria every passed agent matches
+     * @param handler  receives every matching {@link AgentInformation} in the order of the response, called on the executor's thread
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed once all matching agents have been handled
+     */
+    public Future<Void> fetchAgentsAsync(final AgentFilter filter, final ElementHandler<? super AgentInformation> handler, FutureCallback<Void> callback) {
+        try {
+            URI uri = this.buildURI(AGENTS);
+            return this.doRequestAsync(new HttpGet(uri), true, new ResponseReader<Void>() {
+                @Override
+                public Void read(HttpResponse response) throws IOException, ServerResponseException {
+                    readAgents(response, filter, handler);
+                    return null;
+                }
+            }, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchAgents(AgentFilter)}
+     *
+     * @param filter   criteria every returned agent matches
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchAgents(AgentFilter)}
+     */
+    public Future<Agents> fetchAgentsAsync(final AgentFilter filter, FutureCallback<Agents> callback) {
+        try {
+            URI uri = this.buildURI(AGENTS);
+            return this.doRequestAsync(new HttpGet(uri), true, new ResponseReader<Agents>() {
+                @Override
+                public Agents read(HttpResponse response) throws IOException, ServerResponseException {
+                    final Agents agents = new Agents();
+                    readAgents(response, filter, new ElementHandler<AgentInformation>() {
+                        @Override
+                        public void handle(AgentInformation element) {
+                            agents.getAgents().add(element);
+                        }
+                    });
+                    return agents;
+                }
+            }, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchCollectors()}
+     *
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchCollectors()}
+     */
+    public Future<Collectors> fetchCollectorsAsync(FutureCallback<Collectors> callback) {
+        try {
+            URI uri = this.buildURI(COLLECTORS, "");
+            return this.doGetRequestAsync(uri, Collectors.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri format: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchCollector(String)}
+     *
+     * @param collectorAndHostName name and host of the Collector, delimited by @ (at) symbol
+     * @param callback             callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchCollector(String)}
+     */
+    public Future<CollectorInformation> fetchCollectorAsync(String collectorAndHostName, FutureCallback<CollectorInformation> callback) {
+        try {
+            URI uri = this.buildURI(COLLECTORS, collectorAndHostName);
+            return this.doGetRequestAsync(uri, CollectorInformation.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid collectorAndHostname[%s] format: %s", collectorAndHostName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #placeHotSensor(int)}
+     *
+     * @param agentId  Dynatrace Agent ID
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #placeHotSensor(int)}
+     */
+    public Future<Boolean> placeHotSensorAsync(int agentId, FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(HOT_SENSOR_PLACEMENT, agentId);
+            return this.doRequestAsync(new HttpGet(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid agentId[%s] format: %s", agentId, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #restartCollector(String)}
+     *
+     * @param collectorName name of the Collector
+     * @param callback      callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #restartCollector(String)}
+     */
+    public Future<Boolean> restartCollectorAsync(String collectorName, FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(COLLECTOR_RESTART, collectorName);
+            return this.doRequestAsync(new HttpPost(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid collectorName[%s]: %s", collectorName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #shutdownCollector(String)}
+     *
+     * @param collectorName name of the Collector
+     * @param callback      callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #shutdownCollector(String)}
+     */
+    public Future<Boolean> shutdownCollectorAsync(String collectorName, FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(COLLECTOR_SHUTDOWN, collectorName);
+            return this.doRequestAsync(new HttpPost(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid collectorName[%s]: %s", collectorName, e.getMessage()), e);
+        }
+    }
 }
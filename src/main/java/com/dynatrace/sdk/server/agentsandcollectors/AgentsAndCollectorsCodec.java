@@ -0,0 +1,79 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.agentsandcollectors;
+
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.StAXCodec;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Collectors;
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.List;
+
+/**
+ * Decodes {@link Agents}, {@link Collectors} and {@link CollectorInformation} with the pull parser of {@link AgentsAndCollectors#fetchAgents(com.dynatrace.sdk.server.agentsandcollectors.models.AgentFilter, ElementHandler)}
+ */
+@ThreadSafe
+public class AgentsAndCollectorsCodec extends StAXCodec {
+    public AgentsAndCollectorsCodec() {
+        super(Agents.class, Collectors.class, CollectorInformation.class);
+    }
+
+    @Override
+    protected Object read(XMLStreamReader reader, Class<?> type) throws XMLStreamException {
+        // readers hold reusable buffers, thus they are not shared between threads
+        AgentInformationReader agentReader = new AgentInformationReader(null);
+        if (type == Agents.class) {
+            Agents agents = new Agents();
+            final List<AgentInformation> list = agents.getAgents();
+            agentReader.read(reader, new ElementHandler<AgentInformation>() {
+                @Override
+                public void handle(AgentInformation agent) {
+                    list.add(agent);
+                }
+            });
+            return agents;
+        }
+        if (type == Collectors.class) {
+            Collectors collectors = new Collectors(reader.getAttributeValue(null, "href"));
+            while (nextElement(reader)) {
+                if (CollectorInformation.ROOT_ELEMENT_NAME.equals(reader.getLocalName())) {
+                    collectors.getCollectors().add(agentReader.readCollector(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return collectors;
+        }
+        return agentReader.readCollector(reader);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.agentsandcollectors;
+
+import com.dynatrace.sdk.server.CacheConfiguration;
+import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ResponseCache;
+import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Collectors;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.concurrent.Future;
+
+/**
+ * {@link AgentsAndCollectors} caching the list of Collectors and single Collectors. Agents are never cached.
+ * Cached entries are invalidated by {@link #restartCollector(String)} and {@link #shutdownCollector(String)} called on this instance,
+ * or their asynchronous versions,
+ * changes made by other clients become visible once entries expire.
+ * Background refreshes run on the {@link DynatraceClient#getExecutor() executor} of the client.
+ */
+@ThreadSafe
+public class CachingAgentsAndCollectors extends AgentsAndCollectors {
+    private static final String ALL_COLLECTORS = "";
+
+    private final ResponseCache<String, Collectors> collectorsCache;
+    private final ResponseCache<String, CollectorInformation> collectorCache;
+
+    public CachingAgentsAndCollectors(DynatraceClient client) {
+        this(client, new CacheConfiguration(), new CacheConfiguration());
+    }
+
+    /**
+     * @param client                  Dynatrace client
+     * @param collectorsConfiguration configuration of the {@link #fetchCollectors()} cache
+     * @param collectorConfiguration  configuration of the {@link #fetchCollector(String)} cache
+     */
+    public CachingAgentsAndCollectors(DynatraceClient client, CacheConfiguration collectorsConfiguration, CacheConfiguration collectorConfiguration) {
+        super(client);
+        this.collectorsCache = new ResponseCache<>(collectorsConfiguration, client.getExecutor());
+        this.collectorCache = new ResponseCache<>(collectorConfiguration, client.getExecutor());
+    }
+
+    @Override
+    public Collectors fetchCollectors() throws ServerConnectionException, ServerResponseException {
+        return this.collectorsCache.get(ALL_COLLECTORS, new ResponseCache.Loader<Collectors>() {
+            @Override
+            public Collectors load() throws ServerConnectionException, ServerResponseException {
+                return CachingAgentsAndCollectors.super.fetchCollectors();
+            }
+        });
+    }
+
+    @Override
+    public CollectorInformation fetchCollector(final String collectorAndHostName) throws ServerConnectionException, ServerResponseException {
+        return this.collectorCache.get(collectorAndHostName, new ResponseCache.Loader<CollectorInformation>() {
+            @Override
+            public CollectorInformation load() throws ServerConnectionException, ServerResponseException {
+                return CachingAgentsAndCollectors.super.fetchCollector(collectorAndHostName);
+            }
+        });
+    }
+
+    @Override
+    public boolean restartCollector(String collectorName) throws ServerConnectionException, ServerResponseException {
+        try {
+            return super.restartCollector(collectorName);
+        } finally {
+            this.invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean shutdownCollector(String collectorName) throws ServerConnectionException, ServerResponseException {
+        try {
+            return super.shutdownCollector(collectorName);
+        } finally {
+            this.invalidateAll();
+        }
+    }
+
+    @Override
+    public Future<Collectors> fetchCollectorsAsync(FutureCallback<Collectors> callback) {
+        return this.collectorsCache.getAsync(ALL_COLLECTORS, new ResponseCache.AsyncLoader<Collectors>() {
+            @Override
+            public Future<Collectors> load(FutureCallback<Collectors> callback) {
+                return CachingAgentsAndCollectors.super.fetchCollectorsAsync(callback);
+            }
+        }, callback);
+    }
+
+    @Override
+    public Future<CollectorInformation> fetchCollectorAsync(final String collectorAndHostName, FutureCallback<CollectorInformation> callback) {
+        return this.collectorCache.getAsync(collectorAndHostName, new ResponseCache.AsyncLoader<CollectorInformation>() {
+            @Override
+            public Future<CollectorInformation> load(FutureCallback<CollectorInformation> callback) {
+                return CachingAgentsAndCollectors.super.fetchCollectorAsync(collectorAndHostName, callback);
+            }
+        }, callback);
+    }
+
+    @Override
+    public Future<Boolean> restartCollectorAsync(final String collectorName, FutureCallback<Boolean> callback) {
+        return ResponseCache.invalidating(new ResponseCache.AsyncLoader<Boolean>() {
+            @Override
+            public Future<Boolean> load(FutureCallback<Boolean> callback) {
+                return CachingAgentsAndCollectors.super.restartCollectorAsync(collectorName, callback);
+            }
+        }, this.invalidationOfAll(), callback);
+    }
+
+    @Override
+    public Future<Boolean> shutdownCollectorAsync(final String collectorName, FutureCallback<Boolean> callback) {
+        return ResponseCache.invalidating(new ResponseCache.AsyncLoader<Boolean>() {
+            @Override
+            public Future<Boolean> load(FutureCallback<Boolean> callback) {
+                return CachingAgentsAndCollectors.super.shutdownCollectorAsync(collectorName, callback);
+            }
+        }, this.invalidationOfAll(), callback);
+    }
+
+    private Runnable invalidationOfAll() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                CachingAgentsAndCollectors.this.invalidateAll();
+            }
+        };
+    }
+
+    public void invalidateAll() {
+        // collectors are cached by name and host while mutating calls take the name only, thus everything is dropped
+        this.collectorsCache.invalidateAll();
+        this.collectorCache.invalidateAll();
+    }
+
+    /**
+     * @return cache of {@link #fetchCollectors()}, exposing its hit and miss counts
+     */
+    public ResponseCache<String, Collectors> getCollectorsCache() {
+        return this.collectorsCache;
+    }
+
+    /**
+     * @return cache of {@link #fetchCollector(String)}, exposing its hit and miss counts
+     */
+    public ResponseCache<String, CollectorInformation> getCollectorCache() {
+        return this.collectorCache;
+    }
+}
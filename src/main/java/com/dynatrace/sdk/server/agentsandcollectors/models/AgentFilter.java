@@ -0,0 +1,96 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.agentsandcollectors.models;
+
+/**
+ * Criteria matched against every agent while the agents list is being parsed.
+ * Only criteria that are set are taken into account, an agent has to match all of them.
+ */
+public class AgentFilter {
+    private String systemProfile;
+    private String agentGroup;
+    private String host;
+    private Boolean connected;
+
+    public AgentFilter() {
+    }
+
+    public String getSystemProfile() {
+        return this.systemProfile;
+    }
+
+    /**
+     * @param systemProfile - matched against {@link AgentInformation#getSystemProfile()}
+     */
+    public void setSystemProfile(String systemProfile) {
+        this.systemProfile = systemProfile;
+    }
+
+    public String getAgentGroup() {
+        return this.agentGroup;
+    }
+
+    /**
+     * @param agentGroup - matched against {@link AgentInformation#getAgentGroupLabel()}
+     */
+    public void setAgentGroup(String agentGroup) {
+        this.agentGroup = agentGroup;
+    }
+
+    public String getHost() {
+        return this.host;
+    }
+
+    /**
+     * @param host - matched against {@link AgentInformation#getHost()}
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public Boolean isConnected() {
+        return this.connected;
+    }
+
+    /**
+     * @param connected - matched against {@link AgentInformation#isConnected()}
+     */
+    public void setConnected(Boolean connected) {
+        this.connected = connected;
+    }
+
+    @Override
+    public String toString() {
+        return "AgentFilter{" +
+                "systemProfile='" + this.systemProfile + '\'' +
+                ", agentGroup='" + this.agentGroup + '\'' +
+                ", host='" + this.host + '\'' +
+                ", connected=" + this.connected +
+                '}';
+    }
+}
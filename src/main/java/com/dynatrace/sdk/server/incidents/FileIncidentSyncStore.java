@@ -0,0 +1,164 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.incidents;
+
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import com.dynatrace.sdk.server.incidents.models.IncidentState;
+import org.apache.http.annotation.ThreadSafe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Keeps the states of all synchronized system profiles and incident rules in a single properties file.
+ * The file is replaced atomically on every save, thus a crash never leaves it half written.
+ */
+@ThreadSafe
+public class FileIncidentSyncStore implements IncidentSyncStore {
+    private static final String WATERMARK = "watermark";
+    private static final String INCIDENT = "incident.";
+    private static final String SEEN = "seen.";
+
+    private final Path file;
+
+    public FileIncidentSyncStore(Path file) {
+        this.file = file;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            // should not happen, UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            // should not happen, UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String prefix(String systemProfile, String incidentRule) {
+        return encode(systemProfile) + '/' + encode(incidentRule) + '.';
+    }
+
+    private static String formatTime(Date date) {
+        return date == null ? "" : String.valueOf(date.getTime());
+    }
+
+    private static Date parseTime(String value) {
+        return value.isEmpty() ? null : new Date(Long.parseLong(value));
+    }
+
+    @Override
+    public synchronized IncidentSyncState load(String systemProfile, String incidentRule) throws IOException {
+        Properties properties = this.read();
+        String prefix = prefix(systemProfile, incidentRule);
+        String watermark = properties.getProperty(prefix + WATERMARK);
+        if (watermark == null) {
+            return null;
+        }
+        Map<String, Incident> unsettled = new LinkedHashMap<>();
+        Map<String, Long> seen = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix + INCIDENT)) {
+                String id = decode(key.substring(prefix.length() + INCIDENT.length()));
+                // state,start,end
+                String[] values = properties.getProperty(key).split(",", -1);
+                IncidentState state = values[0].isEmpty() ? null : IncidentState.fromInternal(values[0]);
+                unsettled.put(id, new Incident(id, null, null, null, parseTime(values[1]), parseTime(values[2]), state));
+            } else if (key.startsWith(prefix + SEEN)) {
+                seen.put(decode(key.substring(prefix.length() + SEEN.length())), Long.parseLong(properties.getProperty(key)));
+            }
+        }
+        try {
+            return new IncidentSyncState(Long.parseLong(watermark), unsettled, seen);
+        } catch (NumberFormatException e) {
+            throw new IOException(String.format("Invalid watermark of %s/%s: %s", systemProfile, incidentRule, watermark), e);
+        }
+    }
+
+    @Override
+    public synchronized void save(String systemProfile, String incidentRule, IncidentSyncState state) throws IOException {
+        Properties properties = this.read();
+        String prefix = prefix(systemProfile, incidentRule);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                properties.remove(key);
+            }
+        }
+        properties.setProperty(prefix + WATERMARK, String.valueOf(state.getWatermark()));
+        for (Map.Entry<String, Incident> entry : state.getUnsettled().entrySet()) {
+            Incident incident = entry.getValue();
+            String incidentState = incident.getState() == null ? "" : incident.getState().getInternal();
+            properties.setProperty(prefix + INCIDENT + encode(entry.getKey()),
+                    incidentState + ',' + formatTime(incident.getStart()) + ',' + formatTime(incident.getEnd()));
+        }
+        for (Map.Entry<String, Long> entry : state.getSeen().entrySet()) {
+            properties.setProperty(prefix + SEEN + encode(entry.getKey()), String.valueOf(entry.getValue()));
+        }
+
+        Path parent = this.file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(temporary)) {
+                properties.store(os, "Dynatrace incident synchronization state");
+            }
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Properties read() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(this.file)) {
+            properties.load(is);
+        } catch (NoSuchFileException e) {
+            // nothing synchronized yet
+        }
+        return properties;
+    }
+}
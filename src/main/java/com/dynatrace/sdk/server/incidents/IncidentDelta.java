@@ -0,0 +1,86 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.incidents;
+
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import org.apache.http.annotation.Immutable;
+
+/**
+ * A change of an incident found by {@link IncidentSync}
+ */
+@Immutable
+public final class IncidentDelta {
+    public enum Type {
+        /**
+         * The incident was not synchronized before
+         */
+        CREATED,
+        /**
+         * State or end of a synchronized incident changed
+         */
+        UPDATED
+    }
+
+    private final Type type;
+    private final Incident incident;
+    private final Incident previous;
+
+    IncidentDelta(Type type, Incident incident, Incident previous) {
+        this.type = type;
+        this.incident = incident;
+        this.previous = previous;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return current incident as loaded from the server
+     */
+    public Incident getIncident() {
+        return this.incident;
+    }
+
+    /**
+     * @return snapshot of the incident as of the previous synchronization, holding its id, state, start and end,
+     * {@code null} for {@link Type#CREATED} deltas
+     */
+    public Incident getPrevious() {
+        return this.previous;
+    }
+
+    @Override
+    public String toString() {
+        return "IncidentDelta{" +
+                "type=" + this.type +
+                ", incident=" + this.incident +
+                ", previous=" + this.previous +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.incidents;
+
+import com.dynatrace.sdk.server.incidents.models.FetchedIncident;
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import org.apache.http.annotation.Immutable;
+
+/**
+ * Outcome of loading a single {@link Incident} referenced by a {@link FetchedIncident}:
+ * either the loaded incident or the exception which prevented loading it
+ */
+@Immutable
+public final class IncidentResult {
+    private final FetchedIncident reference;
+    private final Incident incident;
+    private final Exception failure;
+
+    IncidentResult(FetchedIncident reference, Incident incident, Exception failure) {
+        this.reference = reference;
+        this.incident = incident;
+        this.failure = failure;
+    }
+
+    /**
+     * @return reference of the incident as returned by {@link Incidents#fetchIncidents}
+     */
+    public FetchedIncident getReference() {
+        return this.reference;
+    }
+
+    /**
+     * @return loaded incident or {@code null} if loading failed
+     */
+    public Incident getIncident() {
+        return this.incident;
+    }
+
+    /**
+     * @return {@link com.dynatrace.sdk.server.exceptions.ServerConnectionException} or
+     * {@link com.dynatrace.sdk.server.exceptions.ServerResponseException} thrown while loading the incident, {@code null} on success
+     */
+    public Exception getFailure() {
+        return this.failure;
+    }
+
+    public boolean isSuccessful() {
+        return this.failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return "IncidentResult{" +
+                "reference=" + this.reference +
+                ", incident=" + this.incident +
+                ", failure=" + this.failure +
+                '}';
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.incidents;
+
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.incidents.models.FetchIncidentsRequest;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncident;
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import com.dynatrace.sdk.server.incidents.models.IncidentState;
+import org.apache.http.annotation.ThreadSafe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mirrors incidents incrementally. Every {@link #sync} fetches only incidents started since the high-watermark of the previous one
+ * and reloads only incidents which might still change, i.e. are not confirmed or have not ended yet.
+ * Thus the cost of a synchronization depends on the number of new and open incidents rather than on the history.
+ * <p>
+ * The watermark is taken from the local clock and the server might list an incident only some time after it started,
+ * therefore every synchronization fetches again the incidents started within a lookback window before the watermark.
+ * Incidents already emitted are recognized by their ids, so each one is emitted as created only once.
+ * <p>
+ * The first synchronization of a system profile and incident rule fetches all their incidents.
+ * The state is saved only after all deltas were handled, so deltas of a failed synchronization are emitted again by the next one.
+ */
+@ThreadSafe
+public class IncidentSync {
+    public static final int DEFAULT_PARALLELISM = 4;
+    //5 minutes default lookback, covering clock skew and incidents listed late
+    public static final long DEFAULT_LOOKBACK = 5 * 60 * 1000;
+
+    private final Incidents incidents;
+    private final IncidentSyncStore store;
+    private final int parallelism;
+    private final long lookback;
+
+    public IncidentSync(Incidents incidents, IncidentSyncStore store) {
+        this(incidents, store, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param incidents   service fetching the incidents
+     * @param store       store of the synchronization state
+     * @param parallelism maximum number of new incidents loaded concurrently
+     */
+    public IncidentSync(Incidents incidents, IncidentSyncStore store, int parallelism) {
+        this(incidents, store, parallelism, DEFAULT_LOOKBACK);
+    }
+
+    /**
+     * @param incidents   service fetching the incidents
+     * @param store       store of the synchronization state
+     * @param parallelism maximum number of new incidents loaded concurrently
+     * @param lookback    time in milliseconds before the previous watermark from which incidents are fetched again
+     */
+    public IncidentSync(Incidents incidents, IncidentSyncStore store, int parallelism, long lookback) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        if (lookback < 0) {
+            throw new IllegalArgumentException("Lookback must not be negative: " + lookback);
+        }
+        this.incidents = incidents;
+        this.store = store;
+        this.parallelism = parallelism;
+        this.lookback = lookback;
+    }
+
+    private static boolean isSettled(Incident incident) {
+        return incident.getState() == IncidentState.CONFIRMED && incident.getEnd() != null;
+    }
+
+    private static Incident snapshot(Incident incident) {
+        return new Incident(incident.getId(), null, null, null, incident.getStart(), incident.getEnd(), incident.getState());
+    }
+
+    private static boolean isChanged(Incident previous, Incident incident) {
+        return previous.getState() != incident.getState() || !Objects.equals(previous.getEnd(), incident.getEnd());
+    }
+
+    private static long startOf(Incident incident, long watermark) {
+        // an incident without start is remembered as long as one started at the watermark
+        return incident.getStart() == null ? watermark : incident.getStart().getTime();
+    }
+
+    /**
+     * Emits deltas of the incidents of given system profile and incident rule since the previous synchronization.
+     * Synchronizations run one at a time.
+     *
+     * @param systemProfile system profile id
+     * @param incidentRule  incident rule, e.g. Deployment
+     * @param handler       receives created incidents and updates of open incidents
+     * @return number of emitted deltas
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     * @throws IOException               whenever loading or saving the state fails
+     */
+    public synchronized int sync(String systemProfile, String incidentRule, ElementHandler<? super IncidentDelta> handler) throws ServerConnectionException, ServerResponseException, IOException {
+        IncidentSyncState state = this.store.load(systemProfile, incidentRule);
+        long watermark = System.currentTimeMillis();
+        Map<String, Incident> previouslyUnsettled = state == null ? new LinkedHashMap<String, Incident>() : state.getUnsettled();
+        Map<String, Incident> unsettled = new LinkedHashMap<>();
+        Map<String, Long> seen = state == null ? new LinkedHashMap<String, Long>() : new LinkedHashMap<>(state.getSeen());
+        int deltas = 0;
+
+        for (Incident previous : previouslyUnsettled.values()) {
+            Incident incident;
+            try {
+                incident = this.incidents.getIncident(systemProfile, incidentRule, previous.getId());
+            } catch (ServerResponseException e) {
+                if (e.getStatusCode() == 404) {
+                    // removed on the server, nothing left to watch
+                    continue;
+                }
+                throw e;
+            }
+            seen.put(incident.getId(), startOf(incident, watermark));
+            if (isChanged(previous, incident)) {
+                handler.handle(new IncidentDelta(IncidentDelta.Type.UPDATED, incident, previous));
+                deltas++;
+            }
+            if (!isSettled(incident)) {
+                unsettled.put(incident.getId(), snapshot(incident));
+            }
+        }
+
+        FetchIncidentsRequest request = new FetchIncidentsRequest(systemProfile, incidentRule);
+        if (state != null) {
+            request.setFrom(new Date(state.getWatermark() - this.lookback));
+        }
+        request.setTo(new Date(watermark));
+        List<FetchedIncident> references = new ArrayList<>();
+        for (FetchedIncident reference : this.incidents.fetchIncidents(request).getIncidents()) {
+            // incidents reloaded as open ones above or emitted by a previous synchronization within the lookback window are not loaded again
+            if (!previouslyUnsettled.containsKey(reference.getId()) && !seen.containsKey(reference.getId())) {
+                references.add(reference);
+            }
+        }
+        CreatedIncidentsHandler created = new CreatedIncidentsHandler(unsettled, seen, watermark, handler);
+        this.incidents.fetchIncidentDetails(systemProfile, incidentRule, references, this.parallelism, created);
+        if (created.failure instanceof ServerResponseException) {
+            throw (ServerResponseException) created.failure;
+        }
+        if (created.failure instanceof ServerConnectionException) {
+            throw (ServerConnectionException) created.failure;
+        }
+        if (created.failure instanceof RuntimeException) {
+            throw (RuntimeException) created.failure;
+        }
+        if (created.failure != null) {
+            throw new ServerConnectionException(String.format("Could not load incident: %s", created.failure.getMessage()), created.failure);
+        }
+
+        // incidents started before the next window cannot be listed again
+        long from = watermark - this.lookback;
+        for (Iterator<Long> starts = seen.values().iterator(); starts.hasNext(); ) {
+            if (starts.next() < from) {
+                starts.remove();
+            }
+        }
+        this.store.save(systemProfile, incidentRule, new IncidentSyncState(watermark, unsettled, seen));
+        return deltas + created.count;
+    }
+
+    private static class CreatedIncidentsHandler implements ElementHandler<IncidentResult> {
+        private final Map<String, Incident> unsettled;
+        private final Map<String, Long> seen;
+        private final long watermark;
+        private final ElementHandler<? super IncidentDelta> handler;
+        private Exception failure;
+        private int count;
+
+        private CreatedIncidentsHandler(Map<String, Incident> unsettled, Map<String, Long> seen, long watermark, ElementHandler<? super IncidentDelta> handler) {
+            this.unsettled = unsettled;
+            this.seen = seen;
+            this.watermark = watermark;
+            this.handler = handler;
+        }
+
+        @Override
+        public void handle(IncidentResult result) {
+            if (!result.isSuccessful()) {
+                if (this.failure == null) {
+                    this.failure = result.getFailure();
+                }
+                return;
+            }
+            if (this.failure != null) {
+                // the synchronization fails, the incident is emitted again by the next one
+                return;
+            }
+            Incident incident = result.getIncident();
+            if (this.seen.containsKey(incident.getId())) {
+                // listed twice
+                return;
+            }
+            this.handler.handle(new IncidentDelta(IncidentDelta.Type.CREATED, incident, null));
+            this.count++;
+            this.seen.put(incident.getId(), startOf(incident, this.watermark));
+            if (!isSettled(incident)) {
+                this.unsettled.put(incident.getId(), snapshot(incident));
+            }
+        }
+    }
+}
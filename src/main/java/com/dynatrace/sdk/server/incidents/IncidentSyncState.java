@@ -0,0 +1,93 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.incidents;
+
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import org.apache.http.annotation.Immutable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of {@link IncidentSync} for a single system profile and incident rule: the high-watermark up to which
+ * new incidents were fetched, snapshots of incidents which might still change and start times of incidents already
+ * emitted which the next synchronization might list again.
+ */
+@Immutable
+public final class IncidentSyncState {
+    private final long watermark;
+    private final Map<String, Incident> unsettled;
+    private final Map<String, Long> seen;
+
+    /**
+     * @param watermark time in milliseconds since the epoch up to which incidents were fetched
+     * @param unsettled snapshots of incidents still watched for changes by their ids
+     */
+    public IncidentSyncState(long watermark, Map<String, Incident> unsettled) {
+        this(watermark, unsettled, Collections.<String, Long>emptyMap());
+    }
+
+    /**
+     * @param watermark time in milliseconds since the epoch up to which incidents were fetched
+     * @param unsettled snapshots of incidents still watched for changes by their ids
+     * @param seen      start times in milliseconds since the epoch of incidents already emitted by their ids
+     */
+    public IncidentSyncState(long watermark, Map<String, Incident> unsettled, Map<String, Long> seen) {
+        this.watermark = watermark;
+        this.unsettled = Collections.unmodifiableMap(new LinkedHashMap<>(unsettled));
+        this.seen = Collections.unmodifiableMap(new LinkedHashMap<>(seen));
+    }
+
+    public long getWatermark() {
+        return this.watermark;
+    }
+
+    /**
+     * @return snapshots of incidents which are not confirmed or have not ended yet, holding their id, state, start and end
+     */
+    public Map<String, Incident> getUnsettled() {
+        return this.unsettled;
+    }
+
+    /**
+     * @return start times of incidents already emitted, which started within the lookback window before the watermark
+     */
+    public Map<String, Long> getSeen() {
+        return this.seen;
+    }
+
+    @Override
+    public String toString() {
+        return "IncidentSyncState{" +
+                "watermark=" + this.watermark +
+                ", unsettled=" + this.unsettled.keySet() +
+                ", seen=" + this.seen.keySet() +
+                '}';
+    }
+}
@@ -29,25 +29,42 @@
 package com.dynatrace.sdk.server.incidents;
 
 
+import com.dynatrace.sdk.server.BasicServerConfiguration;
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.EndpointTemplate;
+import com.dynatrace.sdk.server.Iso8601Encoder;
+import com.dynatrace.sdk.server.ResponseReader;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
 import com.dynatrace.sdk.server.incidents.models.CreateUpdateIncidentRequest;
 import com.dynatrace.sdk.server.incidents.models.FetchIncidentsRequest;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncident;
 import com.dynatrace.sdk.server.incidents.models.FetchedIncidents;
 import com.dynatrace.sdk.server.incidents.models.Incident;
 import org.apache.http.Header;
+import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.message.BasicNameValuePair;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Wraps Dynatrace server Incidents REST API
@@ -57,6 +74,9 @@ public class Incidents extends Service {
     public static final String INCIDENTS_EP = "/rest/management/profiles/%s/incidentrules/%s/incidents/";
     public static final String INCIDENT_EP = "/rest/management/profiles/%s/incidentrules/%s/incidents/%s";
 
+    private static final EndpointTemplate INCIDENTS = EndpointTemplate.compile(INCIDENTS_EP);
+    private static final EndpointTemplate INCIDENT = EndpointTemplate.compile(INCIDENT_EP);
+
     private static final String LOCATION_HEADER = "Location";
     private static final String PARAM_TO = "to";
     private static final String PARAM_FROM = "from";
@@ -66,7 +86,7 @@ public class Incidents extends Service {
         super(client);
     }
 
-    private static SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    private static final Iso8601Encoder DATE_ENCODER = Iso8601Encoder.withOffset(TimeZone.getDefault());
 
     /**
      * Retrieves incidents from server
@@ -79,21 +99,8 @@ public class Incidents extends Service {
         String systemProfile = request.getSystemProfile();
         String rule = request.getIncidentRule();
 
-        ArrayList<NameValuePair> nvps = new ArrayList<>();
-        if (request.getTo() != null) {
-            String formattedDate = dateFormat.format(request.getTo());
-            nvps.add(new BasicNameValuePair(PARAM_TO, formattedDate));
-        }
-        if (request.getFrom() != null ) {
-            String formattedDate = dateFormat.format(request.getFrom());
-            nvps.add( new BasicNameValuePair(PARAM_FROM, formattedDate));
-        }
-        if (request.getState() != null ) {
-            nvps.add( new BasicNameValuePair(PARAM_STATE, request.getState().getInternal()));
-        }
-
         try {
-            URI uri = this.buildURI(String.format(INCIDENTS_EP, systemProfile, rule), nvps.toArray(new NameValuePair[nvps.size()]));
+            URI uri = this.buildURI(INCIDENTS, fetchParameters(request), systemProfile, rule);
             return this.doGetRequest(uri, FetchedIncidents.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENTS_EP));
@@ -111,13 +118,104 @@ public class Incidents extends Service {
      */
     public Incident getIncident(String systemProfile, String rule, String id) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(INCIDENT_EP, systemProfile, rule, id));
+            URI uri = this.buildURI(INCIDENT, systemProfile, rule, id);
             return this.doGetRequest(uri, Incident.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENT_EP));
         }
     }
 
+    /**
+     * Retrieves incidents matching the {@code request} along with their details.
+     * Details are loaded by up to {@code maxPerRoute} concurrent {@link #getIncident} calls of the connection pool.
+     *
+     * @param request filter parameters
+     * @return results in the order of {@link #fetchIncidents(FetchIncidentsRequest)}, each holding either the incident or its failure
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     * @see #fetchIncidentDetails(FetchIncidentsRequest, int, ElementHandler)
+     */
+    public List<IncidentResult> fetchIncidentDetails(FetchIncidentsRequest request) throws ServerConnectionException, ServerResponseException {
+        final List<IncidentResult> results = new ArrayList<>();
+        this.fetchIncidentDetails(request, BasicServerConfiguration.connectionPoolConfiguration(this.getClient().getConfiguration()).getMaxPerRoute(), new ElementHandler<IncidentResult>() {
+            @Override
+            public void handle(IncidentResult result) {
+                results.add(result);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Retrieves incidents matching the {@code request} and loads their details by concurrent {@link #getIncidentAsync} calls,
+     * whose responses are parsed on the {@link DynatraceClient#getExecutor() executor} of the client.
+     * At most {@code parallelism} details are loaded or waiting for the {@code handler} at once,
+     * thus memory stays bounded however many incidents match.
+     * <p>
+     * Failing to load one incident does not stop the others, the failure is passed to the {@code handler} instead.
+     * Must not be called from a thread of the executor, which might then wait for itself.
+     *
+     * @param request     filter parameters
+     * @param parallelism maximum number of concurrently loaded incidents
+     * @param handler     receives a result per incident, in the order of {@link #fetchIncidents(FetchIncidentsRequest)}, on the calling thread
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails or the calling thread is interrupted
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    public void fetchIncidentDetails(FetchIncidentsRequest request, int parallelism, ElementHandler<? super IncidentResult> handler) throws ServerConnectionException, ServerResponseException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.fetchIncidentDetails(request.getSystemProfile(), request.getIncidentRule(), this.fetchIncidents(request).getIncidents(), parallelism, handler);
+    }
+
+    /**
+     * Loads the details of already listed incidents by concurrent {@link #getIncidentAsync} calls, like
+     * {@link #fetchIncidentDetails(FetchIncidentsRequest, int, ElementHandler)} does, which allows skipping incidents known already
+     *
+     * @param systemProfile system profile id
+     * @param rule          incident rule name
+     * @param incidents     references of the incidents to load, e.g. filtered from {@link #fetchIncidents(FetchIncidentsRequest)}
+     * @param parallelism   maximum number of concurrently loaded incidents
+     * @param handler       receives a result per incident, in the order of {@code incidents}, on the calling thread
+     * @throws ServerConnectionException whenever the calling thread is interrupted
+     */
+    public void fetchIncidentDetails(String systemProfile, String rule, Iterable<FetchedIncident> incidents, int parallelism,
+                                     ElementHandler<? super IncidentResult> handler) throws ServerConnectionException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        Iterator<FetchedIncident> references = incidents.iterator();
+        Deque<FetchedIncident> pendingReferences = new ArrayDeque<>(parallelism);
+        Deque<Future<Incident>> pending = new ArrayDeque<>(parallelism);
+        try {
+            while (!pending.isEmpty() || references.hasNext()) {
+                while (pending.size() < parallelism && references.hasNext()) {
+                    FetchedIncident reference = references.next();
+                    pendingReferences.add(reference);
+                    pending.add(this.getIncidentAsync(systemProfile, rule, reference.getId(), null));
+                }
+                FetchedIncident reference = pendingReferences.poll();
+                Future<Incident> future = pending.poll();
+                try {
+                    handler.handle(new IncidentResult(reference, future.get(), null));
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (!(cause instanceof Exception)) {
+                        throw new RuntimeException(String.format("Could not load incident %s: %s", reference.getId(), cause.getMessage()), cause);
+                    }
+                    handler.handle(new IncidentResult(reference, null, (Exception) cause));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerConnectionException("Interrupted while loading incidents", e);
+        } finally {
+            for (Future<Incident> future : pending) {
+                future.cancel(false);
+            }
+        }
+    }
+
     /**
      * Creates an {@link Incident} on a Dynatrace server
      * @param request {@link CreateUpdateIncidentRequest} - incident data
@@ -129,14 +227,14 @@ public class Incidents extends Service {
         String systemProfile = request.getSystemProfile();
         String rule = request.getIncidentRule();
         try {
-            URI uri = this.buildURI(String.format(INCIDENTS_EP, systemProfile, rule));
-            CloseableHttpResponse response = this.doPostRequest(uri, Service.xmlObjectToEntity(request));
-            Header location = response.getFirstHeader(LOCATION_HEADER);
-            String href = location.getValue();
-            String[] bits = href.split("/");
-            return bits[bits.length-1];
+            URI uri = this.buildURI(INCIDENTS, systemProfile, rule);
+            try (CloseableHttpResponse response = this.doPostRequest(uri, this.createEntity(request))) {
+                return readCreatedId(response);
+            }
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENTS_EP));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not close http response: " + e.getMessage(), e);
         }
     }
 
@@ -151,14 +249,116 @@ public class Incidents extends Service {
         String systemProfile = request.getSystemProfile();
         String rule = request.getIncidentRule();
         try {
-            URI uri = this.buildURI(String.format(INCIDENT_EP, systemProfile, rule, id));
-            this.doPutRequest(uri, Service.xmlObjectToEntity(request));
+            URI uri = this.buildURI(INCIDENT, systemProfile, rule, id);
+            this.doPutRequest(uri, this.createEntity(request)).close();
         } catch(URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENT_EP));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not close http response: " + e.getMessage(), e);
         }
     }
 
 
+    private static List<NameValuePair> fetchParameters(FetchIncidentsRequest request) {
+        ArrayList<NameValuePair> nvps = new ArrayList<>();
+        if (request.getTo() != null) {
+            String formattedDate = DATE_ENCODER.format(request.getTo());
+            nvps.add(new BasicNameValuePair(PARAM_TO, formattedDate));
+        }
+        if (request.getFrom() != null ) {
+            String formattedDate = DATE_ENCODER.format(request.getFrom());
+            nvps.add( new BasicNameValuePair(PARAM_FROM, formattedDate));
+        }
+        if (request.getState() != null ) {
+            nvps.add( new BasicNameValuePair(PARAM_STATE, request.getState().getInternal()));
+        }
+        return nvps;
+    }
+
+    private static String readCreatedId(HttpResponse response) throws ServerResponseException {
+        Header location = response.getFirstHeader(LOCATION_HEADER);
+        if (location == null) {
+            throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not find the location of created incident");
+        }
+        String href = location.getValue();
+        String[] bits = href.split("/");
+        return bits[bits.length-1];
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchIncidents(FetchIncidentsRequest)}
+     *
+     * @param request  filter parameters
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchIncidents(FetchIncidentsRequest)}
+     */
+    public Future<FetchedIncidents> fetchIncidentsAsync(FetchIncidentsRequest request, FutureCallback<FetchedIncidents> callback) {
+        try {
+            URI uri = this.buildURI(INCIDENTS, fetchParameters(request), request.getSystemProfile(), request.getIncidentRule());
+            return this.doGetRequestAsync(uri, FetchedIncidents.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENTS_EP));
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getIncident(String, String, String)}
+     *
+     * @param systemProfile system profile id
+     * @param rule          incident rule, e.g. Deployment
+     * @param id            incident id
+     * @param callback      callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getIncident(String, String, String)}
+     */
+    public Future<Incident> getIncidentAsync(String systemProfile, String rule, String id, FutureCallback<Incident> callback) {
+        try {
+            URI uri = this.buildURI(INCIDENT, systemProfile, rule, id);
+            return this.doGetRequestAsync(uri, Incident.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENT_EP));
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #createIncident(CreateUpdateIncidentRequest)}
+     *
+     * @param request  incident data
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #createIncident(CreateUpdateIncidentRequest)}
+     */
+    public Future<String> createIncidentAsync(CreateUpdateIncidentRequest request, FutureCallback<String> callback) {
+        try {
+            HttpPost post = new HttpPost(this.buildURI(INCIDENTS, request.getSystemProfile(), request.getIncidentRule()));
+            post.setEntity(this.createEntity(request));
+            return this.doRequestAsync(post, false, new ResponseReader<String>() {
+                @Override
+                public String read(HttpResponse response) throws ServerResponseException {
+                    return readCreatedId(response);
+                }
+            }, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENTS_EP));
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #updateIncident(String, CreateUpdateIncidentRequest)}
+     *
+     * @param id       incident id
+     * @param request  incident data
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #updateIncident(String, CreateUpdateIncidentRequest)}
+     */
+    public Future<Void> updateIncidentAsync(String id, CreateUpdateIncidentRequest request, FutureCallback<Void> callback) {
+        try {
+            HttpPut put = new HttpPut(this.buildURI(INCIDENT, request.getSystemProfile(), request.getIncidentRule(), id));
+            put.setEntity(this.createEntity(request));
+            return this.doRequestAsync(put, false, Service.noResultReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Could not build incidents endpoint for: %s", INCIDENT_EP));
+        }
+    }
+
     @Deprecated
     private static void dumpEntity(org.apache.http.entity.StringEntity entity) {
         try {
@@ -0,0 +1,104 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.incidents;
+
+import com.dynatrace.sdk.server.StAXCodec;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncident;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncidents;
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import com.dynatrace.sdk.server.incidents.models.IncidentSeverity;
+import com.dynatrace.sdk.server.incidents.models.IncidentState;
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Decodes {@link FetchedIncidents} and {@link Incident}
+ */
+@ThreadSafe
+public class IncidentsCodec extends StAXCodec {
+    private static final String INCIDENT_REFERENCE = "incidentreference";
+
+    public IncidentsCodec() {
+        super(FetchedIncidents.class, Incident.class);
+    }
+
+    @Override
+    protected Object read(XMLStreamReader reader, Class<?> type) throws XMLStreamException {
+        if (type == Incident.class) {
+            return readIncident(reader);
+        }
+        List<FetchedIncident> incidents = new ArrayList<>();
+        while (nextElement(reader)) {
+            if (INCIDENT_REFERENCE.equals(reader.getLocalName())) {
+                incidents.add(new FetchedIncident(reader.getAttributeValue(null, "id"), reader.getAttributeValue(null, "href")));
+            }
+            skipElement(reader);
+        }
+        return new FetchedIncidents(incidents);
+    }
+
+    private static Incident readIncident(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "id");
+        String message = null;
+        String description = null;
+        Date start = null;
+        Date end = null;
+        IncidentState state = null;
+        IncidentSeverity severity = null;
+        while (nextElement(reader)) {
+            switch (reader.getLocalName()) {
+                case "message":
+                    message = readText(reader);
+                    break;
+                case "description":
+                    description = readText(reader);
+                    break;
+                case "start":
+                    start = parseDate(readText(reader));
+                    break;
+                case "end":
+                    end = parseDate(readText(reader));
+                    break;
+                case "state":
+                    state = parseEnum(IncidentState.class, readText(reader));
+                    break;
+                case "severity":
+                    severity = parseEnum(IncidentSeverity.class, readText(reader));
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+        return new Incident(id, message, description, severity, start, end, state);
+    }
+}
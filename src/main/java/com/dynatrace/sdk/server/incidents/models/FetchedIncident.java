@@ -31,6 +31,14 @@ package com.dynatrace.sdk.server.incidents.models;
 import javax.xml.bind.annotation.XmlAttribute;
 
 public class FetchedIncident {
+    public FetchedIncident(String id, String href) {
+        this.id = id;
+        this.href = href;
+    }
+
+    public FetchedIncident() {
+    }
+
     public String getId() {
         return id;
     }
@@ -29,6 +29,7 @@
 package com.dynatrace.sdk.server.memorydumps;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.EndpointTemplate;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
@@ -36,10 +37,13 @@ import com.dynatrace.sdk.server.memorydumps.models.MemoryDump;
 import com.dynatrace.sdk.server.memorydumps.models.MemoryDumpJob;
 import org.apache.http.Header;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.concurrent.FutureCallback;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.Future;
 
 /**
  * Wraps Dynatrace Server MemoryDumps REST API providing an easy to use set of methods.
@@ -50,6 +54,10 @@ public class MemoryDumps extends Service {
     public static final String MEMORY_DUMP_JOB_EP = "/rest/management/profiles/%s/memorydumpjob";
     public static final String MEMORY_DUMP_JOBS_EP = "/rest/management/profiles/%s/memorydumpjobs/%s";
 
+    private static final EndpointTemplate MEMORY_DUMP = EndpointTemplate.compile(MEMORY_DUMP_EP);
+    private static final EndpointTemplate MEMORY_DUMP_JOB = EndpointTemplate.compile(MEMORY_DUMP_JOB_EP);
+    private static final EndpointTemplate MEMORY_DUMP_JOBS = EndpointTemplate.compile(MEMORY_DUMP_JOBS_EP);
+
     public static final String RESPONSE_LOCATION_HEADER_NAME = "Location";
 
     public MemoryDumps(DynatraceClient client) {
@@ -67,7 +75,7 @@ public class MemoryDumps extends Service {
      */
     public MemoryDump getMemoryDump(String profileName, String resourceId) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(MEMORY_DUMP_EP, profileName, resourceId));
+            URI uri = this.buildURI(MEMORY_DUMP, profileName, resourceId);
             return this.doGetRequest(uri, MemoryDump.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid profileName[%s] or resourceId[%s]: %s", profileName, resourceId, e.getMessage()), e);
@@ -85,7 +93,7 @@ public class MemoryDumps extends Service {
      */
     public MemoryDumpJob getMemoryDumpJob(String profileName, String memoryDumpJobId) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(MEMORY_DUMP_JOBS_EP, profileName, memoryDumpJobId));
+            URI uri = this.buildURI(MEMORY_DUMP_JOBS, profileName, memoryDumpJobId);
             return this.doGetRequest(uri, MemoryDumpJob.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid profileName[%s] or memoryDumpJobId[%s]: %s", profileName, memoryDumpJobId, e.getMessage()), e);
@@ -103,9 +111,9 @@ public class MemoryDumps extends Service {
      */
     public String createMemoryDumpJob(String profileName, MemoryDumpJob parameters) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(MEMORY_DUMP_JOB_EP, profileName));
+            URI uri = this.buildURI(MEMORY_DUMP_JOB, profileName);
 
-            try (CloseableHttpResponse response = this.doPutRequest(uri, Service.xmlObjectToEntity(parameters))) {
+            try (CloseableHttpResponse response = this.doPutRequest(uri, this.createEntity(parameters))) {
                 Header locationHeader = response.getLastHeader(RESPONSE_LOCATION_HEADER_NAME);
 
                 if (locationHeader != null) {
@@ -120,4 +128,56 @@ public class MemoryDumps extends Service {
             throw new IllegalArgumentException(String.format("Invalid profileName[%s] or parameters[%s]: %s", profileName, parameters, e.getMessage()), e);
         }
     }
+
+    /**
+     * Asynchronous version of {@link #getMemoryDump(String, String)}
+     *
+     * @param profileName profileName associated with {@link MemoryDump}
+     * @param resourceId  {@link MemoryDump#getResourceId()}
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getMemoryDump(String, String)}
+     */
+    public Future<MemoryDump> getMemoryDumpAsync(String profileName, String resourceId, FutureCallback<MemoryDump> callback) {
+        try {
+            URI uri = this.buildURI(MEMORY_DUMP, profileName, resourceId);
+            return this.doGetRequestAsync(uri, MemoryDump.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] or resourceId[%s]: %s", profileName, resourceId, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getMemoryDumpJob(String, String)}
+     *
+     * @param profileName     profileName associated with {@link MemoryDump}
+     * @param memoryDumpJobId {@link MemoryDumpJob#getId()}
+     * @param callback        callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getMemoryDumpJob(String, String)}
+     */
+    public Future<MemoryDumpJob> getMemoryDumpJobAsync(String profileName, String memoryDumpJobId, FutureCallback<MemoryDumpJob> callback) {
+        try {
+            URI uri = this.buildURI(MEMORY_DUMP_JOBS, profileName, memoryDumpJobId);
+            return this.doGetRequestAsync(uri, MemoryDumpJob.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] or memoryDumpJobId[%s]: %s", profileName, memoryDumpJobId, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #createMemoryDumpJob(String, MemoryDumpJob)}
+     *
+     * @param profileName profileName associated with {@link MemoryDump}
+     * @param parameters  memory dump job parameters
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #createMemoryDumpJob(String, MemoryDumpJob)}
+     */
+    public Future<String> createMemoryDumpJobAsync(String profileName, MemoryDumpJob parameters, FutureCallback<String> callback) {
+        try {
+            HttpPut put = new HttpPut(this.buildURI(MEMORY_DUMP_JOB, profileName));
+            put.setEntity(this.createEntity(parameters));
+            return this.doRequestAsync(put, false, Service.headerReader(RESPONSE_LOCATION_HEADER_NAME), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] or parameters[%s]: %s", profileName, parameters, e.getMessage()), e);
+        }
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.metrics;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory {@link MetricsCollector} keeping {@link EndpointStatistics} per endpoint template.
+ * Only the first request of an endpoint allocates, later measurements update counters in place.
+ */
+@ThreadSafe
+public class EndpointMetrics implements MetricsCollector {
+    private final ConcurrentMap<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestStarted(String endpoint, String method) {
+        this.statistics(endpoint).started();
+    }
+
+    @Override
+    public void requestCompleted(String endpoint, String method, int statusCode, long durationNanos) {
+        this.statistics(endpoint).completed(statusCode, durationNanos);
+    }
+
+    @Override
+    public void requestFailed(String endpoint, String method, long durationNanos) {
+        this.statistics(endpoint).failed(durationNanos);
+    }
+
+    @Override
+    public void responseRead(String endpoint, long bytes) {
+        this.statistics(endpoint).read(bytes);
+    }
+
+    @Override
+    public void responseParsed(String endpoint, long durationNanos) {
+        this.statistics(endpoint).parsed(durationNanos);
+    }
+
+    /**
+     * @param endpoint endpoint template, e.g. {@link com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors#AGENTS_EP}
+     * @return statistics of the endpoint or {@code null} if no request was sent to it
+     */
+    public EndpointStatistics getStatistics(String endpoint) {
+        return this.endpoints.get(endpoint);
+    }
+
+    /**
+     * @return live view of statistics by endpoint template
+     */
+    public Map<String, EndpointStatistics> getEndpoints() {
+        return Collections.unmodifiableMap(this.endpoints);
+    }
+
+    private EndpointStatistics statistics(String endpoint) {
+        EndpointStatistics statistics = this.endpoints.get(endpoint);
+        if (statistics == null) {
+            statistics = new EndpointStatistics(endpoint);
+            EndpointStatistics existing = this.endpoints.putIfAbsent(endpoint, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.metrics;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live statistics of a single endpoint template collected by {@link EndpointMetrics}, latencies are in nanoseconds
+ */
+@ThreadSafe
+public class EndpointStatistics {
+    private static final int MAX_STATUS_CODE = 599;
+
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLongArray statusCodes = new AtomicLongArray(MAX_STATUS_CODE + 1);
+
+    EndpointStatistics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void started() {
+        this.inFlight.incrementAndGet();
+    }
+
+    void completed(int statusCode, long durationNanos) {
+        this.inFlight.decrementAndGet();
+        this.latency.record(durationNanos);
+        if (statusCode >= 0 && statusCode <= MAX_STATUS_CODE) {
+            this.statusCodes.incrementAndGet(statusCode);
+        }
+    }
+
+    void failed(long durationNanos) {
+        this.inFlight.decrementAndGet();
+        this.failures.incrementAndGet();
+        this.latency.record(durationNanos);
+    }
+
+    void read(long bytes) {
+        this.responseBytes.addAndGet(bytes);
+    }
+
+    void parsed(long durationNanos) {
+        this.parseTime.record(durationNanos);
+    }
+
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * @return time from sending requests to receiving response headers or a failure
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * @return time spent unmarshalling response bodies
+     */
+    public LatencyHistogram getParseTime() {
+        return this.parseTime;
+    }
+
+    /**
+     * @return number of requests waiting for a response
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @return number of requests which received a response or failed
+     */
+    public long getRequestCount() {
+        return this.latency.getCount();
+    }
+
+    /**
+     * @return number of requests which didn't receive any response
+     */
+    public long getFailureCount() {
+        return this.failures.get();
+    }
+
+    /**
+     * @param statusCode HTTP status code
+     * @return number of responses with given {@code statusCode}
+     */
+    public long getStatusCount(int statusCode) {
+        if (statusCode < 0 || statusCode > MAX_STATUS_CODE) {
+            return 0;
+        }
+        return this.statusCodes.get(statusCode);
+    }
+
+    /**
+     * @return total number of bytes read from response bodies
+     */
+    public long getResponseBytes() {
+        return this.responseBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointStatistics{" +
+                "endpoint='" + this.endpoint + '\'' +
+                ", inFlight=" + this.getInFlight() +
+                ", failures=" + this.getFailureCount() +
+                ", responseBytes=" + this.getResponseBytes() +
+                ", latency=" + this.latency +
+                ", parseTime=" + this.parseTime +
+                '}';
+    }
+}
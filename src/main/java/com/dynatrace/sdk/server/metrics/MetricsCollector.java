@@ -0,0 +1,84 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.metrics;
+
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * Receives measurements of every request sent by services of a {@link com.dynatrace.sdk.server.DynatraceClient}.
+ * Requests are identified by their endpoint template, e.g. {@code /rest/management/profiles/%s/testruns/%s}, so variables such as profile names
+ * don't increase the number of recorded series. Requests not matching any template of their service are reported as {@link #OTHER_ENDPOINT}.
+ * <strong>Methods are called on the hot path of every request and must be thread-safe and fast!</strong>
+ */
+@ThreadSafe
+public interface MetricsCollector {
+    String OTHER_ENDPOINT = "other";
+
+    /**
+     * Called before a request is sent
+     *
+     * @param endpoint endpoint template
+     * @param method   HTTP method
+     */
+    void requestStarted(String endpoint, String method);
+
+    /**
+     * Called once response headers are received, regardless of the status code
+     *
+     * @param endpoint      endpoint template
+     * @param method        HTTP method
+     * @param statusCode    HTTP status code of the response
+     * @param durationNanos time from sending the request to receiving response headers
+     */
+    void requestCompleted(String endpoint, String method, int statusCode, long durationNanos);
+
+    /**
+     * Called if no response was received, e.g. due to connection failure or timeout
+     *
+     * @param endpoint      endpoint template
+     * @param method        HTTP method
+     * @param durationNanos time from sending the request to the failure
+     */
+    void requestFailed(String endpoint, String method, long durationNanos);
+
+    /**
+     * Called once the response body is fully read or closed
+     *
+     * @param endpoint endpoint template
+     * @param bytes    number of bytes read from the response body
+     */
+    void responseRead(String endpoint, long bytes);
+
+    /**
+     * Called once a response body is unmarshalled into a model
+     *
+     * @param endpoint      endpoint template
+     * @param durationNanos time spent parsing, including reading the body from the socket
+     */
+    void responseParsed(String endpoint, long durationNanos);
+}
@@ -29,6 +29,7 @@
 package com.dynatrace.sdk.server.resourcedumps;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.EndpointTemplate;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
@@ -38,10 +39,11 @@ import com.dynatrace.sdk.server.resourcedumps.models.ThreadDumpStatusMessage;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.message.BasicNameValuePair;
-import org.xml.sax.InputSource;
 
-import javax.xml.xpath.XPathExpressionException;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -49,6 +51,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Wraps a Resource Dumps REST API, providing an easy to use set of methods to control server.
@@ -58,6 +61,9 @@ public class ResourceDumps extends Service {
     public static final String CREATE_THREAD_DUMP_EP = "/rest/management/profiles/%s/threaddump";
     public static final String GET_THREAD_DUMP_STATUS_EP = "/rest/management/profiles/%s/threaddumpcreated/%s";
 
+    private static final EndpointTemplate CREATE_THREAD_DUMP = EndpointTemplate.compile(CREATE_THREAD_DUMP_EP);
+    private static final EndpointTemplate GET_THREAD_DUMP_STATUS = EndpointTemplate.compile(GET_THREAD_DUMP_STATUS_EP);
+
     public ResourceDumps(DynatraceClient client) {
         super(client);
     }
@@ -71,8 +77,43 @@ public class ResourceDumps extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public String createThreadDump(CreateThreadDumpRequest request) throws ServerConnectionException, ServerResponseException {
-        ArrayList<NameValuePair> nvps = new ArrayList<>();
+        try {
+            UrlEncodedFormEntity entity = new UrlEncodedFormEntity(createParameters(request));
+            try (CloseableHttpResponse response = this.doPostRequest(this.buildURI(CREATE_THREAD_DUMP, request.getSystemProfile()), entity)) {
+                try (InputStream is = response.getEntity().getContent()) {
+                    return Service.readResultValue(is);
+                } catch (XMLStreamException | IOException e) {
+                    throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response: " + e.getMessage(), e);
+                }
+            }
+        } catch (UnsupportedEncodingException | URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid parameters[%s] format: %s", request, e.getMessage()), e);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not close http response: %s", e.getMessage()), e);
+        }
+    }
 
+
+    /**
+     * Requests a thread dump status for a specific {@code systemProfile} and {@code scheduleId}.
+     *
+     * @param profileName system profile name
+     * @param scheduleId  previously requested Thread Dump schedule ID
+     * @return {@link ThreadDumpStatus} instance containing a {@link List} of {@link ThreadDumpStatusMessage}
+     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
+     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     */
+    public ThreadDumpStatus getThreadDumpStatus(String profileName, String scheduleId) throws ServerConnectionException, ServerResponseException {
+        try {
+            URI uri = this.buildURI(GET_THREAD_DUMP_STATUS, profileName, scheduleId);
+            return this.doGetRequest(uri, ThreadDumpStatus.class);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] or scheduleId[%s] format: %s", profileName, scheduleId, e.getMessage()), e);
+        }
+    }
+
+    private static List<NameValuePair> createParameters(CreateThreadDumpRequest request) {
+        List<NameValuePair> nvps = new ArrayList<>();
         if (request.getAgentName() != null) {
             nvps.add(new BasicNameValuePair("agentName", request.getAgentName()));
         }
@@ -85,37 +126,38 @@ public class ResourceDumps extends Service {
         if (request.isSessionLocked() != null) {
             nvps.add(new BasicNameValuePair("isSessionLocked", String.valueOf(request.isSessionLocked())));
         }
+        return nvps;
+    }
 
+    /**
+     * Asynchronous version of {@link #createThreadDump(CreateThreadDumpRequest)}
+     *
+     * @param request  parameters of the Agent for which the thread dump will be created
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #createThreadDump(CreateThreadDumpRequest)}
+     */
+    public Future<String> createThreadDumpAsync(CreateThreadDumpRequest request, FutureCallback<String> callback) {
         try {
-            UrlEncodedFormEntity entity = new UrlEncodedFormEntity(nvps);
-            try (CloseableHttpResponse response = this.doPostRequest(this.buildURI(String.format(CREATE_THREAD_DUMP_EP, request.getSystemProfile())), entity)) {
-                try (InputStream is = response.getEntity().getContent()) {
-                    return Service.compileValueExpression().evaluate(new InputSource(is));
-                } catch (XPathExpressionException | IOException e) {
-                    throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response: " + e.getMessage(), e);
-                }
-            }
+            HttpPost post = new HttpPost(this.buildURI(CREATE_THREAD_DUMP, request.getSystemProfile()));
+            post.setEntity(new UrlEncodedFormEntity(createParameters(request)));
+            return this.doRequestAsync(post, false, Service.resultValueReader(), callback);
         } catch (UnsupportedEncodingException | URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid parameters[%s] format: %s", request, e.getMessage()), e);
-        } catch (IOException e) {
-            throw new RuntimeException(String.format("Could not close http response: %s", e.getMessage()), e);
         }
     }
 
-
     /**
-     * Requests a thread dump status for a specific {@code systemProfile} and {@code scheduleId}.
+     * Asynchronous version of {@link #getThreadDumpStatus(String, String)}
      *
      * @param profileName system profile name
      * @param scheduleId  previously requested Thread Dump schedule ID
-     * @return {@link ThreadDumpStatus} instance containing a {@link List} of {@link ThreadDumpStatusMessage}
-     * @throws ServerConnectionException whenever connecting to the Dynatrace server fails
-     * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getThreadDumpStatus(String, String)}
      */
-    public ThreadDumpStatus getThreadDumpStatus(String profileName, String scheduleId) throws ServerConnectionException, ServerResponseException {
+    public Future<ThreadDumpStatus> getThreadDumpStatusAsync(String profileName, String scheduleId, FutureCallback<ThreadDumpStatus> callback) {
         try {
-            URI uri = this.buildURI(String.format(GET_THREAD_DUMP_STATUS_EP, profileName, scheduleId));
-            return this.doGetRequest(uri, ThreadDumpStatus.class);
+            URI uri = this.buildURI(GET_THREAD_DUMP_STATUS, profileName, scheduleId);
+            return this.doGetRequestAsync(uri, ThreadDumpStatus.class, callback);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid profileName[%s] or scheduleId[%s] format: %s", profileName, scheduleId, e.getMessage()), e);
         }
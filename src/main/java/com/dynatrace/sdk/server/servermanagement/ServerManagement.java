@@ -29,17 +29,20 @@
 package com.dynatrace.sdk.server.servermanagement;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.EndpointTemplate;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.xml.sax.InputSource;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 
-import javax.xml.xpath.XPathExpressionException;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.Future;
 
 /**
  * Wraps a Server Management REST API, providing an easy to use set of methods to control server.
@@ -49,6 +52,9 @@ public class ServerManagement extends Service {
     public static final String SERVER_RESTART_EP = "/rest/management/server/restart";
     public static final String SERVER_SHUTDOWN_EP = "/rest/management/server/shutdown";
 
+    private static final EndpointTemplate SERVER_RESTART = EndpointTemplate.compile(SERVER_RESTART_EP);
+    private static final EndpointTemplate SERVER_SHUTDOWN = EndpointTemplate.compile(SERVER_SHUTDOWN_EP);
+
     public ServerManagement(DynatraceClient client) {
         super(client);
     }
@@ -62,15 +68,14 @@ public class ServerManagement extends Service {
      */
     public boolean restart() throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(SERVER_RESTART_EP);
+            URI uri = this.buildURI(SERVER_RESTART);
 
             try (CloseableHttpResponse response = this.doPostRequest(uri, null);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
@@ -92,15 +97,14 @@ public class ServerManagement extends Service {
      */
     public boolean shutdown() throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(SERVER_SHUTDOWN_EP);
+            URI uri = this.buildURI(SERVER_SHUTDOWN);
 
             try (CloseableHttpResponse response = this.doPostRequest(uri, null);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
@@ -112,4 +116,34 @@ public class ServerManagement extends Service {
             throw new IllegalArgumentException(String.format("Invalid uri: %s", e.getMessage()), e);
         }
     }
+
+    /**
+     * Asynchronous version of {@link #restart()}
+     *
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #restart()}
+     */
+    public Future<Boolean> restartAsync(FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(SERVER_RESTART);
+            return this.doRequestAsync(new HttpPost(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #shutdown()}
+     *
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #shutdown()}
+     */
+    public Future<Boolean> shutdownAsync(FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(SERVER_SHUTDOWN);
+            return this.doRequestAsync(new HttpPost(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid uri: %s", e.getMessage()), e);
+        }
+    }
 }
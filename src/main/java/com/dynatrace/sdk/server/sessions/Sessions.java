@@ -29,6 +29,7 @@
 package com.dynatrace.sdk.server.sessions;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.EndpointTemplate;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
@@ -37,15 +38,19 @@ import com.dynatrace.sdk.server.sessions.models.StoreSessionRequest;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.message.BasicNameValuePair;
-import org.xml.sax.InputSource;
 
-import javax.xml.xpath.XPathExpressionException;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Wraps a Live Session REST API, providing an easy to use set of methods to control sessions.
@@ -56,6 +61,10 @@ public class Sessions extends Service {
     public static final String REANALYZE_SESSION_EP = "/rest/management/sessions/%s/reanalyze";
     public static final String REANALYZE_SESSION_STATUS_EP = "/rest/management/sessions/%s/reanalyze/finished";
 
+    private static final EndpointTemplate SESSIONS = EndpointTemplate.compile(SESSIONS_EP);
+    private static final EndpointTemplate REANALYZE_SESSION = EndpointTemplate.compile(REANALYZE_SESSION_EP);
+    private static final EndpointTemplate REANALYZE_SESSION_STATUS = EndpointTemplate.compile(REANALYZE_SESSION_STATUS_EP);
+
     public Sessions(DynatraceClient client) {
         super(client);
     }
@@ -70,31 +79,13 @@ public class Sessions extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public String startRecording(StartRecordingRequest request) throws ServerConnectionException, ServerResponseException {
-        ArrayList<NameValuePair> nvps = new ArrayList<>();
-        if (request.getPresentableName() != null) {
-            nvps.add(new BasicNameValuePair("presentableName", request.getPresentableName()));
-        }
-        if (request.getDescription() != null) {
-            nvps.add(new BasicNameValuePair("description", request.getDescription()));
-        }
-        if (request.isTimestampAllowed() != null) {
-            nvps.add(new BasicNameValuePair("isTimeStampAllowed", String.valueOf(request.isTimestampAllowed())));
-        }
-        if (request.getRecordingOption() != null) {
-            nvps.add(new BasicNameValuePair("recordingOption", request.getRecordingOption().getInternal()));
-        }
-        if (request.isSessionLocked() != null) {
-            nvps.add(new BasicNameValuePair("isSessionLocked", String.valueOf(request.isSessionLocked())));
-        }
-        for (String label : request.getLabels()) {
-            nvps.add(new BasicNameValuePair("label", label));
-        }
+        List<NameValuePair> nvps = startRecordingParameters(request);
         try {
             UrlEncodedFormEntity entity = new UrlEncodedFormEntity(nvps);
-            try (CloseableHttpResponse response = this.doPostRequest(this.buildURI(String.format(SESSIONS_EP, request.getSystemProfile(), "startrecording")), entity)) {
+            try (CloseableHttpResponse response = this.doPostRequest(this.buildURI(SESSIONS, request.getSystemProfile(), "startrecording"), entity)) {
                 try (InputStream is = response.getEntity().getContent()) {
-                    return Service.compileValueExpression().evaluate(new InputSource(is));
-                } catch (XPathExpressionException | IOException e) {
+                    return Service.readResultValue(is);
+                } catch (XMLStreamException | IOException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response: " + e.getMessage(), e);
                 }
             }
@@ -116,10 +107,10 @@ public class Sessions extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public String stopRecording(String profileName) throws ServerResponseException, ServerConnectionException {
-        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(String.format(SESSIONS_EP, profileName, "stoprecording")))) {
+        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(SESSIONS, profileName, "stoprecording"))) {
             try (InputStream is = response.getEntity().getContent()) {
-                return Service.compileValueExpression().evaluate(new InputSource(is));
-            } catch (XPathExpressionException | IOException e) {
+                return Service.readResultValue(is);
+            } catch (XMLStreamException | IOException e) {
                 throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response", e);
             }
         } catch (URISyntaxException e) {
@@ -139,10 +130,10 @@ public class Sessions extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public boolean clear(String profileName) throws ServerResponseException, ServerConnectionException {
-        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(String.format(SESSIONS_EP, profileName, "clear")))) {
+        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(SESSIONS, profileName, "clear"))) {
             try (InputStream is = response.getEntity().getContent()) {
-                return Service.compileValueExpression().evaluate(new InputSource(is)).equals("true");
-            } catch (XPathExpressionException | IOException e) {
+                return Service.readResultValue(is).equals("true");
+            } catch (XMLStreamException | IOException e) {
                 throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
             }
         } catch (URISyntaxException e) {
@@ -161,10 +152,10 @@ public class Sessions extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public boolean reanalyze(String sessionName) throws ServerResponseException, ServerConnectionException {
-        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(String.format(REANALYZE_SESSION_EP, sessionName)))) {
+        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(REANALYZE_SESSION, sessionName))) {
             try (InputStream is = response.getEntity().getContent()) {
-                return Service.compileValueExpression().evaluate(new InputSource(is)).equals("true");
-            } catch (XPathExpressionException | IOException e) {
+                return Service.readResultValue(is).equals("true");
+            } catch (XMLStreamException | IOException e) {
                 throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
             }
         } catch (URISyntaxException e) {
@@ -183,10 +174,10 @@ public class Sessions extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public boolean getReanalysisStatus(String sessionName) throws ServerResponseException, ServerConnectionException {
-        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(String.format(REANALYZE_SESSION_STATUS_EP, sessionName)))) {
+        try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(REANALYZE_SESSION_STATUS, sessionName), true)) {
             try (InputStream is = response.getEntity().getContent()) {
-                return Service.compileValueExpression().evaluate(new InputSource(is)).equals("true");
-            } catch (XPathExpressionException | IOException e) {
+                return Service.readResultValue(is).equals("true");
+            } catch (XMLStreamException | IOException e) {
                 throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
             }
         } catch (URISyntaxException e) {
@@ -210,6 +201,46 @@ public class Sessions extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public String store(StoreSessionRequest request) throws ServerConnectionException, ServerResponseException {
+        List<NameValuePair> nvps = storeParameters(request);
+        try {
+            try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(SESSIONS, nvps, request.getSystemProfile(), "storepurepaths"))) {
+                try (InputStream is = response.getEntity().getContent()) {
+                    return Service.readResultValue(is);
+                } catch (XMLStreamException | IOException e) {
+                    throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response: " + e.getMessage(), e);
+                }
+            }
+        } catch (UnsupportedEncodingException | URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid parameters[%s] format: %s", nvps.toString(), e.getMessage()), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not close http response:" + e.getMessage(), e);
+        }
+    }
+
+    private static List<NameValuePair> startRecordingParameters(StartRecordingRequest request) {
+        ArrayList<NameValuePair> nvps = new ArrayList<>();
+        if (request.getPresentableName() != null) {
+            nvps.add(new BasicNameValuePair("presentableName", request.getPresentableName()));
+        }
+        if (request.getDescription() != null) {
+            nvps.add(new BasicNameValuePair("description", request.getDescription()));
+        }
+        if (request.isTimestampAllowed() != null) {
+            nvps.add(new BasicNameValuePair("isTimeStampAllowed", String.valueOf(request.isTimestampAllowed())));
+        }
+        if (request.getRecordingOption() != null) {
+            nvps.add(new BasicNameValuePair("recordingOption", request.getRecordingOption().getInternal()));
+        }
+        if (request.isSessionLocked() != null) {
+            nvps.add(new BasicNameValuePair("isSessionLocked", String.valueOf(request.isSessionLocked())));
+        }
+        for (String label : request.getLabels()) {
+            nvps.add(new BasicNameValuePair("label", label));
+        }
+        return nvps;
+    }
+
+    private static List<NameValuePair> storeParameters(StoreSessionRequest request) {
         ArrayList<NameValuePair> nvps = new ArrayList<>();
         if (request.isAppendTimestamp() != null) {
             nvps.add(new BasicNameValuePair("appendTimestamp", String.valueOf(request.isAppendTimestamp())));
@@ -232,19 +263,100 @@ public class Sessions extends Service {
         for (String label : request.getLabels()) {
             nvps.add(new BasicNameValuePair("label", label));
         }
+        return nvps;
+    }
 
+    /**
+     * Asynchronous version of {@link #startRecording(StartRecordingRequest)}
+     *
+     * @param request  session parameters
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #startRecording(StartRecordingRequest)}
+     */
+    public Future<String> startRecordingAsync(StartRecordingRequest request, FutureCallback<String> callback) {
+        List<NameValuePair> nvps = startRecordingParameters(request);
         try {
-            try (CloseableHttpResponse response = this.doGetRequest(this.buildURI(String.format(SESSIONS_EP, request.getSystemProfile(), "storepurepaths"), nvps.toArray(new NameValuePair[nvps.size()])))) {
-                try (InputStream is = response.getEntity().getContent()) {
-                    return Service.compileValueExpression().evaluate(new InputSource(is));
-                } catch (XPathExpressionException | IOException e) {
-                    throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse server response: " + e.getMessage(), e);
-                }
-            }
+            HttpPost post = new HttpPost(this.buildURI(SESSIONS, request.getSystemProfile(), "startrecording"));
+            post.setEntity(new UrlEncodedFormEntity(nvps));
+            return this.doRequestAsync(post, false, Service.resultValueReader(), callback);
         } catch (UnsupportedEncodingException | URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid parameters[%s] format: %s", nvps.toString(), e.getMessage()), e);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not close http response:" + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Asynchronous version of {@link #stopRecording(String)}
+     *
+     * @param profileName profile name to stop the session of
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #stopRecording(String)}
+     */
+    public Future<String> stopRecordingAsync(String profileName, FutureCallback<String> callback) {
+        try {
+            return this.doRequestAsync(new HttpGet(this.buildURI(SESSIONS, profileName, "stoprecording")), false, Service.resultValueReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] format: %s", profileName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #clear(String)}
+     *
+     * @param profileName profile name to clean the live session of
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #clear(String)}
+     */
+    public Future<Boolean> clearAsync(String profileName, FutureCallback<Boolean> callback) {
+        try {
+            return this.doRequestAsync(new HttpGet(this.buildURI(SESSIONS, profileName, "clear")), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] format: %s", profileName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #reanalyze(String)}
+     *
+     * @param sessionName session name to reanalyze
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #reanalyze(String)}
+     */
+    public Future<Boolean> reanalyzeAsync(String sessionName, FutureCallback<Boolean> callback) {
+        try {
+            return this.doRequestAsync(new HttpGet(this.buildURI(REANALYZE_SESSION, sessionName)), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid sessionName[%s] format: %s", sessionName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getReanalysisStatus(String)}
+     *
+     * @param sessionName session name to query
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getReanalysisStatus(String)}
+     */
+    public Future<Boolean> getReanalysisStatusAsync(String sessionName, FutureCallback<Boolean> callback) {
+        try {
+            return this.doRequestAsync(new HttpGet(this.buildURI(REANALYZE_SESSION_STATUS, sessionName)), true, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid sessionName[%s] format: %s", sessionName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #store(StoreSessionRequest)}
+     *
+     * @param request  session parameters
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #store(StoreSessionRequest)}
+     */
+    public Future<String> storeAsync(StoreSessionRequest request, FutureCallback<String> callback) {
+        List<NameValuePair> nvps = storeParameters(request);
+        try {
+            return this.doRequestAsync(new HttpGet(this.buildURI(SESSIONS, nvps, request.getSystemProfile(), "storepurepaths")), false, Service.resultValueReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid parameters[%s] format: %s", nvps.toString(), e.getMessage()), e);
+        }
+    }
+}
@@ -28,13 +28,13 @@
 
 package com.dynatrace.sdk.server.sessions.models;
 
+import com.dynatrace.sdk.server.Iso8601Encoder;
 import com.dynatrace.sdk.server.sessions.Sessions;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.TimeZone;
 
 /**
  * Store Session Request class required for {@link Sessions#store} method
@@ -44,6 +44,8 @@ import java.util.List;
  * </strong>
  */
 public class StoreSessionRequest {
+    private static final Iso8601Encoder TIMEFRAME_ENCODER = Iso8601Encoder.local(TimeZone.getDefault());
+
     private String systemProfile;
 
     private RecordingOption recordingOption;
@@ -99,7 +101,7 @@ public class StoreSessionRequest {
     }
 
     public void setTimeframeStart(Date timeframeStart) {
-        this.timeframeStart = this.getTimeframeDateFormat().format(timeframeStart);
+        this.timeframeStart = TIMEFRAME_ENCODER.format(timeframeStart);
     }
 
     public String getTimeframeEnd() {
@@ -111,7 +113,7 @@ public class StoreSessionRequest {
     }
 
     public void setTimeframeEnd(Date timeframeEnd) {
-        this.timeframeEnd = this.getTimeframeDateFormat().format(timeframeEnd);
+        this.timeframeEnd = TIMEFRAME_ENCODER.format(timeframeEnd);
     }
 
     public String getStoredSessionName() {
@@ -145,8 +147,4 @@ public class StoreSessionRequest {
                 ", labels=" + this.labels +
                 '}';
     }
-
-    private DateFormat getTimeframeDateFormat() {
-        return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.S");
-    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.systemprofiles;
+
+import com.dynatrace.sdk.server.CacheConfiguration;
+import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ResponseCache;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.systemprofiles.models.Profiles;
+import com.dynatrace.sdk.server.systemprofiles.models.SystemProfileMetadata;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.concurrent.Future;
+
+/**
+ * {@link SystemProfiles} caching the list of System Profiles and their metadata.
+ * Cached entries are invalidated by {@link #activateProfileConfiguration(String, String)}, {@link #enableProfile(String)}
+ * and {@link #disableProfile(String)} called on this instance, or their asynchronous versions, changes made by other clients become visible once entries expire.
+ * Background refreshes run on the {@link DynatraceClient#getExecutor() executor} of the client.
+ */
+@ThreadSafe
+public class CachingSystemProfiles extends SystemProfiles {
+    private static final String ALL_PROFILES = "";
+
+    private final ResponseCache<String, Profiles> profilesCache;
+    private final ResponseCache<String, SystemProfileMetadata> metadataCache;
+
+    public CachingSystemProfiles(DynatraceClient client) {
+        this(client, new CacheConfiguration(), new CacheConfiguration());
+    }
+
+    /**
+     * @param client                Dynatrace client
+     * @param profilesConfiguration configuration of the {@link #getSystemProfiles()} cache
+     * @param metadataConfiguration configuration of the {@link #getSystemProfileMetadata(String)} cache
+     */
+    public CachingSystemProfiles(DynatraceClient client, CacheConfiguration profilesConfiguration, CacheConfiguration metadataConfiguration) {
+        super(client);
+        this.profilesCache = new ResponseCache<>(profilesConfiguration, client.getExecutor());
+        this.metadataCache = new ResponseCache<>(metadataConfiguration, client.getExecutor());
+    }
+
+    @Override
+    public Profiles getSystemProfiles() throws ServerConnectionException, ServerResponseException {
+        return this.profilesCache.get(ALL_PROFILES, new ResponseCache.Loader<Profiles>() {
+            @Override
+            public Profiles load() throws ServerConnectionException, ServerResponseException {
+                return CachingSystemProfiles.super.getSystemProfiles();
+            }
+        });
+    }
+
+    @Override
+    public SystemProfileMetadata getSystemProfileMetadata(final String profileName) throws ServerConnectionException, ServerResponseException {
+        return this.metadataCache.get(profileName, new ResponseCache.Loader<SystemProfileMetadata>() {
+            @Override
+            public SystemProfileMetadata load() throws ServerConnectionException, ServerResponseException {
+                return CachingSystemProfiles.super.getSystemProfileMetadata(profileName);
+            }
+        });
+    }
+
+    @Override
+    public boolean activateProfileConfiguration(String profileName, String configurationName) throws ServerConnectionException, ServerResponseException {
+        try {
+            return super.activateProfileConfiguration(profileName, configurationName);
+        } finally {
+            this.invalidate(profileName);
+        }
+    }
+
+    @Override
+    public boolean enableProfile(String profileName) throws ServerConnectionException, ServerResponseException {
+        try {
+            return super.enableProfile(profileName);
+        } finally {
+            this.invalidate(profileName);
+        }
+    }
+
+    @Override
+    public boolean disableProfile(String profileName) throws ServerConnectionException, ServerResponseException {
+        try {
+            return super.disableProfile(profileName);
+        } finally {
+            this.invalidate(profileName);
+        }
+    }
+
+    @Override
+    public Future<Profiles> getSystemProfilesAsync(FutureCallback<Profiles> callback) {
+        return this.profilesCache.getAsync(ALL_PROFILES, new ResponseCache.AsyncLoader<Profiles>() {
+            @Override
+            public Future<Profiles> load(FutureCallback<Profiles> callback) {
+                return CachingSystemProfiles.super.getSystemProfilesAsync(callback);
+            }
+        }, callback);
+    }
+
+    @Override
+    public Future<SystemProfileMetadata> getSystemProfileMetadataAsync(final String profileName, FutureCallback<SystemProfileMetadata> callback) {
+        return this.metadataCache.getAsync(profileName, new ResponseCache.AsyncLoader<SystemProfileMetadata>() {
+            @Override
+            public Future<SystemProfileMetadata> load(FutureCallback<SystemProfileMetadata> callback) {
+                return CachingSystemProfiles.super.getSystemProfileMetadataAsync(profileName, callback);
+            }
+        }, callback);
+    }
+
+    @Override
+    public Future<Boolean> activateProfileConfigurationAsync(final String profileName, final String configurationName, FutureCallback<Boolean> callback) {
+        return ResponseCache.invalidating(new ResponseCache.AsyncLoader<Boolean>() {
+            @Override
+            public Future<Boolean> load(FutureCallback<Boolean> callback) {
+                return CachingSystemProfiles.super.activateProfileConfigurationAsync(profileName, configurationName, callback);
+            }
+        }, this.invalidation(profileName), callback);
+    }
+
+    @Override
+    public Future<Boolean> enableProfileAsync(final String profileName, FutureCallback<Boolean> callback) {
+        return ResponseCache.invalidating(new ResponseCache.AsyncLoader<Boolean>() {
+            @Override
+            public Future<Boolean> load(FutureCallback<Boolean> callback) {
+                return CachingSystemProfiles.super.enableProfileAsync(profileName, callback);
+            }
+        }, this.invalidation(profileName), callback);
+    }
+
+    @Override
+    public Future<Boolean> disableProfileAsync(final String profileName, FutureCallback<Boolean> callback) {
+        return ResponseCache.invalidating(new ResponseCache.AsyncLoader<Boolean>() {
+            @Override
+            public Future<Boolean> load(FutureCallback<Boolean> callback) {
+                return CachingSystemProfiles.super.disableProfileAsync(profileName, callback);
+            }
+        }, this.invalidation(profileName), callback);
+    }
+
+    private Runnable invalidation(final String profileName) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                CachingSystemProfiles.this.invalidate(profileName);
+            }
+        };
+    }
+
+    /**
+     * Invalidates cached entries related to given {@code profileName}
+     *
+     * @param profileName name of the modified System Profile
+     */
+    public void invalidate(String profileName) {
+        this.profilesCache.invalidateAll();
+        this.metadataCache.invalidate(profileName);
+    }
+
+    public void invalidateAll() {
+        this.profilesCache.invalidateAll();
+        this.metadataCache.invalidateAll();
+    }
+
+    /**
+     * @return cache of {@link #getSystemProfiles()}, exposing its hit and miss counts
+     */
+    public ResponseCache<String, Profiles> getProfilesCache() {
+        return this.profilesCache;
+    }
+
+    /**
+     * @return cache of {@link #getSystemProfileMetadata(String)}, exposing its hit and miss counts
+     */
+    public ResponseCache<String, SystemProfileMetadata> getMetadataCache() {
+        return this.metadataCache;
+    }
+}
@@ -29,19 +29,22 @@
 package com.dynatrace.sdk.server.systemprofiles;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.EndpointTemplate;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
 import com.dynatrace.sdk.server.systemprofiles.models.Profiles;
 import com.dynatrace.sdk.server.systemprofiles.models.SystemProfileMetadata;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.xml.sax.InputSource;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
 
-import javax.xml.xpath.XPathExpressionException;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.Future;
 
 /**
  * Wraps a System Profiles REST API, providing an easy to use set of methods to control server.
@@ -54,6 +57,11 @@ public class SystemProfiles extends Service {
     public static final String PROFILE_DISABLE_EP = "/rest/management/profiles/%s/disable";
     public static final String PROFILES_EP = "/rest/management/profiles/%s";
 
+    private static final EndpointTemplate ACTIVATE_PROFILE_CONFIGURATION = EndpointTemplate.compile(ACTIVATE_PROFILE_CONFIGURATION_EP);
+    private static final EndpointTemplate PROFILE_ENABLE = EndpointTemplate.compile(PROFILE_ENABLE_EP);
+    private static final EndpointTemplate PROFILE_DISABLE = EndpointTemplate.compile(PROFILE_DISABLE_EP);
+    private static final EndpointTemplate PROFILES = EndpointTemplate.compile(PROFILES_EP);
+
     public SystemProfiles(DynatraceClient client) {
         super(client);
     }
@@ -67,7 +75,7 @@ public class SystemProfiles extends Service {
      */
     public Profiles getSystemProfiles() throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(PROFILES_EP, ""));
+            URI uri = this.buildURI(PROFILES, "");
             return this.doGetRequest(uri, Profiles.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Could not build profiles endpoint for: %s", PROFILES_EP));
@@ -84,7 +92,7 @@ public class SystemProfiles extends Service {
      */
     public SystemProfileMetadata getSystemProfileMetadata(String profileName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(PROFILES_EP, profileName));
+            URI uri = this.buildURI(PROFILES, profileName);
             return this.doGetRequest(uri, SystemProfileMetadata.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid profileName[%s]: %s", profileName, e.getMessage()), e);
@@ -102,14 +110,13 @@ public class SystemProfiles extends Service {
      */
     public boolean activateProfileConfiguration(String profileName, String configurationName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(ACTIVATE_PROFILE_CONFIGURATION_EP, profileName, configurationName));
+            URI uri = this.buildURI(ACTIVATE_PROFILE_CONFIGURATION, profileName, configurationName);
             try (CloseableHttpResponse response = this.doGetRequest(uri);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
@@ -131,14 +138,13 @@ public class SystemProfiles extends Service {
      */
     public boolean enableProfile(String profileName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(PROFILE_ENABLE_EP, profileName));
+            URI uri = this.buildURI(PROFILE_ENABLE, profileName);
             try (CloseableHttpResponse response = this.doGetRequest(uri);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
@@ -160,14 +166,13 @@ public class SystemProfiles extends Service {
      */
     public boolean disableProfile(String profileName) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(PROFILE_DISABLE_EP, profileName));
+            URI uri = this.buildURI(PROFILE_DISABLE, profileName);
             try (CloseableHttpResponse response = this.doGetRequest(uri);
                  InputStream is = response.getEntity().getContent()) {
-                // xpath is reasonable for parsing such a small entity
                 try {
-                    String result = Service.compileValueExpression().evaluate(new InputSource(is));
+                    String result = Service.readResultValue(is);
                     return result != null && result.equals("true");
-                } catch (XPathExpressionException e) {
+                } catch (XMLStreamException e) {
                     throw new ServerResponseException(response.getStatusLine().getStatusCode(), "Could not parse response: " + e.getMessage(), e);
                 }
             } catch (IOException e) {
@@ -180,4 +185,83 @@ public class SystemProfiles extends Service {
         }
     }
 
+    /**
+     * Asynchronous version of {@link #getSystemProfiles()}
+     *
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getSystemProfiles()}
+     */
+    public Future<Profiles> getSystemProfilesAsync(FutureCallback<Profiles> callback) {
+        try {
+            URI uri = this.buildURI(PROFILES, "");
+            return this.doGetRequestAsync(uri, Profiles.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Could not build profiles endpoint for: %s", PROFILES_EP));
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getSystemProfileMetadata(String)}
+     *
+     * @param profileName to get the metadata of
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #getSystemProfileMetadata(String)}
+     */
+    public Future<SystemProfileMetadata> getSystemProfileMetadataAsync(String profileName, FutureCallback<SystemProfileMetadata> callback) {
+        try {
+            URI uri = this.buildURI(PROFILES, profileName);
+            return this.doGetRequestAsync(uri, SystemProfileMetadata.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s]: %s", profileName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #activateProfileConfiguration(String, String)}
+     *
+     * @param profileName       name of the System Profile
+     * @param configurationName name of the Configuration to activate
+     * @param callback          callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #activateProfileConfiguration(String, String)}
+     */
+    public Future<Boolean> activateProfileConfigurationAsync(String profileName, String configurationName, FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(ACTIVATE_PROFILE_CONFIGURATION, profileName, configurationName);
+            return this.doRequestAsync(new HttpGet(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s] or configurationName[%s]: %s", profileName, configurationName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #enableProfile(String)}
+     *
+     * @param profileName name of the System Profile
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #enableProfile(String)}
+     */
+    public Future<Boolean> enableProfileAsync(String profileName, FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(PROFILE_ENABLE, profileName);
+            return this.doRequestAsync(new HttpGet(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s]: %s", profileName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #disableProfile(String)}
+     *
+     * @param profileName name of the System Profile
+     * @param callback    callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #disableProfile(String)}
+     */
+    public Future<Boolean> disableProfileAsync(String profileName, FutureCallback<Boolean> callback) {
+        try {
+            URI uri = this.buildURI(PROFILE_DISABLE, profileName);
+            return this.doRequestAsync(new HttpGet(uri), false, Service.resultFlagReader(), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid profileName[%s]: %s", profileName, e.getMessage()), e);
+        }
+    }
 }
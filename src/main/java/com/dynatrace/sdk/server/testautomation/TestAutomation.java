@@ -29,6 +29,7 @@
 package com.dynatrace.sdk.server.testautomation;
 
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.EndpointTemplate;
 import com.dynatrace.sdk.server.Service;
 import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
@@ -38,6 +39,8 @@ import com.dynatrace.sdk.server.testautomation.models.TestRun;
 import com.dynatrace.sdk.server.testautomation.models.TestRuns;
 import org.apache.http.NameValuePair;
 import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.message.BasicNameValuePair;
 
 import java.net.URI;
@@ -45,6 +48,7 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * Wraps Dynatrace Server TestAutomation REST API providing an easy to use set of methods.
@@ -53,6 +57,8 @@ import java.util.Map;
 public class TestAutomation extends Service {
     public static final String TEST_RUNS_EP = "/rest/management/profiles/%s/testruns/%s";
 
+    private static final EndpointTemplate TEST_RUNS = EndpointTemplate.compile(TEST_RUNS_EP);
+
     public TestAutomation(DynatraceClient client) {
         super(client);
     }
@@ -67,8 +73,8 @@ public class TestAutomation extends Service {
      */
     public TestRun createTestRun(CreateTestRunRequest request) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(TEST_RUNS_EP, request.getSystemProfile(), ""));
-            return this.doPostRequest(uri, Service.xmlObjectToEntity(request), TestRun.class);
+            URI uri = this.buildURI(TEST_RUNS, request.getSystemProfile(), "");
+            return this.doPostRequest(uri, this.createEntity(request), TestRun.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid system profile[%s] format: %s", request.getSystemProfile(), e.getMessage()), e);
         }
@@ -85,7 +91,7 @@ public class TestAutomation extends Service {
      */
     public TestRun fetchTestRun(String systemProfile, String testRunId) throws ServerConnectionException, ServerResponseException {
         try {
-            URI uri = this.buildURI(String.format(TEST_RUNS_EP, systemProfile, testRunId));
+            URI uri = this.buildURI(TEST_RUNS, systemProfile, testRunId);
             return this.doGetRequest(uri, TestRun.class);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid system profile[%s] or testRunId[%s] format: %s", systemProfile, testRunId, e.getMessage()), e);
@@ -101,6 +107,15 @@ public class TestAutomation extends Service {
      * @throws ServerResponseException   whenever parsing a response fails or invalid status code is provided
      */
     public TestRuns fetchTestRuns(FetchTestRunsRequest request) throws ServerConnectionException, ServerResponseException {
+        try {
+            URI uri = this.buildURI(TEST_RUNS, fetchParameters(request), request.getSystemProfile(), "");
+            return this.doGetRequest(uri, TestRuns.class);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid system profile[%s] format: %s", request.getSystemProfile(), e.getMessage()), e);
+        }
+    }
+
+    private static List<NameValuePair> fetchParameters(FetchTestRunsRequest request) {
         ArrayList<NameValuePair> nvps = new ArrayList<>();
         if (request.getStartTime() != null) {
             nvps.add(new BasicNameValuePair("startTime", String.valueOf(request.getStartTime())));
@@ -123,9 +138,54 @@ public class TestAutomation extends Service {
                 nvps.add(new BasicNameValuePair(filter.getKey(), value));
             }
         }
+        return nvps;
+    }
+
+    /**
+     * Asynchronous version of {@link #createTestRun(CreateTestRunRequest)}
+     *
+     * @param request  configuration parameters
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #createTestRun(CreateTestRunRequest)}
+     */
+    public Future<TestRun> createTestRunAsync(CreateTestRunRequest request, FutureCallback<TestRun> callback) {
         try {
-            URI uri = this.buildURI(String.format(TEST_RUNS_EP, request.getSystemProfile(), ""), nvps.toArray(new NameValuePair[nvps.size()]));
-            return this.doGetRequest(uri, TestRuns.class);
+            HttpPost post = new HttpPost(this.buildURI(TEST_RUNS, request.getSystemProfile(), ""));
+            post.setEntity(this.createEntity(request));
+            return this.doRequestAsync(post, false, this.modelReader(TestRun.class), callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid system profile[%s] format: %s", request.getSystemProfile(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchTestRun(String, String)}
+     *
+     * @param systemProfile {@link TestRun}'s system profile
+     * @param testRunId     {@link TestRun}'s id
+     * @param callback      callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchTestRun(String, String)}
+     */
+    public Future<TestRun> fetchTestRunAsync(String systemProfile, String testRunId, FutureCallback<TestRun> callback) {
+        try {
+            URI uri = this.buildURI(TEST_RUNS, systemProfile, testRunId);
+            return this.doGetRequestAsync(uri, TestRun.class, callback);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid system profile[%s] or testRunId[%s] format: %s", systemProfile, testRunId, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchTestRuns(FetchTestRunsRequest)}
+     *
+     * @param request  parameters and criteria
+     * @param callback callback notified once the call completes, might be {@code null}
+     * @return future completed with the result of {@link #fetchTestRuns(FetchTestRunsRequest)}
+     */
+    public Future<TestRuns> fetchTestRunsAsync(FetchTestRunsRequest request, FutureCallback<TestRuns> callback) {
+        try {
+            URI uri = this.buildURI(TEST_RUNS, fetchParameters(request), request.getSystemProfile(), "");
+            return this.doGetRequestAsync(uri, TestRuns.class, callback);
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(String.format("Invalid system profile[%s] format: %s", request.getSystemProfile(), e.getMessage()), e);
         }
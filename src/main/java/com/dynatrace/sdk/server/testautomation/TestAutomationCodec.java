@@ -0,0 +1,152 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.testautomation;
+
+import com.dynatrace.sdk.server.StAXCodec;
+import com.dynatrace.sdk.server.testautomation.adapters.DoubleMeasureAdapter;
+import com.dynatrace.sdk.server.testautomation.models.CreationMode;
+import com.dynatrace.sdk.server.testautomation.models.TestCategory;
+import com.dynatrace.sdk.server.testautomation.models.TestMeasure;
+import com.dynatrace.sdk.server.testautomation.models.TestResult;
+import com.dynatrace.sdk.server.testautomation.models.TestRun;
+import com.dynatrace.sdk.server.testautomation.models.TestRuns;
+import com.dynatrace.sdk.server.testautomation.models.TestStatus;
+import org.apache.http.annotation.ThreadSafe;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes {@link TestRun} and {@link TestRuns} along with their {@link TestResult}s and {@link TestMeasure}s
+ */
+@ThreadSafe
+public class TestAutomationCodec extends StAXCodec {
+    private static final String TEST_RUN = "testRun";
+    private static final String TEST_RESULT = "testResult";
+    private static final String MEASURE = "measure";
+
+    private static final DoubleMeasureAdapter DOUBLE_ADAPTER = new DoubleMeasureAdapter();
+
+    public TestAutomationCodec() {
+        super(TestRun.class, TestRuns.class);
+    }
+
+    @Override
+    protected Object read(XMLStreamReader reader, Class<?> type) throws XMLStreamException {
+        if (type == TestRun.class) {
+            return readTestRun(reader);
+        }
+        List<TestRun> testRuns = new ArrayList<>();
+        while (nextElement(reader)) {
+            if (TEST_RUN.equals(reader.getLocalName())) {
+                testRuns.add(readTestRun(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new TestRuns(testRuns);
+    }
+
+    private static TestRun readTestRun(XMLStreamReader reader) throws XMLStreamException {
+        Long startTime = parseLong(reader.getAttributeValue(null, "startTime"));
+        String platform = reader.getAttributeValue(null, "platform");
+        String systemProfile = reader.getAttributeValue(null, "systemProfile");
+        TestCategory category = parseEnum(TestCategory.class, reader.getAttributeValue(null, "category"));
+        String id = reader.getAttributeValue(null, "id");
+        String href = reader.getAttributeValue(null, "href");
+        String versionMajor = reader.getAttributeValue(null, "versionMajor");
+        String versionMinor = reader.getAttributeValue(null, "versionMinor");
+        String versionRevision = reader.getAttributeValue(null, "versionRevision");
+        String versionBuild = reader.getAttributeValue(null, "versionBuild");
+        CreationMode creationMode = parseEnum(CreationMode.class, reader.getAttributeValue(null, "creationMode"));
+        Integer numPassed = parseInteger(reader.getAttributeValue(null, "numPassed"));
+        Integer numFailed = parseInteger(reader.getAttributeValue(null, "numFailed"));
+        Integer numVolatile = parseInteger(reader.getAttributeValue(null, "numVolatile"));
+        Integer numImproved = parseInteger(reader.getAttributeValue(null, "numImproved"));
+        Integer numDegraded = parseInteger(reader.getAttributeValue(null, "numDegraded"));
+        Integer numInvalidated = parseInteger(reader.getAttributeValue(null, "numInvalidated"));
+
+        List<TestResult> testResults = new ArrayList<>();
+        while (nextElement(reader)) {
+            if (TEST_RESULT.equals(reader.getLocalName())) {
+                testResults.add(readTestResult(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new TestRun(startTime, platform, systemProfile, category, id, href, versionMajor, versionMinor, versionRevision, versionBuild,
+                creationMode, numPassed, numFailed, numVolatile, numImproved, numDegraded, numInvalidated, testResults);
+    }
+
+    private static TestResult readTestResult(XMLStreamReader reader) throws XMLStreamException {
+        Long execTime = parseLong(reader.getAttributeValue(null, "exectime"));
+        String name = reader.getAttributeValue(null, "name");
+        String packageName = reader.getAttributeValue(null, "package");
+        String platform = reader.getAttributeValue(null, "platform");
+        TestStatus status = parseEnum(TestStatus.class, reader.getAttributeValue(null, "status"));
+
+        // like JAXB, the list is created by the first measure only
+        List<TestMeasure> measures = null;
+        while (nextElement(reader)) {
+            if (MEASURE.equals(reader.getLocalName())) {
+                if (measures == null) {
+                    measures = new ArrayList<>();
+                }
+                measures.add(readTestMeasure(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new TestResult(execTime, name, packageName, platform, status, measures);
+    }
+
+    private static TestMeasure readTestMeasure(XMLStreamReader reader) throws XMLStreamException {
+        TestMeasure measure = new TestMeasure(reader.getAttributeValue(null, "name"), reader.getAttributeValue(null, "metricGroup"),
+                parseMeasure(reader.getAttributeValue(null, "expectedMin")), parseMeasure(reader.getAttributeValue(null, "expectedMax")),
+                parseMeasure(reader.getAttributeValue(null, "value")), reader.getAttributeValue(null, "unit"),
+                parseMeasure(reader.getAttributeValue(null, "violationPercentage")),
+                parseInteger(reader.getAttributeValue(null, "numFailingOrInvalidatedRuns")), parseInteger(reader.getAttributeValue(null, "numValidRuns")),
+                parseInteger(reader.getAttributeValue(null, "numImprovedRuns")), parseInteger(reader.getAttributeValue(null, "numDegradedRuns")));
+        skipElement(reader);
+        return measure;
+    }
+
+    private static Double parseMeasure(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DOUBLE_ADAPTER.unmarshal(value);
+        } catch (Exception e) {
+            // JAXB leaves values its adapter fails to convert unset
+            return null;
+        }
+    }
+}
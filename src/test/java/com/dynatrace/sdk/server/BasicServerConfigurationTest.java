@@ -30,6 +30,8 @@ package com.dynatrace.sdk.server;
 
 import org.junit.Test;
 
+import java.security.Principal;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 
@@ -43,6 +45,11 @@ public class BasicServerConfigurationTest {
         assertThat(bsc.getPort(), is(BasicServerConfiguration.DEFAULT_PORT));
         assertThat(bsc.isSSL(), is(BasicServerConfiguration.DEFAULT_SSL));
         assertThat(bsc.isValidateCertificates(), is(BasicServerConfiguration.DEFAULT_VALIDATE_CERTIFICATES));
+        assertThat(bsc.getSocketTimeout(), is(BasicServerConfiguration.DEFAULT_SOCKET_TIMEOUT));
+        assertThat(bsc.getConnectionRequestTimeout(), is(BasicServerConfiguration.DEFAULT_CONNECTION_REQUEST_TIMEOUT));
+        assertThat(bsc.getConnectionPoolConfiguration().getMaxTotal(), is(ConnectionPoolConfiguration.DEFAULT_MAX_TOTAL));
+        assertThat(bsc.getConnectionPoolConfiguration().getMaxPerRoute(), is(ConnectionPoolConfiguration.DEFAULT_MAX_PER_ROUTE));
+        assertThat(bsc.getConnectionPoolConfiguration().getKeepAliveDuration(), is(ConnectionPoolConfiguration.DEFAULT_KEEP_ALIVE_DURATION));
     }
 
     @Test
@@ -56,4 +63,74 @@ public class BasicServerConfigurationTest {
         assertThat(bsc.isValidateCertificates(), is(!BasicServerConfiguration.DEFAULT_VALIDATE_CERTIFICATES));
         assertThat(bsc.getTimeout(), is(BasicServerConfiguration.DEFAULT_CONNECTION_TIMEOUT - 100));
     }
+
+    @Test
+    public void constructWithPool() {
+        ConnectionPoolConfiguration pool = new ConnectionPoolConfiguration(64, 32, 60000, 10000, 5000);
+        BasicServerConfiguration bsc = new BasicServerConfiguration("constructUser", "constructPassword", true, "8.8.8.8", 8080, true, 1000, 2000, 3000, pool);
+        assertThat(bsc.getTimeout(), is(1000));
+        assertThat(bsc.getSocketTimeout(), is(2000));
+        assertThat(bsc.getConnectionRequestTimeout(), is(3000));
+        assertThat(bsc.getConnectionPoolConfiguration().getMaxTotal(), is(64));
+        assertThat(bsc.getConnectionPoolConfiguration().getMaxPerRoute(), is(32));
+        assertThat(bsc.getConnectionPoolConfiguration().getTimeToLive(), is(60000L));
+        assertThat(bsc.getConnectionPoolConfiguration().getMaxIdleTime(), is(10000L));
+        assertThat(bsc.getConnectionPoolConfiguration().getKeepAliveDuration(), is(5000L));
+    }
+
+    @Test
+    public void otherConfigurationsUseDefaults() throws Exception {
+        ServerConfiguration configuration = new ServerConfiguration() {
+            @Override
+            public String getHost() {
+                return "localhost";
+            }
+
+            @Override
+            public boolean isSSL() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 8080;
+            }
+
+            @Override
+            public int getTimeout() {
+                return 1000;
+            }
+
+            @Override
+            public boolean isValidateCertificates() {
+                return false;
+            }
+
+            @Override
+            public Principal getUserPrincipal() {
+                return this;
+            }
+
+            @Override
+            public String getPassword() {
+                return "admin";
+            }
+
+            @Override
+            public String getName() {
+                return "admin";
+            }
+        };
+        assertThat(BasicServerConfiguration.socketTimeout(configuration), is(BasicServerConfiguration.DEFAULT_SOCKET_TIMEOUT));
+        assertThat(BasicServerConfiguration.connectionRequestTimeout(configuration), is(BasicServerConfiguration.DEFAULT_CONNECTION_REQUEST_TIMEOUT));
+        assertThat(BasicServerConfiguration.connectionPoolConfiguration(configuration).getMaxPerRoute(), is(ConnectionPoolConfiguration.DEFAULT_MAX_PER_ROUTE));
+        try (DynatraceClient client = new DynatraceClient(configuration)) {
+            assertThat(client.getPoolStats().getMax(), is(ConnectionPoolConfiguration.DEFAULT_MAX_TOTAL));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPoolSize() {
+        new ConnectionPoolConfiguration(0, 1, -1, -1, -1);
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class BulkheadTest {
+    @Test
+    public void capsConcurrency() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("downloads", 4, 2, 10);
+        assertThat(bulkhead.tryAcquire(), is(true));
+        assertThat(bulkhead.tryAcquire(), is(true));
+        assertThat(bulkhead.getInFlight(), is(2));
+        assertThat(bulkhead.tryAcquire(), is(false));
+        assertThat(bulkhead.getRejectionCount(), is(1L));
+        bulkhead.release();
+        assertThat(bulkhead.tryAcquire(), is(true));
+        assertThat(bulkhead.getMaxConnections(), is(4));
+    }
+
+    @Test
+    public void partitionSizedByConcurrency() {
+        Bulkhead bulkhead = new Bulkhead("control", 3);
+        assertThat(bulkhead.getMaxConnections(), is(3));
+        assertThat(bulkhead.getMaxConcurrent(), is(3));
+        assertThat(bulkhead.getMaxWait(), is(Bulkhead.DEFAULT_MAX_WAIT));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBulkhead() {
+        new Bulkhead("downloads", 0);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class CircuitBreakerTest {
+    @Test
+    public void opensAfterThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60 * 1000);
+        for (int i = 0; i < 2; i++) {
+            assertThat(breaker.tryAcquire(), is(true));
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), is(false));
+        assertThat(breaker.getRejectionCount(), is(1L));
+    }
+
+    @Test
+    public void halfOpenProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 10);
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire(), is(false));
+        Thread.sleep(20);
+
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+        // only a single probe is let through
+        assertThat(breaker.tryAcquire(), is(false));
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.OPEN));
+
+        Thread.sleep(20);
+        assertThat(breaker.tryAcquire(), is(true));
+        breaker.onSuccess();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquire(), is(true));
+    }
+
+    @Test
+    public void releasedProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 10);
+        assertThat(breaker.tryAcquire(), is(true));
+        breaker.release();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        assertThat(breaker.tryAcquire(), is(true));
+        // the aborted probe lets another one through without waiting for the open duration again
+        breaker.release();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreshold() {
+        new CircuitBreaker(0, 1000);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class ConcurrencyLimiterTest {
+    private static final String ENDPOINT = "/rest/management/agents";
+
+    @Test
+    public void growsWhileUtilized() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 3, 0, 0);
+        assertThat(limiter.acquire(), is(true));
+        assertThat(limiter.acquire(), is(true));
+        assertThat(limiter.getInFlight(), is(2));
+        limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getLimit(), is(3));
+        // a single request in flight does not use the limit of 3
+        limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getLimit(), is(3));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.acquire(), is(true));
+        }
+        limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getLimit(), is(3));
+    }
+
+    @Test
+    public void shrinksOnOverload() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 8, 20, 0, 0);
+        limiter.acquire();
+        limiter.onResponse(ENDPOINT, 503, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getLimit(), is(9));
+        limiter.acquire();
+        limiter.onFailure();
+        assertThat(limiter.getLimit(), is(8));
+        limiter.acquire();
+        limiter.onResponse(ENDPOINT, 429, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getLimit(), is(8));
+        // client errors are no overload
+        limiter.acquire();
+        limiter.onResponse(ENDPOINT, 404, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getLimit(), is(8));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+
+    @Test
+    public void shrinksOnLatency() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 10, 0, 0);
+        // keeps half of the limit in use
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(limiter.getLimit(), is(10));
+        // a single slow response is no overload
+        limiter.acquire();
+        limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(limiter.getLimit(), is(10));
+        // latencies are compared per endpoint
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.onResponse("/rest/management/profiles/%s/testruns/%s", 200, TimeUnit.SECONDS.toNanos(2));
+        }
+        assertThat(limiter.getLimit(), is(10));
+        // the server started queueing
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(40));
+        }
+        assertThat(limiter.getLimit() < 10, is(true));
+    }
+
+    @Test
+    public void jitterDoesNotShrink() throws Exception {
+        Random random = new Random(42);
+        // light sequential load
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 1, 200, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+            limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10 + random.nextInt(21)));
+        }
+        assertThat(limiter.getLimit(), is(20));
+
+        // jitter of a utilized limit
+        limiter = new ConcurrencyLimiter(4, 1, 4, 0, 0);
+        limiter.acquire();
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+            limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10 + random.nextInt(21)));
+        }
+        assertThat(limiter.getLimit(), is(4));
+    }
+
+    @Test
+    public void idleLimitDoesNotShrinkOnLatency() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 1, 200, 0, 0);
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        // other clients make the server queue, the single request in flight adds nothing to it
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.onResponse(ENDPOINT, 200, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertThat(limiter.getLimit(), is(20));
+    }
+
+    @Test
+    public void shedsWithoutQueue() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0, 0);
+        assertThat(limiter.acquire(), is(true));
+        assertThat(limiter.acquire(), is(false));
+        assertThat(limiter.getRejectionCount(), is(1L));
+        limiter.release();
+        assertThat(limiter.acquire(), is(true));
+    }
+
+    @Test
+    public void queuesUntilReleased() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, 10 * 1000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(limiter.acquire(), is(true));
+            Future<Boolean> queued = executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return limiter.acquire();
+                }
+            });
+            while (limiter.getQueueDepth() == 0) {
+                Thread.sleep(1);
+            }
+            // the queue is full
+            assertThat(limiter.acquire(), is(false));
+            limiter.release();
+            assertThat(queued.get(5, TimeUnit.SECONDS), is(true));
+            assertThat(limiter.getQueueDepth(), is(0));
+            assertThat(limiter.getInFlight(), is(1));
+            assertThat(limiter.getRejectionCount(), is(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void queueTimeout() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, 10);
+        assertThat(limiter.acquire(), is(true));
+        assertThat(limiter.acquire(), is(false));
+        assertThat(limiter.getQueueTimeoutCount(), is(1L));
+        assertThat(limiter.getRejectionCount(), is(1L));
+        assertThat(limiter.getQueueDepth(), is(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLimits() {
+        new ConcurrencyLimiter(10, 1, 5, 0, 0);
+    }
+}
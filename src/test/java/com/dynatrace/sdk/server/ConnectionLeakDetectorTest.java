@@ -0,0 +1,118 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+public class ConnectionLeakDetectorTest {
+    @Rule
+    public WireMockRule wireMock = new WireMockRule(8080);
+
+    @Test
+    public void detectLeak() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            final List<ConnectionLeakDetector.Lease> leaks = new ArrayList<>();
+            ConnectionLeakDetector detector = client.getConnectionLeakDetector();
+            detector.setThreshold(10, new ConnectionLeakDetector.Listener() {
+                @Override
+                public void leakDetected(ConnectionLeakDetector.Lease lease) {
+                    leaks.add(lease);
+                }
+            });
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+
+            service.doGetRequest(service.buildURI("/test")).close();
+            CloseableHttpResponse leaked = service.doGetRequest(service.buildURI("/test"));
+            assertThat(detector.getLeaseCount(), is(1));
+            Thread.sleep(20);
+
+            // the leak is reported once, by the next request
+            service.doGetRequest(service.buildURI("/test")).close();
+            service.doGetRequest(service.buildURI("/test")).close();
+            assertThat(leaks.size(), is(1));
+            assertThat(leaks.get(0).getThreadName(), is(Thread.currentThread().getName()));
+            StringWriter stack = new StringWriter();
+            leaks.get(0).getAcquisition().printStackTrace(new PrintWriter(stack));
+            assertThat(stack.toString(), containsString("detectLeak"));
+            assertThat(detector.getLeaks().size(), is(1));
+
+            leaked.close();
+            assertThat(detector.getLeaseCount(), is(0));
+            assertThat(detector.getLeaks().isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    public void detectLeakInBulkheadPartition() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            ConnectionLeakDetector detector = client.getConnectionLeakDetector();
+            detector.setThreshold(10, null);
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            Bulkhead bulkhead = new Bulkhead("partition", 2, 2, 0);
+            client.setBulkhead(service.getClass(), bulkhead);
+
+            CloseableHttpResponse leaked = service.doGetRequest(service.buildURI("/test"));
+            assertThat(client.getPoolStats(bulkhead).getLeased(), is(1));
+            assertThat(detector.getLeaseCount(), is(1));
+            Thread.sleep(20);
+            assertThat(detector.getLeaks().size(), is(1));
+
+            leaked.close();
+            assertThat(detector.getLeaseCount(), is(0));
+        }
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200)));
+            Service service = new Service(client) {
+            };
+            CloseableHttpResponse response = service.doGetRequest(service.buildURI("/test"));
+            assertThat(client.getConnectionLeakDetector().getLeaseCount(), is(0));
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class DeadlineTest {
+    @Test
+    public void scopes() throws Exception {
+        assertThat(Deadline.current(), nullValue());
+        Deadline outer = Deadline.after(1, TimeUnit.MINUTES);
+        try (Deadline.Scope scope = outer.enter()) {
+            assertThat(Deadline.current(), sameInstance(outer));
+            Deadline inner = Deadline.none();
+            try (Deadline.Scope nested = inner.enter()) {
+                assertThat(Deadline.current(), sameInstance(inner));
+            }
+            assertThat(Deadline.current(), sameInstance(outer));
+        }
+        assertThat(Deadline.current(), nullValue());
+    }
+
+    @Test
+    public void remaining() throws Exception {
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+        assertThat(deadline.remaining(TimeUnit.SECONDS), lessThanOrEqualTo(60L));
+        assertThat(deadline.remaining(TimeUnit.SECONDS), greaterThan(50L));
+        assertThat(deadline.isExpired(), is(false));
+        assertThat(Deadline.none().remaining(TimeUnit.MILLISECONDS), is(Long.MAX_VALUE));
+        assertThat(Deadline.after(Long.MAX_VALUE, TimeUnit.DAYS).isExpired(), is(false));
+
+        Deadline expired = Deadline.after(0, TimeUnit.MILLISECONDS);
+        assertThat(expired.isExpired(), is(true));
+        assertThat(expired.remaining(TimeUnit.NANOSECONDS), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimeout() throws Exception {
+        Deadline.after(-1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void cancelAbortsRequests() throws Exception {
+        Deadline deadline = Deadline.none();
+        HttpGet request = new HttpGet("http://localhost:8080/test");
+        assertThat(deadline.register(request), is(true));
+        deadline.cancel();
+        assertThat(deadline.isCancelled(), is(true));
+        assertThat(request.isAborted(), is(true));
+        assertThat(deadline.register(new HttpGet("http://localhost:8080/test")), is(false));
+    }
+
+    @Test
+    public void expiryAbortsRequests() throws Exception {
+        Deadline deadline = Deadline.after(50, TimeUnit.MILLISECONDS);
+        HttpGet request = new HttpGet("http://localhost:8080/test");
+        assertThat(deadline.register(request), is(true));
+        long start = System.nanoTime();
+        while (!request.isAborted() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(5);
+        }
+        assertThat(request.isAborted(), is(true));
+        assertThat(deadline.isExpired(), is(true));
+        assertThat(deadline.register(new HttpGet("http://localhost:8080/test")), is(false));
+    }
+
+    @Test
+    public void expiryIsCancelledOnceNothingIsBound() throws Exception {
+        Deadline deadline = Deadline.after(1, TimeUnit.HOURS);
+        HttpGet first = new HttpGet("http://localhost:8080/test");
+        HttpGet second = new HttpGet("http://localhost:8080/test");
+        try (Deadline.Scope scope = deadline.enter()) {
+            assertThat(deadline.isScheduled(), is(false));
+            deadline.register(first);
+            assertThat(deadline.isScheduled(), is(true));
+            deadline.unregister(first);
+            // kept for further calls within the scope
+            assertThat(deadline.isScheduled(), is(true));
+            deadline.register(second);
+        }
+        assertThat(deadline.isScheduled(), is(true));
+        deadline.unregister(second);
+        assertThat(deadline.isScheduled(), is(false));
+
+        // requests bound after the scope was closed, like those of asynchronous calls, schedule it again
+        Deadline child = deadline.child();
+        child.register(first);
+        assertThat(child.isScheduled(), is(true));
+        assertThat(deadline.isScheduled(), is(true));
+        child.unregister(first);
+        assertThat(child.isScheduled(), is(false));
+        assertThat(deadline.isScheduled(), is(false));
+        assertThat(first.isAborted(), is(false));
+    }
+
+    @Test
+    public void children() throws Exception {
+        Deadline parent = Deadline.after(1, TimeUnit.MINUTES);
+        Deadline child = parent.child();
+        Deadline sibling = parent.child();
+        assertThat(child.remaining(TimeUnit.SECONDS), lessThanOrEqualTo(60L));
+
+        HttpGet childRequest = new HttpGet("http://localhost:8080/test");
+        HttpGet siblingRequest = new HttpGet("http://localhost:8080/test");
+        child.register(childRequest);
+        sibling.register(siblingRequest);
+        // cancelling a child leaves its parent and siblings running
+        child.cancel();
+        assertThat(childRequest.isAborted(), is(true));
+        assertThat(siblingRequest.isAborted(), is(false));
+        assertThat(parent.isCancelled(), is(false));
+
+        parent.cancel();
+        assertThat(siblingRequest.isAborted(), is(true));
+        assertThat(sibling.isCancelled(), is(true));
+
+        Deadline shorter = Deadline.after(1, TimeUnit.MINUTES).child(1, TimeUnit.SECONDS);
+        assertThat(shorter.remaining(TimeUnit.MILLISECONDS), lessThanOrEqualTo(1000L));
+        Deadline longer = Deadline.after(1, TimeUnit.SECONDS).child(1, TimeUnit.MINUTES);
+        assertThat(longer.remaining(TimeUnit.MILLISECONDS), lessThanOrEqualTo(1000L));
+    }
+}
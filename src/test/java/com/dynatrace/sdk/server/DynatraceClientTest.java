@@ -0,0 +1,589 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.metrics.EndpointMetrics;
+import com.dynatrace.sdk.server.metrics.EndpointStatistics;
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import com.dynatrace.sdk.server.testautomation.TestAutomation;
+import com.dynatrace.sdk.server.testautomation.models.FetchTestRunsRequest;
+import com.dynatrace.sdk.server.testautomation.models.TestRuns;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.apache.http.auth.Credentials;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+
+public class DynatraceClientTest {
+    @Rule
+    public WireMockRule wireMock = new WireMockRule(8080);
+
+    @Test
+    public void poolStats() throws Exception {
+        ConnectionPoolConfiguration pool = new ConnectionPoolConfiguration(64, 32, -1, 1000, 1000);
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000, 1000, 1000, pool))) {
+            PoolStats stats = client.getPoolStats();
+            assertThat(stats.getMax(), is(64));
+            assertThat(stats.getLeased(), is(0));
+
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            service.doGetRequest(service.buildURI("/test")).close();
+            assertThat(client.getPoolStats().getLeased(), is(0));
+        }
+    }
+
+    @Test
+    public void poolStatsOfCustomClient() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin"), HttpClients.createDefault())) {
+            assertThat(client.getPoolStats(), nullValue());
+        }
+    }
+
+    @Test
+    public void authorizationHeader() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "p\u00e4ss"))) {
+            String header = client.getAuthorizationHeader();
+            // UTF-8 encoded "admin:p\u00e4ss"
+            assertThat(header, is("Basic YWRtaW46cMOkc3M="));
+            assertThat(client.getAuthorizationHeader(), sameInstance(header));
+        }
+    }
+
+    @Test
+    public void rotateCredentials() throws Exception {
+        final Credentials[] current = {new UsernamePasswordCredentials("admin", "admin")};
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("ignored", "ignored", false, "localhost", 8080, false, 1000))) {
+            client.setCredentialsProvider(new ServerCredentialsProvider() {
+                @Override
+                public Credentials getCredentials() {
+                    return current[0];
+                }
+            });
+            Service service = new Service(client) {
+            };
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            service.doGetRequest(service.buildURI("/test")).close();
+            verify(getRequestedFor(urlPathEqualTo("/test")).withHeader("Authorization", equalTo("Basic YWRtaW46YWRtaW4=")));
+
+            current[0] = new UsernamePasswordCredentials("rotated", "secret");
+            service.doGetRequest(service.buildURI("/test")).close();
+            verify(getRequestedFor(urlPathEqualTo("/test")).withHeader("Authorization", equalTo("Basic cm90YXRlZDpzZWNyZXQ=")));
+        }
+    }
+
+    @Test
+    public void metrics() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            EndpointMetrics metrics = new EndpointMetrics();
+            client.setMetricsCollector(metrics);
+            AgentsAndCollectors agentsAndCollectors = new AgentsAndCollectors(client);
+
+            stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)).willReturn(aResponse().withStatus(200).withBodyFile("fetchAgentsResponse.xml")));
+            stubFor(get(urlPathEqualTo(String.format(AgentsAndCollectors.COLLECTORS_EP, "missing@host"))).willReturn(aResponse().withStatus(404)));
+            agentsAndCollectors.fetchAgents();
+            try {
+                agentsAndCollectors.fetchCollector("missing@host");
+                fail("Exception was expected to be thrown");
+            } catch (ServerResponseException e) {
+                assertThat(e.getStatusCode(), is(404));
+            }
+
+            EndpointStatistics agents = metrics.getStatistics(AgentsAndCollectors.AGENTS_EP);
+            assertThat(agents.getRequestCount(), is(1L));
+            assertThat(agents.getStatusCount(200), is(1L));
+            assertThat(agents.getInFlight(), is(0));
+            assertThat(agents.getResponseBytes(), greaterThan(1000L));
+            assertThat(agents.getParseTime().getCount(), is(1L));
+            assertThat(agents.getLatency().getMax(), greaterThan(0L));
+
+            EndpointStatistics collector = metrics.getStatistics(AgentsAndCollectors.COLLECTORS_EP);
+            assertThat(collector.getStatusCount(404), is(1L));
+            assertThat(collector.getParseTime().getCount(), is(0L));
+        }
+    }
+
+    @Test
+    public void metricsOfFailedConnection() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8081, false, 1000))) {
+            EndpointMetrics metrics = new EndpointMetrics();
+            client.setMetricsCollector(metrics);
+            try {
+                new AgentsAndCollectors(client).fetchAgents();
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                // expected
+            }
+            EndpointStatistics agents = metrics.getStatistics(AgentsAndCollectors.AGENTS_EP);
+            assertThat(agents.getFailureCount(), is(1L));
+            assertThat(agents.getInFlight(), is(0));
+        }
+    }
+
+    @Test
+    public void retryUnavailableServer() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            client.setRetryPolicy(new RetryPolicy(3, 1, 10));
+            stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)).inScenario("unavailable").whenScenarioStateIs(Scenario.STARTED)
+                    .willReturn(aResponse().withStatus(503).withHeader("Retry-After", "0")).willSetStateTo("available"));
+            stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)).inScenario("unavailable").whenScenarioStateIs("available")
+                    .willReturn(aResponse().withStatus(200).withBodyFile("fetchAgentsResponse.xml")));
+
+            assertThat(new AgentsAndCollectors(client).fetchAgents().getAgents().isEmpty(), is(false));
+            verify(2, getRequestedFor(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)));
+        }
+    }
+
+    @Test
+    public void commandsAreNotRetried() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            client.setRetryPolicy(new RetryPolicy(3, 1, 10));
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(503)));
+            Service service = new Service(client) {
+            };
+            try {
+                service.doGetRequest(service.buildURI("/test"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerResponseException e) {
+                assertThat(e.getStatusCode(), is(503));
+            }
+            verify(1, getRequestedFor(urlPathEqualTo("/test")));
+        }
+    }
+
+    @Test
+    public void retryFailedConnection() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8081, false, 1000))) {
+            EndpointMetrics metrics = new EndpointMetrics();
+            client.setMetricsCollector(metrics);
+            client.setRetryPolicy(new RetryPolicy(2, 1, 10));
+            try {
+                new AgentsAndCollectors(client).fetchAgents();
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                // expected
+            }
+            assertThat(metrics.getStatistics(AgentsAndCollectors.AGENTS_EP).getFailureCount(), is(3L));
+        }
+    }
+
+    @Test
+    public void circuitBreakerFailsFast() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            client.setCircuitBreaker(new CircuitBreaker(2, 60 * 1000));
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(500)));
+            Service service = new Service(client) {
+            };
+            for (int i = 0; i < 2; i++) {
+                try {
+                    service.doGetRequest(service.buildURI("/test"));
+                    fail("Exception was expected to be thrown");
+                } catch (ServerResponseException e) {
+                    assertThat(e.getStatusCode(), is(500));
+                }
+            }
+            try {
+                service.doGetRequest(service.buildURI("/test"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(client.getCircuitBreaker().getState(), is(CircuitBreaker.State.OPEN));
+            }
+            verify(2, getRequestedFor(urlPathEqualTo("/test")));
+        }
+    }
+
+    @Test
+    public void cancelledCallsDoNotOpenCircuitBreaker() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            client.setCircuitBreaker(new CircuitBreaker(1, 60 * 1000));
+            stubFor(get(urlPathEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(2000)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            for (int i = 0; i < 3; i++) {
+                try (Deadline.Scope scope = Deadline.after(50, TimeUnit.MILLISECONDS).enter()) {
+                    service.doGetRequest(service.buildURI("/slow")).close();
+                    fail("Exception was expected to be thrown");
+                } catch (ServerConnectionException e) {
+                    assertThat(e.getMessage(), is("Could not connect to Dynatrace Server: deadline exceeded"));
+                }
+            }
+            Future<Boolean> call = service.doRequestAsync(new HttpGet(service.buildURI("/slow")), false, Service.resultFlagReader(), null);
+            while (client.getAsyncPoolStats().getLeased() == 0) {
+                Thread.sleep(1);
+            }
+            call.cancel(true);
+            while (client.getAsyncPoolStats().getLeased() != 0) {
+                Thread.sleep(1);
+            }
+            assertThat(client.getCircuitBreaker().getState(), is(CircuitBreaker.State.CLOSED));
+        }
+    }
+
+    @Test
+    public void concurrencyLimiterShedsExcessRequests() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            client.setConcurrencyLimiter(new ConcurrencyLimiter(1, 1, 1, 0, 0));
+            stubFor(get(urlPathEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(500)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(503)));
+            final Service service = new Service(client) {
+            };
+            Future<Void> slow = client.getExecutor().submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    service.doGetRequest(service.buildURI("/slow")).close();
+                    return null;
+                }
+            });
+            while (client.getConcurrencyLimiter().getInFlight() == 0) {
+                Thread.sleep(1);
+            }
+            try {
+                service.doGetRequest(service.buildURI("/test"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(client.getConcurrencyLimiter().getRejectionCount(), is(1L));
+            }
+            slow.get();
+            verify(0, getRequestedFor(urlPathEqualTo("/test")));
+
+            try {
+                service.doGetRequest(service.buildURI("/test"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerResponseException e) {
+                assertThat(e.getStatusCode(), is(503));
+            }
+            assertThat(client.getConcurrencyLimiter().getInFlight(), is(0));
+        }
+    }
+
+    @Test
+    public void concurrencyLimiterPermitHeldUntilResponseClosed() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            client.setConcurrencyLimiter(new ConcurrencyLimiter(1, 1, 1, 0, 0));
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+
+            // the body is still being read, the request is in flight
+            CloseableHttpResponse response = service.doGetRequest(service.buildURI("/test"));
+            assertThat(client.getConcurrencyLimiter().getInFlight(), is(1));
+            try {
+                service.doGetRequest(service.buildURI("/test"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(client.getConcurrencyLimiter().getRejectionCount(), is(1L));
+            }
+            Thread.sleep(100);
+            EntityUtils.consume(response.getEntity());
+            assertThat(client.getConcurrencyLimiter().getInFlight(), is(1));
+            response.close();
+            response.close();
+            assertThat(client.getConcurrencyLimiter().getInFlight(), is(0));
+            assertThat(client.getConcurrencyLimiter().getLimit(), is(1));
+            service.doGetRequest(service.buildURI("/test")).close();
+            assertThat(client.getConcurrencyLimiter().getInFlight(), is(0));
+        }
+    }
+
+    @Test
+    public void requestCoalescingIsOptIn() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)).willReturn(aResponse().withStatus(200).withFixedDelay(300).withBodyFile("fetchAgentsResponse.xml")));
+            final AgentsAndCollectors agentsAndCollectors = new AgentsAndCollectors(client);
+            Callable<Agents> fetch = new Callable<Agents>() {
+                @Override
+                public Agents call() throws Exception {
+                    return agentsAndCollectors.fetchAgents();
+                }
+            };
+            assertThat(client.isRequestCoalescing(), is(false));
+            Future<Agents> first = client.getExecutor().submit(fetch);
+            Future<Agents> second = client.getExecutor().submit(fetch);
+            assertThat(first.get(), not(sameInstance(second.get())));
+            verify(2, getRequestedFor(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)));
+
+            client.setRequestCoalescing(true);
+            first = client.getExecutor().submit(fetch);
+            second = client.getExecutor().submit(fetch);
+            assertThat(first.get(), sameInstance(second.get()));
+            verify(3, getRequestedFor(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)));
+        }
+    }
+
+    @Test
+    public void asyncCallsAreCoalesced() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            client.setRequestCoalescing(true);
+            stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)).willReturn(aResponse().withStatus(200).withFixedDelay(300).withBodyFile("fetchAgentsResponse.xml")));
+            AgentsAndCollectors agentsAndCollectors = new AgentsAndCollectors(client);
+            Future<Agents> first = agentsAndCollectors.fetchAgentsAsync(null);
+            Future<Agents> second = agentsAndCollectors.fetchAgentsAsync(null);
+            assertThat(first.get(), sameInstance(second.get()));
+            verify(1, getRequestedFor(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)));
+            assertThat(client.getRequestCoalescer().size(), is(0));
+        }
+    }
+
+    @Test
+    public void bulkheadIsolatesOperations() throws Exception {
+        ConnectionPoolConfiguration pool = new ConnectionPoolConfiguration(1, 1, -1, 1000, 1000);
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000, 5000, 1000, pool))) {
+            Bulkhead downloads = new Bulkhead("downloads", 1, 1, 0);
+            client.setBulkhead(TestAutomation.class, "GET", TestAutomation.TEST_RUNS_EP, downloads);
+            stubFor(get(urlPathEqualTo(String.format(TestAutomation.TEST_RUNS_EP, "easyTravel", ""))).willReturn(aResponse().withStatus(200).withFixedDelay(500)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><testRuns/>")));
+            stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILE_ENABLE_EP, "easyTravel"))).willReturn(aResponse().withStatus(200)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            final TestAutomation testAutomation = new TestAutomation(client);
+            Future<TestRuns> download = client.getExecutor().submit(new Callable<TestRuns>() {
+                @Override
+                public TestRuns call() throws Exception {
+                    return testAutomation.fetchTestRuns(new FetchTestRunsRequest("easyTravel"));
+                }
+            });
+            while (downloads.getInFlight() == 0) {
+                Thread.sleep(1);
+            }
+            // control calls are not queued behind the download
+            assertThat(new SystemProfiles(client).enableProfile("easyTravel"), is(true));
+            try {
+                testAutomation.fetchTestRuns(new FetchTestRunsRequest("easyTravel"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(downloads.getRejectionCount(), is(1L));
+            }
+            download.get();
+            assertThat(client.getPoolStats(downloads).getAvailable(), is(1));
+            assertThat(client.getPoolStats(downloads).getLeased(), is(0));
+            assertThat(downloads.getInFlight(), is(0));
+        }
+    }
+
+    @Test
+    public void bulkheadPermitHeldUntilResponseClosed() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            Bulkhead bulkhead = new Bulkhead("streaming", 1, 1, 0);
+            client.setBulkhead(service.getClass(), bulkhead);
+
+            CloseableHttpResponse response = service.doGetRequest(service.buildURI("/test"));
+            assertThat(bulkhead.getInFlight(), is(1));
+            try {
+                service.doGetRequest(service.buildURI("/test"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(e.getMessage(), is(String.format("Could not connect to Dynatrace Server: %s is full", bulkhead)));
+            }
+            EntityUtils.consume(response.getEntity());
+            response.close();
+            response.close();
+            assertThat(bulkhead.getInFlight(), is(0));
+            service.doGetRequest(service.buildURI("/test")).close();
+            assertThat(bulkhead.getInFlight(), is(0));
+        }
+    }
+
+    @Test
+    public void bulkheadOfOperationTakesPrecedence() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin"))) {
+            Bulkhead polling = new Bulkhead("polling", 2);
+            Bulkhead downloads = new Bulkhead("downloads", 4);
+            client.setBulkhead(TestAutomation.class, polling);
+            client.setBulkhead(TestAutomation.class, "get", TestAutomation.TEST_RUNS_EP, downloads);
+            assertThat(client.getBulkhead(TestAutomation.class, "GET", TestAutomation.TEST_RUNS_EP), sameInstance(downloads));
+            assertThat(client.getBulkhead(TestAutomation.class, "POST", TestAutomation.TEST_RUNS_EP), sameInstance(polling));
+            assertThat(client.getBulkhead(new TestAutomation(client) {
+            }.getClass(), "GET", TestAutomation.TEST_RUNS_EP), sameInstance(downloads));
+            assertThat(client.getBulkhead(SystemProfiles.class, "GET", SystemProfiles.PROFILES_EP), nullValue());
+            assertThat(client.getPoolStats(downloads).getMax(), is(4));
+            assertThat(client.getClient(null), sameInstance(client.getClient()));
+
+            client.setBulkhead(TestAutomation.class, "GET", TestAutomation.TEST_RUNS_EP, null);
+            assertThat(client.getBulkhead(TestAutomation.class, "GET", TestAutomation.TEST_RUNS_EP), sameInstance(polling));
+        }
+    }
+
+    @Test
+    public void warmUp() throws Exception {
+        ConnectionPoolConfiguration pool = new ConnectionPoolConfiguration(64, 4, -1, 1000, 1000);
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000, 1000, 1000, pool))) {
+            WarmUpReport report = client.warmUp(8);
+            assertThat(report.toString(), report.isSuccessful(), is(true));
+            assertThat(report.getStep(WarmUpReport.XML_FACTORIES).getCount(), is(1));
+            assertThat(report.getStep(WarmUpReport.CODECS).getCount(), is(new XmlBinderCodec().getBinders().size()));
+            // capped at the connections of a route
+            assertThat(report.getStep(WarmUpReport.CONNECTIONS).getCount(), is(4));
+            assertThat(client.getPoolStats().getAvailable(), is(4));
+            assertThat(client.getPoolStats().getLeased(), is(0));
+
+            stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            try (CloseableHttpResponse response = service.doGetRequest(service.buildURI("/test"))) {
+                EntityUtils.consume(response.getEntity());
+            }
+            // the request reused one of the warm connections rather than opening a fifth one
+            assertThat(client.getPoolStats().getAvailable(), is(4));
+        }
+    }
+
+    @Test
+    public void warmUpUnavailableServer() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8089, false, 1000))) {
+            WarmUpReport report = client.warmUp(2);
+            assertThat(report.isSuccessful(), is(false));
+            assertThat(report.getStep(WarmUpReport.CODECS).isSuccessful(), is(true));
+            WarmUpReport.Step connections = report.getStep(WarmUpReport.CONNECTIONS);
+            assertThat(connections.getCount(), is(0));
+            assertThat(connections.getFailures().size(), is(2));
+            assertThat(client.getPoolStats().getAvailable(), is(0));
+            assertThat(client.getPoolStats().getLeased(), is(0));
+        }
+    }
+
+    @Test
+    public void warmUpCustomClient() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin"), HttpClients.createDefault())) {
+            WarmUpReport report = client.warmUp(2);
+            assertThat(report.isSuccessful(), is(true));
+            assertThat(report.getStep(WarmUpReport.CONNECTIONS).getCount(), is(0));
+        }
+    }
+
+    @Test
+    public void deadlineAbortsSlowCall() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            stubFor(get(urlPathEqualTo(String.format(TestAutomation.TEST_RUNS_EP, "easyTravel", ""))).willReturn(aResponse().withStatus(200).withFixedDelay(3000)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><testRuns/>")));
+            long start = System.nanoTime();
+            try (Deadline.Scope scope = Deadline.after(200, TimeUnit.MILLISECONDS).enter()) {
+                new TestAutomation(client).fetchTestRuns(new FetchTestRunsRequest("easyTravel"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(e.getMessage(), is("Could not connect to Dynatrace Server: deadline exceeded"));
+            }
+            // the connection is released by whichever thread aborts the request first, the caller or the deadline's timer
+            while (client.getPoolStats().getLeased() != 0) {
+                Thread.sleep(1);
+            }
+            assertThat(System.nanoTime() - start, lessThan(TimeUnit.MILLISECONDS.toNanos(2000)));
+            assertThat(Deadline.current(), nullValue());
+
+            // an expired deadline fails calls before anything is sent
+            try (Deadline.Scope scope = Deadline.after(0, TimeUnit.MILLISECONDS).enter()) {
+                new TestAutomation(client).fetchTestRuns(new FetchTestRunsRequest("easyTravel"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerConnectionException e) {
+                assertThat(e.getMessage(), is("Could not connect to Dynatrace Server: deadline exceeded"));
+            }
+            verify(1, getRequestedFor(urlPathEqualTo(String.format(TestAutomation.TEST_RUNS_EP, "easyTravel", ""))));
+        }
+    }
+
+    @Test
+    public void cancellingFutureAbortsCall() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 5000))) {
+            stubFor(get(urlPathEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(3000)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            Future<Boolean> call = service.doRequestAsync(new HttpGet(service.buildURI("/slow")), false, Service.resultFlagReader(), null);
+            while (client.getAsyncPoolStats().getLeased() == 0) {
+                Thread.sleep(1);
+            }
+            long start = System.nanoTime();
+            assertThat(call.cancel(true), is(true));
+            while (client.getAsyncPoolStats().getLeased() != 0) {
+                Thread.sleep(1);
+            }
+            assertThat(System.nanoTime() - start, lessThan(TimeUnit.MILLISECONDS.toNanos(2000)));
+            assertThat(call.isCancelled(), is(true));
+        }
+    }
+
+    @Test
+    public void asyncCallsDoNotHoldThreads() throws Exception {
+        // enough server threads to answer all calls at once
+        WireMockServer server = new WireMockServer(options().dynamicPort().containerThreads(64));
+        server.start();
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", server.port(), false, 5000, 5000, 5000,
+                new ConnectionPoolConfiguration(30, 30, 0, 0, 0)))) {
+            server.stubFor(get(urlPathEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(1000)
+                    .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+            Service service = new Service(client) {
+            };
+            long start = System.nanoTime();
+            List<Future<Boolean>> calls = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                calls.add(service.doRequestAsync(new HttpGet(service.buildURI("/slow")), false, Service.resultFlagReader(), null));
+            }
+            for (Future<Boolean> call : calls) {
+                assertThat(call.get(), is(true));
+            }
+            // far fewer threads than calls, yet all of them were in flight together
+            assertThat(System.nanoTime() - start, lessThan(TimeUnit.MILLISECONDS.toNanos(2500)));
+            assertThat(client.getAsyncPoolStats().getAvailable(), is(30));
+            assertThat(client.getPoolStats().getLeased() + client.getPoolStats().getAvailable(), is(0));
+        } finally {
+            server.stop();
+        }
+    }
+}
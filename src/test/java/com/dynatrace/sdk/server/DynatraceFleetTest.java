@@ -0,0 +1,182 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import com.dynatrace.sdk.server.systemprofiles.models.SystemProfile;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+
+public class DynatraceFleetTest {
+    @Rule
+    public WireMockRule wireMock = new WireMockRule(8080);
+
+    private final ServerConfiguration first = new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000);
+    private final ServerConfiguration second = new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000);
+    private final ServerConfiguration unavailable = new BasicServerConfiguration("admin", "admin", false, "localhost", 8089, false, 1000);
+
+    @Test
+    public void fetchAgents() throws Exception {
+        stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)).willReturn(aResponse().withStatus(200)
+                .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><agents><agentinformation/><agentinformation/></agents>")));
+        try (DynatraceFleet fleet = new DynatraceFleet(Arrays.asList(this.first, this.unavailable, this.second))) {
+            FleetResult<AgentInformation> result = fleet.fetchAgents();
+            assertThat(result.getItems().size(), is(4));
+            assertThat(result.getItems().get(0).getServer(), is(this.first));
+            assertThat(result.getItems().get(3).getServer(), is(this.second));
+            assertThat(result.getValues(this.second).size(), is(2));
+            assertThat(result.getValues(this.unavailable).size(), is(0));
+            assertThat(result.getSucceeded().size(), is(2));
+            assertThat(result.getSucceeded().get(this.first), is(2));
+
+            assertThat(result.isComplete(), is(false));
+            assertThat(result.getFailures().size(), is(1));
+            assertThat(result.getFailures().get(this.unavailable), instanceOf(ServerConnectionException.class));
+        }
+        verify(2, getRequestedFor(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP)));
+    }
+
+    @Test
+    public void timeBudget() throws Exception {
+        stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))).willReturn(aResponse().withStatus(200).withFixedDelay(3000)
+                .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><profiles><systemprofile id=\"easyTravel\"/></profiles>")));
+        try (DynatraceFleet fleet = new DynatraceFleet(Arrays.asList(this.first, this.second))) {
+            fleet.setTimeBudget(300, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            FleetResult<SystemProfile> result = fleet.getSystemProfiles();
+            assertThat(System.nanoTime() - start, lessThan(TimeUnit.MILLISECONDS.toNanos(2000)));
+            assertThat(result.getItems().size(), is(0));
+            assertThat(result.getFailures().size(), is(2));
+            for (Exception failure : result.getFailures().values()) {
+                assertThat(failure.getMessage(), is("Could not connect to Dynatrace Server: deadline exceeded"));
+            }
+        }
+    }
+
+    @Test
+    public void cancellingCallerDeadlineAbortsRequests() throws Exception {
+        stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))).willReturn(aResponse().withStatus(200).withFixedDelay(3000)
+                .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><profiles><systemprofile id=\"easyTravel\"/></profiles>")));
+        try (DynatraceFleet fleet = new DynatraceFleet(Arrays.asList(this.first, this.second))) {
+            final Deadline caller = Deadline.none();
+            ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+            canceller.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    caller.cancel();
+                }
+            }, 300, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            FleetResult<SystemProfile> result;
+            try (Deadline.Scope scope = caller.enter()) {
+                result = fleet.getSystemProfiles();
+            } finally {
+                canceller.shutdown();
+            }
+            assertThat(System.nanoTime() - start, lessThan(TimeUnit.MILLISECONDS.toNanos(2000)));
+            assertThat(result.getItems().size(), is(0));
+            assertThat(result.getFailures().size(), is(2));
+        }
+    }
+
+    @Test
+    public void concurrentOperationsDoNotQueue() throws Exception {
+        try (final DynatraceFleet fleet = new DynatraceFleet(Arrays.asList(this.first, this.second))) {
+            fleet.setTimeBudget(1000, TimeUnit.MILLISECONDS);
+            final DynatraceFleet.Operation<String> slow = new DynatraceFleet.Operation<String>() {
+                @Override
+                public Collection<String> execute(DynatraceClient client) {
+                    try {
+                        Thread.sleep(600);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Collections.singletonList(client.getBaseURI());
+                }
+            };
+            ExecutorService callers = Executors.newFixedThreadPool(2);
+            try {
+                List<Future<FleetResult<String>>> results = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    results.add(callers.submit(new Callable<FleetResult<String>>() {
+                        @Override
+                        public FleetResult<String> call() throws Exception {
+                            return fleet.execute(slow);
+                        }
+                    }));
+                }
+                for (Future<FleetResult<String>> result : results) {
+                    assertThat(result.get().isComplete(), is(true));
+                }
+            } finally {
+                callers.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void executeOperation() throws Exception {
+        try (DynatraceFleet fleet = new DynatraceFleet(Arrays.asList(this.first, this.second))) {
+            FleetResult<String> result = fleet.execute(new DynatraceFleet.Operation<String>() {
+                @Override
+                public Collection<String> execute(DynatraceClient client) {
+                    return Collections.singletonList(client.getBaseURI());
+                }
+            });
+            assertThat(result.isComplete(), is(true));
+            assertThat(result.getValues(), is(Arrays.asList("http://localhost:8080", "http://localhost:8080")));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyFleet() throws Exception {
+        new DynatraceFleet(Collections.<ServerConfiguration>emptyList());
+    }
+}
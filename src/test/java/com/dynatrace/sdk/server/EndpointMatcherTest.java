@@ -0,0 +1,62 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors;
+import com.dynatrace.sdk.server.metrics.MetricsCollector;
+import com.dynatrace.sdk.server.sessions.Sessions;
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class EndpointMatcherTest {
+    @Test
+    public void matchesTemplates() {
+        EndpointMatcher matcher = EndpointMatcher.forClass(AgentsAndCollectors.class);
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/agents")), is(AgentsAndCollectors.AGENTS_EP));
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/agents/123/hotsensorplacement")), is(AgentsAndCollectors.HOT_SENSOR_PLACEMENT_EP));
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/collectors/")), is(AgentsAndCollectors.COLLECTORS_EP));
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/collectors/collector%2Fa@host?x=1")), is(AgentsAndCollectors.COLLECTORS_EP));
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/unknown")), is(MetricsCollector.OTHER_ENDPOINT));
+    }
+
+    @Test
+    public void prefersLiteralSegments() {
+        EndpointMatcher matcher = EndpointMatcher.forClass(SystemProfiles.class);
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/profiles/easyTravel/enable")), is(SystemProfiles.PROFILE_ENABLE_EP));
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/profiles/easyTravel")), is(SystemProfiles.PROFILES_EP));
+
+        matcher = EndpointMatcher.forClass(Sessions.class);
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/sessions/session/reanalyze/finished")), is(Sessions.REANALYZE_SESSION_STATUS_EP));
+        assertThat(matcher.match(URI.create("http://localhost/rest/management/profiles/easyTravel/clear")), is(Sessions.SESSIONS_EP));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.AgentsAndCollectors;
+import com.dynatrace.sdk.server.incidents.Incidents;
+import com.dynatrace.sdk.server.systemprofiles.SystemProfiles;
+import com.dynatrace.sdk.server.testautomation.TestAutomation;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class EndpointTemplateTest {
+    @Test
+    public void expand() {
+        EndpointTemplate template = EndpointTemplate.compile(Incidents.INCIDENT_EP);
+        assertThat(template.getVariableCount(), is(3));
+        assertThat(template.expand("easyTravel", "Custom", "9cb9d5b2"), is(String.format(Incidents.INCIDENT_EP, "easyTravel", "Custom", "9cb9d5b2")));
+        assertThat(EndpointTemplate.compile(AgentsAndCollectors.AGENTS_EP).expand(), is(AgentsAndCollectors.AGENTS_EP));
+        assertThat(EndpointTemplate.compile(AgentsAndCollectors.HOT_SENSOR_PLACEMENT_EP).expand(42L), is("/rest/management/agents/42/hotsensorplacement"));
+        assertThat(EndpointTemplate.compile(TestAutomation.TEST_RUNS_EP).expand("easyTravel", ""), is("/rest/management/profiles/easyTravel/testruns/"));
+    }
+
+    @Test
+    public void variablesAreEncodedAsSingleSegment() {
+        EndpointTemplate template = EndpointTemplate.compile(SystemProfiles.PROFILE_ENABLE_EP);
+        assertThat(template.expand("easy Travel/2"), is("/rest/management/profiles/easy%20Travel%2F2/enable"));
+        assertThat(template.expand("a?b#c%d"), is("/rest/management/profiles/a%3Fb%23c%25d/enable"));
+        assertThat(template.expand("Gr\u00f6\u00dfe \u20ac"), is("/rest/management/profiles/Gr%C3%B6%C3%9Fe%20%E2%82%AC/enable"));
+        // sub-delimiters, ':' and '@' are allowed in segments
+        assertThat(template.expand("Collector@host:8080;v=1"), is("/rest/management/profiles/Collector@host:8080;v=1/enable"));
+        assertThat(template.expand((Object) null), is("/rest/management/profiles/null/enable"));
+    }
+
+    @Test
+    public void decodesToVariable() throws Exception {
+        String name = "dynaTrace Self-Monitoring/\u00e4 100%";
+        URI uri = new URI("http://localhost:8020" + EndpointTemplate.compile(SystemProfiles.PROFILES_EP).expand(name));
+        assertThat(uri.getPath(), is(String.format(SystemProfiles.PROFILES_EP, name)));
+        assertThat(uri.getRawPath().split("/").length, is(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongNumberOfVariables() {
+        EndpointTemplate.compile(Incidents.INCIDENT_EP).expand("easyTravel", "Custom");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedConversion() {
+        EndpointTemplate.compile("/rest/management/profiles/%x");
+    }
+
+    @Test
+    public void serviceURI() throws Exception {
+        DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", true, "localhost", 8021, false, 1000));
+        assertThat(client.getBaseURI(), is("https://localhost:8021"));
+        Service service = new Service(client) {
+        };
+        EndpointTemplate template = EndpointTemplate.compile(TestAutomation.TEST_RUNS_EP);
+        assertThat(service.buildURI(template, "easyTravel", "078e961b").toString(), is("https://localhost:8021/rest/management/profiles/easyTravel/testruns/078e961b"));
+
+        NameValuePair[] params = {new BasicNameValuePair("extend", "measures"), new BasicNameValuePair("category", "unit & performance")};
+        URI uri = service.buildURI(template, Arrays.asList(params), "easyTravel", "");
+        assertThat(uri, is(service.buildURI(String.format(TestAutomation.TEST_RUNS_EP, "easyTravel", ""), params)));
+        assertThat(new URIBuilder(uri).getQueryParams(), is(Arrays.asList(params)));
+        client.close();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class Iso8601EncoderTest {
+    private static final String[] ZONES = {"UTC", "Europe/Vienna", "America/St_Johns", "Asia/Kathmandu", "Pacific/Chatham"};
+    // 1900-01-01 to 2100-01-01
+    private static final long MIN = -2208988800000L;
+    private static final long MAX = 4102444800000L;
+
+    private static SimpleDateFormat simpleDateFormat(String pattern, TimeZone timeZone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(timeZone);
+        return format;
+    }
+
+    @Test
+    public void format() {
+        TimeZone vienna = TimeZone.getTimeZone("Europe/Vienna");
+        // summer time
+        assertThat(Iso8601Encoder.withOffset(vienna).format(1462090530042L), is("2016-05-01T10:15:30.042+02:00"));
+        assertThat(Iso8601Encoder.local(vienna).format(1462090530042L), is("2016-05-01T10:15:30.042"));
+        assertThat(Iso8601Encoder.withOffset(TimeZone.getTimeZone("UTC")).format(0), is("1970-01-01T00:00:00.000Z"));
+        assertThat(Iso8601Encoder.withOffset(TimeZone.getTimeZone("America/St_Johns")).format(new Date(0)), is("1969-12-31T20:30:00.000-03:30"));
+
+        char[] buffer = new char[Iso8601Encoder.MAX_LENGTH + 1];
+        buffer[0] = '[';
+        int end = Iso8601Encoder.local(vienna).encode(1462090530042L, buffer, 1);
+        assertThat(new String(buffer, 0, end), is("[2016-05-01T10:15:30.042"));
+    }
+
+    @Test
+    public void equalToSimpleDateFormat() {
+        Random random = new Random(42);
+        for (String zone : ZONES) {
+            TimeZone timeZone = TimeZone.getTimeZone(zone);
+            SimpleDateFormat withOffset = simpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", timeZone);
+            SimpleDateFormat local = simpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS", timeZone);
+            Iso8601Encoder withOffsetEncoder = Iso8601Encoder.withOffset(timeZone);
+            Iso8601Encoder localEncoder = Iso8601Encoder.local(timeZone);
+            for (int i = 0; i < 10000; i++) {
+                long millis = MIN + (long) (random.nextDouble() * (MAX - MIN));
+                assertThat(withOffsetEncoder.format(millis), is(withOffset.format(new Date(millis))));
+                assertThat(localEncoder.format(millis), is(local.format(new Date(millis))));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentFormatting() throws Exception {
+        final TimeZone timeZone = TimeZone.getTimeZone("Europe/Vienna");
+        final Iso8601Encoder encoder = Iso8601Encoder.withOffset(timeZone);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final long seed = t;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        SimpleDateFormat expected = simpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", timeZone);
+                        char[] buffer = new char[Iso8601Encoder.MAX_LENGTH];
+                        Random random = new Random(seed);
+                        int mismatches = 0;
+                        for (int i = 0; i < 50000; i++) {
+                            long millis = MIN + (long) (random.nextDouble() * (MAX - MIN));
+                            String formatted = i % 2 == 0 ? encoder.format(millis) : new String(buffer, 0, encoder.encode(millis, buffer, 0));
+                            if (!formatted.equals(expected.format(new Date(millis)))) {
+                                mismatches++;
+                            }
+                        }
+                        return mismatches;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertThat(future.get(), is(0));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
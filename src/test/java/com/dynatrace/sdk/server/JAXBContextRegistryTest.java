@@ -0,0 +1,71 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.testautomation.models.TestRun;
+import org.junit.Test;
+
+import javax.xml.bind.Unmarshaller;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class JAXBContextRegistryTest {
+    @Test
+    public void contextIsShared() throws Exception {
+        assertThat(JAXBContextRegistry.getContext(Agents.class), sameInstance(JAXBContextRegistry.getContext(Agents.class)));
+        assertThat(JAXBContextRegistry.getContext(Agents.class), not(sameInstance(JAXBContextRegistry.getContext(TestRun.class))));
+    }
+
+    @Test
+    public void marshallersAreCachedPerThread() throws Exception {
+        final Unmarshaller unmarshaller = JAXBContextRegistry.getUnmarshaller(Agents.class);
+        assertThat(JAXBContextRegistry.getUnmarshaller(Agents.class), sameInstance(unmarshaller));
+        assertThat(JAXBContextRegistry.getMarshaller(TestRun.class), sameInstance(JAXBContextRegistry.getMarshaller(TestRun.class)));
+
+        final AtomicReference<Unmarshaller> other = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    other.set(JAXBContextRegistry.getUnmarshaller(Agents.class));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+        assertThat(other.get() != null, is(true));
+        assertThat(other.get(), not(sameInstance(unmarshaller)));
+    }
+}
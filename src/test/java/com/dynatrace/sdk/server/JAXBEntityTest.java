@@ -0,0 +1,81 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.incidents.models.CreateUpdateIncidentRequest;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.http.util.EntityUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+public class JAXBEntityTest {
+    @Rule
+    public WireMockRule wireMock = new WireMockRule(8080);
+
+    private static CreateUpdateIncidentRequest request() {
+        CreateUpdateIncidentRequest request = new CreateUpdateIncidentRequest("easyTravel", "Deployment");
+        request.setMessage("Gr\u00f6\u00dfe \u20ac");
+        return request;
+    }
+
+    @Test
+    public void repeatableUtf8() throws Exception {
+        JAXBEntity entity = new JAXBEntity(request());
+        assertThat(entity.isRepeatable(), is(true));
+        assertThat(entity.getContentType().getValue(), is("application/xml; charset=UTF-8"));
+
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        entity.writeTo(first);
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        entity.writeTo(second);
+        assertThat(second.toByteArray(), is(first.toByteArray()));
+        assertThat(new String(first.toByteArray(), StandardCharsets.UTF_8), containsString("<message>Gr\u00f6\u00dfe \u20ac</message>"));
+        assertThat(EntityUtils.toString(entity), is(new String(first.toByteArray(), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void send() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 1000))) {
+            stubFor(post(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(201)));
+            Service service = new Service(client) {
+            };
+            service.doPostRequest(service.buildURI("/test"), new JAXBEntity(request())).close();
+            verify(postRequestedFor(urlPathEqualTo("/test"))
+                    .withHeader("Content-Type", equalTo("application/xml; charset=UTF-8"))
+                    .withRequestBody(containing("<message>Gr\u00f6\u00dfe \u20ac</message>")));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.exceptions.ServerConnectionException;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescerTest {
+    private static final int CALLERS = 8;
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    public void sharesResult() throws Exception {
+        final Object result = new Object();
+        List<Future<Object>> futures = this.runConcurrently(URI.create("http://localhost/a"), new RequestCoalescer.Request<Object>() {
+            @Override
+            public Object execute() {
+                return RequestCoalescerTest.this.await(result);
+            }
+        });
+
+        for (Future<Object> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS), sameInstance(result));
+        }
+        assertThat(this.executions.get(), is(1));
+        assertThat(this.coalescer.size(), is(0));
+    }
+
+    @Test
+    public void sharesFailure() throws Exception {
+        List<Future<Object>> futures = this.runConcurrently(URI.create("http://localhost/a"), new RequestCoalescer.Request<Object>() {
+            @Override
+            public Object execute() throws ServerResponseException {
+                RequestCoalescerTest.this.await(null);
+                throw new ServerResponseException(500, "failed");
+            }
+        });
+
+        for (Future<Object> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Exception was expected to be thrown");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(ServerResponseException.class));
+                assertThat(((ServerResponseException) e.getCause()).getStatusCode(), is(500));
+            }
+        }
+        assertThat(this.executions.get(), is(1));
+        assertThat(this.coalescer.size(), is(0));
+    }
+
+    @Test
+    public void executesAgainAfterCompletion() throws Exception {
+        RequestCoalescer.Request<Object> request = new RequestCoalescer.Request<Object>() {
+            @Override
+            public Object execute() {
+                RequestCoalescerTest.this.executions.incrementAndGet();
+                return new Object();
+            }
+        };
+        URI uri = URI.create("http://localhost/a");
+        this.coalescer.execute(uri, Object.class, request);
+        this.coalescer.execute(uri, Object.class, request);
+        this.coalescer.execute(URI.create("http://localhost/b"), Object.class, request);
+        assertThat(this.executions.get(), is(3));
+    }
+
+    private Object await(Object result) {
+        this.executions.incrementAndGet();
+        try {
+            this.release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    private List<Future<Object>> runConcurrently(final URI uri, final RequestCoalescer.Request<Object> request) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        final CountDownLatch started = new CountDownLatch(CALLERS);
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws ServerConnectionException, ServerResponseException {
+                        started.countDown();
+                        return RequestCoalescerTest.this.coalescer.execute(uri, Object.class, request);
+                    }
+                }));
+            }
+            started.await(5, TimeUnit.SECONDS);
+            // give all callers time to join the request in flight
+            Thread.sleep(200);
+            this.release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        return futures;
+    }
+}
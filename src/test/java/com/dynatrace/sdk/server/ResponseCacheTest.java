@@ -0,0 +1,180 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class ResponseCacheTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ResponseCache.Loader<Integer> loader = new ResponseCache.Loader<Integer>() {
+        @Override
+        public Integer load() {
+            return ResponseCacheTest.this.loads.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void hitsAndMisses() throws Exception {
+        ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(), DIRECT);
+        assertThat(cache.get("a", this.loader), is(1));
+        assertThat(cache.get("a", this.loader), is(1));
+        assertThat(cache.get("b", this.loader), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void expiry() throws Exception {
+        ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(10, 50, 0), DIRECT);
+        assertThat(cache.get("a", this.loader), is(1));
+        Thread.sleep(100);
+        assertThat(cache.get("a", this.loader), is(2));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getRefreshCount(), is(0L));
+    }
+
+    @Test
+    public void refreshAhead() throws Exception {
+        ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(10, 5000, 4900), DIRECT);
+        assertThat(cache.get("a", this.loader), is(1));
+        Thread.sleep(150);
+        // stale value is returned while the refresh is scheduled
+        assertThat(cache.get("a", this.loader), is(1));
+        assertThat(cache.getRefreshCount(), is(1L));
+        assertThat(cache.get("a", this.loader), is(2));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(2L));
+    }
+
+    @Test
+    public void leastRecentlyUsedEviction() throws Exception {
+        ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(2, 5000, 0), DIRECT);
+        cache.get("a", this.loader);
+        cache.get("b", this.loader);
+        cache.get("a", this.loader);
+        cache.get("c", this.loader);
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getEvictionCount(), is(1L));
+        assertThat(cache.get("a", this.loader), is(1));
+        assertThat(cache.get("b", this.loader), is(4));
+    }
+
+    @Test
+    public void invalidate() throws Exception {
+        ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(), DIRECT);
+        cache.get("a", this.loader);
+        cache.get("b", this.loader);
+        cache.invalidate("a");
+        assertThat(cache.get("a", this.loader), is(3));
+        assertThat(cache.get("b", this.loader), is(2));
+        cache.invalidateAll();
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void invalidateDuringLoad() throws Exception {
+        final ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(), DIRECT);
+        cache.get("a", new ResponseCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                cache.invalidate("a");
+                return 0;
+            }
+        });
+        // value loaded before the invalidation is not stored
+        assertThat(cache.get("a", this.loader), is(1));
+    }
+
+    @Test
+    public void invalidateOtherKeyDuringLoad() throws Exception {
+        final ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(), DIRECT);
+        cache.get("a", new ResponseCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                cache.invalidate("b");
+                return 0;
+            }
+        });
+        assertThat(cache.get("a", this.loader), is(0));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void invalidateOtherKeyDuringRefresh() throws Exception {
+        final ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(10, 5000, 4900), DIRECT);
+        cache.get("a", this.loader);
+        Thread.sleep(150);
+        cache.get("a", new ResponseCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                cache.invalidate("b");
+                return 0;
+            }
+        });
+        assertThat(cache.getRefreshCount(), is(1L));
+        assertThat(cache.get("a", this.loader), is(0));
+    }
+
+    @Test
+    public void refreshOfInvalidatedKeyIsDropped() throws Exception {
+        final ResponseCache<String, Integer> cache = new ResponseCache<>(new CacheConfiguration(10, 5000, 4900), DIRECT);
+        cache.get("a", this.loader);
+        Thread.sleep(150);
+        cache.get("a", new ResponseCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                cache.invalidate("a");
+                return 0;
+            }
+        });
+        // the dropped refresh counts neither as refresh nor as failure
+        assertThat(cache.getRefreshCount(), is(0L));
+        assertThat(cache.getRefreshFailureCount(), is(0L));
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get("a", this.loader), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refreshAheadLongerThanTimeToLive() {
+        new CacheConfiguration(10, 1000, 1000);
+    }
+}
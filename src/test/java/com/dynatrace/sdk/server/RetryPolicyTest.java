@@ -0,0 +1,73 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.message.BasicHeader;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+
+public class RetryPolicyTest {
+    @Test
+    public void backoff() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1000);
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.getBackoff(0), is(both(greaterThanOrEqualTo(0L)).and(lessThanOrEqualTo(100L))));
+            assertThat(policy.getBackoff(2), is(both(greaterThanOrEqualTo(0L)).and(lessThanOrEqualTo(400L))));
+            assertThat(policy.getBackoff(40), is(both(greaterThanOrEqualTo(0L)).and(lessThanOrEqualTo(1000L))));
+        }
+    }
+
+    @Test
+    public void retryableStatusCodes() {
+        RetryPolicy policy = new RetryPolicy();
+        assertThat(policy.isRetryable(503), is(true));
+        assertThat(policy.isRetryable(429), is(true));
+        assertThat(policy.isRetryable(500), is(false));
+        assertThat(policy.isRetryable(404), is(false));
+    }
+
+    @Test
+    public void retryAfter() {
+        RetryPolicy policy = new RetryPolicy(3, 0, 5000);
+        assertThat(RetryPolicy.parseRetryAfter(null), is(0L));
+        assertThat(RetryPolicy.parseRetryAfter(new BasicHeader("Retry-After", "2")), is(2000L));
+        assertThat(RetryPolicy.parseRetryAfter(new BasicHeader("Retry-After", "soon")), is(0L));
+        String date = DateUtils.formatDate(new Date(System.currentTimeMillis() + 60 * 1000));
+        assertThat(RetryPolicy.parseRetryAfter(new BasicHeader("Retry-After", date)), is(both(greaterThan(50 * 1000L)).and(lessThanOrEqualTo(60 * 1000L))));
+
+        assertThat(policy.getDelay(0, new BasicHeader("Retry-After", "2")), is(2000L));
+        // delay is capped by the maximum backoff
+        assertThat(policy.getDelay(0, new BasicHeader("Retry-After", date)), is(5000L));
+    }
+}
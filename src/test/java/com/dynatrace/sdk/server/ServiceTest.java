@@ -34,6 +34,9 @@ import com.dynatrace.sdk.server.exceptions.ServerResponseException;
 import com.dynatrace.sdk.server.testautomation.models.TestRun;
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.conn.HttpHostConnectException;
 import org.hamcrest.core.Is;
@@ -42,7 +45,13 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -136,4 +145,64 @@ public class ServiceTest {
             assertTrue(e.getCause() instanceof UnknownHostException);
         }
     }
+
+    @Test
+    public void doRequestAsync() throws Exception {
+        stubFor(post(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+        Future<Boolean> future = this.service.doRequestAsync(new HttpPost(this.service.buildURI("/test")), false, Service.resultFlagReader(), null);
+        assertThat(future.get(), is(true));
+
+        stubFor(post(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(500).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><error reason=\"failed\"/>")));
+        future = this.service.doRequestAsync(new HttpPost(this.service.buildURI("/test")), false, Service.resultFlagReader(), null);
+        try {
+            future.get();
+            fail("Exception was expected to be thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServerResponseException);
+            assertThat(((ServerResponseException) e.getCause()).getStatusCode(), is(500));
+        }
+    }
+
+    @Test
+    public void requestsAreUnboundOnceClosed() throws Exception {
+        stubFor(get(urlPathEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+        stubFor(get(urlPathEqualTo("/missing")).willReturn(aResponse().withStatus(404)));
+        // never passes, so bound requests are only released by their calls
+        Deadline deadline = Deadline.none();
+        try (Deadline.Scope scope = deadline.enter()) {
+            CloseableHttpResponse response = this.service.doGetRequest(this.service.buildURI("/test"));
+            assertThat(deadline.size(), is(1));
+            response.close();
+            assertThat(deadline.size(), is(0));
+
+            stubFor(get(urlPathEqualTo("/testrun")).willReturn(aResponse().withStatus(200).withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><testRun category=\"unit\"/>")));
+            assertThat(this.service.doGetRequest(this.service.buildURI("/testrun"), TestRun.class).getCategory(), is(TestCategory.UNIT));
+            try {
+                this.service.doGetRequest(this.service.buildURI("/missing"));
+                fail("Exception was expected to be thrown");
+            } catch (ServerResponseException e) {
+                assertThat(e.getStatusCode(), is(404));
+            }
+            assertThat(this.service.doRequestAsync(new HttpGet(this.service.buildURI("/test")), false, Service.resultFlagReader(), null).get(), is(true));
+            assertThat(deadline.size(), is(0));
+        }
+    }
+
+    @Test
+    public void readResultValue() throws Exception {
+        assertThat(Service.readResultValue(xml("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")), is("true"));
+        assertThat(Service.readResultValue(xml("<result value=\"session &amp; name\"><ignored/></result>")), is("session & name"));
+        assertThat(Service.readResultValue(xml("<result/>")), is(""));
+        assertThat(Service.readResultValue(xml("<error value=\"true\"/>")), is(""));
+        try {
+            Service.readResultValue(xml("result value=\"true\"/>"));
+            fail("Exception was expected to be thrown");
+        } catch (XMLStreamException e) {
+            // expected
+        }
+    }
+
+    private static InputStream xml(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server;
+
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Collectors;
+import com.dynatrace.sdk.server.incidents.models.CreateUpdateIncidentRequest;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncidents;
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import com.dynatrace.sdk.server.incidents.models.IncidentSeverity;
+import com.dynatrace.sdk.server.memorydumps.models.AgentPattern;
+import com.dynatrace.sdk.server.memorydumps.models.MemoryDump;
+import com.dynatrace.sdk.server.memorydumps.models.MemoryDumpJob;
+import com.dynatrace.sdk.server.resourcedumps.models.ThreadDumpStatus;
+import com.dynatrace.sdk.server.systemprofiles.models.Profiles;
+import com.dynatrace.sdk.server.systemprofiles.models.SystemProfileMetadata;
+import com.dynatrace.sdk.server.testautomation.TestAutomation;
+import com.dynatrace.sdk.server.testautomation.models.CreateTestRunRequest;
+import com.dynatrace.sdk.server.testautomation.models.TestCategory;
+import com.dynatrace.sdk.server.testautomation.models.TestMetaData;
+import com.dynatrace.sdk.server.testautomation.models.TestRun;
+import com.dynatrace.sdk.server.testautomation.models.TestRuns;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class XmlBinderCodecTest {
+    private static final String TEST_RUNS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<testRuns>\n" +
+            "  <testRun category=\"unit\" versionBuild=\"17\" versionMajor=\"2016\" platform=\"Linux x86_64\" startTime=\"1469446925361\" id=\"078e961b\" numPassed=\"1\" numFailed=\"0\" systemProfile=\"easyTravel\" creationMode=\"MANUAL\">\n" +
+            "    <testResult name=\"DaoTest.testFind\" status=\"passed\" exectime=\"1469446929087\" package=\"com.dynatrace.samples\">\n" +
+            "      <measure name=\"Count\" metricGroup=\"Exceptions\" value=\"2.0\" unit=\"num\" expectedMin=\"2.0\" expectedMax=\"2.0\" numValidRuns=\"10\" violationPercentage=\"0.0\"/>\n" +
+            "      <measure name=\"DB Count\" metricGroup=\"Database\" value=\"INF\" unit=\"num\" numFailingOrInvalidatedRuns=\"1\"/>\n" +
+            "    </testResult>\n" +
+            "    <testResult name=\"DaoTest.testStore\" status=\"unknown\"/>\n" +
+            "  </testRun>\n" +
+            "  <testRun category=\"performance\" id=\"6c0e95b3\" creationMode=\"AUTO\"><unknown><testResult/></unknown></testRun>\n" +
+            "</testRuns>";
+
+    private static final String COLLECTORS = "<collectors href=\"https://localhost:8021/rest/management/collectors\">\n" +
+            "  <collectorinformation href=\"https://localhost:8021/rest/management/collectors/Embedded%20dynaTrace%20Collector@GRABS\">\n" +
+            "    <connected>true</connected>\n" +
+            "    <embedded>yes</embedded>\n" +
+            "    <name>Embedded dynaTrace Collector</name>\n" +
+            "  </collectorinformation>\n" +
+            "</collectors>";
+
+    private static final String PROFILES = "<profiles href=\"https://localhost:8021/rest/management/profiles\">\n" +
+            "    <systemprofile isrecording=\"false\" id=\"dynaTrace Self-Monitoring\" href=\"https://localhost:8021/rest/management/profiles/dynaTrace%20Self-Monitoring\"/>\n" +
+            "    <systemprofile isrecording=\"true\" id=\"easyTravel\" href=\"http://localhost:8020/rest/management/profiles/easyTravel\"/>\n" +
+            "</profiles>";
+
+    private static final String PROFILE_METADATA = "<systemprofile enabled=\"true\" isInteractiveLicensed=\"true\" isrecording=\"true\" id=\"easyTravel\" href=\"https://localhost:8021/rest/management/profiles/easyTravel\">\n" +
+            "    <agentgroupsreference href=\"https://localhost:8021/rest/management/profiles/easyTravel/agentgroups\"/>\n" +
+            "    <description>Profile for the easyTravel demo application.</description>\n" +
+            "</systemprofile>";
+
+    private static final String INCIDENTS = "<incidents>\n" +
+            "    <incidentreference id=\"9cb9d5b2\" href=\"http://localhost:8020/rest/management/profiles/easyTravel/incidentrules/Custom/incidents/9cb9d5b2\" />\n" +
+            "</incidents>";
+
+    private static final String INCIDENT = "<incident id=\"9cb9d5b2\">\n" +
+            "    <message>Heap <![CDATA[memory]]> &amp; threads</message>\n" +
+            "    <start>2016-07-26T14:10:21.365+02:00</start>\n" +
+            "    <end>yesterday</end>\n" +
+            "    <state>InProgress</state>\n" +
+            "    <severity>severe</severity>\n" +
+            "</incident>";
+
+    @Rule
+    public WireMockRule wireMock = new WireMockRule();
+
+    private final XmlBinderCodec codec = new XmlBinderCodec();
+
+    @Test
+    public void bindersAreGeneratedForRootElements() {
+        for (Class<?> type : new Class<?>[]{CollectorInformation.class, Incident.class, FetchedIncidents.class, CreateUpdateIncidentRequest.class,
+                MemoryDump.class, Profiles.class, SystemProfileMetadata.class}) {
+            assertThat(type.getName(), this.codec.canDecode(type), is(true));
+            assertThat(type.getName(), this.codec.canEncode(type), is(true));
+        }
+        // models without getters for some of their properties are only read
+        for (Class<?> type : new Class<?>[]{Agents.class, Collectors.class, MemoryDumpJob.class, TestRuns.class, TestRun.class}) {
+            assertThat(type.getName(), this.codec.canDecode(type), is(true));
+            assertThat(type.getName(), this.codec.canEncode(type), is(false));
+        }
+        // and models without setters or constructor parameters for some of their properties are only written
+        assertThat(this.codec.canDecode(CreateTestRunRequest.class), is(false));
+        assertThat(this.codec.canEncode(CreateTestRunRequest.class), is(true));
+        // lacking accessors for both
+        assertThat(this.codec.canDecode(ThreadDumpStatus.class), is(false));
+        assertThat(this.codec.canEncode(ThreadDumpStatus.class), is(false));
+        // nested only, thus without a root element to decode
+        assertThat(this.codec.canDecode(TestMetaData.class), is(false));
+    }
+
+    @Test
+    public void decodesLikeJAXB() throws Exception {
+        this.assertDecodedLikeJAXB(resource("/__files/fetchAgentsResponse.xml"), Agents.class);
+        this.assertDecodedLikeJAXB(resource("/__files/memoryDumpResponse.xml"), MemoryDump.class);
+        this.assertDecodedLikeJAXB(resource("/__files/memoryDumpJobResponse.xml"), MemoryDumpJob.class);
+        this.assertDecodedLikeJAXB(TEST_RUNS, TestRuns.class);
+        this.assertDecodedLikeJAXB(COLLECTORS, Collectors.class);
+        this.assertDecodedLikeJAXB(PROFILES, Profiles.class);
+        this.assertDecodedLikeJAXB(PROFILE_METADATA, SystemProfileMetadata.class);
+        this.assertDecodedLikeJAXB(INCIDENTS, FetchedIncidents.class);
+        this.assertDecodedLikeJAXB(INCIDENT, Incident.class);
+    }
+
+    @Test
+    public void encodesLikeJAXB() throws Exception {
+        CreateTestRunRequest testRun = new CreateTestRunRequest("easyTravel", "42");
+        testRun.setCategory(TestCategory.PERFORMANCE);
+        testRun.setMarker("Gr\u00f6\u00dfe & <size>");
+        testRun.setAdditionalMetaData(new TestMetaData(Collections.singletonMap("branch", "master")));
+        this.assertEncodedLikeJAXB(testRun);
+
+        CreateUpdateIncidentRequest incident = new CreateUpdateIncidentRequest("easyTravel", "Custom");
+        incident.setMessage("Gr\u00f6\u00dfe \u20ac");
+        incident.setSeverity(IncidentSeverity.WARNING);
+        incident.setStart(new Date(1469446925361L));
+        incident.setEnd(new Date(1469446929087L));
+        this.assertEncodedLikeJAXB(incident);
+
+        this.assertEncodedLikeJAXB(new AgentPattern("JavaWorld", "lnz124984d01", 9508));
+        this.assertEncodedLikeJAXB(JAXBCodec.INSTANCE.decode(stream(resource("/__files/memoryDumpResponse.xml")), MemoryDump.class));
+        this.assertEncodedLikeJAXB(JAXBCodec.INSTANCE.decode(stream(PROFILES), Profiles.class));
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedDocument() throws Exception {
+        this.codec.decode(stream("<testRuns><testRun>"), TestRuns.class);
+    }
+
+    @Test
+    public void registeredCodecIsUsedByServices() throws Exception {
+        DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000));
+        client.registerModelCodec(this.codec);
+        assertThat(client.getModelDecoder(TestRun.class), sameInstance((ModelCodec) this.codec));
+        assertThat(client.getModelEncoder(CreateTestRunRequest.class), sameInstance((ModelCodec) this.codec));
+
+        stubFor(post(urlPathEqualTo(String.format(TestAutomation.TEST_RUNS_EP, "easyTravel", "")))
+                .withRequestBody(equalToXml("<testRun systemProfile=\"easyTravel\" category=\"performance\" versionBuild=\"42\"/>"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><testRun category=\"performance\" versionBuild=\"42\" startTime=\"1469452303746\" id=\"6c0e95b3\" systemProfile=\"easyTravel\"/>")));
+        CreateTestRunRequest request = new CreateTestRunRequest("easyTravel", "42");
+        request.setCategory(TestCategory.PERFORMANCE);
+        TestRun testRun = new TestAutomation(client).createTestRun(request);
+        assertThat(testRun.getId(), is("6c0e95b3"));
+        assertThat(testRun.getStartTime(), is(1469452303746L));
+        client.close();
+    }
+
+    private <T> void assertDecodedLikeJAXB(String xml, Class<T> type) throws IOException {
+        T expected = JAXBCodec.INSTANCE.decode(stream(xml), type);
+        T actual = this.codec.decode(stream(xml), type);
+        assertThat(type.getName(), actual.toString(), is(expected.toString()));
+    }
+
+    private void assertEncodedLikeJAXB(Object model) throws IOException {
+        String expected = encode(JAXBCodec.INSTANCE, model);
+        String actual = encode(this.codec, model);
+        assertThat(actual, equalToXml(expected).match(actual).isExactMatch(), is(true));
+    }
+
+    private static String encode(ModelCodec codec, Object model) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        codec.encode(model, os);
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream is = XmlBinderCodecTest.class.getResourceAsStream(name)) {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                os.write(buffer, 0, read);
+            }
+            return new String(os.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.agentsandcollectors;
+
+import com.dynatrace.sdk.server.BasicServerConfiguration;
+import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.JAXBCodec;
+import com.dynatrace.sdk.server.ModelCodec;
+import com.dynatrace.sdk.server.agentsandcollectors.models.AgentInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Agents;
+import com.dynatrace.sdk.server.agentsandcollectors.models.CollectorInformation;
+import com.dynatrace.sdk.server.agentsandcollectors.models.Collectors;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class AgentsAndCollectorsCodecTest {
+    private static final String COLLECTORS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\" ?>\n" +
+            "<collectors href=\"https://localhost:8021/rest/management/collectors\">\n" +
+            "  <collectorinformation href=\"https://localhost:8021/rest/management/collectors/Embedded%20dynaTrace%20Collector@GRABS\">\n" +
+            "    <connected>true</connected>\n" +
+            "    <embedded>false</embedded>\n" +
+            "    <local>true</local>\n" +
+            "    <host>GRABS</host>\n" +
+            "    <name>Embedded dynaTrace Collector</name>\n" +
+            "    <unknown><nested>ignored</nested></unknown>\n" +
+            "    <version>6.3.4.1034</version>\n" +
+            "  </collectorinformation>\n" +
+            "  <collectorinformation href=\"https://localhost:8021/rest/management/collectors/Second@GRABS\">\n" +
+            "    <connected>yes</connected>\n" +
+            "    <name>Second</name>\n" +
+            "  </collectorinformation>\n" +
+            "</collectors>";
+
+    @Rule
+    public WireMockRule wireMock = new WireMockRule();
+
+    private final AgentsAndCollectorsCodec codec = new AgentsAndCollectorsCodec();
+
+    @Test
+    public void decodesAgentsLikeJAXB() throws Exception {
+        Agents expected;
+        Agents actual;
+        try (InputStream is = this.getClass().getResourceAsStream("/__files/fetchAgentsResponse.xml")) {
+            expected = JAXBCodec.INSTANCE.decode(is, Agents.class);
+        }
+        try (InputStream is = this.getClass().getResourceAsStream("/__files/fetchAgentsResponse.xml")) {
+            actual = this.codec.decode(is, Agents.class);
+        }
+        assertThat(actual.getAgents().size(), is(expected.getAgents().size()));
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test
+    public void decodesCollectorsLikeJAXB() throws Exception {
+        Collectors expected = JAXBCodec.INSTANCE.decode(stream(COLLECTORS), Collectors.class);
+        Collectors actual = this.codec.decode(stream(COLLECTORS), Collectors.class);
+        assertThat(actual.getCollectors().size(), is(2));
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test
+    public void decodesSingleCollectorLikeJAXB() throws Exception {
+        String xml = COLLECTORS.substring(COLLECTORS.indexOf("<collectorinformation"), COLLECTORS.indexOf("</collectorinformation>") + "</collectorinformation>".length());
+        CollectorInformation expected = JAXBCodec.INSTANCE.decode(stream(xml), CollectorInformation.class);
+        CollectorInformation actual = this.codec.decode(stream(xml), CollectorInformation.class);
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedDocument() throws Exception {
+        this.codec.decode(stream("<collectors><collectorinformation>"), Collectors.class);
+    }
+
+    @Test
+    public void registeredCodecIsUsedByServices() throws Exception {
+        DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000));
+        assertThat(client.getModelDecoder(Agents.class), is((ModelCodec) JAXBCodec.INSTANCE));
+        client.registerModelCodec(this.codec);
+        assertThat(client.getModelDecoder(Agents.class), sameInstance((ModelCodec) this.codec));
+        assertThat(client.getModelDecoder(AgentInformation.class), is((ModelCodec) JAXBCodec.INSTANCE));
+
+        stubFor(get(urlPathEqualTo(String.format(AgentsAndCollectors.COLLECTORS_EP, "")))
+                .willReturn(aResponse().withStatus(200).withBody(COLLECTORS)));
+        Collectors collectors = new AgentsAndCollectors(client).fetchCollectors();
+        assertThat(collectors.getCollectors().get(0).getHost(), is("GRABS"));
+        assertThat(collectors.getCollectors().get(1).getName(), is("Second"));
+        client.close();
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -30,17 +30,27 @@ package com.dynatrace.sdk.server.agentsandcollectors;
 
 import com.dynatrace.sdk.server.BasicServerConfiguration;
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ElementHandler;
 import com.dynatrace.sdk.server.agentsandcollectors.models.*;
 import com.dynatrace.sdk.server.exceptions.ServerResponseException;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.http.concurrent.FutureCallback;
 import org.hamcrest.core.IsNull;
 import org.hamcrest.core.StringContains;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class AgentsAndCollectorsTest {
@@ -153,6 +163,49 @@ public class AgentsAndCollectorsTest {
         assertThat(ci.isLocal(), is(true));
     }
 
+    @Test
+    public void restartCollectorAsync() throws Exception {
+        stubFor(post(urlPathEqualTo(String.format(AgentsAndCollectors.COLLECTOR_RESTART_EP, "Embedded dynaTrace Collector")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+
+        stubFor(post(urlPathEqualTo(String.format(AgentsAndCollectors.COLLECTOR_RESTART_EP, "Another Collector")))
+                .willReturn(aResponse()
+                        .withStatus(404)
+                        .withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><error reason=\"No collector 'Another Collector' found\"/>")));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Boolean> callbackResult = new AtomicReference<>();
+        assertThat(this.agentsAndCollectors.restartCollectorAsync("Embedded dynaTrace Collector", new FutureCallback<Boolean>() {
+            @Override
+            public void completed(Boolean result) {
+                callbackResult.set(result);
+                latch.countDown();
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                latch.countDown();
+            }
+
+            @Override
+            public void cancelled() {
+                latch.countDown();
+            }
+        }).get(), is(true));
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertThat(callbackResult.get(), is(true));
+
+        try {
+            this.agentsAndCollectors.restartCollectorAsync("Another Collector", null).get();
+            fail("Exception was expected to be thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ServerResponseException);
+            assertThat(((ServerResponseException) ex.getCause()).getStatusCode(), is(404));
+        }
+    }
+
     @Test
     public void restartCollector() throws Exception {
         stubFor(post(urlPathEqualTo(String.format(AgentsAndCollectors.COLLECTOR_RESTART_EP, "Embedded dynaTrace Collector")))
@@ -205,6 +258,73 @@ public class AgentsAndCollectorsTest {
         }
     }
 
+    @Test
+    public void fetchAgentsStreaming() throws Exception {
+        stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBodyFile("fetchAgentsResponse.xml")));
+
+        final List<AgentInformation> streamed = new ArrayList<>();
+        this.agentsAndCollectors.fetchAgents(new ElementHandler<AgentInformation>() {
+            @Override
+            public void handle(AgentInformation element) {
+                streamed.add(element);
+            }
+        });
+
+        List<AgentInformation> fetched = this.agentsAndCollectors.fetchAgents().getAgents();
+        assertThat(streamed.size(), is(fetched.size()));
+        for (int i = 0; i < fetched.size(); i++) {
+            assertThat(streamed.get(i).toString(), is(fetched.get(i).toString()));
+        }
+        assertThat(streamed.get(0).getAgentId(), is(945367843));
+        assertThat(streamed.get(0).getAgentProperties().getAgentHost(), is("TAG00944657691"));
+        assertThat(streamed.get(0).getCollectorinformation().getName(), is("dynaTrace Collector"));
+    }
+
+    @Test
+    public void fetchAgentsFiltered() throws Exception {
+        stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBodyFile("fetchAgentsResponse.xml")));
+
+        List<AgentInformation> all = this.agentsAndCollectors.fetchAgents().getAgents();
+
+        // an empty filter matches everything and builds the same objects as JAXB does
+        List<AgentInformation> unfiltered = this.agentsAndCollectors.fetchAgents(new AgentFilter()).getAgents();
+        assertThat(unfiltered.size(), is(all.size()));
+        for (int i = 0; i < all.size(); i++) {
+            assertThat(unfiltered.get(i).toString(), is(all.get(i).toString()));
+            assertThat(unfiltered.get(i).isHotSensorPlacementSupported(), is(all.get(i).isHotSensorPlacementSupported()));
+        }
+
+        AgentFilter filter = new AgentFilter();
+        filter.setSystemProfile("easyTravel");
+        filter.setConnected(true);
+        List<AgentInformation> connected = this.agentsAndCollectors.fetchAgents(filter).getAgents();
+        assertThat(connected.size(), is(1));
+        assertThat(connected.get(0).getAgentGroupLabel(), is("CreditCardAuthorization (C++)"));
+        assertThat(connected.get(0).toString(), is(all.get(1).toString()));
+
+        filter = new AgentFilter();
+        filter.setAgentGroup("Payment Backend (.NET)");
+        filter.setHost("tag00944657691");
+        List<AgentInformation> group = this.agentsAndCollectors.fetchAgents(filter).getAgents();
+        assertThat(group.size(), is(1));
+        assertThat(group.get(0).toString(), is(all.get(0).toString()));
+
+        filter = new AgentFilter();
+        filter.setSystemProfile("dynaTrace Self-Monitoring");
+        assertThat(this.agentsAndCollectors.fetchAgents(filter).getAgents().size(), is(0));
+
+        // the collector's host must not be mistaken for the agent's one
+        filter = new AgentFilter();
+        filter.setHost("tag00944657691.clients.dynatrace.org");
+        assertThat(this.agentsAndCollectors.fetchAgents(filter).getAgents().size(), is(0));
+    }
+
     @Test
     public void fetchAgents() throws Exception {
         stubFor(get(urlPathEqualTo(AgentsAndCollectors.AGENTS_EP))
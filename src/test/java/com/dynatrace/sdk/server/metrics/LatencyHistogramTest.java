@@ -0,0 +1,83 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void bucketBounds() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(LatencyHistogram.bucketUpperBound(index), greaterThanOrEqualTo(value));
+            if (index > 0) {
+                assertThat(LatencyHistogram.bucketUpperBound(index - 1), lessThan(value));
+            }
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertThat(histogram.getCount(), is(10000L));
+        assertThat(histogram.getMax(), is(10000000L));
+        assertThat(histogram.getMean(), closeTo(5000500, 1));
+        assertThat((double) histogram.getValueAtPercentile(50), closeTo(5000000, 5000000 * 0.125));
+        assertThat((double) histogram.getValueAtPercentile(99), closeTo(9900000, 9900000 * 0.125));
+        assertThat(histogram.getValueAtPercentile(100), is(10000000L));
+    }
+
+    @Test
+    public void randomValuesWithinPrecision() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long value = Math.abs(random.nextLong() >>> random.nextInt(63));
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(value + 1);
+            long reported = histogram.getValueAtPercentile(50);
+            assertThat(reported, greaterThanOrEqualTo(value));
+            assertThat((double) reported, lessThanOrEqualTo(value * 1.125 + 1));
+        }
+    }
+
+    @Test
+    public void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+        assertThat(histogram.getMean(), is(0.0));
+    }
+}
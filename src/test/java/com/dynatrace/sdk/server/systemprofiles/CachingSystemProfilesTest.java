@@ -0,0 +1,86 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.systemprofiles;
+
+import com.dynatrace.sdk.server.BasicServerConfiguration;
+import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.systemprofiles.models.Profiles;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class CachingSystemProfilesTest {
+    @Rule
+    public WireMockRule wireMock = new WireMockRule();
+    private CachingSystemProfiles systemProfiles = new CachingSystemProfiles(new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000)));
+
+    @Test
+    public void cachesUntilInvalidated() throws Exception {
+        stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))).willReturn(aResponse().withBody(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\" ?>\n" +
+                        "<profiles href=\"https://localhost:8021/rest/management/profiles\">\n" +
+                        "    <systemprofile isrecording=\"true\" id=\"easyTravel\" href=\"http://localhost:8020/rest/management/profiles/easyTravel\"/>\n" +
+                        "</profiles>"
+        )));
+        stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILE_ENABLE_EP, "easyTravel"))).willReturn(aResponse().withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+
+        Profiles profiles = this.systemProfiles.getSystemProfiles();
+        assertThat(this.systemProfiles.getSystemProfiles(), sameInstance(profiles));
+        verify(1, getRequestedFor(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))));
+        assertThat(this.systemProfiles.getProfilesCache().getHitCount(), is(1L));
+        assertThat(this.systemProfiles.getProfilesCache().getMissCount(), is(1L));
+
+        assertThat(this.systemProfiles.enableProfile("easyTravel"), is(true));
+        assertThat(this.systemProfiles.getSystemProfiles().getProfiles().size(), is(1));
+        verify(2, getRequestedFor(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))));
+    }
+
+    @Test
+    public void asyncWriteInvalidatesBeforeCompleting() throws Exception {
+        stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))).willReturn(aResponse().withBody(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\" ?>\n" +
+                        "<profiles href=\"https://localhost:8021/rest/management/profiles\">\n" +
+                        "    <systemprofile isrecording=\"true\" id=\"easyTravel\" href=\"http://localhost:8020/rest/management/profiles/easyTravel\"/>\n" +
+                        "</profiles>"
+        )));
+        stubFor(get(urlPathEqualTo(String.format(SystemProfiles.PROFILE_ENABLE_EP, "easyTravel"))).willReturn(aResponse().withBody("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><result value=\"true\"/>")));
+
+        this.systemProfiles.getSystemProfilesAsync(null).get();
+        assertThat(this.systemProfiles.getProfilesCache().size(), is(1));
+        assertThat(this.systemProfiles.enableProfileAsync("easyTravel", null).get(), is(true));
+        // the cached list was dropped before the write completed
+        assertThat(this.systemProfiles.getProfilesCache().size(), is(0));
+        this.systemProfiles.getSystemProfilesAsync(null).get();
+        verify(2, getRequestedFor(urlPathEqualTo(String.format(SystemProfiles.PROFILES_EP, ""))));
+    }
+}
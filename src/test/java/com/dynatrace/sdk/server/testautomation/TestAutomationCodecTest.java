@@ -0,0 +1,79 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package com.dynatrace.sdk.server.testautomation;
+
+import com.dynatrace.sdk.server.JAXBCodec;
+import com.dynatrace.sdk.server.testautomation.models.TestRun;
+import com.dynatrace.sdk.server.testautomation.models.TestRuns;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class TestAutomationCodecTest {
+    private static final String TEST_RUNS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<testRuns>\n" +
+            "  <testRun category=\"unit\" versionBuild=\"17\" versionMajor=\"2016\" versionMinor=\"7\" versionRevision=\"2\" platform=\"Linux x86_64\" startTime=\"1469446925361\" id=\"078e961b-9e6e-44ec-ab12-000000000001\" numPassed=\"1\" numFailed=\"1\" numVolatile=\"0\" numImproved=\"0\" numDegraded=\"0\" numInvalidated=\"0\" systemProfile=\"easyTravel\" creationMode=\"MANUAL\">\n" +
+            "    <testResult name=\"DaoTest.testFind\" status=\"passed\" exectime=\"1469446929087\" package=\"com.dynatrace.samples\" platform=\"Linux x86_64\">\n" +
+            "      <measure name=\"Count\" metricGroup=\"Exceptions\" value=\"2.0\" unit=\"num\" expectedMin=\"2.0\" expectedMax=\"2.0\" numFailingOrInvalidatedRuns=\"0\" numValidRuns=\"10\" numImprovedRuns=\"0\" numDegradedRuns=\"0\" violationPercentage=\"0.0\"/>\n" +
+            "      <measure name=\"DB Count\" metricGroup=\"Database\" value=\"INF\" unit=\"num\" numFailingOrInvalidatedRuns=\"1\" numValidRuns=\"0\" numImprovedRuns=\"0\" numDegradedRuns=\"0\" violationPercentage=\"0.0\"/>\n" +
+            "    </testResult>\n" +
+            "    <testResult name=\"DaoTest.testStore\" status=\"failed\" exectime=\"1469446929090\" package=\"com.dynatrace.samples\" platform=\"Linux x86_64\"/>\n" +
+            "  </testRun>\n" +
+            "  <testRun category=\"performance\" platform=\"\" startTime=\"1469452303746\" id=\"6c0e95b3-e51b-411f-bb49-da85e8b36261\" systemProfile=\"Test\" creationMode=\"AUTOMATIC\" href=\"https://localhost:8021/rest/management/profiles/Test/testruns/6c0e95b3-e51b-411f-bb49-da85e8b36261.xml\"/>\n" +
+            "</testRuns>";
+
+    private final TestAutomationCodec codec = new TestAutomationCodec();
+
+    @Test
+    public void decodesTestRunsLikeJAXB() throws Exception {
+        TestRuns expected = JAXBCodec.INSTANCE.decode(stream(TEST_RUNS), TestRuns.class);
+        TestRuns actual = this.codec.decode(stream(TEST_RUNS), TestRuns.class);
+        assertThat(actual.getTestRuns().size(), is(2));
+        assertThat(actual.toString(), is(expected.toString()));
+        assertThat(actual.getTestRuns().get(0).getTestResults().get(1).getMeasures(), is(nullValue()));
+    }
+
+    @Test
+    public void decodesSingleTestRunLikeJAXB() throws Exception {
+        String xml = TEST_RUNS.substring(TEST_RUNS.indexOf("<testRun "), TEST_RUNS.indexOf("</testRun>") + "</testRun>".length());
+        TestRun expected = JAXBCodec.INSTANCE.decode(stream(xml), TestRun.class);
+        TestRun actual = this.codec.decode(stream(xml), TestRun.class);
+        assertThat(actual.toString(), is(expected.toString()));
+        assertThat(actual.getTestResults().get(0).getMeasures().get(1).getValue(), is(Double.POSITIVE_INFINITY));
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package incidents;
+
+import com.dynatrace.sdk.server.BasicServerConfiguration;
+import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.Iso8601Encoder;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.incidents.FileIncidentSyncStore;
+import com.dynatrace.sdk.server.incidents.IncidentDelta;
+import com.dynatrace.sdk.server.incidents.IncidentSync;
+import com.dynatrace.sdk.server.incidents.IncidentSyncState;
+import com.dynatrace.sdk.server.incidents.Incidents;
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import com.dynatrace.sdk.server.incidents.models.IncidentState;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.fail;
+
+public class IncidentSyncTest {
+    private static final String INCIDENTS = String.format(Incidents.INCIDENTS_EP, "easyTravel", "Deployment");
+
+    @Rule
+    public WireMockRule wireMock = new WireMockRule();
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String references(String... ids) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><incidents>");
+        for (String id : ids) {
+            xml.append(String.format("<incidentreference id=\"%s\" href=\"http://localhost:8080%s%s\"/>", id, INCIDENTS, id));
+        }
+        return xml.append("</incidents>").toString();
+    }
+
+    private static void stubIncident(String id, String state, boolean ended) {
+        stubFor(get(urlPathEqualTo(INCIDENTS + id)).willReturn(aResponse().withStatus(200).withBody(String.format(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><incident id=\"%s\"><message>incident %s</message>" +
+                        "<start>2016-05-01T10:00:00.000+02:00</start>%s<state>%s</state></incident>",
+                id, id, ended ? "<end>2016-05-01T11:00:00.000+02:00</end>" : "", state))));
+    }
+
+    private static void stubSettledIncident(String id, long start) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+        stubFor(get(urlPathEqualTo(INCIDENTS + id)).willReturn(aResponse().withStatus(200).withBody(String.format(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><incident id=\"%s\"><message>incident %s</message>" +
+                        "<start>%s</start><end>%s</end><state>Confirmed</state></incident>",
+                id, id, format.format(new Date(start)), format.format(new Date(start + 1000))))));
+    }
+
+    private static List<IncidentDelta> sync(IncidentSync sync) throws Exception {
+        final List<IncidentDelta> deltas = new ArrayList<>();
+        int count = sync.sync("easyTravel", "Deployment", new ElementHandler<IncidentDelta>() {
+            @Override
+            public void handle(IncidentDelta delta) {
+                deltas.add(delta);
+            }
+        });
+        assertThat(count, is(deltas.size()));
+        return deltas;
+    }
+
+    @Test
+    public void incrementalSync() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000))) {
+            IncidentSync sync = new IncidentSync(new Incidents(client), new FileIncidentSyncStore(this.folder.getRoot().toPath().resolve("sync.properties")));
+
+            stubFor(get(urlPathEqualTo(INCIDENTS)).willReturn(aResponse().withStatus(200).withBody(references("1", "2"))));
+            stubIncident("1", "Created", false);
+            stubIncident("2", "Confirmed", true);
+            List<IncidentDelta> deltas = sync(sync);
+            assertThat(deltas.size(), is(2));
+            assertThat(deltas.get(0).getType(), is(IncidentDelta.Type.CREATED));
+            assertThat(deltas.get(0).getIncident().getId(), is("1"));
+            assertThat(deltas.get(1).getIncident().getId(), is("2"));
+
+            // only incidents started since the watermark are listed
+            stubFor(get(urlPathEqualTo(INCIDENTS)).withQueryParam("from", matching(".+")).willReturn(aResponse().withStatus(200).withBody(references("3"))));
+            stubIncident("1", "InProgress", false);
+            stubIncident("3", "Created", false);
+            deltas = sync(sync);
+            assertThat(deltas.size(), is(2));
+            assertThat(deltas.get(0).getType(), is(IncidentDelta.Type.UPDATED));
+            assertThat(deltas.get(0).getIncident().getState(), is(IncidentState.IN_PROGRESS));
+            assertThat(deltas.get(0).getPrevious().getState(), is(IncidentState.CREATED));
+            assertThat(deltas.get(1).getType(), is(IncidentDelta.Type.CREATED));
+            assertThat(deltas.get(1).getIncident().getId(), is("3"));
+
+            stubFor(get(urlPathEqualTo(INCIDENTS)).withQueryParam("from", matching(".+")).willReturn(aResponse().withStatus(200).withBody(references())));
+            assertThat(sync(sync).isEmpty(), is(true));
+            // the settled incident was never reloaded
+            verify(1, getRequestedFor(urlPathEqualTo(INCIDENTS + "2")));
+        }
+    }
+
+    @Test
+    public void lateIncidentIsFetchedOnce() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000))) {
+            FileIncidentSyncStore store = new FileIncidentSyncStore(this.folder.getRoot().toPath().resolve("sync.properties"));
+            long lookback = TimeUnit.MINUTES.toMillis(10);
+            IncidentSync sync = new IncidentSync(new Incidents(client), store, IncidentSync.DEFAULT_PARALLELISM, lookback);
+            long now = System.currentTimeMillis();
+
+            stubFor(get(urlPathEqualTo(INCIDENTS)).willReturn(aResponse().withStatus(200).withBody(references("1"))));
+            stubSettledIncident("1", now - TimeUnit.MINUTES.toMillis(1));
+            List<IncidentDelta> deltas = sync(sync);
+            assertThat(deltas.size(), is(1));
+            long watermark = store.load("easyTravel", "Deployment").getWatermark();
+
+            // incident 2 started before the watermark but is listed only now, along with the settled incident 1
+            stubFor(get(urlPathEqualTo(INCIDENTS)).withQueryParam("from", matching(".+")).willReturn(aResponse().withStatus(200).withBody(references("1", "2"))));
+            stubSettledIncident("2", now - TimeUnit.MINUTES.toMillis(2));
+            deltas = sync(sync);
+            assertThat(deltas.size(), is(1));
+            assertThat(deltas.get(0).getType(), is(IncidentDelta.Type.CREATED));
+            assertThat(deltas.get(0).getIncident().getId(), is("2"));
+            List<LoggedRequest> requests = findAll(getRequestedFor(urlPathEqualTo(INCIDENTS)).withQueryParam("from", matching(".+")));
+            assertThat(requests.size(), is(1));
+            assertThat(requests.get(0).queryParameter("from").firstValue(), is(Iso8601Encoder.withOffset(TimeZone.getDefault()).format(watermark - lookback)));
+
+            // the incident emitted already is listed again, but not loaded again
+            verify(1, getRequestedFor(urlPathEqualTo(INCIDENTS + "1")));
+
+            assertThat(sync(sync).isEmpty(), is(true));
+            assertThat(store.load("easyTravel", "Deployment").getSeen().keySet(), is((Set<String>) new HashSet<>(Arrays.asList("1", "2"))));
+        }
+    }
+
+    @Test
+    public void failedSyncIsRepeated() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000))) {
+            FileIncidentSyncStore store = new FileIncidentSyncStore(this.folder.getRoot().toPath().resolve("sync.properties"));
+            IncidentSync sync = new IncidentSync(new Incidents(client), store);
+            stubFor(get(urlPathEqualTo(INCIDENTS)).willReturn(aResponse().withStatus(200).withBody(references("1", "2"))));
+            stubIncident("1", "Created", false);
+            stubFor(get(urlPathEqualTo(INCIDENTS + "2")).willReturn(aResponse().withStatus(500)));
+            try {
+                sync(sync);
+                fail("Exception was expected to be thrown");
+            } catch (ServerResponseException e) {
+                assertThat(e.getStatusCode(), is(500));
+            }
+            assertThat(store.load("easyTravel", "Deployment"), nullValue());
+
+            stubIncident("2", "Created", false);
+            assertThat(sync(sync).size(), is(2));
+        }
+    }
+
+    @Test
+    public void fileStore() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("sync.properties");
+        FileIncidentSyncStore store = new FileIncidentSyncStore(file);
+        assertThat(store.load("a/b.c", "x y"), nullValue());
+
+        Incident open = new Incident("1.2", null, null, null, new Date(1000), null, IncidentState.IN_PROGRESS);
+        store.save("a/b.c", "x y", new IncidentSyncState(42, Collections.singletonMap("1.2", open), Collections.singletonMap("0 1", 2000L)));
+        store.save("a", "b.c/x y", new IncidentSyncState(7, Collections.<String, Incident>emptyMap()));
+
+        IncidentSyncState state = new FileIncidentSyncStore(file).load("a/b.c", "x y");
+        assertThat(state.getWatermark(), is(42L));
+        assertThat(state.getUnsettled().size(), is(1));
+        Incident loaded = state.getUnsettled().get("1.2");
+        assertThat(loaded.getState(), is(IncidentState.IN_PROGRESS));
+        assertThat(loaded.getStart(), is(new Date(1000)));
+        assertThat(loaded.getEnd(), nullValue());
+        assertThat(state.getSeen(), is(Collections.singletonMap("0 1", 2000L)));
+        assertThat(store.load("a", "b.c/x y").getUnsettled().isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Dynatrace Server SDK
+ * Copyright (c) 2008-2016, DYNATRACE LLC
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *  Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *  Neither the name of the dynaTrace software nor the names of its contributors
+ * may be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR
+ * BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH
+ * DAMAGE.
+ */
+package incidents;
+
+import com.dynatrace.sdk.server.JAXBCodec;
+import com.dynatrace.sdk.server.incidents.IncidentsCodec;
+import com.dynatrace.sdk.server.incidents.models.FetchedIncidents;
+import com.dynatrace.sdk.server.incidents.models.Incident;
+import com.dynatrace.sdk.server.incidents.models.IncidentSeverity;
+import com.dynatrace.sdk.server.incidents.models.IncidentState;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class IncidentsCodecTest {
+    private static final String INCIDENTS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<incidents>\n" +
+            "    <incidentreference id=\"9cb9d5b2-59bb-4a08-912c-000000000001\" href=\"http://localhost:8020/rest/management/profiles/easyTravel/incidentrules/Custom/incidents/9cb9d5b2-59bb-4a08-912c-000000000001\" />\n" +
+            "    <incidentreference id=\"9cb9d5b2-59bb-4a08-912c-000000000002\" href=\"http://localhost:8020/rest/management/profiles/easyTravel/incidentrules/Custom/incidents/9cb9d5b2-59bb-4a08-912c-000000000002\" />\n" +
+            "</incidents>";
+
+    private static final String INCIDENT = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<incident id=\"9cb9d5b2-59bb-4a08-912c-000000000001\">\n" +
+            "    <message>Heap <![CDATA[memory]]> &amp; threads</message>\n" +
+            "    <description>Memory usage exceeded</description>\n" +
+            "    <start>2016-07-26T14:10:21.365+02:00</start>\n" +
+            "    <end>2016-07-26T14:12:00+02:00</end>\n" +
+            "    <state>InProgress</state>\n" +
+            "    <severity>severe</severity>\n" +
+            "</incident>";
+
+    private final IncidentsCodec codec = new IncidentsCodec();
+
+    @Test
+    public void decodesIncidentReferencesLikeJAXB() throws Exception {
+        FetchedIncidents expected = JAXBCodec.INSTANCE.decode(stream(INCIDENTS), FetchedIncidents.class);
+        FetchedIncidents actual = this.codec.decode(stream(INCIDENTS), FetchedIncidents.class);
+        assertThat(actual.getIncidents().size(), is(2));
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test
+    public void decodesIncidentLikeJAXB() throws Exception {
+        Incident expected = JAXBCodec.INSTANCE.decode(stream(INCIDENT), Incident.class);
+        Incident actual = this.codec.decode(stream(INCIDENT), Incident.class);
+        assertThat(actual.toString(), is(expected.toString()));
+        assertThat(actual.getMessage(), is("Heap memory & threads"));
+        assertThat(actual.getStart(), is(expected.getStart()));
+        assertThat(actual.getEnd(), is(expected.getEnd()));
+        assertThat(actual.getState(), is(IncidentState.IN_PROGRESS));
+        assertThat(actual.getSeverity(), is(IncidentSeverity.SEVERE));
+    }
+
+    @Test
+    public void unknownValuesAreLeftUnset() throws Exception {
+        String xml = "<incident id=\"1\"><state>Unknown</state><start>yesterday</start></incident>";
+        Incident expected = JAXBCodec.INSTANCE.decode(stream(xml), Incident.class);
+        Incident actual = this.codec.decode(stream(xml), Incident.class);
+        assertThat(actual.getState(), is(nullValue()));
+        assertThat(actual.getStart(), is(expected.getStart()));
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
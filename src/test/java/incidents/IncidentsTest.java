@@ -30,13 +30,18 @@ package incidents;
 
 
 import com.dynatrace.sdk.server.BasicServerConfiguration;
+import com.dynatrace.sdk.server.ConnectionPoolConfiguration;
 import com.dynatrace.sdk.server.DynatraceClient;
+import com.dynatrace.sdk.server.ElementHandler;
+import com.dynatrace.sdk.server.exceptions.ServerResponseException;
+import com.dynatrace.sdk.server.incidents.IncidentResult;
 import com.dynatrace.sdk.server.incidents.Incidents;
 import com.dynatrace.sdk.server.incidents.models.*;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -111,5 +116,65 @@ public class IncidentsTest {
         assertThat(firstIncident.getId(), is("9cb9d5b2-59bb-4a08-912c-637ce5f6aee2"));
     }
 
+    @Test
+    public void createAndUpdateReleaseConnections() throws Exception {
+        // a single connection, every leaked response would block the next call
+        ConnectionPoolConfiguration pool = new ConnectionPoolConfiguration(1, 1, -1, 1000, 1000);
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000, 2000, 1000, pool))) {
+            client.getConnectionLeakDetector().setThreshold(60 * 1000, null);
+            Incidents incidents = new Incidents(client);
+            stubFor(post(urlPathEqualTo(String.format(Incidents.INCIDENTS_EP, "easyTravel", "Deployment")))
+                    .willReturn(aResponse().withStatus(201)
+                            .withHeader("Location", "http://localhost:8080/rest/management/profiles/easyTravel/incidentrules/Deployment/incidents/42")));
+            stubFor(put(urlPathEqualTo(String.format(Incidents.INCIDENT_EP, "easyTravel", "Deployment", "42")))
+                    .willReturn(aResponse().withStatus(204)));
+
+            CreateUpdateIncidentRequest request = new CreateUpdateIncidentRequest("easyTravel", "Deployment");
+            for (int i = 0; i < 3; i++) {
+                assertThat(incidents.createIncident(request), is("42"));
+                incidents.updateIncident("42", request);
+            }
+            assertThat(client.getPoolStats().getLeased(), is(0));
+            assertThat(client.getConnectionLeakDetector().getLeaseCount(), is(0));
+        }
+    }
 
+    @Test
+    public void fetchIncidentDetails() throws Exception {
+        try (DynatraceClient client = new DynatraceClient(new BasicServerConfiguration("admin", "admin", false, "localhost", 8080, false, 2000))) {
+            Incidents incidents = new Incidents(client);
+            String list = String.format(Incidents.INCIDENTS_EP, "easyTravel", "Deployment");
+            StringBuilder references = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><incidents>");
+            for (int i = 0; i < 5; i++) {
+                references.append(String.format("<incidentreference id=\"%d\" href=\"http://localhost:8080%s%d\"/>", i, list, i));
+                if (i != 3) {
+                    stubFor(get(urlPathEqualTo(list + i)).willReturn(aResponse().withStatus(200).withFixedDelay((5 - i) * 20)
+                            .withBody(String.format("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><incident id=\"%d\"><message>incident %d</message></incident>", i, i))));
+                }
+            }
+            stubFor(get(urlPathEqualTo(list)).willReturn(aResponse().withStatus(200).withBody(references.append("</incidents>").toString())));
+            stubFor(get(urlPathEqualTo(list + 3)).willReturn(aResponse().withStatus(404)));
+
+            final List<IncidentResult> results = new ArrayList<>();
+            incidents.fetchIncidentDetails(new FetchIncidentsRequest("easyTravel", "Deployment"), 2, new ElementHandler<IncidentResult>() {
+                @Override
+                public void handle(IncidentResult result) {
+                    results.add(result);
+                }
+            });
+
+            assertThat(results.size(), is(5));
+            for (int i = 0; i < 5; i++) {
+                IncidentResult result = results.get(i);
+                assertThat(result.getReference().getId(), is(String.valueOf(i)));
+                if (i == 3) {
+                    assertThat(result.isSuccessful(), is(false));
+                    assertThat(((ServerResponseException) result.getFailure()).getStatusCode(), is(404));
+                } else {
+                    assertThat(result.getIncident().getMessage(), is("incident " + i));
+                }
+            }
+            assertThat(incidents.fetchIncidentDetails(new FetchIncidentsRequest("easyTravel", "Deployment")).size(), is(5));
+        }
+    }
 }